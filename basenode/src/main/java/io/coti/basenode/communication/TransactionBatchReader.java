@@ -0,0 +1,86 @@
+package io.coti.basenode.communication;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.database.codec.TransactionDataCodec;
+import io.coti.basenode.exceptions.TransactionSyncException;
+
+import java.io.*;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads the stream written by {@link TransactionBatchWriter} frame by frame, so the memory used does not depend on the
+ * batch size. Only binary codec values are accepted from the network.
+ */
+public class TransactionBatchReader implements Closeable {
+
+    private static final int MAXIMUM_FRAME_LENGTH = 16 * 1024 * 1024;
+    private final TransactionDataCodec transactionDataCodec = new TransactionDataCodec();
+    private final DataInputStream input;
+    private final Inflater inflater;
+    private boolean endOfBatch;
+
+    public TransactionBatchReader(InputStream inputStream) throws IOException {
+        int formatVersion = inputStream.read();
+        if (formatVersion != TransactionBatchWriter.FORMAT_VERSION) {
+            throw new TransactionSyncException(String.format("Unsupported transaction batch format version %s", formatVersion));
+        }
+        int compressed = inputStream.read();
+        if (compressed == 1) {
+            inflater = new Inflater();
+            input = new DataInputStream(new BufferedInputStream(new InflaterInputStream(inputStream, inflater)));
+        } else if (compressed == 0) {
+            inflater = null;
+            input = new DataInputStream(new BufferedInputStream(inputStream));
+        } else {
+            throw new TransactionSyncException("Missing transaction batch compression flag");
+        }
+    }
+
+    /**
+     * @return the next transaction, or null at the end of the batch
+     */
+    public TransactionData read() throws IOException {
+        if (endOfBatch) {
+            return null;
+        }
+        byte[] frame;
+        try {
+            int frameLength = input.readInt();
+            if (frameLength == TransactionBatchWriter.END_OF_BATCH) {
+                endOfBatch = true;
+                return null;
+            }
+            if (frameLength < Short.BYTES || frameLength > MAXIMUM_FRAME_LENGTH) {
+                throw new TransactionSyncException(String.format("Invalid transaction batch frame length %s", frameLength));
+            }
+            frame = new byte[frameLength];
+            input.readFully(frame);
+        } catch (EOFException e) {
+            throw new TransactionSyncException("Transaction batch ended before its end frame", e);
+        }
+        int hashLength = ((frame[0] & 0xFF) << 8) | (frame[1] & 0xFF);
+        int encodedTransactionOffset = Short.BYTES + hashLength;
+        if (encodedTransactionOffset > frame.length) {
+            throw new TransactionSyncException(String.format("Invalid transaction batch hash length %s", hashLength));
+        }
+        byte[] hash = new byte[hashLength];
+        System.arraycopy(frame, Short.BYTES, hash, 0, hashLength);
+        byte[] encodedTransaction = new byte[frame.length - encodedTransactionOffset];
+        System.arraycopy(frame, encodedTransactionOffset, encodedTransaction, 0, encodedTransaction.length);
+        if (!transactionDataCodec.isBinaryFormat(encodedTransaction)) {
+            throw new TransactionSyncException("Transaction batch frame is not in binary format");
+        }
+        TransactionData transactionData = transactionDataCodec.decode(encodedTransaction);
+        transactionData.setHash(new Hash(hash));
+        return transactionData;
+    }
+
+    @Override
+    public void close() {
+        if (inflater != null) {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.coti.basenode.communication;
+
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.database.codec.TransactionDataCodec;
+
+import java.io.*;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes the binary transaction batch stream. The stream starts with the format version and the compression flag, the
+ * rest of it is optionally deflated and holds one frame per transaction: the payload length, the transaction hash and
+ * the transaction in the binary codec format. A frame of length 0 ends the stream, so a truncated stream is detected by
+ * {@link TransactionBatchReader}.
+ */
+public class TransactionBatchWriter implements Closeable {
+
+    static final byte FORMAT_VERSION = 1;
+    static final int END_OF_BATCH = 0;
+    private static final int FLUSH_FRAME_COUNT = 100;
+    private final TransactionDataCodec transactionDataCodec = new TransactionDataCodec();
+    private final DataOutputStream output;
+    private final DeflaterOutputStream deflaterOutput;
+    private final Deflater deflater;
+    private int unflushedFrames;
+
+    public TransactionBatchWriter(OutputStream outputStream, boolean compressed) throws IOException {
+        outputStream.write(FORMAT_VERSION);
+        outputStream.write(compressed ? 1 : 0);
+        if (compressed) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+            deflaterOutput = new DeflaterOutputStream(outputStream, deflater, true);
+            output = new DataOutputStream(new BufferedOutputStream(deflaterOutput));
+        } else {
+            deflater = null;
+            deflaterOutput = null;
+            output = new DataOutputStream(new BufferedOutputStream(outputStream));
+        }
+    }
+
+    public void write(TransactionData transactionData) throws IOException {
+        byte[] hash = transactionData.getHash().getBytes();
+        byte[] encodedTransaction = transactionDataCodec.encode(transactionData);
+        output.writeInt(Short.BYTES + hash.length + encodedTransaction.length);
+        output.writeShort(hash.length);
+        output.write(hash);
+        output.write(encodedTransaction);
+        if (++unflushedFrames == FLUSH_FRAME_COUNT) {
+            output.flush();
+            unflushedFrames = 0;
+        }
+    }
+
+    /**
+     * Ends the batch and flushes it, the underlying stream is left open.
+     */
+    @Override
+    public void close() throws IOException {
+        output.writeInt(END_OF_BATCH);
+        output.flush();
+        if (deflaterOutput != null) {
+            deflaterOutput.finish();
+            deflater.end();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.coti.basenode.communication;
 
-import io.coti.basenode.communication.data.ZeroMQMessageData;
+import io.coti.basenode.communication.data.PublishLatencyData;
+import io.coti.basenode.communication.data.ZeroMQPublishMessageData;
 import io.coti.basenode.communication.interfaces.IPropagationPublisher;
 import io.coti.basenode.communication.interfaces.ISerializer;
 import io.coti.basenode.data.NodeType;
@@ -10,16 +11,19 @@ import io.coti.basenode.exceptions.ZeroMQPublisherException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.zeromq.SocketType;
 import org.zeromq.ZMQ;
 import org.zeromq.ZMQException;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
@@ -27,9 +31,12 @@ public class ZeroMQPropagationPublisher implements IPropagationPublisher {
 
     private static final int HEARTBEAT_INTERVAL = 5000;
     private static final String ZMQ_PUBLISHER_HANDLER_ERROR = "ZeroMQ exception at publisher thread";
+    private static final int PUBLISH_STATISTICS_INTERVAL = 60000;
+    private static final int BACKPRESSURE_LOG_INTERVAL = 1000;
     private ZMQ.Context zeroMQContext;
     private ZMQ.Socket propagator;
     private String propagationPort;
+    private String publisherAddress;
     private ZMQ.Socket monitorSocket;
     private NodeType publisherNodeType;
     @Value("${server.ip}")
@@ -37,15 +44,23 @@ public class ZeroMQPropagationPublisher implements IPropagationPublisher {
     private Thread publishMessageThread;
     private Thread publishHeartBeatMessageThread;
     private Thread monitorThread;
-    private BlockingQueue<ZeroMQMessageData> publishMessageQueue;
+    private BlockingQueue<ZeroMQPublishMessageData> publishMessageQueue;
+    @Value("${zeromq.publisher.queue.capacity:100000}")
+    private int publishQueueCapacity;
+    @Value("${zeromq.publisher.batch.size:500}")
+    private int publishBatchSize;
     @Autowired
     private ISerializer serializer;
     private boolean monitorInitialized;
+    private final Map<Class<?>, Map<NodeType, byte[]>> messageTypeToChannelMap = new ConcurrentHashMap<>();
+    private final Map<Class<?>, PublishLatencyData> messageTypeToPublishLatencyMap = new ConcurrentHashMap<>();
+    private final AtomicLong blockedPropagations = new AtomicLong();
 
     public void init(String propagationPort, NodeType publisherNodeType) {
-        publishMessageQueue = new LinkedBlockingQueue<>();
+        publishMessageQueue = new LinkedBlockingQueue<>(publishQueueCapacity);
         this.publisherNodeType = publisherNodeType;
         this.propagationPort = propagationPort;
+        publisherAddress = "tcp://" + publisherIp + ":" + propagationPort;
         init();
         log.info("ZeroMQ Publisher is up");
     }
@@ -69,17 +84,37 @@ public class ZeroMQPropagationPublisher implements IPropagationPublisher {
     }
 
     public <T extends IPropagatable> void propagate(T toPropagate, List<NodeType> subscriberNodeTypes) {
+        if (zeroMQContext.isClosed()) {
+            return;
+        }
+        byte[] message = serializer.serialize(toPropagate);
+        for (NodeType subscriberNodeType : subscriberNodeTypes) {
+            log.debug("Propagating {} to {}", toPropagate.getHash(), Channel.getChannelString(toPropagate.getClass(), publisherAddress, publisherNodeType, subscriberNodeType));
+            addToPublishMessageQueue(new ZeroMQPublishMessageData(getChannel(toPropagate.getClass(), subscriberNodeType), message, toPropagate.getClass()));
+        }
+    }
 
-        subscriberNodeTypes.forEach(subscriberNodeType -> propagateToNode(toPropagate, subscriberNodeType));
-
+    private byte[] getChannel(Class<?> messageType, NodeType subscriberNodeType) {
+        return messageTypeToChannelMap.computeIfAbsent(messageType, type -> new ConcurrentHashMap<>())
+                .computeIfAbsent(subscriberNodeType, nodeType -> Channel.getChannelString(messageType, publisherAddress, publisherNodeType, nodeType).getBytes());
     }
 
-    private <T extends IPropagatable> void propagateToNode(T toPropagate, NodeType subscriberNodeType) {
-        String serverAddress = "tcp://" + publisherIp + ":" + propagationPort;
-        log.debug("Propagating {} to {}", toPropagate.getHash(), Channel.getChannelString(toPropagate.getClass(), serverAddress, publisherNodeType, subscriberNodeType));
-        byte[] message = serializer.serialize(toPropagate);
-        if (!zeroMQContext.isClosed()) {
-            publishMessageQueue.add(new ZeroMQMessageData(Channel.getChannelString(toPropagate.getClass(), serverAddress, publisherNodeType, subscriberNodeType), message));
+    private void addToPublishMessageQueue(ZeroMQPublishMessageData messageData) {
+        if (publishMessageQueue.offer(messageData)) {
+            return;
+        }
+        if (blockedPropagations.incrementAndGet() % BACKPRESSURE_LOG_INTERVAL == 1) {
+            log.warn("ZeroMQ publish queue is full with {} messages, propagation is blocked. Total blocked propagations = {}", publishMessageQueue.size(), blockedPropagations.get());
+        }
+        try {
+            while (!publishMessageQueue.offer(messageData, 1, TimeUnit.SECONDS)) {
+                if (zeroMQContext.isClosed()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            log.info("Propagation to publish queue interrupted");
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -88,8 +123,7 @@ public class ZeroMQPropagationPublisher implements IPropagationPublisher {
             AtomicBoolean contextTerminated = new AtomicBoolean(false);
             while (!contextTerminated.get() && !Thread.currentThread().isInterrupted()) {
                 try {
-                    String serverAddress = "tcp://" + publisherIp + ":" + propagationPort;
-                    publish(new ZeroMQMessageData(Channel.getChannelString(PublisherHeartBeatData.class, serverAddress), serializer.serialize(new PublisherHeartBeatData(serverAddress))));
+                    publish(new ZeroMQPublishMessageData(Channel.getChannelString(PublisherHeartBeatData.class, publisherAddress).getBytes(), serializer.serialize(new PublisherHeartBeatData(publisherAddress)), PublisherHeartBeatData.class));
                     Thread.sleep(HEARTBEAT_INTERVAL);
                 } catch (InterruptedException e) {
                     log.info("HeartBeat Publisher thread interrupted");
@@ -111,10 +145,13 @@ public class ZeroMQPropagationPublisher implements IPropagationPublisher {
 
         publishMessageThread = new Thread(() -> {
             boolean contextTerminated = false;
+            List<ZeroMQPublishMessageData> messageBatch = new ArrayList<>(publishBatchSize);
             while (!contextTerminated && !Thread.currentThread().isInterrupted()) {
                 try {
-                    ZeroMQMessageData messageData = publishMessageQueue.take();
-                    publish(messageData);
+                    messageBatch.add(publishMessageQueue.take());
+                    publishMessageQueue.drainTo(messageBatch, publishBatchSize - 1);
+                    publish(messageBatch);
+                    messageBatch.clear();
                 } catch (InterruptedException e) {
                     log.info("Publisher thread interrupted");
                     Thread.currentThread().interrupt();
@@ -132,22 +169,57 @@ public class ZeroMQPropagationPublisher implements IPropagationPublisher {
         publishMessageThread.start();
     }
 
-    private void publish(ZeroMQMessageData messageData) {
+    private void publish(ZeroMQPublishMessageData messageData) {
         synchronized (this) {
-            propagator.sendMore(messageData.getChannel().getBytes());
+            propagator.sendMore(messageData.getChannel());
             propagator.send(messageData.getMessage());
         }
     }
 
+    private void publish(List<ZeroMQPublishMessageData> messageBatch) {
+        synchronized (this) {
+            for (ZeroMQPublishMessageData messageData : messageBatch) {
+                propagator.sendMore(messageData.getChannel());
+                propagator.send(messageData.getMessage());
+            }
+        }
+        long publishTime = System.nanoTime();
+        messageBatch.forEach(messageData -> messageTypeToPublishLatencyMap.computeIfAbsent(messageData.getMessageType(), messageType -> new PublishLatencyData())
+                .addLatency(publishTime - messageData.getQueueTime()));
+    }
+
     private void publishRemainingMessages() {
-        LinkedList<ZeroMQMessageData> remainingMessages = new LinkedList<>();
+        List<ZeroMQPublishMessageData> remainingMessages = new ArrayList<>();
         publishMessageQueue.drainTo(remainingMessages);
         if (!remainingMessages.isEmpty()) {
             log.info("Please wait to publish {} remaining messages", remainingMessages.size());
-            remainingMessages.forEach(this::publish);
+            publish(remainingMessages);
         }
     }
 
+    @Scheduled(initialDelay = PUBLISH_STATISTICS_INTERVAL, fixedDelay = PUBLISH_STATISTICS_INTERVAL)
+    public void logPublishStatistics() {
+        messageTypeToPublishLatencyMap.forEach((messageType, publishLatencyData) -> {
+            long publishedMessages = publishLatencyData.getPublishedMessages().getAndSet(0);
+            long totalLatency = publishLatencyData.getTotalLatency().getAndSet(0);
+            long maxLatency = publishLatencyData.getMaxLatency().getAndSet(0);
+            if (publishedMessages > 0) {
+                log.info("Published {} {} messages, average latency = {} ms, max latency = {} ms", publishedMessages, messageType.getSimpleName(),
+                        TimeUnit.NANOSECONDS.toMillis(totalLatency / publishedMessages), TimeUnit.NANOSECONDS.toMillis(maxLatency));
+            }
+        });
+    }
+
+    @Override
+    public int getQueueSize() {
+        return publishMessageQueue != null ? publishMessageQueue.size() : 0;
+    }
+
+    @Override
+    public long getBlockedPropagations() {
+        return blockedPropagations.get();
+    }
+
     private void setMonitorThread() {
         monitorThread = new Thread(() -> {
             AtomicBoolean contextTerminated = new AtomicBoolean(false);
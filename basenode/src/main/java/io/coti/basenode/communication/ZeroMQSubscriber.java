@@ -2,6 +2,7 @@ package io.coti.basenode.communication;
 
 import io.coti.basenode.communication.data.ConnectedNodeData;
 import io.coti.basenode.communication.data.ReconnectMonitorData;
+import io.coti.basenode.communication.data.SubscriberShardData;
 import io.coti.basenode.communication.data.ZeroMQMessageData;
 import io.coti.basenode.communication.interfaces.IPropagationSubscriber;
 import io.coti.basenode.communication.interfaces.ISerializer;
@@ -12,6 +13,7 @@ import io.coti.basenode.data.interfaces.IPropagatable;
 import io.coti.basenode.exceptions.CotiRunTimeException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.zeromq.SocketType;
@@ -23,6 +25,7 @@ import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
@@ -32,6 +35,7 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
     private static final int HEARTBEAT_INTERVAL = 10000;
     private static final int INITIAL_DELAY = 5000;
     private static final int FIXED_DELAY = 5000;
+    private static final int SHARD_STATISTICS_INTERVAL = 60000;
     private static final String ZMQ_SUBSCRIBER_HANDLER_ERROR = "ZMQ subscriber message handler task error";
     private ZMQ.Context zeroMQContext;
     private ZMQ.Socket propagationReceiver;
@@ -49,6 +53,9 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
     @Autowired
     private ISubscriberHandler subscriberHandler;
     private boolean monitorInitialized;
+    @Value("${zeromq.subscriber.transaction.shards:4}")
+    private int transactionShardsNumber;
+    private final List<SubscriberShardData> transactionShards = new ArrayList<>();
 
     @Override
     public void init() {
@@ -77,10 +84,21 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
         this.publisherNodeTypeToMessageTypesMap = publisherNodeTypeToMessageTypesMap;
         publisherNodeTypeToMessageTypesMap.forEach(((nodeType, classes) -> classes.forEach(messageType -> {
             ZeroMQSubscriberQueue queueEnum = ZeroMQSubscriberQueue.getQueueEnum(messageType);
+            if (queueEnum.equals(ZeroMQSubscriberQueue.TRANSACTION) && transactionShards.isEmpty()) {
+                initTransactionShards();
+            }
             queueNameToThreadMap.putIfAbsent(queueEnum.toString(), new Thread(() -> this.handleMessagesQueueTask(queueEnum.getQueue()), queueEnum.name() + " SUB"));
         })));
     }
 
+    private void initTransactionShards() {
+        for (int i = 0; i < Math.max(transactionShardsNumber, 1); i++) {
+            SubscriberShardData subscriberShardData = new SubscriberShardData(i);
+            subscriberShardData.setThread(new Thread(() -> this.handleShardQueueTask(subscriberShardData), ZeroMQSubscriberQueue.TRANSACTION.name() + " SUB-" + i));
+            transactionShards.add(subscriberShardData);
+        }
+    }
+
     @Override
     public void startListening() {
         startPropagationReceiverThread();
@@ -215,6 +233,7 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
 
     @Override
     public void initPropagationHandler() {
+        transactionShards.forEach(subscriberShardData -> subscriberShardData.getThread().start());
         queueNameToThreadMap.values().forEach(Thread::start);
     }
 
@@ -263,6 +282,21 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
         IPropagatable messageData = serializer.deserialize(message);
         String[] channelArray = channel.split("-");
         Class<? extends IPropagatable> propagatedMessageType = (Class<? extends IPropagatable>) Class.forName(channelArray[0]);
+        if (ZeroMQSubscriberQueue.TRANSACTION.equals(ZeroMQSubscriberQueue.getQueueEnum(propagatedMessageType)) && !transactionShards.isEmpty()) {
+            getTransactionShard(messageData).getQueue().add(() -> propagationProcess(channelArray, propagatedMessageType, messageData));
+        } else {
+            propagationProcess(channelArray, propagatedMessageType, messageData);
+        }
+    }
+
+    private SubscriberShardData getTransactionShard(IPropagatable messageData) {
+        if (messageData == null || messageData.getHash() == null) {
+            return transactionShards.get(0);
+        }
+        return transactionShards.get(Math.floorMod(messageData.getHash().hashCode(), transactionShards.size()));
+    }
+
+    private void propagationProcess(String[] channelArray, Class<? extends IPropagatable> propagatedMessageType, IPropagatable messageData) {
         if (propagatedMessageType.equals(PublisherHeartBeatData.class)) {
             String serverAddress = ((PublisherHeartBeatData) messageData).getServerAddress();
             updatePublisherLastConnectionTime(serverAddress);
@@ -279,6 +313,51 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
         }
     }
 
+    private void handleShardQueueTask(SubscriberShardData subscriberShardData) {
+        BlockingQueue<Runnable> shardQueue = subscriberShardData.getQueue();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                handleShardMessage(subscriberShardData, shardQueue.take());
+            } catch (InterruptedException e) {
+                log.info("ZMQ subscriber shard {} message handler interrupted", subscriberShardData.getShardIndex());
+                Thread.currentThread().interrupt();
+            }
+        }
+        LinkedList<Runnable> remainingMessages = new LinkedList<>();
+        shardQueue.drainTo(remainingMessages);
+        if (!remainingMessages.isEmpty()) {
+            log.info("Please wait to process {} remaining messages of shard {}", remainingMessages.size(), subscriberShardData.getShardIndex());
+            remainingMessages.forEach(shardMessage -> handleShardMessage(subscriberShardData, shardMessage));
+        }
+    }
+
+    private void handleShardMessage(SubscriberShardData subscriberShardData, Runnable shardMessage) {
+        long startTime = System.nanoTime();
+        try {
+            shardMessage.run();
+        } catch (CotiRunTimeException e) {
+            log.error(ZMQ_SUBSCRIBER_HANDLER_ERROR);
+            e.logMessage();
+        } catch (Exception e) {
+            log.error(ZMQ_SUBSCRIBER_HANDLER_ERROR, e);
+        }
+        subscriberShardData.addServiceTime(System.nanoTime() - startTime);
+    }
+
+    @Scheduled(initialDelay = SHARD_STATISTICS_INTERVAL, fixedDelay = SHARD_STATISTICS_INTERVAL)
+    public void logTransactionShardStatistics() {
+        transactionShards.forEach(subscriberShardData -> {
+            long handledMessages = subscriberShardData.getHandledMessages().getAndSet(0);
+            long totalServiceTime = subscriberShardData.getTotalServiceTime().getAndSet(0);
+            long maxServiceTime = subscriberShardData.getMaxServiceTime().getAndSet(0);
+            if (handledMessages > 0 || !subscriberShardData.getQueue().isEmpty()) {
+                log.info("Transaction shard {}: queue = {}, handled messages = {}, average service time = {} ms, max service time = {} ms", subscriberShardData.getShardIndex(),
+                        subscriberShardData.getQueue().size(), handledMessages, handledMessages > 0 ? TimeUnit.NANOSECONDS.toMillis(totalServiceTime / handledMessages) : 0,
+                        TimeUnit.NANOSECONDS.toMillis(maxServiceTime));
+            }
+        });
+    }
+
     private void updatePublisherLastConnectionTime(String publisherAddressAndPort) {
         ConnectedNodeData connectedNodeData = connectedNodes.get(publisherAddressAndPort);
         if (connectedNodeData != null) {
@@ -360,7 +439,11 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
 
     @Override
     public int getMessageQueueSize(ZeroMQSubscriberQueue zeroMQSubscriberQueue) {
-        return zeroMQSubscriberQueue.getQueue().size();
+        int messageQueueSize = zeroMQSubscriberQueue.getQueue().size();
+        if (zeroMQSubscriberQueue.equals(ZeroMQSubscriberQueue.TRANSACTION)) {
+            messageQueueSize += transactionShards.stream().mapToInt(subscriberShardData -> subscriberShardData.getQueue().size()).sum();
+        }
+        return messageQueueSize;
     }
 
     @Override
@@ -377,15 +460,8 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
                     monitorReconnectThread.interrupt();
                     monitorReconnectThread.join();
                 }
-                queueNameToThreadMap.values().forEach(thread -> {
-                    try {
-                        thread.interrupt();
-                        thread.join();
-                    } catch (InterruptedException e) {
-                        log.error("Interrupted shutdown ZeroMQ subscriber");
-                        Thread.currentThread().interrupt();
-                    }
-                });
+                queueNameToThreadMap.values().forEach(this::interruptAndJoin);
+                transactionShards.forEach(subscriberShardData -> interruptAndJoin(subscriberShardData.getThread()));
             }
         } catch (InterruptedException e) {
             log.error("Interrupted shutdown ZeroMQ subscriber");
@@ -394,4 +470,14 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
             log.error("Shutdown error ZeroMQ subscriber", e);
         }
     }
+
+    private void interruptAndJoin(Thread thread) {
+        try {
+            thread.interrupt();
+            thread.join();
+        } catch (InterruptedException e) {
+            log.error("Interrupted shutdown ZeroMQ subscriber");
+            Thread.currentThread().interrupt();
+        }
+    }
 }
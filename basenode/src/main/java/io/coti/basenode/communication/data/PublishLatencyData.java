@@ -0,0 +1,25 @@
+package io.coti.basenode.communication.data;
+
+import lombok.Data;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Data
+public class PublishLatencyData {
+
+    private AtomicLong publishedMessages;
+    private AtomicLong totalLatency;
+    private AtomicLong maxLatency;
+
+    public PublishLatencyData() {
+        publishedMessages = new AtomicLong();
+        totalLatency = new AtomicLong();
+        maxLatency = new AtomicLong();
+    }
+
+    public void addLatency(long latency) {
+        publishedMessages.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+    }
+}
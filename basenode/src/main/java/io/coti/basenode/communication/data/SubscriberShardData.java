@@ -0,0 +1,32 @@
+package io.coti.basenode.communication.data;
+
+import lombok.Data;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Data
+public class SubscriberShardData {
+
+    private int shardIndex;
+    private BlockingQueue<Runnable> queue;
+    private Thread thread;
+    private AtomicLong handledMessages;
+    private AtomicLong totalServiceTime;
+    private AtomicLong maxServiceTime;
+
+    public SubscriberShardData(int shardIndex) {
+        this.shardIndex = shardIndex;
+        queue = new LinkedBlockingQueue<>();
+        handledMessages = new AtomicLong();
+        totalServiceTime = new AtomicLong();
+        maxServiceTime = new AtomicLong();
+    }
+
+    public void addServiceTime(long serviceTime) {
+        handledMessages.incrementAndGet();
+        totalServiceTime.addAndGet(serviceTime);
+        maxServiceTime.accumulateAndGet(serviceTime, Math::max);
+    }
+}
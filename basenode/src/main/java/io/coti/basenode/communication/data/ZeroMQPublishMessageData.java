@@ -0,0 +1,19 @@
+package io.coti.basenode.communication.data;
+
+import lombok.Data;
+
+@Data
+public class ZeroMQPublishMessageData {
+
+    private byte[] channel;
+    private byte[] message;
+    private Class<?> messageType;
+    private long queueTime;
+
+    public ZeroMQPublishMessageData(byte[] channel, byte[] message, Class<?> messageType) {
+        this.channel = channel;
+        this.message = message;
+        this.messageType = messageType;
+        queueTime = System.nanoTime();
+    }
+}
@@ -13,5 +13,9 @@ public interface IPropagationPublisher {
 
     <T extends IPropagatable> void propagate(T toPropagate, List<NodeType> subscriberNodeTypes);
 
+    int getQueueSize();
+
+    long getBlockedPropagations();
+
     void shutdown();
 }
@@ -1,9 +1,14 @@
 package io.coti.basenode.controllers;
 
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.TransactionIndexData;
+import io.coti.basenode.model.TransactionIndexes;
+import io.coti.basenode.services.TransactionIndexService;
 import io.coti.basenode.services.interfaces.ITransactionService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -19,12 +24,32 @@ public class TransactionBatchController {
 
     @Autowired
     private ITransactionService transactionService;
+    @Autowired
+    private TransactionIndexService transactionIndexService;
+    @Autowired
+    private TransactionIndexes transactionIndexes;
 
     @GetMapping(value = "/transaction_batch")
     public void getTransactionBatch(@RequestParam(name = "starting_index") @Valid @NotNull Long startingIndex, HttpServletResponse response) {
         transactionService.getTransactionBatch(startingIndex, response);
     }
 
+    @GetMapping(value = "/transaction_batch/binary", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public void getBinaryTransactionBatch(@RequestParam(name = "starting_index") @Valid @NotNull Long startingIndex,
+                                          @RequestParam(name = "ending_index", required = false) Long endingIndex,
+                                          @RequestParam(name = "compressed", defaultValue = "true") boolean compressed, HttpServletResponse response) {
+        transactionService.getBinaryTransactionBatch(startingIndex, endingIndex, compressed, response);
+    }
+
+    @GetMapping(value = "/transaction_batch/index")
+    public ResponseEntity<TransactionIndexData> getTransactionIndex(@RequestParam(name = "index", required = false) Long index) {
+        TransactionIndexData transactionIndexData = index == null ? transactionIndexService.getLastTransactionIndexData() : transactionIndexes.getByHash(new Hash(index));
+        if (transactionIndexData == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(transactionIndexData);
+    }
+
     @GetMapping(value = "/transaction_batch/reactive", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
     public Flux<byte[]> getTransactionBatchReactive(@RequestParam(name = "starting_index") @Valid @NotNull Long startingIndex) {
         return Flux.create(fluxSink -> transactionService.getTransactionBatch(startingIndex, fluxSink));
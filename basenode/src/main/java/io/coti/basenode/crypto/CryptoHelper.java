@@ -1,5 +1,7 @@
 package io.coti.basenode.crypto;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.coti.basenode.data.Hash;
 import io.coti.basenode.data.SignatureData;
 import org.bouncycastle.asn1.sec.SECNamedCurves;
@@ -35,6 +37,8 @@ public class CryptoHelper {
     private static final ECParameterSpec spec = new ECParameterSpec(curve.getCurve(), curve.getG(), curve.getN(), curve.getH());
     public static final int ADDRESS_SIZE_IN_BYTES = 68;
     public static final int ADDRESS_CHECKSUM_SIZE_IN_BYTES = 4;
+    private static final int PUBLIC_KEY_CACHE_SIZE = 4096;
+    private static final Cache<String, ECPublicKeyParameters> publicKeyParametersCache = CacheBuilder.newBuilder().maximumSize(PUBLIC_KEY_CACHE_SIZE).build();
 
     private CryptoHelper() {
 
@@ -55,7 +59,23 @@ public class CryptoHelper {
     }
 
     public static boolean verifyByPublicKey(byte[] originalMessageToVerify, String rHex, String sHex, String publicKey) throws InvalidKeySpecException, NoSuchAlgorithmException {
-        return verifyByPublicKey(originalMessageToVerify, rHex, sHex, getPublicKeyFromHexString(publicKey));
+        return verifyByPublicKeyParameters(originalMessageToVerify, rHex, sHex, getPublicKeyParameters(publicKey));
+    }
+
+    /**
+     * Decoded public keys of the recently seen signers are cached. Bouncy Castle keeps the precomputed multiplication
+     * table of a point on the point itself, so reusing the cached point also saves the precomputation at verification.
+     */
+    private static ECPublicKeyParameters getPublicKeyParameters(String pubKeyHex) {
+        ECPublicKeyParameters publicKeyParameters = publicKeyParametersCache.getIfPresent(pubKeyHex);
+        if (publicKeyParameters == null) {
+            String pointX = pubKeyHex.substring(0, (pubKeyHex.length() / 2));
+            String pointY = pubKeyHex.substring(pubKeyHex.length() / 2);
+            ECPoint point = curve.getCurve().createPoint(new BigInteger(pointX, 16), new BigInteger(pointY, 16));
+            publicKeyParameters = new ECPublicKeyParameters(point, domain);
+            publicKeyParametersCache.put(pubKeyHex, publicKeyParameters);
+        }
+        return publicKeyParameters;
     }
 
     public static byte[] removeLeadingZerosFromAddress(byte[] addressBytesWithoutChecksum) {
@@ -123,8 +143,12 @@ public class CryptoHelper {
     }
 
     public static boolean verifyByPublicKey(byte[] originalDataToVerify, String rHex, String sHex, PublicKey publicKey) {
+        return verifyByPublicKeyParameters(originalDataToVerify, rHex, sHex, new ECPublicKeyParameters(((ECPublicKey) publicKey).getQ(), domain));
+    }
+
+    private static boolean verifyByPublicKeyParameters(byte[] originalDataToVerify, String rHex, String sHex, ECPublicKeyParameters publicKeyParameters) {
         ECDSASigner signer = new ECDSASigner();
-        signer.init(false, new ECPublicKeyParameters(((ECPublicKey) publicKey).getQ(), domain));
+        signer.init(false, publicKeyParameters);
         BigInteger r = new BigInteger(rHex, 16);
         BigInteger s = new BigInteger(sHex, 16);
         return signer.verifySignature(originalDataToVerify, r, s);
@@ -0,0 +1,18 @@
+package io.coti.basenode.crypto;
+
+import io.coti.basenode.data.TransactionIndexCheckpointData;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+
+@Component
+public class TransactionIndexCheckpointCrypto extends SignatureCrypto<TransactionIndexCheckpointData> {
+
+    @Override
+    public byte[] getSignatureMessage(TransactionIndexCheckpointData transactionIndexCheckpointData) {
+        byte[] accumulatedHash = transactionIndexCheckpointData.getAccumulatedHash();
+        ByteBuffer checkpointMessageBuffer = ByteBuffer.allocate(Long.BYTES + accumulatedHash.length)
+                .putLong(transactionIndexCheckpointData.getIndex()).put(accumulatedHash);
+        return CryptoHelper.cryptoHash(checkpointMessageBuffer.array()).getBytes();
+    }
+}
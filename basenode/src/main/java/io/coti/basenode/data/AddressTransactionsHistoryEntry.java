@@ -0,0 +1,32 @@
+package io.coti.basenode.data;
+
+import io.coti.basenode.data.interfaces.IEntity;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * One transaction of the history of an address. The key is the address hash followed by the transaction creation
+ * time and the transaction hash, so the history of an address is a range of keys in the order of its transactions and
+ * a transaction is added to the history without reading the rest of it.
+ */
+@Data
+@NoArgsConstructor
+public class AddressTransactionsHistoryEntry implements IEntity {
+
+    private static final long serialVersionUID = -2716452381296358702L;
+    private Hash hash;
+    private Hash transactionHash;
+    private Instant createTime;
+
+    public AddressTransactionsHistoryEntry(Hash addressHash, Hash transactionHash, Instant createTime) {
+        byte[] addressHashBytes = addressHash.getBytes();
+        byte[] transactionHashBytes = transactionHash.getBytes();
+        hash = new Hash(ByteBuffer.allocate(addressHashBytes.length + Long.BYTES + transactionHashBytes.length)
+                .put(addressHashBytes).putLong(createTime.toEpochMilli()).put(transactionHashBytes).array());
+        this.transactionHash = transactionHash;
+        this.createTime = createTime;
+    }
+}
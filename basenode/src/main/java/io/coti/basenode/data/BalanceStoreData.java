@@ -0,0 +1,303 @@
+package io.coti.basenode.data;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import static io.coti.basenode.services.TransactionHelper.CURRENCY_SCALE;
+
+/**
+ * Balances and pre-balances of addresses in long units of the currency scale. The addresses are split between lock
+ * stripes, each one an open addressing table of arrays, so an address costs a key reference, two longs and two bytes.
+ * The scale of a value is kept as BigDecimal addition keeps it, and a value which is not exact in long units is kept as
+ * BigDecimal, so the values are equal to the ones of BigDecimal arithmetic.
+ */
+public class BalanceStoreData {
+
+    private static final int STRIPES = 256;
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+    private static final int BALANCE = 0;
+    private static final int PRE_BALANCE = 1;
+    private static final byte ABSENT = Byte.MIN_VALUE;
+    private static final byte INEXACT = Byte.MAX_VALUE;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public BalanceStoreData() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public BigDecimal getBalance(Hash addressHash) {
+        return get(addressHash, BALANCE);
+    }
+
+    public BigDecimal getPreBalance(Hash addressHash) {
+        return get(addressHash, PRE_BALANCE);
+    }
+
+    public void setBalance(Hash addressHash, BigDecimal balance) {
+        set(addressHash, BALANCE, balance);
+    }
+
+    public void setPreBalance(Hash addressHash, BigDecimal preBalance) {
+        set(addressHash, PRE_BALANCE, preBalance);
+    }
+
+    public void addToBalance(Hash addressHash, BigDecimal amount) {
+        add(addressHash, BALANCE, amount, false);
+    }
+
+    public void addToPreBalance(Hash addressHash, BigDecimal amount) {
+        add(addressHash, PRE_BALANCE, amount, false);
+    }
+
+    public void addToPreBalanceIfPresent(Hash addressHash, BigDecimal amount) {
+        add(addressHash, PRE_BALANCE, amount, true);
+    }
+
+    public boolean containsBalance(Hash addressHash) {
+        return getBalance(addressHash) != null;
+    }
+
+    /**
+     * Holds the locks of the addresses while the supplier runs, so the balances and pre-balances of the addresses are
+     * checked and updated together. The stripes are locked in order, so two callers do not deadlock.
+     */
+    public <T> T lockAndGet(Collection<Hash> addressHashes, Supplier<T> supplier) {
+        SortedSet<Integer> stripeIndexes = new TreeSet<>();
+        addressHashes.forEach(addressHash -> stripeIndexes.add(getStripeIndex(addressHash)));
+        List<Stripe> lockedStripes = new ArrayList<>();
+        try {
+            stripeIndexes.forEach(stripeIndex -> {
+                stripes[stripeIndex].lock.lock();
+                lockedStripes.add(stripes[stripeIndex]);
+            });
+            return supplier.get();
+        } finally {
+            lockedStripes.forEach(stripe -> stripe.lock.unlock());
+        }
+    }
+
+    public void forEachBalance(BiConsumer<Hash, BigDecimal> consumer) {
+        forEach(BALANCE, consumer);
+    }
+
+    public void forEachPreBalance(BiConsumer<Hash, BigDecimal> consumer) {
+        forEach(PRE_BALANCE, consumer);
+    }
+
+    public Map<Hash, BigDecimal> copyBalances() {
+        Map<Hash, BigDecimal> balances = new HashMap<>();
+        forEachBalance(balances::put);
+        return balances;
+    }
+
+    public Map<Hash, BigDecimal> copyPreBalances() {
+        Map<Hash, BigDecimal> preBalances = new HashMap<>();
+        forEachPreBalance(preBalances::put);
+        return preBalances;
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private BigDecimal get(Hash addressHash, int kind) {
+        Stripe stripe = stripes[getStripeIndex(addressHash)];
+        stripe.lock.lock();
+        try {
+            int slot = stripe.find(addressHash);
+            return slot < 0 ? null : stripe.get(slot, kind);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void set(Hash addressHash, int kind, BigDecimal value) {
+        Stripe stripe = stripes[getStripeIndex(addressHash)];
+        stripe.lock.lock();
+        try {
+            stripe.set(stripe.findOrInsert(addressHash), kind, value);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void add(Hash addressHash, int kind, BigDecimal amount, boolean onlyIfPresent) {
+        Stripe stripe = stripes[getStripeIndex(addressHash)];
+        stripe.lock.lock();
+        try {
+            int slot = onlyIfPresent ? stripe.find(addressHash) : stripe.findOrInsert(addressHash);
+            if (slot < 0 || (onlyIfPresent && stripe.scales[2 * slot + kind] == ABSENT)) {
+                return;
+            }
+            stripe.add(slot, kind, amount);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void forEach(int kind, BiConsumer<Hash, BigDecimal> consumer) {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (int slot = 0; slot < stripe.addressHashes.length; slot++) {
+                    if (stripe.addressHashes[slot] != null && stripe.scales[2 * slot + kind] != ABSENT) {
+                        consumer.accept(stripe.addressHashes[slot], stripe.get(slot, kind));
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private static int spread(Hash addressHash) {
+        return addressHash.hashCode() * 0x9E3779B9;
+    }
+
+    private static int getStripeIndex(Hash addressHash) {
+        return spread(addressHash) >>> 24;
+    }
+
+    private static class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private Hash[] addressHashes;
+        // the balance of a slot is at index 2 * slot and its pre-balance at index 2 * slot + 1
+        private long[] units;
+        private byte[] scales;
+        private Map<Hash, BigDecimal[]> inexactValues;
+        private int size;
+
+        private Stripe() {
+            clear();
+        }
+
+        private void clear() {
+            addressHashes = new Hash[INITIAL_STRIPE_CAPACITY];
+            units = new long[2 * INITIAL_STRIPE_CAPACITY];
+            scales = new byte[2 * INITIAL_STRIPE_CAPACITY];
+            inexactValues = new HashMap<>();
+            size = 0;
+        }
+
+        private int find(Hash addressHash) {
+            int mask = addressHashes.length - 1;
+            for (int slot = spread(addressHash) & mask; addressHashes[slot] != null; slot = (slot + 1) & mask) {
+                if (addressHashes[slot].equals(addressHash)) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private int findOrInsert(Hash addressHash) {
+            int slot = find(addressHash);
+            if (slot >= 0) {
+                return slot;
+            }
+            if (4 * (size + 1) > 3 * addressHashes.length) {
+                resize();
+            }
+            int mask = addressHashes.length - 1;
+            slot = spread(addressHash) & mask;
+            while (addressHashes[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            addressHashes[slot] = addressHash;
+            scales[2 * slot + BALANCE] = ABSENT;
+            scales[2 * slot + PRE_BALANCE] = ABSENT;
+            size++;
+            return slot;
+        }
+
+        private void resize() {
+            Hash[] oldAddressHashes = addressHashes;
+            long[] oldUnits = units;
+            byte[] oldScales = scales;
+            addressHashes = new Hash[2 * oldAddressHashes.length];
+            units = new long[2 * addressHashes.length];
+            scales = new byte[2 * addressHashes.length];
+            int mask = addressHashes.length - 1;
+            for (int oldSlot = 0; oldSlot < oldAddressHashes.length; oldSlot++) {
+                if (oldAddressHashes[oldSlot] == null) {
+                    continue;
+                }
+                int slot = spread(oldAddressHashes[oldSlot]) & mask;
+                while (addressHashes[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                addressHashes[slot] = oldAddressHashes[oldSlot];
+                System.arraycopy(oldUnits, 2 * oldSlot, units, 2 * slot, 2);
+                System.arraycopy(oldScales, 2 * oldSlot, scales, 2 * slot, 2);
+            }
+        }
+
+        private BigDecimal get(int slot, int kind) {
+            byte scale = scales[2 * slot + kind];
+            if (scale == ABSENT) {
+                return null;
+            }
+            if (scale == INEXACT) {
+                return inexactValues.get(addressHashes[slot])[kind];
+            }
+            return BigDecimal.valueOf(units[2 * slot + kind], CURRENCY_SCALE).setScale(scale);
+        }
+
+        private void set(int slot, int kind, BigDecimal value) {
+            int index = 2 * slot + kind;
+            if (scales[index] == INEXACT) {
+                removeInexactValue(slot, kind);
+            }
+            if (value.scale() > ABSENT && value.scale() < INEXACT) {
+                try {
+                    units[index] = value.movePointRight(CURRENCY_SCALE).longValueExact();
+                    scales[index] = (byte) value.scale();
+                    return;
+                } catch (ArithmeticException e) {
+                    // the value has more digits than the long units, it is kept as BigDecimal
+                }
+            }
+            inexactValues.computeIfAbsent(addressHashes[slot], addressHash -> new BigDecimal[2])[kind] = value;
+            scales[index] = INEXACT;
+        }
+
+        private void add(int slot, int kind, BigDecimal amount) {
+            int index = 2 * slot + kind;
+            byte scale = scales[index];
+            if (scale == ABSENT) {
+                set(slot, kind, amount);
+                return;
+            }
+            if (scale != INEXACT && amount.scale() > ABSENT && amount.scale() < INEXACT) {
+                try {
+                    units[index] = Math.addExact(units[index], amount.movePointRight(CURRENCY_SCALE).longValueExact());
+                    scales[index] = (byte) Math.max(scale, amount.scale());
+                    return;
+                } catch (ArithmeticException e) {
+                    // the sum is kept as BigDecimal
+                }
+            }
+            set(slot, kind, get(slot, kind).add(amount));
+        }
+
+        private void removeInexactValue(int slot, int kind) {
+            BigDecimal[] values = inexactValues.get(addressHashes[slot]);
+            values[kind] = null;
+            if (values[BALANCE] == null && values[PRE_BALANCE] == null) {
+                inexactValues.remove(addressHashes[slot]);
+            }
+        }
+    }
+}
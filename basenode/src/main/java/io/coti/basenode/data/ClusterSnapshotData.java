@@ -0,0 +1,299 @@
+package io.coti.basenode.data;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable version of the trust chain confirmation cluster. It is a hash array mapped trie, so a change copies only
+ * the path of the changed transaction and shares the rest of the trie with the previous version. Consumers get a
+ * consistent version of the cluster in constant time, without copying or serializing it.
+ */
+public class ClusterSnapshotData extends AbstractMap<Hash, TransactionData> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final ClusterSnapshotData EMPTY = new ClusterSnapshotData(BitmapNode.EMPTY, 0, 0);
+    private final Node root;
+    private final int size;
+    private final long version;
+
+    private ClusterSnapshotData(Node root, int size, long version) {
+        this.root = root;
+        this.size = size;
+        this.version = version;
+    }
+
+    public static ClusterSnapshotData empty() {
+        return EMPTY;
+    }
+
+    public ClusterSnapshotData with(TransactionData transactionData) {
+        Hash hash = transactionData.getHash();
+        boolean[] added = new boolean[1];
+        Node changedRoot = root.put(hash, spread(hash), transactionData, 0, added);
+        return changedRoot == root ? this : new ClusterSnapshotData(changedRoot, added[0] ? size + 1 : size, version + 1);
+    }
+
+    public ClusterSnapshotData without(Hash hash) {
+        Node changedRoot = root.remove(hash, spread(hash), 0);
+        if (changedRoot == root) {
+            return this;
+        }
+        return new ClusterSnapshotData(changedRoot != null ? changedRoot : BitmapNode.EMPTY, size - 1, version + 1);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public TransactionData get(Object key) {
+        return key instanceof Hash ? root.get((Hash) key, spread((Hash) key), 0) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super Hash, ? super TransactionData> consumer) {
+        root.forEach(consumer);
+    }
+
+    @Override
+    public Set<Entry<Hash, TransactionData>> entrySet() {
+        List<Entry<Hash, TransactionData>> entries = new ArrayList<>(size);
+        forEach((hash, transactionData) -> entries.add(new SimpleImmutableEntry<>(hash, transactionData)));
+        return new AbstractSet<Entry<Hash, TransactionData>>() {
+            @Override
+            public Iterator<Entry<Hash, TransactionData>> iterator() {
+                return Collections.unmodifiableList(entries).iterator();
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+        };
+    }
+
+    private static int spread(Hash hash) {
+        int hashCode = hash.hashCode();
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    private static Node createNode(int shift, Hash firstKey, TransactionData firstValue, Hash secondKey, int secondHash, TransactionData secondValue) {
+        int firstHash = spread(firstKey);
+        if (shift >= Integer.SIZE) {
+            return new CollisionNode(new Hash[]{firstKey, secondKey}, new TransactionData[]{firstValue, secondValue});
+        }
+        boolean[] added = new boolean[1];
+        return BitmapNode.EMPTY.put(firstKey, firstHash, firstValue, shift, added).put(secondKey, secondHash, secondValue, shift, added);
+    }
+
+    private interface Node {
+
+        TransactionData get(Hash key, int hash, int shift);
+
+        Node put(Hash key, int hash, TransactionData value, int shift, boolean[] added);
+
+        /**
+         * @return this node when the key is absent, or null when the node becomes empty
+         */
+        Node remove(Hash key, int hash, int shift);
+
+        void forEach(BiConsumer<? super Hash, ? super TransactionData> consumer);
+    }
+
+    /**
+     * Holds a slot of two array elements per set bit: a key and its value, or null and a child node.
+     */
+    private static final class BitmapNode implements Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+        private final int bitmap;
+        private final Object[] array;
+
+        private BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        public TransactionData get(Hash key, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int index = index(bit);
+            Object slotKey = array[2 * index];
+            Object slotValue = array[2 * index + 1];
+            if (slotKey == null) {
+                return ((Node) slotValue).get(key, hash, shift + BITS);
+            }
+            return key.equals(slotKey) ? (TransactionData) slotValue : null;
+        }
+
+        @Override
+        public Node put(Hash key, int hash, TransactionData value, int shift, boolean[] added) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] changedArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, changedArray, 0, 2 * index);
+                changedArray[2 * index] = key;
+                changedArray[2 * index + 1] = value;
+                System.arraycopy(array, 2 * index, changedArray, 2 * index + 2, array.length - 2 * index);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, changedArray);
+            }
+            Object slotKey = array[2 * index];
+            Object slotValue = array[2 * index + 1];
+            if (slotKey == null) {
+                Node child = ((Node) slotValue).put(key, hash, value, shift + BITS, added);
+                return child == slotValue ? this : withSlot(index, null, child);
+            }
+            if (key.equals(slotKey)) {
+                return slotValue == value ? this : withSlot(index, key, value);
+            }
+            added[0] = true;
+            return withSlot(index, null, createNode(shift + BITS, (Hash) slotKey, (TransactionData) slotValue, key, hash, value));
+        }
+
+        @Override
+        public Node remove(Hash key, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = index(bit);
+            Object slotKey = array[2 * index];
+            Object slotValue = array[2 * index + 1];
+            if (slotKey == null) {
+                Node child = ((Node) slotValue).remove(key, hash, shift + BITS);
+                if (child == slotValue) {
+                    return this;
+                }
+                if (child == null) {
+                    return withoutSlot(bit, index);
+                }
+                if (child instanceof BitmapNode && Integer.bitCount(((BitmapNode) child).bitmap) == 1 && ((BitmapNode) child).array[0] != null) {
+                    return withSlot(index, ((BitmapNode) child).array[0], ((BitmapNode) child).array[1]);
+                }
+                return withSlot(index, null, child);
+            }
+            return key.equals(slotKey) ? withoutSlot(bit, index) : this;
+        }
+
+        private BitmapNode withSlot(int index, Object slotKey, Object slotValue) {
+            Object[] changedArray = array.clone();
+            changedArray[2 * index] = slotKey;
+            changedArray[2 * index + 1] = slotValue;
+            return new BitmapNode(bitmap, changedArray);
+        }
+
+        private BitmapNode withoutSlot(int bit, int index) {
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] changedArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, changedArray, 0, 2 * index);
+            System.arraycopy(array, 2 * index + 2, changedArray, 2 * index, array.length - 2 * index - 2);
+            return new BitmapNode(bitmap ^ bit, changedArray);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super Hash, ? super TransactionData> consumer) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(consumer);
+                } else {
+                    consumer.accept((Hash) array[i], (TransactionData) array[i + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Holds the keys whose spread hash codes are equal.
+     */
+    private static final class CollisionNode implements Node {
+
+        private final Hash[] keys;
+        private final TransactionData[] values;
+
+        private CollisionNode(Hash[] keys, TransactionData[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        private int indexOf(Hash key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public TransactionData get(Hash key, int hash, int shift) {
+            int index = indexOf(key);
+            return index >= 0 ? values[index] : null;
+        }
+
+        @Override
+        public Node put(Hash key, int hash, TransactionData value, int shift, boolean[] added) {
+            int index = indexOf(key);
+            if (index >= 0) {
+                if (values[index] == value) {
+                    return this;
+                }
+                TransactionData[] changedValues = values.clone();
+                changedValues[index] = value;
+                return new CollisionNode(keys, changedValues);
+            }
+            Hash[] changedKeys = Arrays.copyOf(keys, keys.length + 1);
+            TransactionData[] changedValues = Arrays.copyOf(values, values.length + 1);
+            changedKeys[keys.length] = key;
+            changedValues[values.length] = value;
+            added[0] = true;
+            return new CollisionNode(changedKeys, changedValues);
+        }
+
+        @Override
+        public Node remove(Hash key, int hash, int shift) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return this;
+            }
+            if (keys.length == 1) {
+                return null;
+            }
+            Hash[] changedKeys = new Hash[keys.length - 1];
+            TransactionData[] changedValues = new TransactionData[values.length - 1];
+            System.arraycopy(keys, 0, changedKeys, 0, index);
+            System.arraycopy(keys, index + 1, changedKeys, index, keys.length - index - 1);
+            System.arraycopy(values, 0, changedValues, 0, index);
+            System.arraycopy(values, index + 1, changedValues, index, values.length - index - 1);
+            return new CollisionNode(changedKeys, changedValues);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super Hash, ? super TransactionData> consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+}
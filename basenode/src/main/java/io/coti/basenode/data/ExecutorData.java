@@ -3,38 +3,78 @@ package io.coti.basenode.data;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * A stage of transaction handling. At most the capacity of tasks are pending at a time, further submits wait for a
+ * task to complete, so the heap does not grow with the number of handled transactions. Tasks are only ordered when
+ * the stage has a single worker.
+ */
 @Slf4j
 @Data
 public class ExecutorData {
 
-    private ExecutorService executorService;
-    private List<Future<?>> futures;
+    private static final int DEFAULT_CAPACITY = 10000;
+    private final String name;
+    private final ExecutorService executorService;
+    private final Semaphore pendingTasks;
+    private final AtomicLong submittedTaskNumber = new AtomicLong(0);
+    private final AtomicLong completedTaskNumber = new AtomicLong(0);
+    private final AtomicLong failedTaskNumber = new AtomicLong(0);
+    private final long startTime;
 
-    public ExecutorData() {
-        executorService = Executors.newFixedThreadPool(1);
-        futures = new ArrayList<>();
+    public ExecutorData(String name) {
+        this(name, 1, DEFAULT_CAPACITY);
+    }
+
+    public ExecutorData(String name, int workerNumber, int capacity) {
+        this.name = name;
+        executorService = Executors.newFixedThreadPool(workerNumber);
+        pendingTasks = new Semaphore(capacity);
+        startTime = System.currentTimeMillis();
     }
 
     public void submit(Runnable runnable) {
-        futures.add(executorService.submit(runnable));
+        try {
+            pendingTasks.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        submittedTaskNumber.incrementAndGet();
+        executorService.execute(() -> {
+            try {
+                runnable.run();
+            } catch (Exception e) {
+                failedTaskNumber.incrementAndGet();
+                log.error("Error at {} stage task: {}", name, e.getMessage());
+            } finally {
+                completedTaskNumber.incrementAndGet();
+                pendingTasks.release();
+            }
+        });
     }
 
     public void waitForTermination() {
-        for (Future<?> future : futures) {
-            try {
-                future.get();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            } catch (ExecutionException e) {
-                log.error(e.getMessage());
+        executorService.shutdown();
+        try {
+            while (!executorService.awaitTermination(1, TimeUnit.MINUTES)) {
+                logProgress();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        logProgress();
+    }
+
+    public void logProgress() {
+        long completedTasks = completedTaskNumber.get();
+        long elapsedMillis = Math.max(System.currentTimeMillis() - startTime, 1);
+        log.info("Stage {}: completed {} of {} tasks, {} failed, {} tasks/s", name, completedTasks, submittedTaskNumber.get(), failedTaskNumber.get(),
+                completedTasks * 1000 / elapsedMillis);
     }
 }
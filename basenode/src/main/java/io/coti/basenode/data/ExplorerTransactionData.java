@@ -2,11 +2,13 @@ package io.coti.basenode.data;
 
 import lombok.Data;
 
+import java.io.Serializable;
 import java.time.Instant;
 
 @Data
-public class ExplorerTransactionData implements Comparable<ExplorerTransactionData> {
+public class ExplorerTransactionData implements Comparable<ExplorerTransactionData>, Serializable {
 
+    private static final long serialVersionUID = 5137029868404297372L;
     private Hash transactionHash;
     private Instant attachmentTime;
 
@@ -0,0 +1,34 @@
+package io.coti.basenode.data;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+public class NodeStateSnapshotData implements Serializable {
+
+    private static final long serialVersionUID = -3310945186514402764L;
+    private byte[] clusterStampDigest;
+    private TransactionIndexData transactionIndexData;
+    private Map<Hash, BigDecimal> balanceMap;
+    private Map<Hash, BigDecimal> preBalanceMap;
+    private Set<Hash> unsettledTransactionHashes;
+    private List<ExplorerTransactionData> settledExplorerTransactions;
+    private Instant createTime;
+
+    public NodeStateSnapshotData(byte[] clusterStampDigest, TransactionIndexData transactionIndexData, Map<Hash, BigDecimal> balanceMap,
+                                 Map<Hash, BigDecimal> preBalanceMap, Set<Hash> unsettledTransactionHashes, List<ExplorerTransactionData> settledExplorerTransactions) {
+        this.clusterStampDigest = clusterStampDigest;
+        this.transactionIndexData = transactionIndexData;
+        this.balanceMap = balanceMap;
+        this.preBalanceMap = preBalanceMap;
+        this.unsettledTransactionHashes = unsettledTransactionHashes;
+        this.settledExplorerTransactions = settledExplorerTransactions;
+        this.createTime = Instant.now();
+    }
+}
@@ -0,0 +1,161 @@
+package io.coti.basenode.data;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * The transactions which arrived before one of their parents, indexed by their parents, so a handled transaction
+ * releases exactly the transactions waiting for it. The number of postponed transactions is bounded: when it is full,
+ * the transaction postponed first is evicted. Orphans whose parents do not arrive are removed by
+ * {@link #removeExpired(Instant)}.
+ */
+public class PostponedTransactionsData {
+
+    private final int maxSize;
+    private final LinkedHashMap<Hash, PostponedTransaction> postponedTransactionMap = new LinkedHashMap<>();
+    private final Map<Hash, Set<Hash>> waitingTransactionHashesByParentHash = new HashMap<>();
+    private long releasedTransactions;
+    private long totalReleasedPostponedMillis;
+    private long maxReleasedPostponedMillis;
+    private long expiredTransactions;
+    private long evictedTransactions;
+
+    public PostponedTransactionsData(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return false if the transaction is already postponed
+     */
+    public synchronized boolean postpone(TransactionData transactionData, boolean isTransactionFromFullNode) {
+        Hash transactionHash = transactionData.getHash();
+        if (postponedTransactionMap.containsKey(transactionHash)) {
+            return false;
+        }
+        if (postponedTransactionMap.size() >= maxSize) {
+            remove(postponedTransactionMap.keySet().iterator().next());
+            evictedTransactions++;
+        }
+        postponedTransactionMap.put(transactionHash, new PostponedTransaction(transactionData, isTransactionFromFullNode, System.currentTimeMillis()));
+        forEachParentHash(transactionData, parentHash -> waitingTransactionHashesByParentHash.computeIfAbsent(parentHash, hash -> new LinkedHashSet<>()).add(transactionHash));
+        return true;
+    }
+
+    public synchronized boolean contains(TransactionData transactionData) {
+        return postponedTransactionMap.containsKey(transactionData.getHash());
+    }
+
+    /**
+     * @return false if the transaction is not postponed
+     */
+    public synchronized boolean remove(TransactionData transactionData) {
+        return remove(transactionData.getHash()) != null;
+    }
+
+    /**
+     * Removes the transactions which wait for the parent.
+     *
+     * @return the released transactions in their postponement order, mapped to whether they are new from a full node
+     */
+    public synchronized Map<TransactionData, Boolean> release(Hash parentHash) {
+        Set<Hash> waitingTransactionHashes = waitingTransactionHashesByParentHash.get(parentHash);
+        if (waitingTransactionHashes == null) {
+            return Collections.emptyMap();
+        }
+        Map<TransactionData, Boolean> releasedTransactionMap = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        for (Hash waitingTransactionHash : new ArrayList<>(waitingTransactionHashes)) {
+            PostponedTransaction postponedTransaction = remove(waitingTransactionHash);
+            long postponedMillis = now - postponedTransaction.postponedTime;
+            releasedTransactions++;
+            totalReleasedPostponedMillis += postponedMillis;
+            maxReleasedPostponedMillis = Math.max(maxReleasedPostponedMillis, postponedMillis);
+            releasedTransactionMap.put(postponedTransaction.transactionData, postponedTransaction.isTransactionFromFullNode);
+        }
+        return releasedTransactionMap;
+    }
+
+    /**
+     * @return the hashes of the removed transactions, which were postponed before the expiry time
+     */
+    public synchronized List<Hash> removeExpired(Instant expiryTime) {
+        List<Hash> expiredTransactionHashes = new ArrayList<>();
+        long expiryMillis = expiryTime.toEpochMilli();
+        Iterator<PostponedTransaction> iterator = postponedTransactionMap.values().iterator();
+        while (iterator.hasNext()) {
+            PostponedTransaction postponedTransaction = iterator.next();
+            if (postponedTransaction.postponedTime >= expiryMillis) {
+                break;
+            }
+            iterator.remove();
+            removeFromParents(postponedTransaction.transactionData);
+            expiredTransactionHashes.add(postponedTransaction.transactionData.getHash());
+        }
+        expiredTransactions += expiredTransactionHashes.size();
+        return expiredTransactionHashes;
+    }
+
+    private PostponedTransaction remove(Hash transactionHash) {
+        PostponedTransaction postponedTransaction = postponedTransactionMap.remove(transactionHash);
+        if (postponedTransaction != null) {
+            removeFromParents(postponedTransaction.transactionData);
+        }
+        return postponedTransaction;
+    }
+
+    private void removeFromParents(TransactionData transactionData) {
+        forEachParentHash(transactionData, parentHash -> {
+            Set<Hash> waitingTransactionHashes = waitingTransactionHashesByParentHash.get(parentHash);
+            if (waitingTransactionHashes != null && waitingTransactionHashes.remove(transactionData.getHash()) && waitingTransactionHashes.isEmpty()) {
+                waitingTransactionHashesByParentHash.remove(parentHash);
+            }
+        });
+    }
+
+    private void forEachParentHash(TransactionData transactionData, Consumer<Hash> parentHashConsumer) {
+        if (transactionData.getLeftParentHash() != null) {
+            parentHashConsumer.accept(transactionData.getLeftParentHash());
+        }
+        if (transactionData.getRightParentHash() != null) {
+            parentHashConsumer.accept(transactionData.getRightParentHash());
+        }
+    }
+
+    public synchronized int size() {
+        return postponedTransactionMap.size();
+    }
+
+    public synchronized long getReleasedTransactions() {
+        return releasedTransactions;
+    }
+
+    public synchronized long getAverageReleasedPostponedMillis() {
+        return releasedTransactions == 0 ? 0 : totalReleasedPostponedMillis / releasedTransactions;
+    }
+
+    public synchronized long getMaxReleasedPostponedMillis() {
+        return maxReleasedPostponedMillis;
+    }
+
+    public synchronized long getExpiredTransactions() {
+        return expiredTransactions;
+    }
+
+    public synchronized long getEvictedTransactions() {
+        return evictedTransactions;
+    }
+
+    private static class PostponedTransaction {
+
+        private final TransactionData transactionData;
+        private final boolean isTransactionFromFullNode;
+        private final long postponedTime;
+
+        private PostponedTransaction(TransactionData transactionData, boolean isTransactionFromFullNode, long postponedTime) {
+            this.transactionData = transactionData;
+            this.isTransactionFromFullNode = isTransactionFromFullNode;
+            this.postponedTime = postponedTime;
+        }
+    }
+}
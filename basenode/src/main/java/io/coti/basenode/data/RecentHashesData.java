@@ -0,0 +1,43 @@
+package io.coti.basenode.data;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The most recently written hashes of a collection, so a hash written lately is known to exist without reading the
+ * database. The hashes are kept in a ring of a fixed capacity: a new hash replaces the oldest one. A hash that is not
+ * contained may still exist in the database.
+ */
+public class RecentHashesData {
+
+    private final Set<Hash> hashes = ConcurrentHashMap.newKeySet();
+    private final AtomicReferenceArray<Hash> ring;
+    private final AtomicLong nextRingIndex = new AtomicLong();
+
+    public RecentHashesData(int capacity) {
+        ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void add(Hash hash) {
+        if (hashes.add(hash)) {
+            Hash replacedHash = ring.getAndSet((int) (nextRingIndex.getAndIncrement() % ring.length()), hash);
+            if (replacedHash != null && !replacedHash.equals(hash)) {
+                hashes.remove(replacedHash);
+            }
+        }
+    }
+
+    public boolean contains(Hash hash) {
+        return hashes.contains(hash);
+    }
+
+    public void remove(Hash hash) {
+        hashes.remove(hash);
+    }
+
+    public void clear() {
+        hashes.clear();
+    }
+}
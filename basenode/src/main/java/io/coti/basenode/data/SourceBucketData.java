@@ -0,0 +1,113 @@
+package io.coti.basenode.data;
+
+import java.util.Random;
+
+/**
+ * The immutable sources of one trust score. The weight of a source at a time is its age, which is split into the age
+ * of the newest source of the bucket and the fixed offset of the source from the newest one. The offsets are sampled by
+ * an alias table, so a source is sampled by its age in constant time.
+ */
+public class SourceBucketData {
+
+    private final TransactionData[] sources;
+    private final long newestAttachmentTime;
+    private final long offsetWeight;
+    private final double[] aliasProbabilities;
+    private final int[] aliases;
+
+    public SourceBucketData(TransactionData[] sources) {
+        this.sources = sources;
+        long newest = Long.MIN_VALUE;
+        for (TransactionData source : sources) {
+            newest = Math.max(newest, source.getAttachmentTime().toEpochMilli());
+        }
+        newestAttachmentTime = newest;
+        long[] offsets = new long[sources.length];
+        long totalOffset = 0;
+        for (int i = 0; i < sources.length; i++) {
+            offsets[i] = newestAttachmentTime - sources[i].getAttachmentTime().toEpochMilli();
+            totalOffset += offsets[i];
+        }
+        offsetWeight = totalOffset;
+        aliasProbabilities = new double[sources.length];
+        aliases = new int[sources.length];
+        if (totalOffset > 0) {
+            buildAliasTable(offsets, totalOffset);
+        }
+    }
+
+    private void buildAliasTable(long[] offsets, long totalOffset) {
+        int size = offsets.length;
+        double[] scaledProbabilities = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < size; i++) {
+            scaledProbabilities[i] = (double) offsets[i] * size / totalOffset;
+            if (scaledProbabilities[i] < 1) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+            aliasProbabilities[less] = scaledProbabilities[less];
+            aliases[less] = more;
+            scaledProbabilities[more] = scaledProbabilities[more] + scaledProbabilities[less] - 1;
+            if (scaledProbabilities[more] < 1) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+        while (largeSize > 0) {
+            aliasProbabilities[large[--largeSize]] = 1;
+        }
+        while (smallSize > 0) {
+            aliasProbabilities[small[--smallSize]] = 1;
+        }
+    }
+
+    public int size() {
+        return sources.length;
+    }
+
+    public TransactionData getSource(int index) {
+        return sources[index];
+    }
+
+    public TransactionData[] getSources() {
+        return sources.clone();
+    }
+
+    /**
+     * @return whether no source of the bucket is attached after the time, so all of them are weighted by
+     * {@link #getWeight(long)}
+     */
+    public boolean isOlderThan(long time) {
+        return newestAttachmentTime <= time;
+    }
+
+    /**
+     * @return the sum of the ages of the sources at the time, which is not before the newest attachment time
+     */
+    public long getWeight(long time) {
+        return sources.length * (time - newestAttachmentTime) + offsetWeight;
+    }
+
+    /**
+     * @return a source sampled by its age at the time, which is not before the newest attachment time
+     */
+    public TransactionData sample(long time, Random random) {
+        long newestAgeWeight = sources.length * (time - newestAttachmentTime);
+        long totalWeight = newestAgeWeight + offsetWeight;
+        if (totalWeight <= 0 || (long) (random.nextDouble() * totalWeight) < newestAgeWeight) {
+            return sources[random.nextInt(sources.length)];
+        }
+        int index = random.nextInt(sources.length);
+        return sources[random.nextDouble() < aliasProbabilities[index] ? index : aliases[index]];
+    }
+}
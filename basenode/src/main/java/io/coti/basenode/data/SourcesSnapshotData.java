@@ -0,0 +1,83 @@
+package io.coti.basenode.data;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An immutable version of the sources by rounded trust score. A change creates the next version, which shares all of
+ * the buckets but the changed one, so readers use a version without locks or copies while the sources change.
+ */
+public class SourcesSnapshotData {
+
+    public static final int MAX_TRUST_SCORE = 100;
+    private static final SourceBucketData EMPTY_BUCKET = new SourceBucketData(new TransactionData[0]);
+    private final long version;
+    private final SourceBucketData[] buckets;
+    private final int numberOfSources;
+
+    public SourcesSnapshotData() {
+        this(0, emptyBuckets(), 0);
+    }
+
+    private SourcesSnapshotData(long version, SourceBucketData[] buckets, int numberOfSources) {
+        this.version = version;
+        this.buckets = buckets;
+        this.numberOfSources = numberOfSources;
+    }
+
+    private static SourceBucketData[] emptyBuckets() {
+        SourceBucketData[] emptyBuckets = new SourceBucketData[MAX_TRUST_SCORE + 1];
+        Arrays.fill(emptyBuckets, EMPTY_BUCKET);
+        return emptyBuckets;
+    }
+
+    public SourcesSnapshotData addSource(TransactionData transactionData) {
+        int trustScore = transactionData.getRoundedSenderTrustScore();
+        TransactionData[] sources = buckets[trustScore].getSources();
+        TransactionData[] changedSources = Arrays.copyOf(sources, sources.length + 1);
+        changedSources[sources.length] = transactionData;
+        return withBucket(trustScore, changedSources, numberOfSources + 1);
+    }
+
+    public SourcesSnapshotData removeSource(TransactionData transactionData) {
+        int trustScore = transactionData.getRoundedSenderTrustScore();
+        TransactionData[] sources = buckets[trustScore].getSources();
+        for (int i = 0; i < sources.length; i++) {
+            if (sources[i].getHash().equals(transactionData.getHash())) {
+                TransactionData[] changedSources = new TransactionData[sources.length - 1];
+                System.arraycopy(sources, 0, changedSources, 0, i);
+                System.arraycopy(sources, i + 1, changedSources, i, sources.length - i - 1);
+                return withBucket(trustScore, changedSources, numberOfSources - 1);
+            }
+        }
+        return this;
+    }
+
+    private SourcesSnapshotData withBucket(int trustScore, TransactionData[] sources, int changedNumberOfSources) {
+        SourceBucketData[] changedBuckets = buckets.clone();
+        changedBuckets[trustScore] = sources.length == 0 ? EMPTY_BUCKET : new SourceBucketData(sources);
+        return new SourcesSnapshotData(version + 1, changedBuckets, changedNumberOfSources);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getNumberOfSources() {
+        return numberOfSources;
+    }
+
+    public SourceBucketData getBucket(int trustScore) {
+        return buckets[trustScore];
+    }
+
+    public Set<Hash> getSourceHashes(int trustScore) {
+        Set<Hash> sourceHashes = new HashSet<>();
+        SourceBucketData bucket = buckets[trustScore];
+        for (int i = 0; i < bucket.size(); i++) {
+            sourceHashes.add(bucket.getSource(i).getHash());
+        }
+        return sourceHashes;
+    }
+}
@@ -0,0 +1,124 @@
+package io.coti.basenode.data;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A compact index of a cluster of transactions and the children that are outside of the cluster. Every transaction
+ * gets an int id, in the iteration order of the cluster and then of the loaded children, and the child ids of a
+ * transaction are kept in one int array, so the index is sorted without touching the database or the transactions.
+ * The index is immutable and its sort keeps its state on the stack of the caller, so it can be shared by threads.
+ */
+public class TransactionDagData {
+
+    private final Map<Hash, Integer> hashToId;
+    private final TransactionData[] transactions;
+    private final int[] childOffsets;
+    private final int[] childIds;
+
+    /**
+     * @param missingChildGetter loads a child of a cluster transaction which is not in the cluster, or returns null
+     *                           when the child is unknown
+     */
+    public TransactionDagData(Map<Hash, TransactionData> cluster, Function<Hash, TransactionData> missingChildGetter) {
+        List<TransactionData> indexedTransactions = new ArrayList<>(cluster.size());
+        hashToId = new HashMap<>();
+        cluster.forEach((hash, transactionData) -> {
+            hashToId.put(hash, indexedTransactions.size());
+            indexedTransactions.add(transactionData);
+        });
+        int clusterSize = indexedTransactions.size();
+        for (int id = 0; id < clusterSize; id++) {
+            for (Hash childHash : indexedTransactions.get(id).getChildrenTransactionHashes()) {
+                if (!hashToId.containsKey(childHash)) {
+                    TransactionData childTransaction = missingChildGetter.apply(childHash);
+                    if (childTransaction != null) {
+                        hashToId.put(childHash, indexedTransactions.size());
+                        indexedTransactions.add(childTransaction);
+                    }
+                }
+            }
+        }
+        transactions = indexedTransactions.toArray(new TransactionData[0]);
+        childOffsets = new int[transactions.length + 1];
+        int[] ids = new int[transactions.length * 2];
+        int numberOfChildIds = 0;
+        for (int id = 0; id < transactions.length; id++) {
+            childOffsets[id] = numberOfChildIds;
+            for (Hash childHash : transactions[id].getChildrenTransactionHashes()) {
+                Integer childId = hashToId.get(childHash);
+                if (childId != null) {
+                    if (numberOfChildIds == ids.length) {
+                        ids = Arrays.copyOf(ids, ids.length * 2 + 1);
+                    }
+                    ids[numberOfChildIds++] = childId;
+                }
+            }
+        }
+        childOffsets[transactions.length] = numberOfChildIds;
+        childIds = Arrays.copyOf(ids, numberOfChildIds);
+    }
+
+    public int size() {
+        return transactions.length;
+    }
+
+    /**
+     * @return the id of the transaction, or -1 when it is not in the index
+     */
+    public int getId(Hash hash) {
+        Integer id = hashToId.get(hash);
+        return id != null ? id : -1;
+    }
+
+    public TransactionData getTransaction(int id) {
+        return transactions[id];
+    }
+
+    public int getNumberOfChildren(int id) {
+        return childOffsets[id + 1] - childOffsets[id];
+    }
+
+    public int getChildId(int id, int childIndex) {
+        return childIds[childOffsets[id] + childIndex];
+    }
+
+    /**
+     * Sorts the index by a depth first search from every unvisited transaction in id order, which visits the children
+     * in their order in the transaction. A transaction is added after all of its children, so every child precedes its
+     * parents.
+     *
+     * @return the ids of the transactions in topological order, children first
+     */
+    public int[] sortByTopologicalOrder() {
+        int[] topologicalOrder = new int[transactions.length];
+        int orderSize = 0;
+        boolean[] visited = new boolean[transactions.length];
+        int[] stack = new int[transactions.length];
+        int[] nextChildIndexes = new int[transactions.length];
+        for (int rootId = 0; rootId < transactions.length; rootId++) {
+            if (visited[rootId]) {
+                continue;
+            }
+            int stackSize = 0;
+            stack[stackSize++] = rootId;
+            visited[rootId] = true;
+            nextChildIndexes[rootId] = childOffsets[rootId];
+            while (stackSize > 0) {
+                int id = stack[stackSize - 1];
+                if (nextChildIndexes[id] < childOffsets[id + 1]) {
+                    int childId = childIds[nextChildIndexes[id]++];
+                    if (!visited[childId]) {
+                        visited[childId] = true;
+                        nextChildIndexes[childId] = childOffsets[childId];
+                        stack[stackSize++] = childId;
+                    }
+                } else {
+                    stackSize--;
+                    topologicalOrder[orderSize++] = id;
+                }
+            }
+        }
+        return topologicalOrder;
+    }
+}
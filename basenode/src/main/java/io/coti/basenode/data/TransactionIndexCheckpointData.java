@@ -0,0 +1,34 @@
+package io.coti.basenode.data;
+
+import io.coti.basenode.data.interfaces.IEntity;
+import io.coti.basenode.data.interfaces.ISignValidatable;
+import io.coti.basenode.data.interfaces.ISignable;
+import lombok.Data;
+
+@Data
+public class TransactionIndexCheckpointData implements IEntity, ISignable, ISignValidatable {
+
+    private static final long serialVersionUID = 2765104371596283540L;
+    private long index;
+    private byte[] accumulatedHash;
+    private Hash signerHash;
+    private SignatureData signature;
+
+    private TransactionIndexCheckpointData() {
+    }
+
+    public TransactionIndexCheckpointData(long index, byte[] accumulatedHash) {
+        this.index = index;
+        this.accumulatedHash = accumulatedHash;
+    }
+
+    @Override
+    public Hash getHash() {
+        return new Hash(index);
+    }
+
+    @Override
+    public void setHash(Hash hash) {
+        //no implementation
+    }
+}
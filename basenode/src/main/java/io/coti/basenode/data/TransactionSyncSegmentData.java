@@ -0,0 +1,21 @@
+package io.coti.basenode.data;
+
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.util.concurrent.Future;
+
+@Data
+public class TransactionSyncSegmentData {
+
+    private long startingIndex;
+    private long endingIndex;
+    private Path segmentPath;
+    private Future<?> download;
+
+    public TransactionSyncSegmentData(long startingIndex, long endingIndex, Path segmentPath) {
+        this.startingIndex = startingIndex;
+        this.endingIndex = endingIndex;
+        this.segmentPath = segmentPath;
+    }
+}
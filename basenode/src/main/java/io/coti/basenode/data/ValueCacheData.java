@@ -0,0 +1,116 @@
+package io.coti.basenode.data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size bounded cache of the encoded values of a collection by their hashes. The cache is split into segments by the
+ * hash, each segment is an access ordered map under its own lock which evicts its least recently used value.
+ */
+public class ValueCacheData {
+
+    private static final int SEGMENTS = 16;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ValueCacheData(int maxSize) {
+        int segmentMaxSize = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentMaxSize);
+        }
+    }
+
+    /**
+     * @return the cached value, or null when the hash is not cached
+     */
+    public byte[] get(Hash hash) {
+        Segment segment = getSegment(hash);
+        byte[] value;
+        synchronized (segment) {
+            value = segment.get(hash);
+        }
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    public void put(Hash hash, byte[] value) {
+        Segment segment = getSegment(hash);
+        synchronized (segment) {
+            segment.put(hash, value);
+        }
+    }
+
+    public void remove(Hash hash) {
+        Segment segment = getSegment(hash);
+        synchronized (segment) {
+            segment.remove(hash);
+        }
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRatio() {
+        long currentHits = hits.sum();
+        long lookups = currentHits + misses.sum();
+        return lookups == 0 ? 0 : (double) currentHits / lookups;
+    }
+
+    private Segment getSegment(Hash hash) {
+        int hashCode = hash.hashCode();
+        return segments[(hashCode ^ (hashCode >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private class Segment extends LinkedHashMap<Hash, byte[]> {
+
+        private final int maxSize;
+
+        private Segment(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Hash, byte[]> eldest) {
+            if (size() > maxSize) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.rocksdb.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 import org.springframework.util.SerializationUtils;
 
@@ -26,6 +27,9 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
     private static final boolean CREATE_IF_MISSING = true;
     private static final boolean CREATE_MISSING_COLUMN_FAMILIES = true;
     private static final int MAX_TOTAL_WAL_SIZE_IN_BYTES = 536870912;
+    private static final long BYTES_PER_SYNC = 1048576;
+    private static final String COLUMN_FAMILY_PROFILE_PROPERTY_PREFIX = "db.column.family.profile.";
+    private static final byte[] NO_VALUE_BUFFER = new byte[0];
     @Value("${data.path:./}")
     protected String databaseFolder;
     @Value("${database.folder.name}")
@@ -36,14 +40,25 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
     private boolean dropNotListedColumnFamilies;
     @Value("${reset.transactions}")
     private boolean resetTransactions;
+    @Value("${db.block.cache.size:134217728}")
+    private long blockCacheSize;
+    @Value("${db.bloom.filter.bits.per.key:10}")
+    private int bloomFilterBitsPerKey;
+    @Value("${db.column.family.default.profile:POINT_LOOKUP}")
+    private ColumnFamilyProfile defaultColumnFamilyProfile;
     @Autowired
     private ApplicationContext ctx;
+    @Autowired
+    private Environment environment;
     private String dbPath;
     private RocksDB db;
     protected List<String> columnFamilyClassNames;
     protected List<String> resetColumnFamilyNames = new ArrayList<>();
     private List<String> resetTransactionColumnFamilyNames;
     private final Map<String, ColumnFamilyHandle> classNameToColumnFamilyHandleMapping = new LinkedHashMap<>();
+    private final Map<String, ColumnFamilyOptions> classNameToColumnFamilyOptionsMapping = new HashMap<>();
+    private Cache blockCache;
+    private Filter bloomFilter;
 
     @Override
     public void init() {
@@ -63,14 +78,18 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
                 Transactions.class.getName(),
                 Addresses.class.getName(),
                 AddressTransactionsHistories.class.getName(),
+                AddressTransactionsHistoryEntries.class.getName(),
                 TransactionIndexes.class.getName(),
                 TransactionVotes.class.getName(),
-                NodeRegistrations.class.getName()
+                NodeRegistrations.class.getName(),
+                TransactionIndexCheckpoints.class.getName()
         ));
         resetTransactionColumnFamilyNames = new ArrayList<>(Arrays.asList(
                 Transactions.class.getName(),
                 AddressTransactionsHistories.class.getName(),
-                TransactionIndexes.class.getName()
+                AddressTransactionsHistoryEntries.class.getName(),
+                TransactionIndexes.class.getName(),
+                TransactionIndexCheckpoints.class.getName()
         ));
     }
 
@@ -159,7 +178,7 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
                     columnFamilyHandle.close();
                     classNameToColumnFamilyHandleMapping.remove(columnFamilyName);
                     if (create) {
-                        columnFamilyHandle = db.createColumnFamily(new ColumnFamilyDescriptor(columnFamilyName.getBytes()));
+                        columnFamilyHandle = db.createColumnFamily(new ColumnFamilyDescriptor(columnFamilyName.getBytes(), getColumnFamilyOptions(columnFamilyName)));
                         classNameToColumnFamilyHandleMapping.put(columnFamilyName, columnFamilyHandle);
                         log.info("Column family {} reset", columnFamilyName);
                     } else {
@@ -185,6 +204,8 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
             dbOptions.setCreateIfMissing(CREATE_IF_MISSING);
             dbOptions.setCreateMissingColumnFamilies(CREATE_MISSING_COLUMN_FAMILIES);
             dbOptions.setMaxTotalWalSize(MAX_TOTAL_WAL_SIZE_IN_BYTES);
+            dbOptions.setIncreaseParallelism(Runtime.getRuntime().availableProcessors());
+            dbOptions.setBytesPerSync(BYTES_PER_SYNC);
             db = RocksDB.open(dbOptions, dbPath, columnFamilyDescriptors, columnFamilyHandles);
             populateColumnFamilies(dbColumnFamilies, columnFamilyHandles);
         } catch (Exception e) {
@@ -213,7 +234,27 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
 
     private void initiateColumnFamilyDescriptors(List<String> dbColumnFamilies, List<ColumnFamilyDescriptor> columnFamilyDescriptors) {
         List<String> columnFamilyNamesToInit = Optional.ofNullable(dbColumnFamilies).orElse(columnFamilyClassNames);
-        columnFamilyNamesToInit.forEach(columnFamilyName -> columnFamilyDescriptors.add(new ColumnFamilyDescriptor(columnFamilyName.getBytes())));
+        columnFamilyNamesToInit.forEach(columnFamilyName -> columnFamilyDescriptors.add(new ColumnFamilyDescriptor(columnFamilyName.getBytes(), getColumnFamilyOptions(columnFamilyName))));
+    }
+
+    private ColumnFamilyOptions getColumnFamilyOptions(String columnFamilyName) {
+        if (blockCache == null) {
+            blockCache = new LRUCache(blockCacheSize);
+            bloomFilter = new BloomFilter(bloomFilterBitsPerKey, false);
+        }
+        return classNameToColumnFamilyOptionsMapping.computeIfAbsent(columnFamilyName, name -> {
+            ColumnFamilyProfile columnFamilyProfile = getColumnFamilyProfile(name);
+            log.info("Column family {} uses profile {}", name, columnFamilyProfile);
+            return columnFamilyProfile.createColumnFamilyOptions(blockCache, bloomFilter);
+        });
+    }
+
+    protected ColumnFamilyProfile getColumnFamilyProfile(String columnFamilyName) {
+        if (columnFamilyName.equals(new String(RocksDB.DEFAULT_COLUMN_FAMILY))) {
+            return ColumnFamilyProfile.SMALL_METADATA;
+        }
+        String columnFamilySimpleName = columnFamilyName.substring(columnFamilyName.lastIndexOf('.') + 1);
+        return environment.getProperty(COLUMN_FAMILY_PROFILE_PROPERTY_PREFIX + columnFamilySimpleName, ColumnFamilyProfile.class, defaultColumnFamilyProfile);
     }
 
     @Override
@@ -265,6 +306,34 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
         }
     }
 
+    /**
+     * Checks the bloom filters and the memtables by keyMayExist first, so most missing keys are not read from the
+     * files. A key that may exist is read into an empty buffer, so its value is neither copied nor deserialized.
+     */
+    @Override
+    public boolean isKeyExists(String columnFamilyName, byte[] key) {
+        ColumnFamilyHandle columnFamilyHandle = classNameToColumnFamilyHandleMapping.get(columnFamilyName);
+        try {
+            return db.keyMayExist(columnFamilyHandle, key, new StringBuilder()) && db.get(columnFamilyHandle, key, NO_VALUE_BUFFER) != RocksDB.NOT_FOUND;
+        } catch (RocksDBException e) {
+            log.error("Error at checking key existence in db", e);
+            return false;
+        }
+    }
+
+    /**
+     * @return the values of the keys in the order of the keys, with null for a missing key
+     */
+    @Override
+    public List<byte[]> multiGetByKeys(String columnFamilyName, List<byte[]> keys) {
+        ColumnFamilyHandle columnFamilyHandle = classNameToColumnFamilyHandleMapping.get(columnFamilyName);
+        try {
+            return db.multiGetAsList(Collections.nCopies(keys.size(), columnFamilyHandle), keys);
+        } catch (RocksDBException e) {
+            throw new DataBaseException("Error at multi getting by keys from db", e);
+        }
+    }
+
     public RocksIterator getIterator(String columnFamilyName) {
         try (ReadOptions readOptions = new ReadOptions()) {
             ColumnFamilyHandle columnFamilyHandler = classNameToColumnFamilyHandleMapping.get(columnFamilyName);
@@ -386,6 +455,14 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
         }
         db.close();
         db = null;
+        classNameToColumnFamilyOptionsMapping.values().forEach(ColumnFamilyOptions::close);
+        classNameToColumnFamilyOptionsMapping.clear();
+        if (blockCache != null) {
+            bloomFilter.close();
+            bloomFilter = null;
+            blockCache.close();
+            blockCache = null;
+        }
     }
 
     @Override
@@ -0,0 +1,58 @@
+package io.coti.basenode.database;
+
+import org.rocksdb.*;
+import org.rocksdb.util.SizeUnit;
+
+/**
+ * RocksDB tuning of a column family by its access pattern. All profiles share the node block cache and use level
+ * compaction with dynamic level sizes, which keeps space amplification low.
+ * <ul>
+ * <li>{@link #POINT_LOOKUP} - random gets by hash: bloom filters, small blocks, cached and pinned index and filter blocks.</li>
+ * <li>{@link #APPEND_LOG} - write heavy, mostly increasing keys: large memtables and large blocks.</li>
+ * <li>{@link #SMALL_METADATA} - small and rarely written: small memtables.</li>
+ * </ul>
+ */
+public enum ColumnFamilyProfile {
+    POINT_LOOKUP(64 * SizeUnit.MB, 3, 4 * SizeUnit.KB, true, CompressionType.LZ4_COMPRESSION, CompressionType.LZ4HC_COMPRESSION),
+    APPEND_LOG(128 * SizeUnit.MB, 4, 16 * SizeUnit.KB, false, CompressionType.LZ4_COMPRESSION, CompressionType.LZ4HC_COMPRESSION),
+    SMALL_METADATA(4 * SizeUnit.MB, 2, 4 * SizeUnit.KB, true, CompressionType.LZ4_COMPRESSION, CompressionType.LZ4_COMPRESSION);
+
+    private final long writeBufferSize;
+    private final int maxWriteBufferNumber;
+    private final long blockSize;
+    private final boolean bloomFilter;
+    private final CompressionType compressionType;
+    private final CompressionType bottommostCompressionType;
+
+    ColumnFamilyProfile(long writeBufferSize, int maxWriteBufferNumber, long blockSize, boolean bloomFilter,
+                        CompressionType compressionType, CompressionType bottommostCompressionType) {
+        this.writeBufferSize = writeBufferSize;
+        this.maxWriteBufferNumber = maxWriteBufferNumber;
+        this.blockSize = blockSize;
+        this.bloomFilter = bloomFilter;
+        this.compressionType = compressionType;
+        this.bottommostCompressionType = bottommostCompressionType;
+    }
+
+    /**
+     * The block cache and the bloom filter are shared and must outlive the returned options.
+     */
+    public ColumnFamilyOptions createColumnFamilyOptions(Cache blockCache, Filter bloomFilterPolicy) {
+        BlockBasedTableConfig tableConfig = new BlockBasedTableConfig()
+                .setBlockCache(blockCache)
+                .setBlockSize(blockSize)
+                .setCacheIndexAndFilterBlocks(true)
+                .setPinL0FilterAndIndexBlocksInCache(true);
+        if (bloomFilter) {
+            tableConfig.setFilterPolicy(bloomFilterPolicy);
+        }
+        return new ColumnFamilyOptions()
+                .setWriteBufferSize(writeBufferSize)
+                .setMaxWriteBufferNumber(maxWriteBufferNumber)
+                .setMinWriteBufferNumberToMerge(1)
+                .setCompressionType(compressionType)
+                .setBottommostCompressionType(bottommostCompressionType)
+                .setLevelCompactionDynamicLevelBytes(true)
+                .setTableFormatConfig(tableConfig);
+    }
+}
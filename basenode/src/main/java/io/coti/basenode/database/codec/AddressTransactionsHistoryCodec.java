@@ -0,0 +1,36 @@
+package io.coti.basenode.database.codec;
+
+import io.coti.basenode.data.AddressTransactionsHistory;
+import io.coti.basenode.data.Hash;
+
+import java.util.Set;
+
+/**
+ * The address hash is not written, {@link io.coti.basenode.model.Collection} restores it from the key.
+ */
+public class AddressTransactionsHistoryCodec extends BinaryEntityCodec<AddressTransactionsHistory> {
+
+    private static final byte SCHEMA_VERSION = 1;
+
+    @Override
+    protected byte getSchemaVersion() {
+        return SCHEMA_VERSION;
+    }
+
+    @Override
+    protected void write(BinaryEntityWriter writer, AddressTransactionsHistory addressTransactionsHistory) {
+        writer.writeInstant(addressTransactionsHistory.getCreationTime());
+        writer.writeCollection(addressTransactionsHistory.getTransactionsHistory(), BinaryEntityWriter::writeHash);
+    }
+
+    @Override
+    protected AddressTransactionsHistory read(BinaryEntityReader reader, byte schemaVersion) {
+        AddressTransactionsHistory addressTransactionsHistory = new AddressTransactionsHistory(null);
+        addressTransactionsHistory.setCreationTime(reader.readInstant());
+        Set<Hash> transactionsHistory = addressTransactionsHistory.getTransactionsHistory();
+        if (reader.readCollection(size -> transactionsHistory, BinaryEntityReader::readHash) == null) {
+            addressTransactionsHistory.setTransactionsHistory(null);
+        }
+        return addressTransactionsHistory;
+    }
+}
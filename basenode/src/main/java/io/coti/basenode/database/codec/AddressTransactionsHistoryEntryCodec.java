@@ -0,0 +1,36 @@
+package io.coti.basenode.database.codec;
+
+import io.coti.basenode.data.AddressTransactionsHistoryEntry;
+
+/**
+ * The entry key is not written, {@link io.coti.basenode.model.Collection} restores it from the key.
+ */
+public class AddressTransactionsHistoryEntryCodec extends BinaryEntityCodec<AddressTransactionsHistoryEntry> {
+
+    private static final byte SCHEMA_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    @Override
+    protected byte getSchemaVersion() {
+        return SCHEMA_VERSION;
+    }
+
+    @Override
+    protected int getInitialCapacity() {
+        return INITIAL_CAPACITY;
+    }
+
+    @Override
+    protected void write(BinaryEntityWriter writer, AddressTransactionsHistoryEntry addressTransactionsHistoryEntry) {
+        writer.writeHash(addressTransactionsHistoryEntry.getTransactionHash());
+        writer.writeInstant(addressTransactionsHistoryEntry.getCreateTime());
+    }
+
+    @Override
+    protected AddressTransactionsHistoryEntry read(BinaryEntityReader reader, byte schemaVersion) {
+        AddressTransactionsHistoryEntry addressTransactionsHistoryEntry = new AddressTransactionsHistoryEntry();
+        addressTransactionsHistoryEntry.setTransactionHash(reader.readHash());
+        addressTransactionsHistoryEntry.setCreateTime(reader.readInstant());
+        return addressTransactionsHistoryEntry;
+    }
+}
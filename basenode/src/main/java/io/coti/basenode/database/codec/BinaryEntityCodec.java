@@ -0,0 +1,96 @@
+package io.coti.basenode.database.codec;
+
+import io.coti.basenode.data.interfaces.IEntity;
+import io.coti.basenode.database.interfaces.IEntityCodec;
+import io.coti.basenode.exceptions.DataBaseException;
+import org.springframework.util.SerializationUtils;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Base class of the compact binary codecs. Every value starts with a format marker and the schema version it was
+ * written with, so older binary versions can still be decoded after a schema change. Values written by the previous
+ * Java serialization based storage are recognized by the serialization stream header and decoded as before.
+ */
+public abstract class BinaryEntityCodec<T extends IEntity> implements IEntityCodec<T> {
+
+    private static final byte FORMAT_MARKER = (byte) 0xC0;
+    private static final byte JAVA_SERIALIZATION_MAGIC_FIRST_BYTE = (byte) 0xAC;
+    private static final byte JAVA_SERIALIZATION_MAGIC_SECOND_BYTE = (byte) 0xED;
+    private static final int HEADER_LENGTH = 2;
+    private static final int DEFAULT_INITIAL_CAPACITY = 256;
+
+    protected abstract byte getSchemaVersion();
+
+    protected abstract void write(BinaryEntityWriter writer, T entity);
+
+    protected abstract T read(BinaryEntityReader reader, byte schemaVersion);
+
+    protected int getInitialCapacity() {
+        return DEFAULT_INITIAL_CAPACITY;
+    }
+
+    @Override
+    public byte[] encode(T entity) {
+        BinaryEntityWriter writer = new BinaryEntityWriter(getInitialCapacity());
+        writer.writeByte(FORMAT_MARKER);
+        writer.writeByte(getSchemaVersion());
+        write(writer, entity);
+        return writer.toByteArray();
+    }
+
+    @Override
+    public T decode(byte[] value) {
+        if (isBinaryFormat(value)) {
+            byte schemaVersion = value[1];
+            if (schemaVersion < 1 || schemaVersion > getSchemaVersion()) {
+                throw new DataBaseException(String.format("Unsupported schema version %s for %s", schemaVersion, getClass().getSimpleName()));
+            }
+            try {
+                return read(new BinaryEntityReader(value, HEADER_LENGTH), schemaVersion);
+            } catch (RuntimeException e) {
+                throw new DataBaseException(String.format("Corrupted value for %s", getClass().getSimpleName()), e);
+            }
+        }
+        if (isLegacyFormat(value)) {
+            return (T) SerializationUtils.deserialize(value);
+        }
+        throw new DataBaseException(String.format("Unknown value format for %s", getClass().getSimpleName()));
+    }
+
+    @Override
+    public boolean isCurrentFormat(byte[] value) {
+        return isBinaryFormat(value) && value[1] == getSchemaVersion();
+    }
+
+    @Override
+    public boolean isMigratable() {
+        return true;
+    }
+
+    public boolean isBinaryFormat(byte[] value) {
+        return value.length >= HEADER_LENGTH && value[0] == FORMAT_MARKER;
+    }
+
+    private boolean isLegacyFormat(byte[] value) {
+        return value.length >= HEADER_LENGTH && value[0] == JAVA_SERIALIZATION_MAGIC_FIRST_BYTE && value[1] == JAVA_SERIALIZATION_MAGIC_SECOND_BYTE;
+    }
+
+    protected static <E> Constructor<E> getNoArgsConstructor(Class<E> entityClass) {
+        try {
+            Constructor<E> constructor = entityClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(String.format("No no-args constructor for %s", entityClass.getName()), e);
+        }
+    }
+
+    protected static <E> E newInstance(Constructor<E> constructor) {
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(String.format("Failed to instantiate %s", constructor.getDeclaringClass().getName()), e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package io.coti.basenode.database.codec;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.SignatureData;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+public class BinaryEntityReader {
+
+    private static final int MAX_VAR_INT_SHIFT = 28;
+    private final byte[] buffer;
+    private int position;
+
+    public BinaryEntityReader(byte[] buffer, int position) {
+        this.buffer = buffer;
+        this.position = position;
+    }
+
+    public byte readByte() {
+        if (position >= buffer.length) {
+            throw new IllegalArgumentException("Unexpected end of value");
+        }
+        return buffer[position++];
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public Boolean readNullableBoolean() {
+        byte value = readByte();
+        return value == 0 ? null : value == 2;
+    }
+
+    public int readInt() {
+        return (readByte() & 0xFF) << 24 | (readByte() & 0xFF) << 16 | (readByte() & 0xFF) << 8 | (readByte() & 0xFF);
+    }
+
+    public long readLong() {
+        return (long) readInt() << 32 | (readInt() & 0xFFFFFFFFL);
+    }
+
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift <= MAX_VAR_INT_SHIFT; shift += 7) {
+            byte current = readByte();
+            value |= (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed var int");
+    }
+
+    public byte[] readBytes() {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.length - position) {
+            throw new IllegalArgumentException("Unexpected end of value");
+        }
+        byte[] value = Arrays.copyOfRange(buffer, position, position + length);
+        position += length;
+        return value;
+    }
+
+    public int[] readInts() {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        int[] value = new int[length];
+        for (int i = 0; i < length; i++) {
+            value[i] = readInt();
+        }
+        return value;
+    }
+
+    public String readString() {
+        byte[] bytes = readBytes();
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public Hash readHash() {
+        byte[] bytes = readBytes();
+        return bytes == null ? null : new Hash(bytes);
+    }
+
+    public BigDecimal readBigDecimal() {
+        byte[] unscaledValue = readBytes();
+        if (unscaledValue == null) {
+            return null;
+        }
+        return new BigDecimal(new BigInteger(unscaledValue), readInt());
+    }
+
+    public Instant readInstant() {
+        if (!readBoolean()) {
+            return null;
+        }
+        return Instant.ofEpochSecond(readLong(), readInt());
+    }
+
+    public <E extends Enum<E>> E readEnum(Class<E> enumClass) {
+        String name = readString();
+        return name == null ? null : Enum.valueOf(enumClass, name);
+    }
+
+    public SignatureData readSignature() {
+        if (!readBoolean()) {
+            return null;
+        }
+        return new SignatureData(readString(), readString());
+    }
+
+    public <E, C extends Collection<E>> C readCollection(IntFunction<C> collectionFactory, Function<BinaryEntityReader, E> elementReader) {
+        int size = readLength();
+        if (size < 0) {
+            return null;
+        }
+        C collection = collectionFactory.apply(Math.min(size, buffer.length - position));
+        for (int i = 0; i < size; i++) {
+            collection.add(elementReader.apply(this));
+        }
+        return collection;
+    }
+
+    private int readLength() {
+        return readVarInt() - 1;
+    }
+}
@@ -0,0 +1,145 @@
+package io.coti.basenode.database.codec;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.SignatureData;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.BiConsumer;
+
+/**
+ * Writes values for {@link BinaryEntityReader}. Lengths and counts are unsigned var ints, stored one above the actual
+ * value so that zero can stand for a null reference.
+ */
+public class BinaryEntityWriter {
+
+    private byte[] buffer;
+    private int position;
+
+    public BinaryEntityWriter(int initialCapacity) {
+        buffer = new byte[initialCapacity];
+    }
+
+    public void writeByte(byte value) {
+        ensureCapacity(1);
+        buffer[position++] = value;
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? (byte) 1 : (byte) 0);
+    }
+
+    public void writeNullableBoolean(Boolean value) {
+        writeByte(value == null ? (byte) 0 : (value ? (byte) 2 : (byte) 1));
+    }
+
+    public void writeInt(int value) {
+        ensureCapacity(Integer.BYTES);
+        buffer[position++] = (byte) (value >>> 24);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    public void writeDouble(double value) {
+        writeLong(Double.doubleToLongBits(value));
+    }
+
+    public void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeBytes(byte[] value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(value.length + 1);
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, buffer, position, value.length);
+        position += value.length;
+    }
+
+    public void writeInts(int[] value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(value.length + 1);
+        for (int element : value) {
+            writeInt(element);
+        }
+    }
+
+    public void writeString(String value) {
+        writeBytes(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void writeHash(Hash hash) {
+        writeBytes(hash == null ? null : hash.getBytes());
+    }
+
+    public void writeBigDecimal(BigDecimal value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeBytes(value.unscaledValue().toByteArray());
+        writeInt(value.scale());
+    }
+
+    public void writeInstant(Instant value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeLong(value.getEpochSecond());
+            writeInt(value.getNano());
+        }
+    }
+
+    public void writeEnum(Enum<?> value) {
+        writeString(value == null ? null : value.name());
+    }
+
+    public void writeSignature(SignatureData signatureData) {
+        writeBoolean(signatureData != null);
+        if (signatureData != null) {
+            writeString(signatureData.getR());
+            writeString(signatureData.getS());
+        }
+    }
+
+    public <E> void writeCollection(Collection<E> collection, BiConsumer<BinaryEntityWriter, E> elementWriter) {
+        if (collection == null) {
+            writeVarInt(0);
+            return;
+        }
+        Object[] elements = collection.toArray();
+        writeVarInt(elements.length + 1);
+        for (Object element : elements) {
+            elementWriter.accept(this, (E) element);
+        }
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(int length) {
+        if (position + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + length));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.coti.basenode.database.codec;
+
+import io.coti.basenode.data.interfaces.IEntity;
+import io.coti.basenode.database.interfaces.IEntityCodec;
+import org.springframework.util.SerializationUtils;
+
+public class JavaSerializationCodec<T extends IEntity> implements IEntityCodec<T> {
+
+    @Override
+    public byte[] encode(T entity) {
+        return SerializationUtils.serialize(entity);
+    }
+
+    @Override
+    public T decode(byte[] value) {
+        return (T) SerializationUtils.deserialize(value);
+    }
+
+    @Override
+    public boolean isCurrentFormat(byte[] value) {
+        return true;
+    }
+
+    @Override
+    public boolean isMigratable() {
+        return false;
+    }
+}
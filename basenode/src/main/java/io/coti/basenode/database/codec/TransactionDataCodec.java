@@ -0,0 +1,297 @@
+package io.coti.basenode.database.codec;
+
+import io.coti.basenode.data.*;
+
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The transaction hash is not written, {@link io.coti.basenode.model.Collection} restores it from the key.
+ */
+public class TransactionDataCodec extends BinaryEntityCodec<TransactionData> {
+
+    private static final byte SCHEMA_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 2048;
+    private static final byte DSP_VOTE = 1;
+    private static final byte TRANSACTION_DSP_VOTE = 2;
+    private static final byte TRANSACTION_TRUST_SCORE_DATA = 1;
+    private static final byte EXPANDED_TRANSACTION_TRUST_SCORE_DATA = 2;
+    private static final Constructor<TransactionData> transactionDataConstructor = getNoArgsConstructor(TransactionData.class);
+    private static final Constructor<DspConsensusResult> dspConsensusResultConstructor = getNoArgsConstructor(DspConsensusResult.class);
+    private static final Constructor<DspVote> dspVoteConstructor = getNoArgsConstructor(DspVote.class);
+    private static final Constructor<TransactionDspVote> transactionDspVoteConstructor = getNoArgsConstructor(TransactionDspVote.class);
+    private static final Constructor<TransactionTrustScoreData> transactionTrustScoreDataConstructor = getNoArgsConstructor(TransactionTrustScoreData.class);
+    private static final Constructor<TrustScoreNodeResultData> trustScoreNodeResultDataConstructor = getNoArgsConstructor(TrustScoreNodeResultData.class);
+    private static final Map<BaseTransactionName, Constructor<? extends BaseTransactionData>> baseTransactionConstructors = new EnumMap<>(BaseTransactionName.class);
+
+    static {
+        for (BaseTransactionName baseTransactionName : BaseTransactionName.values()) {
+            baseTransactionConstructors.put(baseTransactionName, getNoArgsConstructor(baseTransactionName.getBaseTransactionClass()));
+        }
+    }
+
+    @Override
+    protected byte getSchemaVersion() {
+        return SCHEMA_VERSION;
+    }
+
+    @Override
+    protected int getInitialCapacity() {
+        return INITIAL_CAPACITY;
+    }
+
+    @Override
+    protected void write(BinaryEntityWriter writer, TransactionData transactionData) {
+        writer.writeCollection(transactionData.getBaseTransactions(), this::writeBaseTransaction);
+        writer.writeBigDecimal(transactionData.getAmount());
+        writer.writeEnum(transactionData.getType());
+        writer.writeHash(transactionData.getLeftParentHash());
+        writer.writeHash(transactionData.getRightParentHash());
+        writer.writeBoolean(transactionData.isTrustChainConsensus());
+        writer.writeDouble(transactionData.getTrustChainTrustScore());
+        writer.writeInstant(transactionData.getTrustChainConsensusTime());
+        writer.writeInstant(transactionData.getTransactionConsensusUpdateTime());
+        writer.writeInstant(transactionData.getCreateTime());
+        writer.writeInstant(transactionData.getAttachmentTime());
+        writer.writeDouble(transactionData.getSenderTrustScore());
+        writer.writeHash(transactionData.getSenderHash());
+        writer.writeSignature(transactionData.getSenderSignature());
+        writer.writeHash(transactionData.getNodeHash());
+        writer.writeSignature(transactionData.getNodeSignature());
+        writer.writeCollection(transactionData.getChildrenTransactionHashes(), BinaryEntityWriter::writeHash);
+        writer.writeNullableBoolean(transactionData.getValid());
+        writer.writeString(transactionData.getTransactionDescription());
+        writeDspConsensusResult(writer, transactionData.getDspConsensusResult());
+        writer.writeCollection(transactionData.getTrustScoreResults(), this::writeTransactionTrustScore);
+        writer.writeInts(transactionData.getNonces());
+    }
+
+    @Override
+    protected TransactionData read(BinaryEntityReader reader, byte schemaVersion) {
+        TransactionData transactionData = newInstance(transactionDataConstructor);
+        transactionData.setBaseTransactions(reader.readCollection(ArrayList::new, this::readBaseTransaction));
+        transactionData.setAmount(reader.readBigDecimal());
+        transactionData.setType(reader.readEnum(TransactionType.class));
+        transactionData.setLeftParentHash(reader.readHash());
+        transactionData.setRightParentHash(reader.readHash());
+        transactionData.setTrustChainConsensus(reader.readBoolean());
+        transactionData.setTrustChainTrustScore(reader.readDouble());
+        transactionData.setTrustChainConsensusTime(reader.readInstant());
+        transactionData.setTransactionConsensusUpdateTime(reader.readInstant());
+        transactionData.setCreateTime(reader.readInstant());
+        transactionData.setAttachmentTime(reader.readInstant());
+        transactionData.setSenderTrustScore(reader.readDouble());
+        transactionData.setSenderHash(reader.readHash());
+        transactionData.setSenderSignature(reader.readSignature());
+        transactionData.setNodeHash(reader.readHash());
+        transactionData.setNodeSignature(reader.readSignature());
+        transactionData.setChildrenTransactionHashes(reader.readCollection(ArrayList::new, BinaryEntityReader::readHash));
+        transactionData.setValid(reader.readNullableBoolean());
+        transactionData.setTransactionDescription(reader.readString());
+        transactionData.setDspConsensusResult(readDspConsensusResult(reader));
+        transactionData.setTrustScoreResults(reader.readCollection(ArrayList::new, this::readTransactionTrustScore));
+        transactionData.setNonces(reader.readInts());
+        return transactionData;
+    }
+
+    private void writeBaseTransaction(BinaryEntityWriter writer, BaseTransactionData baseTransactionData) {
+        BaseTransactionName baseTransactionName = BaseTransactionName.getName(baseTransactionData.getClass());
+        if (baseTransactionName == null) {
+            throw new IllegalArgumentException("Invalid base transaction class " + baseTransactionData.getClass());
+        }
+        writer.writeEnum(baseTransactionName);
+        writer.writeHash(baseTransactionData.getHash());
+        writer.writeHash(baseTransactionData.getAddressHash());
+        writer.writeBigDecimal(baseTransactionData.getAmount());
+        writer.writeInstant(baseTransactionData.getCreateTime());
+        writer.writeSignature(baseTransactionData.getSignatureData());
+        if (baseTransactionData instanceof PaymentInputBaseTransactionData) {
+            PaymentInputBaseTransactionData paymentInputBaseTransactionData = (PaymentInputBaseTransactionData) baseTransactionData;
+            writer.writeCollection(paymentInputBaseTransactionData.getItems(), this::writePaymentItem);
+            writer.writeString(paymentInputBaseTransactionData.getEncryptedMerchantName());
+        }
+        if (baseTransactionData instanceof OutputBaseTransactionData) {
+            writer.writeBigDecimal(((OutputBaseTransactionData) baseTransactionData).getOriginalAmount());
+        }
+        if (baseTransactionData instanceof NetworkFeeData) {
+            NetworkFeeData networkFeeData = (NetworkFeeData) baseTransactionData;
+            writer.writeCollection(networkFeeData.getTrustScoreNodeResult(), this::writeTrustScoreNodeResult);
+            writer.writeBigDecimal(networkFeeData.getReducedAmount());
+        } else if (baseTransactionData instanceof RollingReserveData) {
+            RollingReserveData rollingReserveData = (RollingReserveData) baseTransactionData;
+            writer.writeCollection(rollingReserveData.getTrustScoreNodeResult(), this::writeTrustScoreNodeResult);
+            writer.writeBigDecimal(rollingReserveData.getReducedAmount());
+        } else if (baseTransactionData instanceof ReceiverBaseTransactionData) {
+            writer.writeHash(((ReceiverBaseTransactionData) baseTransactionData).getReceiverDescription());
+        }
+    }
+
+    private BaseTransactionData readBaseTransaction(BinaryEntityReader reader) {
+        BaseTransactionName baseTransactionName = reader.readEnum(BaseTransactionName.class);
+        BaseTransactionData baseTransactionData = newInstance(baseTransactionConstructors.get(baseTransactionName));
+        baseTransactionData.setHash(reader.readHash());
+        baseTransactionData.setAddressHash(reader.readHash());
+        BigDecimal amount = reader.readBigDecimal();
+        if (amount != null) {
+            baseTransactionData.setAmount(amount);
+        }
+        baseTransactionData.setCreateTime(reader.readInstant());
+        baseTransactionData.setSignatureData(reader.readSignature());
+        if (baseTransactionData instanceof PaymentInputBaseTransactionData) {
+            PaymentInputBaseTransactionData paymentInputBaseTransactionData = (PaymentInputBaseTransactionData) baseTransactionData;
+            paymentInputBaseTransactionData.setItems(reader.readCollection(ArrayList::new, this::readPaymentItem));
+            paymentInputBaseTransactionData.setEncryptedMerchantName(reader.readString());
+        }
+        if (baseTransactionData instanceof OutputBaseTransactionData) {
+            BigDecimal originalAmount = reader.readBigDecimal();
+            if (originalAmount != null) {
+                ((OutputBaseTransactionData) baseTransactionData).setOriginalAmount(originalAmount);
+            }
+        }
+        if (baseTransactionData instanceof NetworkFeeData) {
+            NetworkFeeData networkFeeData = (NetworkFeeData) baseTransactionData;
+            networkFeeData.setTrustScoreNodeResult(reader.readCollection(ArrayList::new, this::readTrustScoreNodeResult));
+            networkFeeData.setReducedAmount(reader.readBigDecimal());
+        } else if (baseTransactionData instanceof RollingReserveData) {
+            RollingReserveData rollingReserveData = (RollingReserveData) baseTransactionData;
+            rollingReserveData.setTrustScoreNodeResult(reader.readCollection(ArrayList::new, this::readTrustScoreNodeResult));
+            BigDecimal reducedAmount = reader.readBigDecimal();
+            if (reducedAmount != null) {
+                rollingReserveData.setReducedAmount(reducedAmount);
+            }
+        } else if (baseTransactionData instanceof ReceiverBaseTransactionData) {
+            ((ReceiverBaseTransactionData) baseTransactionData).setReceiverDescription(reader.readHash());
+        }
+        return baseTransactionData;
+    }
+
+    private void writePaymentItem(BinaryEntityWriter writer, PaymentItemData paymentItemData) {
+        writer.writeBoolean(paymentItemData.getItemId() != null);
+        if (paymentItemData.getItemId() != null) {
+            writer.writeLong(paymentItemData.getItemId());
+        }
+        writer.writeBigDecimal(paymentItemData.getItemPrice());
+        writer.writeString(paymentItemData.getItemName());
+        writer.writeInt(paymentItemData.getItemQuantity());
+    }
+
+    private PaymentItemData readPaymentItem(BinaryEntityReader reader) {
+        PaymentItemData paymentItemData = new PaymentItemData();
+        paymentItemData.setItemId(reader.readBoolean() ? reader.readLong() : null);
+        paymentItemData.setItemPrice(reader.readBigDecimal());
+        paymentItemData.setItemName(reader.readString());
+        paymentItemData.setItemQuantity(reader.readInt());
+        return paymentItemData;
+    }
+
+    private void writeTrustScoreNodeResult(BinaryEntityWriter writer, TrustScoreNodeResultData trustScoreNodeResultData) {
+        writer.writeHash(trustScoreNodeResultData.getTrustScoreNodeHash());
+        writer.writeSignature(trustScoreNodeResultData.getTrustScoreNodeSignature());
+        writer.writeBoolean(trustScoreNodeResultData.isValid());
+    }
+
+    private TrustScoreNodeResultData readTrustScoreNodeResult(BinaryEntityReader reader) {
+        TrustScoreNodeResultData trustScoreNodeResultData = newInstance(trustScoreNodeResultDataConstructor);
+        trustScoreNodeResultData.setTrustScoreNodeHash(reader.readHash());
+        trustScoreNodeResultData.setTrustScoreNodeSignature(reader.readSignature());
+        trustScoreNodeResultData.setValid(reader.readBoolean());
+        return trustScoreNodeResultData;
+    }
+
+    private void writeTransactionTrustScore(BinaryEntityWriter writer, TransactionTrustScoreData transactionTrustScoreData) {
+        boolean expanded = transactionTrustScoreData instanceof ExpandedTransactionTrustScoreData;
+        writer.writeByte(expanded ? EXPANDED_TRANSACTION_TRUST_SCORE_DATA : TRANSACTION_TRUST_SCORE_DATA);
+        writer.writeBoolean(transactionTrustScoreData.getTrustScore() != null);
+        if (transactionTrustScoreData.getTrustScore() != null) {
+            writer.writeDouble(transactionTrustScoreData.getTrustScore());
+        }
+        writer.writeHash(transactionTrustScoreData.getTrustScoreNodeHash());
+        writer.writeSignature(transactionTrustScoreData.getTrustScoreNodeSignature());
+        if (expanded) {
+            ExpandedTransactionTrustScoreData expandedTransactionTrustScoreData = (ExpandedTransactionTrustScoreData) transactionTrustScoreData;
+            writer.writeHash(expandedTransactionTrustScoreData.getUserHash());
+            writer.writeHash(expandedTransactionTrustScoreData.getTransactionHash());
+        }
+    }
+
+    private TransactionTrustScoreData readTransactionTrustScore(BinaryEntityReader reader) {
+        byte type = reader.readByte();
+        Double trustScore = reader.readBoolean() ? reader.readDouble() : null;
+        Hash trustScoreNodeHash = reader.readHash();
+        SignatureData trustScoreNodeSignature = reader.readSignature();
+        TransactionTrustScoreData transactionTrustScoreData;
+        if (type == EXPANDED_TRANSACTION_TRUST_SCORE_DATA) {
+            transactionTrustScoreData = new ExpandedTransactionTrustScoreData(reader.readHash(), reader.readHash(), 0);
+        } else if (type == TRANSACTION_TRUST_SCORE_DATA) {
+            transactionTrustScoreData = newInstance(transactionTrustScoreDataConstructor);
+        } else {
+            throw new IllegalArgumentException("Invalid transaction trust score type " + type);
+        }
+        transactionTrustScoreData.setTrustScore(trustScore);
+        transactionTrustScoreData.setTrustScoreNodeHash(trustScoreNodeHash);
+        transactionTrustScoreData.setTrustScoreNodeSignature(trustScoreNodeSignature);
+        return transactionTrustScoreData;
+    }
+
+    private void writeDspConsensusResult(BinaryEntityWriter writer, DspConsensusResult dspConsensusResult) {
+        writer.writeBoolean(dspConsensusResult != null);
+        if (dspConsensusResult == null) {
+            return;
+        }
+        writer.writeHash(dspConsensusResult.getTransactionHash());
+        writer.writeHash(dspConsensusResult.getZeroSpendServerHash());
+        writer.writeLong(dspConsensusResult.getIndex());
+        writer.writeInstant(dspConsensusResult.getIndexingTime());
+        writer.writeSignature(dspConsensusResult.getZeroSpendSignature());
+        writer.writeCollection(dspConsensusResult.getDspVotes(), TransactionDataCodec::writeDspVote);
+        writer.writeBoolean(dspConsensusResult.isDspConsensus());
+    }
+
+    private DspConsensusResult readDspConsensusResult(BinaryEntityReader reader) {
+        if (!reader.readBoolean()) {
+            return null;
+        }
+        DspConsensusResult dspConsensusResult = newInstance(dspConsensusResultConstructor);
+        dspConsensusResult.setTransactionHash(reader.readHash());
+        dspConsensusResult.setZeroSpendServerHash(reader.readHash());
+        dspConsensusResult.setIndex(reader.readLong());
+        dspConsensusResult.setIndexingTime(reader.readInstant());
+        dspConsensusResult.setZeroSpendSignature(reader.readSignature());
+        dspConsensusResult.setDspVotes(reader.readCollection(ArrayList::new, TransactionDataCodec::readDspVote));
+        dspConsensusResult.setDspConsensus(reader.readBoolean());
+        return dspConsensusResult;
+    }
+
+    static void writeDspVote(BinaryEntityWriter writer, DspVote dspVote) {
+        boolean transactionDspVote = dspVote instanceof TransactionDspVote;
+        writer.writeByte(transactionDspVote ? TRANSACTION_DSP_VOTE : DSP_VOTE);
+        writer.writeBoolean(dspVote.isValidTransaction());
+        writer.writeHash(dspVote.getVoterDspHash());
+        writer.writeSignature(dspVote.getSignature());
+        if (transactionDspVote) {
+            writer.writeHash(((TransactionDspVote) dspVote).getTransactionHash());
+        }
+    }
+
+    static DspVote readDspVote(BinaryEntityReader reader) {
+        byte type = reader.readByte();
+        DspVote dspVote;
+        if (type == TRANSACTION_DSP_VOTE) {
+            dspVote = newInstance(transactionDspVoteConstructor);
+        } else if (type == DSP_VOTE) {
+            dspVote = newInstance(dspVoteConstructor);
+        } else {
+            throw new IllegalArgumentException("Invalid dsp vote type " + type);
+        }
+        dspVote.setValidTransaction(reader.readBoolean());
+        dspVote.setVoterDspHash(reader.readHash());
+        dspVote.setSignature(reader.readSignature());
+        if (type == TRANSACTION_DSP_VOTE) {
+            ((TransactionDspVote) dspVote).setTransactionHash(reader.readHash());
+        }
+        return dspVote;
+    }
+}
@@ -0,0 +1,31 @@
+package io.coti.basenode.database.codec;
+
+import io.coti.basenode.data.TransactionIndexData;
+
+public class TransactionIndexDataCodec extends BinaryEntityCodec<TransactionIndexData> {
+
+    private static final byte SCHEMA_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 96;
+
+    @Override
+    protected byte getSchemaVersion() {
+        return SCHEMA_VERSION;
+    }
+
+    @Override
+    protected int getInitialCapacity() {
+        return INITIAL_CAPACITY;
+    }
+
+    @Override
+    protected void write(BinaryEntityWriter writer, TransactionIndexData transactionIndexData) {
+        writer.writeHash(transactionIndexData.getTransactionHash());
+        writer.writeLong(transactionIndexData.getIndex());
+        writer.writeBytes(transactionIndexData.getAccumulatedHash());
+    }
+
+    @Override
+    protected TransactionIndexData read(BinaryEntityReader reader, byte schemaVersion) {
+        return new TransactionIndexData(reader.readHash(), reader.readLong(), reader.readBytes());
+    }
+}
@@ -0,0 +1,47 @@
+package io.coti.basenode.database.codec;
+
+import io.coti.basenode.data.DspVote;
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.TransactionVoteData;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The transaction hash is not written, {@link io.coti.basenode.model.Collection} restores it from the key.
+ */
+public class TransactionVoteDataCodec extends BinaryEntityCodec<TransactionVoteData> {
+
+    private static final byte SCHEMA_VERSION = 1;
+
+    @Override
+    protected byte getSchemaVersion() {
+        return SCHEMA_VERSION;
+    }
+
+    @Override
+    protected void write(BinaryEntityWriter writer, TransactionVoteData transactionVoteData) {
+        writer.writeCollection(transactionVoteData.getLegalVoterDspHashes(), BinaryEntityWriter::writeHash);
+        Map<Hash, DspVote> dspHashToVoteMapping = transactionVoteData.getDspHashToVoteMapping();
+        writer.writeCollection(dspHashToVoteMapping == null ? null : dspHashToVoteMapping.entrySet(), (entryWriter, dspHashToVoteEntry) -> {
+            entryWriter.writeHash(dspHashToVoteEntry.getKey());
+            TransactionDataCodec.writeDspVote(entryWriter, dspHashToVoteEntry.getValue());
+        });
+    }
+
+    @Override
+    protected TransactionVoteData read(BinaryEntityReader reader, byte schemaVersion) {
+        List<Hash> legalVoterDspHashes = reader.readCollection(ArrayList::new, BinaryEntityReader::readHash);
+        TransactionVoteData transactionVoteData = new TransactionVoteData(null, legalVoterDspHashes);
+        List<Map.Entry<Hash, DspVote>> dspHashToVoteEntries = reader.readCollection(ArrayList::new,
+                entryReader -> new AbstractMap.SimpleImmutableEntry<>(entryReader.readHash(), TransactionDataCodec.readDspVote(entryReader)));
+        if (dspHashToVoteEntries == null) {
+            transactionVoteData.setDspHashToVoteMapping(null);
+        } else {
+            dspHashToVoteEntries.forEach(dspHashToVoteEntry -> transactionVoteData.getDspHashToVoteMapping().put(dspHashToVoteEntry.getKey(), dspHashToVoteEntry.getValue()));
+        }
+        return transactionVoteData;
+    }
+}
@@ -6,6 +6,8 @@ import org.rocksdb.RocksIterator;
 import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 
+import java.util.List;
+
 public interface IDatabaseConnector {
 
     void init();
@@ -26,6 +28,10 @@ public interface IDatabaseConnector {
 
     byte[] getByKey(String columnFamilyName, byte[] key);
 
+    boolean isKeyExists(String columnFamilyName, byte[] key);
+
+    List<byte[]> multiGetByKeys(String columnFamilyName, List<byte[]> keys);
+
     void delete(String columnFamilyName, byte[] key);
 
     RocksIterator getIterator(String columnFamilyName);
@@ -0,0 +1,14 @@
+package io.coti.basenode.database.interfaces;
+
+import io.coti.basenode.data.interfaces.IEntity;
+
+public interface IEntityCodec<T extends IEntity> {
+
+    byte[] encode(T entity);
+
+    T decode(byte[] value);
+
+    boolean isCurrentFormat(byte[] value);
+
+    boolean isMigratable();
+}
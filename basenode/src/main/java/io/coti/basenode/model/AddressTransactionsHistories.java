@@ -1,9 +1,17 @@
 package io.coti.basenode.model;
 
 import io.coti.basenode.data.AddressTransactionsHistory;
+import io.coti.basenode.database.codec.AddressTransactionsHistoryCodec;
 import org.springframework.stereotype.Service;
 
+/**
+ * The legacy address transaction histories, one value with the whole history per address. The histories are moved to
+ * {@link AddressTransactionsHistoryEntries} by {@link io.coti.basenode.services.DatabaseMigrationService}.
+ */
 @Service
 public class AddressTransactionsHistories extends Collection<AddressTransactionsHistory> {
 
+    public AddressTransactionsHistories() {
+        super(new AddressTransactionsHistoryCodec());
+    }
 }
@@ -0,0 +1,45 @@
+package io.coti.basenode.model;
+
+import io.coti.basenode.data.AddressTransactionsHistoryEntry;
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.database.codec.AddressTransactionsHistoryEntryCodec;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The transaction histories of the addresses, one entry per address and transaction. Replaces
+ * {@link AddressTransactionsHistories}, which rewrites the whole history of an address for every new transaction.
+ */
+@Service
+public class AddressTransactionsHistoryEntries extends Collection<AddressTransactionsHistoryEntry> {
+
+    public AddressTransactionsHistoryEntries() {
+        super(new AddressTransactionsHistoryEntryCodec());
+    }
+
+    /**
+     * @param afterEntry the last entry of the previous page, or null for the first page
+     * @return up to page size entries of the address history in the order of the transaction creation times
+     */
+    public List<AddressTransactionsHistoryEntry> getPage(Hash addressHash, AddressTransactionsHistoryEntry afterEntry, int pageSize) {
+        List<AddressTransactionsHistoryEntry> page = new ArrayList<>();
+        if (pageSize <= 0) {
+            return page;
+        }
+        forEachByPrefix(addressHash.getBytes(), afterEntry != null ? afterEntry.getHash().getBytes() : null, entry -> {
+            page.add(entry);
+            return page.size() < pageSize;
+        });
+        return page;
+    }
+
+    public void forEach(Hash addressHash, Consumer<AddressTransactionsHistoryEntry> consumer) {
+        forEachByPrefix(addressHash.getBytes(), null, entry -> {
+            consumer.accept(entry);
+            return true;
+        });
+    }
+}
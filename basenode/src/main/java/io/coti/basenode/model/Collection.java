@@ -1,8 +1,12 @@
 package io.coti.basenode.model;
 
 import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.RecentHashesData;
+import io.coti.basenode.data.ValueCacheData;
 import io.coti.basenode.data.interfaces.IEntity;
+import io.coti.basenode.database.codec.JavaSerializationCodec;
 import io.coti.basenode.database.interfaces.IDatabaseConnector;
+import io.coti.basenode.database.interfaces.IEntityCodec;
 import io.coti.basenode.exceptions.DataBaseDeleteException;
 import io.coti.basenode.exceptions.DataBaseWriteException;
 import lombok.extern.slf4j.Slf4j;
@@ -10,22 +14,48 @@ import org.rocksdb.RocksIterator;
 import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.util.SerializationUtils;
+import org.springframework.beans.factory.annotation.Value;
 
-import java.util.Arrays;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 @Slf4j
 public abstract class Collection<T extends IEntity> {
 
     private static final int LOCK_BYTE_ARRAY_SIZE = 2;
+    private static final int WRITE_LOCK_STRIPES = 256;
     @Autowired
     public IDatabaseConnector databaseConnector;
+    @Value("${db.codec.migration.on.access:true}")
+    private boolean migrateOnAccess;
     protected String columnFamilyName = getClass().getName();
     private Map<Hash, byte[]> lockByteArrayMap;
+    private final IEntityCodec<T> entityCodec;
+    private ReentrantLock[] writeLocks;
+    private RecentHashesData recentHashes;
+    private ValueCacheData valueCache;
+
+    protected Collection() {
+        this(new JavaSerializationCodec<>());
+    }
+
+    protected Collection(IEntityCodec<T> entityCodec) {
+        this.entityCodec = entityCodec;
+        if (entityCodec.isMigratable()) {
+            createWriteLocks();
+        }
+    }
+
+    private void createWriteLocks() {
+        writeLocks = new ReentrantLock[WRITE_LOCK_STRIPES];
+        for (int i = 0; i < WRITE_LOCK_STRIPES; i++) {
+            writeLocks[i] = new ReentrantLock();
+        }
+    }
 
     public void init() {
         log.info("Collection init running. Class: " + columnFamilyName);
@@ -35,34 +65,74 @@ public abstract class Collection<T extends IEntity> {
         if (entity == null) {
             throw new DataBaseWriteException("Null entity to write to database");
         }
-        databaseConnector.put(columnFamilyName, entity.getHash().getBytes(), SerializationUtils.serialize(entity));
+        byte[] key = entity.getHash().getBytes();
+        byte[] value = entityCodec.encode((T) entity);
+        lockWrite(key);
+        try {
+            if (databaseConnector.put(columnFamilyName, key, value)) {
+                addRecentHash(entity.getHash());
+                cacheValue(entity.getHash(), value);
+            } else {
+                uncacheValue(entity.getHash());
+            }
+        } finally {
+            unlockWrite(key);
+        }
     }
 
     public void put(WriteOptions writeOptions, IEntity entity) {
         if (entity == null) {
             throw new DataBaseWriteException("Null entity to write to database");
         }
-        databaseConnector.put(columnFamilyName, writeOptions, entity.getHash().getBytes(), SerializationUtils.serialize(entity));
+        byte[] key = entity.getHash().getBytes();
+        byte[] value = entityCodec.encode((T) entity);
+        lockWrite(key);
+        try {
+            if (databaseConnector.put(columnFamilyName, writeOptions, key, value)) {
+                addRecentHash(entity.getHash());
+                cacheValue(entity.getHash(), value);
+            } else {
+                uncacheValue(entity.getHash());
+            }
+        } finally {
+            unlockWrite(key);
+        }
     }
 
     public void putBatch(Map<Hash, ? extends IEntity> entities) {
         WriteBatch writeBatch = new WriteBatch();
+        SortedSet<Integer> writeLockStripes = new TreeSet<>();
+        Map<Hash, byte[]> values = new HashMap<>();
         entities.forEach((hash, entity) -> {
                     if (entity == null) {
                         throw new DataBaseWriteException("Null entity to write from database");
                     }
-                    databaseConnector.put(columnFamilyName, writeBatch, hash.getBytes(), SerializationUtils.serialize(entity));
-
+                    byte[] value = entityCodec.encode((T) entity);
+                    databaseConnector.put(columnFamilyName, writeBatch, hash.getBytes(), value);
+                    values.put(hash, value);
+                    if (writeLocks != null) {
+                        writeLockStripes.add(getWriteLockStripe(hash.getBytes()));
+                    }
                 }
         );
-        databaseConnector.putBatch(writeBatch);
+        writeLockStripes.forEach(writeLockStripe -> writeLocks[writeLockStripe].lock());
+        try {
+            if (databaseConnector.putBatch(writeBatch)) {
+                entities.keySet().forEach(this::addRecentHash);
+                values.forEach(this::cacheValue);
+            } else {
+                values.keySet().forEach(this::uncacheValue);
+            }
+        } finally {
+            writeLockStripes.forEach(writeLockStripe -> writeLocks[writeLockStripe].unlock());
+        }
     }
 
     public void delete(IEntity entity) {
         if (entity == null) {
             throw new DataBaseDeleteException("Null entity to delete from database");
         }
-        databaseConnector.delete(columnFamilyName, entity.getHash().getBytes());
+        deleteByKey(entity.getHash().getBytes());
     }
 
     public T getByHash(String hashStringInHexRepresentation) {
@@ -71,19 +141,163 @@ public abstract class Collection<T extends IEntity> {
 
     public T getByHash(Hash hash) {
         try {
-            byte[] bytes = databaseConnector.getByKey(columnFamilyName, hash.getBytes());
-            if (bytes == null || bytes.length == 0) {
-                return null;
-            }
-            return getDeserializedValue(hash, bytes);
+            return getAccessedValue(hash, getValue(hash));
         } catch (Exception e) {
             log.error("Error at getting by hash from column family {}", columnFamilyName, e);
             return null;
         }
     }
 
+    public List<T> multiGetByHashes(List<Hash> hashes) {
+        return multiGetByHashes(hashes, false);
+    }
+
+    /**
+     * Reads the values of all of the hashes in one database multi get.
+     *
+     * @param parallelDeserialization whether to decode the values on the common fork join pool, which pays off for
+     *                                large pages of large values
+     * @return the entities in the order of the hashes, with null for a missing entity
+     */
+    public List<T> multiGetByHashes(List<Hash> hashes, boolean parallelDeserialization) {
+        if (hashes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<byte[]> values;
+        try {
+            values = multiGetValues(hashes);
+        } catch (Exception e) {
+            log.error("Error at multi getting by hashes from column family {}", columnFamilyName, e);
+            return new ArrayList<>(Collections.nCopies(hashes.size(), null));
+        }
+        List<T> entities = new ArrayList<>(Collections.nCopies(hashes.size(), null));
+        IntStream indexes = IntStream.range(0, hashes.size());
+        (parallelDeserialization ? indexes.parallel() : indexes).forEach(i -> {
+            try {
+                entities.set(i, getAccessedValue(hashes.get(i), values.get(i)));
+            } catch (Exception e) {
+                log.error("Error at getting by hash from column family {}", columnFamilyName, e);
+            }
+        });
+        return entities;
+    }
+
+    /**
+     * Reads a value from the value cache or from the database. A missed value is read and cached under the write lock of
+     * its key, so a concurrent write can not be overwritten in the cache by the value it replaced.
+     */
+    private byte[] getValue(Hash hash) {
+        byte[] key = hash.getBytes();
+        if (valueCache == null) {
+            return databaseConnector.getByKey(columnFamilyName, key);
+        }
+        byte[] value = valueCache.get(hash);
+        if (value != null) {
+            return value;
+        }
+        lockWrite(key);
+        try {
+            value = databaseConnector.getByKey(columnFamilyName, key);
+            if (value != null && value.length > 0 && entityCodec.isCurrentFormat(value)) {
+                valueCache.put(hash, value);
+            }
+            return value;
+        } finally {
+            unlockWrite(key);
+        }
+    }
+
+    /**
+     * Reads the values from the value cache and the missed values with one database multi get. The missed values are
+     * not cached, so reading a page of old entities does not evict the recently used ones.
+     */
+    private List<byte[]> multiGetValues(List<Hash> hashes) {
+        if (valueCache == null) {
+            List<byte[]> keys = new ArrayList<>(hashes.size());
+            hashes.forEach(hash -> keys.add(hash.getBytes()));
+            return databaseConnector.multiGetByKeys(columnFamilyName, keys);
+        }
+        List<byte[]> values = new ArrayList<>(hashes.size());
+        List<Integer> missedPositions = new ArrayList<>();
+        List<byte[]> missedKeys = new ArrayList<>();
+        for (int i = 0; i < hashes.size(); i++) {
+            byte[] value = valueCache.get(hashes.get(i));
+            values.add(value);
+            if (value == null) {
+                missedPositions.add(i);
+                missedKeys.add(hashes.get(i).getBytes());
+            }
+        }
+        if (!missedKeys.isEmpty()) {
+            List<byte[]> missedValues = databaseConnector.multiGetByKeys(columnFamilyName, missedKeys);
+            for (int i = 0; i < missedPositions.size(); i++) {
+                values.set(missedPositions.get(i), missedValues.get(i));
+            }
+        }
+        return values;
+    }
+
+    private T getAccessedValue(Hash hash, byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        T deserialized = getDeserializedValue(hash, bytes);
+        if (migrateOnAccess && !entityCodec.isCurrentFormat(bytes)) {
+            migrateValue(hash.getBytes());
+        }
+        return deserialized;
+    }
+
+    /**
+     * Checks whether the entity exists without reading and deserializing its value. A recently written hash is found
+     * in memory, any other hash is checked by the database connector.
+     */
+    public boolean exists(Hash hash) {
+        if (recentHashes != null && recentHashes.contains(hash)) {
+            return true;
+        }
+        return databaseConnector.isKeyExists(columnFamilyName, hash.getBytes());
+    }
+
+    protected void setRecentHashes(RecentHashesData recentHashes) {
+        this.recentHashes = recentHashes;
+    }
+
+    private void addRecentHash(Hash hash) {
+        if (recentHashes != null) {
+            recentHashes.add(hash);
+        }
+    }
+
+    /**
+     * Caches the encoded values of the collection. Every write of the collection goes through the cache under the write
+     * lock of its key, so the cache always holds the last written value.
+     */
+    protected void setValueCache(ValueCacheData valueCache) {
+        if (writeLocks == null) {
+            createWriteLocks();
+        }
+        this.valueCache = valueCache;
+    }
+
+    public ValueCacheData getValueCache() {
+        return valueCache;
+    }
+
+    void cacheValue(Hash hash, byte[] value) {
+        if (valueCache != null) {
+            valueCache.put(hash, value);
+        }
+    }
+
+    void uncacheValue(Hash hash) {
+        if (valueCache != null) {
+            valueCache.remove(hash);
+        }
+    }
+
     private T getDeserializedValue(Hash hash, byte[] serializedValue) {
-        T deserialized = (T) SerializationUtils.deserialize(serializedValue);
+        T deserialized = entityCodec.decode(serializedValue);
         if (deserialized != null) {
             deserialized.setHash(hash);
         }
@@ -127,6 +341,39 @@ public abstract class Collection<T extends IEntity> {
         return getDeserializedValue(new Hash(iterator.key()), iterator.value());
     }
 
+    /**
+     * Accepts the entities whose keys start with the prefix in the order of their keys, until the consumer returns
+     * false.
+     *
+     * @param startAfterKey the key to start after, or null to start from the first key of the prefix
+     */
+    protected void forEachByPrefix(byte[] prefix, byte[] startAfterKey, Predicate<T> consumer) {
+        try (RocksIterator iterator = getIterator()) {
+            iterator.seek(startAfterKey != null ? startAfterKey : prefix);
+            if (startAfterKey != null && iterator.isValid() && Arrays.equals(iterator.key(), startAfterKey)) {
+                iterator.next();
+            }
+            while (iterator.isValid() && isKeyPrefix(prefix, iterator.key())) {
+                if (!consumer.test(getDeserializedValue(iterator))) {
+                    return;
+                }
+                iterator.next();
+            }
+        }
+    }
+
+    private boolean isKeyPrefix(byte[] prefix, byte[] key) {
+        if (key.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (key[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void lockAndGetByHash(Hash hash, Consumer<T> consumer) {
         if (lockByteArrayMap == null) {
             throw new IllegalArgumentException(String.format("Collection %s is not lockable", columnFamilyName));
@@ -145,10 +392,58 @@ public abstract class Collection<T extends IEntity> {
         }
     }
 
+    /**
+     * Locks the hashes as {@link #lockAndGetByHash(Hash, Consumer)} does and accepts the entities of all of them
+     * together. The lock objects are taken in the order of their hash prefix, so two multi hash lockers do not deadlock.
+     *
+     * @param hashes   the hashes of the entities
+     * @param consumer accepts a map from each hash to its entity, or to null when the entity does not exist
+     */
+    public void lockAndGetByHashes(Set<Hash> hashes, Consumer<Map<Hash, T>> consumer) {
+        if (lockByteArrayMap == null) {
+            throw new IllegalArgumentException(String.format("Collection %s is not lockable", columnFamilyName));
+        }
+        TreeMap<Hash, byte[]> lockByteArrays = new TreeMap<>();
+        hashes.forEach(hash -> {
+            if (hash.getBytes().length < LOCK_BYTE_ARRAY_SIZE) {
+                throw new IllegalArgumentException(String.format("Hash bytes should be of minimum size %s", LOCK_BYTE_ARRAY_SIZE));
+            }
+            Hash lockHash = new Hash(Arrays.copyOfRange(hash.getBytes(), 0, LOCK_BYTE_ARRAY_SIZE));
+            byte[] lockByteArray = lockByteArrayMap.get(lockHash);
+            if (lockByteArray == null) {
+                throw new IllegalArgumentException("Hash lock object doesn't exist");
+            }
+            lockByteArrays.put(lockHash, lockByteArray);
+        });
+        lockAndGetByHashes(new ArrayList<>(lockByteArrays.values()).iterator(), hashes, consumer);
+    }
+
+    private void lockAndGetByHashes(Iterator<byte[]> lockByteArrayIterator, Set<Hash> hashes, Consumer<Map<Hash, T>> consumer) {
+        if (lockByteArrayIterator.hasNext()) {
+            synchronized (lockByteArrayIterator.next()) {
+                lockAndGetByHashes(lockByteArrayIterator, hashes, consumer);
+            }
+            return;
+        }
+        Map<Hash, T> entities = new HashMap<>();
+        hashes.forEach(hash -> entities.put(hash, getByHash(hash)));
+        consumer.accept(entities);
+    }
+
     private RocksIterator getIterator() {
         return databaseConnector.getIterator(columnFamilyName);
     }
 
+    /**
+     * @return the entity of the greatest key, which is the greatest index for keys of non negative indexes
+     */
+    public T getLast() {
+        try (RocksIterator iterator = getIterator()) {
+            iterator.seekToLast();
+            return iterator.isValid() ? getDeserializedValue(iterator) : null;
+        }
+    }
+
     public boolean isEmpty() {
         try (RocksIterator iterator = databaseConnector.getIterator(columnFamilyName)) {
             iterator.seekToFirst();
@@ -157,17 +452,116 @@ public abstract class Collection<T extends IEntity> {
     }
 
     public void deleteByHash(Hash hash) {
-        databaseConnector.delete(columnFamilyName, hash.getBytes());
+        deleteByKey(hash.getBytes());
     }
 
     public void deleteAll() {
+        if (recentHashes != null) {
+            recentHashes.clear();
+        }
+        if (valueCache != null) {
+            valueCache.clear();
+        }
         try (RocksIterator iterator = databaseConnector.getIterator(columnFamilyName)) {
             iterator.seekToFirst();
             while (iterator.isValid()) {
-                databaseConnector.delete(columnFamilyName, iterator.key());
+                deleteByKey(iterator.key());
+                iterator.next();
+            }
+        }
+    }
+
+    private void deleteByKey(byte[] key) {
+        lockWrite(key);
+        try {
+            Hash hash = new Hash(key);
+            if (recentHashes != null) {
+                recentHashes.remove(hash);
+            }
+            uncacheValue(hash);
+            databaseConnector.delete(columnFamilyName, key);
+        } finally {
+            unlockWrite(key);
+        }
+    }
+
+    public boolean isMigratable() {
+        return entityCodec.isMigratable();
+    }
+
+    /**
+     * Rewrites every value still stored in a legacy format with the current codec format. Stops early when the calling
+     * thread is interrupted.
+     *
+     * @return the number of migrated values
+     */
+    public long migrateLegacyValues() {
+        if (!entityCodec.isMigratable()) {
+            return 0;
+        }
+        long migratedValues = 0;
+        try (RocksIterator iterator = getIterator()) {
+            iterator.seekToFirst();
+            while (iterator.isValid() && !Thread.currentThread().isInterrupted()) {
+                if (!entityCodec.isCurrentFormat(iterator.value()) && migrateValue(iterator.key())) {
+                    migratedValues++;
+                }
                 iterator.next();
             }
         }
+        return migratedValues;
+    }
+
+    private boolean migrateValue(byte[] key) {
+        lockWrite(key);
+        try {
+            byte[] value = databaseConnector.getByKey(columnFamilyName, key);
+            if (value == null || value.length == 0 || entityCodec.isCurrentFormat(value)) {
+                return false;
+            }
+            Hash hash = new Hash(key);
+            byte[] migratedValue = entityCodec.encode(getDeserializedValue(hash, value));
+            if (databaseConnector.put(columnFamilyName, key, migratedValue)) {
+                cacheValue(hash, migratedValue);
+            } else {
+                uncacheValue(hash);
+            }
+            return true;
+        } finally {
+            unlockWrite(key);
+        }
+    }
+
+    private void lockWrite(byte[] key) {
+        if (writeLocks != null) {
+            writeLocks[getWriteLockStripe(key)].lock();
+        }
+    }
+
+    private void unlockWrite(byte[] key) {
+        if (writeLocks != null) {
+            writeLocks[getWriteLockStripe(key)].unlock();
+        }
+    }
+
+    byte[] encode(IEntity entity) {
+        return entityCodec.encode((T) entity);
+    }
+
+    void lockWriteStripes(SortedSet<Integer> writeLockStripes) {
+        if (writeLocks != null) {
+            writeLockStripes.forEach(writeLockStripe -> writeLocks[writeLockStripe].lock());
+        }
+    }
+
+    void unlockWriteStripes(SortedSet<Integer> writeLockStripes) {
+        if (writeLocks != null) {
+            writeLockStripes.forEach(writeLockStripe -> writeLocks[writeLockStripe].unlock());
+        }
+    }
+
+    int getWriteLockStripe(byte[] key) {
+        return Arrays.hashCode(key) & (WRITE_LOCK_STRIPES - 1);
     }
 
     protected void generateLockObjects() {
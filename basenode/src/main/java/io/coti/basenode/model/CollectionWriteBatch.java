@@ -0,0 +1,92 @@
+package io.coti.basenode.model;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.interfaces.IEntity;
+import io.coti.basenode.database.interfaces.IDatabaseConnector;
+import io.coti.basenode.exceptions.DataBaseWriteException;
+import org.rocksdb.WriteBatch;
+
+import java.util.*;
+
+/**
+ * Writes entities of several collections in one atomic database write. The write lock stripes of the written keys are
+ * held during the write, as for the writes of a single collection, and the value caches of the collections are updated
+ * under them. In-memory state which depends on the written entities is published by commit actions, which run only
+ * after the batch is written, and reverted by rollback actions when it could not be written.
+ */
+public class CollectionWriteBatch {
+
+    private final WriteBatch writeBatch = new WriteBatch();
+    private final Map<Collection<?>, SortedSet<Integer>> collectionToWriteLockStripesMap = new TreeMap<>(Comparator.comparing(collection -> collection.columnFamilyName));
+    private final Map<Collection<?>, Map<Hash, byte[]>> collectionToValuesMap = new HashMap<>();
+    private final List<Runnable> commitActions = new ArrayList<>();
+    private final List<Runnable> rollbackActions = new ArrayList<>();
+    private IDatabaseConnector databaseConnector;
+
+    public void put(Collection<?> collection, IEntity entity) {
+        if (entity == null) {
+            throw new DataBaseWriteException("Null entity to write to database");
+        }
+        byte[] key = entity.getHash().getBytes();
+        byte[] value = collection.encode(entity);
+        collection.databaseConnector.put(collection.columnFamilyName, writeBatch, key, value);
+        collectionToWriteLockStripesMap.computeIfAbsent(collection, writeLockStripes -> new TreeSet<>()).add(collection.getWriteLockStripe(key));
+        collectionToValuesMap.computeIfAbsent(collection, values -> new HashMap<>()).put(entity.getHash(), value);
+        databaseConnector = collection.databaseConnector;
+    }
+
+    public void onCommit(Runnable commitAction) {
+        commitActions.add(commitAction);
+    }
+
+    public void onRollback(Runnable rollbackAction) {
+        rollbackActions.add(rollbackAction);
+    }
+
+    /**
+     * Writes the batch, then runs the commit actions in the order they were added, or the rollback actions when the
+     * batch could not be written.
+     *
+     * @return false when the batch could not be written
+     */
+    public boolean commit() {
+        boolean written = false;
+        try {
+            written = write();
+        } finally {
+            writeBatch.close();
+            if (!written) {
+                rollbackActions.forEach(Runnable::run);
+            }
+        }
+        if (!written) {
+            return false;
+        }
+        commitActions.forEach(Runnable::run);
+        return true;
+    }
+
+    private boolean write() {
+        if (databaseConnector == null) {
+            return true;
+        }
+        List<Collection<?>> lockedCollections = new ArrayList<>();
+        try {
+            collectionToWriteLockStripesMap.forEach((collection, writeLockStripes) -> {
+                collection.lockWriteStripes(writeLockStripes);
+                lockedCollections.add(collection);
+            });
+            boolean written = databaseConnector.putBatch(writeBatch);
+            collectionToValuesMap.forEach((collection, values) -> {
+                if (written) {
+                    values.forEach(collection::cacheValue);
+                } else {
+                    values.keySet().forEach(collection::uncacheValue);
+                }
+            });
+            return written;
+        } finally {
+            lockedCollections.forEach(collection -> collection.unlockWriteStripes(collectionToWriteLockStripesMap.get(collection)));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package io.coti.basenode.model;
+
+import io.coti.basenode.data.TransactionIndexCheckpointData;
+import org.springframework.stereotype.Service;
+
+@Service
+public class TransactionIndexCheckpoints extends Collection<TransactionIndexCheckpointData> {
+
+}
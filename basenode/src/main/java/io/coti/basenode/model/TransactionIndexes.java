@@ -1,9 +1,13 @@
 package io.coti.basenode.model;
 
 import io.coti.basenode.data.TransactionIndexData;
+import io.coti.basenode.database.codec.TransactionIndexDataCodec;
 import org.springframework.stereotype.Component;
 
 @Component
 public class TransactionIndexes extends Collection<TransactionIndexData> {
 
+    public TransactionIndexes() {
+        super(new TransactionIndexDataCodec());
+    }
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package io.coti.basenode.model;
 
 import io.coti.basenode.data.TransactionVoteData;
+import io.coti.basenode.database.codec.TransactionVoteDataCodec;
 import org.springframework.stereotype.Service;
 
 @Service
 public class TransactionVotes extends Collection<TransactionVoteData> {
 
+    public TransactionVotes() {
+        super(new TransactionVoteDataCodec());
+    }
 }
\ No newline at end of file
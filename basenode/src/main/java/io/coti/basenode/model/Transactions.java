@@ -1,16 +1,35 @@
 package io.coti.basenode.model;
 
+import io.coti.basenode.data.RecentHashesData;
 import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.data.ValueCacheData;
+import io.coti.basenode.database.codec.TransactionDataCodec;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
 public class Transactions extends Collection<TransactionData> {
 
+    @Value("${db.transactions.recent.hashes.size:100000}")
+    private int recentHashesSize;
+    @Value("${db.transactions.cache.size:20000}")
+    private int cacheSize;
+
+    public Transactions() {
+        super(new TransactionDataCodec());
+    }
+
     @Override
     public void init() {
         super.init();
         generateLockObjects();
+        if (recentHashesSize > 0) {
+            setRecentHashes(new RecentHashesData(recentHashesSize));
+        }
+        if (cacheSize > 0) {
+            setValueCache(new ValueCacheData(cacheSize));
+        }
     }
 }
@@ -10,11 +10,17 @@ public class PotRunnableTask implements Comparable<PotRunnableTask>, Runnable {
     private byte[] targetDifficulty;
     private final TransactionData transactionData;
     private final AtomicInteger lock;
+    private final int parallelism;
 
     public PotRunnableTask(TransactionData transactionData, byte[] targetDifficulty, AtomicInteger lock) {
+        this(transactionData, targetDifficulty, lock, 1);
+    }
+
+    public PotRunnableTask(TransactionData transactionData, byte[] targetDifficulty, AtomicInteger lock, int parallelism) {
         this.transactionData = transactionData;
         this.targetDifficulty = targetDifficulty;
         this.lock = lock;
+        this.parallelism = parallelism;
     }
 
     public int getPriority() {
@@ -30,7 +36,7 @@ public class PotRunnableTask implements Comparable<PotRunnableTask>, Runnable {
     }
 
     private void potAction(TransactionData transactionData) {
-        ProofOfTrust pot = new ProofOfTrust(transactionData.getRoundedSenderTrustScore());
+        ProofOfTrust pot = new ProofOfTrust(transactionData.getRoundedSenderTrustScore(), parallelism);
         int[] nonces = pot.hash(transactionData.getHash().getBytes(), this.targetDifficulty);
         transactionData.setNonces(nonces);
     }
@@ -1,5 +1,6 @@
 package io.coti.basenode.services;
 
+import io.coti.basenode.data.BalanceStoreData;
 import io.coti.basenode.data.BaseTransactionData;
 import io.coti.basenode.data.Hash;
 import io.coti.basenode.data.TransactionData;
@@ -11,51 +12,51 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.*;
 
 @Slf4j
 @Service
 public class BaseNodeBalanceService implements IBalanceService {
 
-    protected Map<Hash, BigDecimal> balanceMap;
-    protected Map<Hash, BigDecimal> preBalanceMap;
+    protected BalanceStoreData balanceStore;
 
     public void init() {
-        balanceMap = new ConcurrentHashMap<>();
-        preBalanceMap = new ConcurrentHashMap<>();
+        balanceStore = new BalanceStoreData();
         log.info("{} is up", this.getClass().getSimpleName());
     }
 
     @Override
-    public synchronized boolean checkBalancesAndAddToPreBalance(List<BaseTransactionData> baseTransactions) {
-        Map<Hash, BigDecimal> balanceInChangeMap = new HashMap<>();
+    public boolean checkBalancesAndAddToPreBalance(List<BaseTransactionData> baseTransactions) {
         Map<Hash, BigDecimal> preBalanceInChangeMap = new HashMap<>();
-        for (BaseTransactionData baseTransactionData : baseTransactions) {
-
-            BigDecimal amount = baseTransactionData.getAmount();
-            Hash addressHash = baseTransactionData.getAddressHash();
-            balanceInChangeMap.putIfAbsent(addressHash, balanceMap.getOrDefault(addressHash, BigDecimal.ZERO));
-            preBalanceInChangeMap.putIfAbsent(addressHash, preBalanceMap.getOrDefault(addressHash, BigDecimal.ZERO));
-            if (amount.add(balanceInChangeMap.get(addressHash)).signum() < 0) {
-                log.error("Error in Balance check. Address {}  amount {} current Balance {} ", addressHash,
-                        amount, balanceInChangeMap.get(addressHash));
-                return false;
+        Set<Hash> addressHashes = new HashSet<>();
+        baseTransactions.forEach(baseTransactionData -> addressHashes.add(baseTransactionData.getAddressHash()));
+        boolean isBalanceValid = balanceStore.lockAndGet(addressHashes, () -> {
+            Map<Hash, BigDecimal> balanceInChangeMap = new HashMap<>();
+            for (BaseTransactionData baseTransactionData : baseTransactions) {
+
+                BigDecimal amount = baseTransactionData.getAmount();
+                Hash addressHash = baseTransactionData.getAddressHash();
+                balanceInChangeMap.putIfAbsent(addressHash, getBalanceByAddress(addressHash));
+                preBalanceInChangeMap.putIfAbsent(addressHash, getPreBalanceByAddress(addressHash));
+                if (amount.add(balanceInChangeMap.get(addressHash)).signum() < 0) {
+                    log.error("Error in Balance check. Address {}  amount {} current Balance {} ", addressHash,
+                            amount, balanceInChangeMap.get(addressHash));
+                    return false;
+                }
+                if (amount.add(preBalanceInChangeMap.get(addressHash)).signum() < 0) {
+                    log.error("Error in PreBalance check. Address {}  amount {} current PreBalance {} ", addressHash,
+                            amount, preBalanceInChangeMap.get(addressHash));
+                    return false;
+                }
+                preBalanceInChangeMap.put(addressHash, amount.add(preBalanceInChangeMap.get(addressHash)));
             }
-            if (amount.add(preBalanceInChangeMap.get(addressHash)).signum() < 0) {
-                log.error("Error in PreBalance check. Address {}  amount {} current PreBalance {} ", addressHash,
-                        amount, preBalanceInChangeMap.get(addressHash));
-                return false;
-            }
-            preBalanceInChangeMap.put(addressHash, amount.add(preBalanceInChangeMap.get(addressHash)));
-        }
-        preBalanceInChangeMap.forEach((addressHash, preBalanceInChange) -> {
-            preBalanceMap.put(addressHash, preBalanceInChange);
-            continueHandleBalanceChanges(addressHash);
+            preBalanceInChangeMap.forEach(balanceStore::setPreBalance);
+            return true;
         });
-        return true;
+        if (isBalanceValid) {
+            preBalanceInChangeMap.keySet().forEach(this::continueHandleBalanceChanges);
+        }
+        return isBalanceValid;
     }
 
     @Override
@@ -79,19 +80,19 @@ public class BaseNodeBalanceService implements IBalanceService {
     @Override
     public void rollbackBaseTransactions(TransactionData transactionData) {
         transactionData.getBaseTransactions().forEach(baseTransactionData ->
-                preBalanceMap.computeIfPresent(baseTransactionData.getAddressHash(), (addressHash, amount) -> amount.add(baseTransactionData.getAmount().negate()))
+                balanceStore.addToPreBalanceIfPresent(baseTransactionData.getAddressHash(), baseTransactionData.getAmount().negate())
         );
     }
 
     @Override
     public void validateBalances() {
-        preBalanceMap.forEach((hash, preBalance) -> {
+        balanceStore.forEachPreBalance((hash, preBalance) -> {
             if (preBalance.signum() == -1) {
                 log.error("PreBalance Validation failed!");
                 throw new IllegalArgumentException("ClusterStamp or database are corrupted.");
             }
         });
-        balanceMap.forEach((hash, balance) -> {
+        balanceStore.forEachBalance((hash, balance) -> {
             if (balance.signum() == -1) {
                 log.error("Balance Validation failed!");
                 throw new IllegalArgumentException("ClusterStamp or database are corrupted.");
@@ -102,41 +103,54 @@ public class BaseNodeBalanceService implements IBalanceService {
 
     @Override
     public void updateBalanceFromClusterStamp(Hash addressHash, BigDecimal amount) {
-        if (balanceMap.containsKey(addressHash)) {
+        if (balanceStore.containsBalance(addressHash)) {
             log.error("The address {} was already found in the clusterstamp", addressHash);
             throw new IllegalArgumentException(String.format("The address %s was already found in the clusterstamp", addressHash));
         }
-        balanceMap.put(addressHash, amount);
+        balanceStore.setBalance(addressHash, amount);
         log.trace("Loading from clusterstamp into inMem balance+preBalance address {} and amount {}", addressHash, amount);
     }
 
     @Override
     public void updatePreBalanceFromClusterStamp() {
-        preBalanceMap.putAll(balanceMap);
+        balanceStore.forEachBalance(balanceStore::setPreBalance);
     }
 
     @Override
     public void updateBalance(Hash addressHash, BigDecimal amount) {
-        balanceMap.computeIfPresent(addressHash, (currentHash, currentAmount) ->
-                currentAmount.add(amount));
-        balanceMap.putIfAbsent(addressHash, amount);
+        balanceStore.addToBalance(addressHash, amount);
     }
 
     @Override
     public void updatePreBalance(Hash addressHash, BigDecimal amount) {
-        preBalanceMap.computeIfPresent(addressHash, (currentHash, currentAmount) ->
-                currentAmount.add(amount));
-        preBalanceMap.putIfAbsent(addressHash, amount);
+        balanceStore.addToPreBalance(addressHash, amount);
     }
 
     @Override
     public BigDecimal getBalanceByAddress(Hash addressHash) {
-        return balanceMap.getOrDefault(addressHash, BigDecimal.ZERO);
+        return Optional.ofNullable(balanceStore.getBalance(addressHash)).orElse(BigDecimal.ZERO);
     }
 
     @Override
     public BigDecimal getPreBalanceByAddress(Hash addressHash) {
-        return preBalanceMap.getOrDefault(addressHash, BigDecimal.ZERO);
+        return Optional.ofNullable(balanceStore.getPreBalance(addressHash)).orElse(BigDecimal.ZERO);
+    }
+
+    @Override
+    public Map<Hash, BigDecimal> copyBalanceMap() {
+        return balanceStore.copyBalances();
+    }
+
+    @Override
+    public Map<Hash, BigDecimal> copyPreBalanceMap() {
+        return balanceStore.copyPreBalances();
+    }
+
+    @Override
+    public void loadBalances(Map<Hash, BigDecimal> balances, Map<Hash, BigDecimal> preBalances) {
+        balanceStore.clear();
+        balances.forEach(balanceStore::setBalance);
+        preBalances.forEach(balanceStore::setPreBalance);
     }
 
 }
@@ -1,6 +1,7 @@
 package io.coti.basenode.services;
 
 import io.coti.basenode.data.*;
+import io.coti.basenode.model.CollectionWriteBatch;
 import io.coti.basenode.model.TransactionIndexes;
 import io.coti.basenode.model.Transactions;
 import io.coti.basenode.services.interfaces.IBalanceService;
@@ -8,19 +9,27 @@ import io.coti.basenode.services.interfaces.IConfirmationService;
 import io.coti.basenode.services.interfaces.ITransactionHelper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
 public class BaseNodeConfirmationService implements IConfirmationService {
 
+    @Value("${confirmation.batch.size:100}")
+    private int confirmationBatchSize;
+    @Value("${confirmation.retry.delay:100}")
+    private long confirmationRetryDelay;
+    @Value("${confirmation.retry.max.delay:10000}")
+    private long confirmationRetryMaxDelay;
     @Autowired
     private IBalanceService balanceService;
     @Autowired
@@ -30,8 +39,10 @@ public class BaseNodeConfirmationService implements IConfirmationService {
     @Autowired
     private TransactionIndexes transactionIndexes;
     @Autowired
+    private TransactionIndexCheckpointService transactionIndexCheckpointService;
+    @Autowired
     private Transactions transactions;
-    private BlockingQueue<ConfirmationData> confirmationQueue;
+    private BlockingDeque<ConfirmationData> confirmationQueue;
     private final Map<Long, DspConsensusResult> waitingDspConsensusResults = new ConcurrentHashMap<>();
     private final Map<Long, TransactionData> waitingMissingTransactionIndexes = new ConcurrentHashMap<>();
     private final AtomicLong totalConfirmed = new AtomicLong(0);
@@ -40,95 +51,203 @@ public class BaseNodeConfirmationService implements IConfirmationService {
     private Thread confirmedTransactionsThread;
 
     public void init() {
-        confirmationQueue = new LinkedBlockingQueue<>();
+        confirmationQueue = new LinkedBlockingDeque<>();
         confirmedTransactionsThread = new Thread(this::updateConfirmedTransactions, "Confirmation");
         confirmedTransactionsThread.start();
         log.info("{} is up", this.getClass().getSimpleName());
     }
 
     @Override
-    public void setLastDspConfirmationIndex(Map<Long, ReducedExistingTransactionData> indexToTransactionMap) {
+    public void setLastDspConfirmationIndex(Map<Long, ReducedExistingTransactionData> indexToTransactionMap, TransactionIndexData startingTransactionIndexData) {
         log.info("Started to set last dsp confirmation index");
-        byte[] accumulatedHash = "GENESIS".getBytes();
-        TransactionIndexData transactionIndexData = new TransactionIndexData(new Hash(-1), -1, "GENESIS".getBytes());
+        TransactionIndexData transactionIndexData = Optional.ofNullable(startingTransactionIndexData).orElse(new TransactionIndexData(new Hash(-1), -1, "GENESIS".getBytes()));
+        byte[] accumulatedHash = transactionIndexData.getAccumulatedHash();
+        long startingIndex = transactionIndexData.getIndex() + 1;
+        // the transactions up to the starting index are trust chain and dsp confirmed
+        dspConfirmed.addAndGet(startingIndex);
+        totalConfirmed.addAndGet(startingIndex);
+        trustChainConfirmed.addAndGet(startingIndex);
+        long endingIndex = startingIndex + indexToTransactionMap.size();
+        TransactionIndexData checkpointTransactionIndexData = transactionIndexCheckpointService.getLastCheckpointTransactionIndexData();
+        if (checkpointTransactionIndexData != null && (checkpointTransactionIndexData.getIndex() < startingIndex || checkpointTransactionIndexData.getIndex() >= endingIndex)) {
+            checkpointTransactionIndexData = null;
+        }
+        long checkpointIndex = checkpointTransactionIndexData != null ? checkpointTransactionIndexData.getIndex() : -1;
         TransactionIndexData nextTransactionIndexData;
         try {
-            for (long i = 0; i < indexToTransactionMap.size(); i++) {
-                nextTransactionIndexData = transactionIndexes.getByHash(new Hash(i));
-                if (nextTransactionIndexData == null) {
-                    log.error("Null transaction index data found for index {}", i);
-                    return;
-                }
-
+            for (long i = startingIndex; i < endingIndex; i++) {
                 ReducedExistingTransactionData reducedExistingTransactionData = indexToTransactionMap.get(i);
                 if (reducedExistingTransactionData == null) {
                     log.error("Null transaction data found for index {}", i);
+                    if (i > startingIndex && i <= checkpointIndex) {
+                        transactionIndexData = transactionIndexes.getByHash(new Hash(i - 1));
+                    }
                     return;
                 }
-                accumulatedHash = transactionIndexService.getAccumulatedHash(accumulatedHash, reducedExistingTransactionData.getHash(), i);
-                if (!Arrays.equals(accumulatedHash, nextTransactionIndexData.getAccumulatedHash())) {
-                    log.error("Incorrect accumulated hash");
-                    return;
+                if (i < checkpointIndex) {
+                    // the accumulated hashes up to the checkpoint were verified when it was taken
+                    confirmExistingTransaction(reducedExistingTransactionData);
+                    continue;
                 }
-                dspConfirmed.incrementAndGet();
-                if (reducedExistingTransactionData.isTrustChainConsensus()) {
-                    totalConfirmed.incrementAndGet();
-                    reducedExistingTransactionData.getAddressAmounts().forEach(addressAmount ->
-                            balanceService.updateBalance(addressAmount.getKey(), addressAmount.getValue())
-                    );
+                if (i == checkpointIndex) {
+                    nextTransactionIndexData = checkpointTransactionIndexData;
+                    accumulatedHash = checkpointTransactionIndexData.getAccumulatedHash();
+                    if (!reducedExistingTransactionData.getHash().equals(nextTransactionIndexData.getTransactionHash())) {
+                        log.error("Incorrect transaction hash at checkpoint {}", i);
+                        transactionIndexData = i > startingIndex ? transactionIndexes.getByHash(new Hash(i - 1)) : transactionIndexData;
+                        return;
+                    }
+                } else {
+                    nextTransactionIndexData = transactionIndexes.getByHash(new Hash(i));
+                    if (nextTransactionIndexData == null) {
+                        log.error("Null transaction index data found for index {}", i);
+                        return;
+                    }
+                    accumulatedHash = transactionIndexService.getAccumulatedHash(accumulatedHash, reducedExistingTransactionData.getHash(), i);
+                    if (!Arrays.equals(accumulatedHash, nextTransactionIndexData.getAccumulatedHash())) {
+                        log.error("Incorrect accumulated hash");
+                        return;
+                    }
+                    transactionIndexCheckpointService.addCheckpointIfDue(nextTransactionIndexData);
                 }
+                confirmExistingTransaction(reducedExistingTransactionData);
                 transactionIndexData = nextTransactionIndexData;
             }
         } finally {
             transactionIndexService.setLastTransactionIndexData(transactionIndexData);
             log.info("Finished to set last dsp confirmation index: {}", transactionIndexData.getIndex());
+            transactionIndexCheckpointService.startBackgroundVerification(checkpointTransactionIndexData);
         }
     }
 
+    private void confirmExistingTransaction(ReducedExistingTransactionData reducedExistingTransactionData) {
+        dspConfirmed.incrementAndGet();
+        if (reducedExistingTransactionData.isTrustChainConsensus()) {
+            totalConfirmed.incrementAndGet();
+            reducedExistingTransactionData.getAddressAmounts().forEach(addressAmount ->
+                    balanceService.updateBalance(addressAmount.getKey(), addressAmount.getValue())
+            );
+        }
+    }
+
+    /**
+     * Handles the queued confirmations in batches. The confirmations of a batch which could not be written are
+     * returned to the head of the queue in their order, and handled again after a delay which doubles on each failure
+     * up to the maximal retry delay.
+     */
     private void updateConfirmedTransactions() {
+        List<ConfirmationData> confirmations = new ArrayList<>();
+        long retryDelay = confirmationRetryDelay;
         while (!Thread.currentThread().isInterrupted()) {
             try {
-                ConfirmationData confirmationData = confirmationQueue.take();
-                updateConfirmedTransactionHandler(confirmationData);
+                confirmations.add(confirmationQueue.take());
+                confirmationQueue.drainTo(confirmations, confirmationBatchSize - 1);
+                boolean written = updateConfirmedTransactionsHandler(confirmations);
+                if (!written) {
+                    returnConfirmationsToQueue(confirmations);
+                }
+                confirmations.clear();
+                if (written) {
+                    retryDelay = confirmationRetryDelay;
+                } else {
+                    log.info("Retrying to write the confirmations in {} ms", retryDelay);
+                    Thread.sleep(retryDelay);
+                    retryDelay = Math.min(retryDelay * 2, confirmationRetryMaxDelay);
+                }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
         }
-        LinkedList<ConfirmationData> remainingConfirmedTransactions = new LinkedList<>();
-        confirmationQueue.drainTo(remainingConfirmedTransactions);
-        if (!remainingConfirmedTransactions.isEmpty()) {
-            log.info("Please wait to process {} remaining confirmed transaction(s)", remainingConfirmedTransactions.size());
-            remainingConfirmedTransactions.forEach(this::updateConfirmedTransactionHandler);
+        if (!confirmationQueue.isEmpty()) {
+            log.info("Please wait to process {} remaining confirmed transaction(s)", confirmationQueue.size());
+            while (confirmationQueue.drainTo(confirmations, confirmationBatchSize) > 0) {
+                if (!updateConfirmedTransactionsHandler(confirmations)) {
+                    log.error("Failed to write {} remaining confirmed transaction(s) at shutdown", confirmations.size() + confirmationQueue.size());
+                    return;
+                }
+                confirmations.clear();
+            }
         }
     }
 
-    private void updateConfirmedTransactionHandler(ConfirmationData confirmationData) {
-        transactions.lockAndGetByHash(confirmationData.getHash(), transactionData -> {
-            if (confirmationData instanceof TccInfo) {
-                transactionData.setTrustChainConsensus(true);
-                transactionData.setTrustChainConsensusTime(((TccInfo) confirmationData).getTrustChainConsensusTime());
-                transactionData.setTrustChainTrustScore(((TccInfo) confirmationData).getTrustChainTrustScore());
-                trustChainConfirmed.incrementAndGet();
-            } else if (confirmationData instanceof DspConsensusResult) {
-                transactionData.setDspConsensusResult((DspConsensusResult) confirmationData);
-                if (!insertNewTransactionIndex(transactionData)) {
+    private void returnConfirmationsToQueue(List<ConfirmationData> confirmations) {
+        ListIterator<ConfirmationData> confirmationIterator = confirmations.listIterator(confirmations.size());
+        while (confirmationIterator.hasPrevious()) {
+            confirmationQueue.addFirst(confirmationIterator.previous());
+        }
+    }
+
+    /**
+     * Applies the confirmations in their queue order and writes the updated transactions together with their new
+     * indexes in one batch. The transactions stay locked until the batch is written. The new indexes, the balances and
+     * the confirmation counters are updated only once the batch is written.
+     *
+     * @return false when the batch could not be written and the confirmations are rolled back
+     */
+    private boolean updateConfirmedTransactionsHandler(List<ConfirmationData> confirmations) {
+        AtomicBoolean written = new AtomicBoolean();
+        Set<Hash> transactionHashes = new HashSet<>();
+        confirmations.forEach(confirmationData -> transactionHashes.add(confirmationData.getHash()));
+        transactions.lockAndGetByHashes(transactionHashes, transactionDataMap -> {
+            CollectionWriteBatch collectionWriteBatch = new CollectionWriteBatch();
+            Set<Long> batchIndexes = new HashSet<>();
+            confirmations.forEach(confirmationData -> {
+                TransactionData transactionData = transactionDataMap.get(confirmationData.getHash());
+                if (transactionData == null) {
+                    log.error("Null transaction data found for confirmation of transaction {}", confirmationData.getHash());
                     return;
                 }
-                if (transactionHelper.isDspConfirmed(transactionData)) {
-                    continueHandleDSPConfirmedTransaction(transactionData);
-                    dspConfirmed.incrementAndGet();
+                if (updateConfirmedTransaction(confirmationData, transactionData, collectionWriteBatch, batchIndexes)) {
+                    collectionWriteBatch.put(transactions, transactionData);
                 }
+            });
+            written.set(collectionWriteBatch.commit());
+            if (!written.get()) {
+                log.error("Failed to write {} confirmation(s) to database, the confirmations are rolled back", confirmations.size());
             }
-            if (transactionHelper.isConfirmed(transactionData)) {
-                processConfirmedTransaction(transactionData);
-            }
-            transactions.put(transactionData);
         });
+        return written.get();
+    }
 
+    private boolean updateConfirmedTransaction(ConfirmationData confirmationData, TransactionData transactionData, CollectionWriteBatch collectionWriteBatch, Set<Long> batchIndexes) {
+        if (confirmationData instanceof TccInfo) {
+            transactionData.setTrustChainConsensus(true);
+            transactionData.setTrustChainConsensusTime(((TccInfo) confirmationData).getTrustChainConsensusTime());
+            transactionData.setTrustChainTrustScore(((TccInfo) confirmationData).getTrustChainTrustScore());
+            collectionWriteBatch.onCommit(trustChainConfirmed::incrementAndGet);
+        } else if (confirmationData instanceof DspConsensusResult) {
+            DspConsensusResult previousDspConsensusResult = transactionData.getDspConsensusResult();
+            transactionData.setDspConsensusResult((DspConsensusResult) confirmationData);
+            if (!insertNewTransactionIndex(transactionData, collectionWriteBatch)) {
+                // a later confirmation of the batch must not persist the dsp consensus result of a waiting index
+                transactionData.setDspConsensusResult(previousDspConsensusResult);
+                return false;
+            }
+            batchIndexes.add(((DspConsensusResult) confirmationData).getIndex());
+            if (isDspConfirmed(transactionData, batchIndexes)) {
+                collectionWriteBatch.onCommit(() -> {
+                    continueHandleDSPConfirmedTransaction(transactionData);
+                    dspConfirmed.incrementAndGet();
+                });
+            }
+        }
+        if (transactionData.isTrustChainConsensus() && isDspConfirmed(transactionData, batchIndexes)) {
+            processConfirmedTransaction(transactionData, collectionWriteBatch);
+        }
+        return true;
     }
 
-    protected boolean insertNewTransactionIndex(TransactionData transactionData) {
-        Optional<Boolean> optionalInsertNewTransactionIndex = transactionIndexService.insertNewTransactionIndex(transactionData);
+    private boolean isDspConfirmed(TransactionData transactionData, Set<Long> batchIndexes) {
+        DspConsensusResult dspConsensusResult = transactionData.getDspConsensusResult();
+        if (dspConsensusResult != null && dspConsensusResult.isDspConsensus() && batchIndexes.contains(dspConsensusResult.getIndex())) {
+            // the index is in the batch which is not written yet
+            return true;
+        }
+        return transactionHelper.isDspConfirmed(transactionData);
+    }
+
+    protected boolean insertNewTransactionIndex(TransactionData transactionData, CollectionWriteBatch collectionWriteBatch) {
+        Optional<Boolean> optionalInsertNewTransactionIndex = transactionIndexService.insertNewTransactionIndex(transactionData, collectionWriteBatch);
         if (!optionalInsertNewTransactionIndex.isPresent()) {
             return false;
         }
@@ -138,30 +257,35 @@ public class BaseNodeConfirmationService implements IConfirmationService {
             waitingDspConsensusResults.put(dspConsensusResult.getIndex(), dspConsensusResult);
             return false;
         } else {
-            long index = dspConsensusResult.getIndex() + 1;
-            while (waitingDspConsensusResults.containsKey(index)) {
-                setDspcToTrue(waitingDspConsensusResults.get(index));
-                waitingDspConsensusResults.remove(index);
-                index++;
-            }
+            collectionWriteBatch.onCommit(() -> setWaitingDspcToTrue(dspConsensusResult.getIndex() + 1));
             return true;
         }
     }
 
-    private void processConfirmedTransaction(TransactionData transactionData) {
+    private void setWaitingDspcToTrue(long index) {
+        while (waitingDspConsensusResults.containsKey(index)) {
+            setDspcToTrue(waitingDspConsensusResults.get(index));
+            waitingDspConsensusResults.remove(index);
+            index++;
+        }
+    }
+
+    private void processConfirmedTransaction(TransactionData transactionData, CollectionWriteBatch collectionWriteBatch) {
         Instant trustChainConsensusTime = transactionData.getTrustChainConsensusTime();
         Instant dspConsensusTime = transactionData.getDspConsensusResult().getIndexingTime();
         Instant transactionConsensusUpdateTime = trustChainConsensusTime.isAfter(dspConsensusTime) ? trustChainConsensusTime : dspConsensusTime;
         transactionData.setTransactionConsensusUpdateTime(transactionConsensusUpdateTime);
-        transactionData.getBaseTransactions().forEach(baseTransactionData -> balanceService.updateBalance(baseTransactionData.getAddressHash(), baseTransactionData.getAmount()));
-        totalConfirmed.incrementAndGet();
+        collectionWriteBatch.onCommit(() -> {
+            transactionData.getBaseTransactions().forEach(baseTransactionData -> balanceService.updateBalance(baseTransactionData.getAddressHash(), baseTransactionData.getAmount()));
+            totalConfirmed.incrementAndGet();
 
-        transactionData.getBaseTransactions().forEach(baseTransactionData -> {
-            Hash addressHash = baseTransactionData.getAddressHash();
-            balanceService.continueHandleBalanceChanges(addressHash);
-        });
+            transactionData.getBaseTransactions().forEach(baseTransactionData -> {
+                Hash addressHash = baseTransactionData.getAddressHash();
+                balanceService.continueHandleBalanceChanges(addressHash);
+            });
 
-        continueHandleAddressHistoryChanges(transactionData);
+            continueHandleAddressHistoryChanges(transactionData);
+        });
     }
 
     protected void continueHandleDSPConfirmedTransaction(TransactionData transactionData) {
@@ -60,6 +60,9 @@ public class BaseNodeDspVoteService implements IDspVoteService {
         TransactionData transactionData = transactions.getByHash(dspConsensusResult.getHash());
         if (transactionData == null) {
             postponedDspConsensusResultsMap.put(dspConsensusResult.getHash(), dspConsensusResult);
+            transactionData = transactions.getByHash(dspConsensusResult.getHash());
+        }
+        if (transactionData == null) {
             throw new DspConsensusResultException(String.format("DspConsensus result is for a non-existing transaction %s. ", dspConsensusResult.getHash()));
         }
         transactionPropagationCheckService.removeTransactionHashFromUnconfirmed(transactionData.getHash());
@@ -81,7 +84,7 @@ public class BaseNodeDspVoteService implements IDspVoteService {
     }
 
     @Override
-    public DspConsensusResult getPostponedDspConsensusResult(Hash transactionHash) {
+    public synchronized DspConsensusResult getPostponedDspConsensusResult(Hash transactionHash) {
         return postponedDspConsensusResultsMap.get(transactionHash);
     }
 
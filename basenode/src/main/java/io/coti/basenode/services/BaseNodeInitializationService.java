@@ -32,10 +32,12 @@ import org.springframework.web.client.RestTemplate;
 import javax.annotation.PreDestroy;
 import java.util.EnumMap;
 import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -58,6 +60,10 @@ public abstract class BaseNodeInitializationService {
     private String kycServerAddress;
     @Value("${kycserver.public.key}")
     private String kycServerPublicKey;
+    @Value("${initialization.replay.workers:4}")
+    private int replayWorkerNumber;
+    @Value("${initialization.replay.stage.capacity:10000}")
+    private int replayStageCapacity;
     @Autowired
     protected INetworkService networkService;
     @Autowired
@@ -67,6 +73,8 @@ public abstract class BaseNodeInitializationService {
     @Autowired
     private IDBRecoveryService dbRecoveryService;
     @Autowired
+    private DatabaseMigrationService databaseMigrationService;
+    @Autowired
     private Transactions transactions;
     @Autowired
     private TransactionIndexService transactionIndexService;
@@ -107,13 +115,15 @@ public abstract class BaseNodeInitializationService {
     @Autowired
     private ITransactionSynchronizationService transactionSynchronizationService;
     @Autowired
+    private NodeStateSnapshotService nodeStateSnapshotService;
+    @Autowired
     protected ApplicationContext applicationContext;
     @Autowired
     private BuildProperties buildProperties;
     protected String version;
     @Autowired
     private ITransactionPropagationCheckService transactionPropagationCheckService;
-    private final Map<Long, ReducedExistingTransactionData> indexToTransactionMap = new HashMap<>();
+    private final Map<Long, ReducedExistingTransactionData> indexToTransactionMap = new ConcurrentHashMap<>();
     private EnumMap<InitializationTransactionHandlerType, ExecutorData> existingTransactionExecutorMap;
 
     public void init() {
@@ -124,6 +134,7 @@ public abstract class BaseNodeInitializationService {
     protected void initServices() {
         awsService.init();
         dbRecoveryService.init();
+        databaseMigrationService.migrateAddressTransactionsHistories();
         addressService.init();
         balanceService.init();
         clusterStampService.loadClusterStamp();
@@ -141,18 +152,19 @@ public abstract class BaseNodeInitializationService {
         networkService.connectToNetwork();
         propagationSubscriber.initPropagationHandler();
         monitorService.init();
+        databaseMigrationService.init();
     }
 
     private void initTransactionSync() {
         try {
             log.info("Starting to read existing transactions");
             AtomicLong completedExistedTransactionNumber = new AtomicLong(0);
-            Thread monitorExistingTransactions = transactionService.monitorTransactionThread("existing", completedExistedTransactionNumber, null, "Db Txs Monitor");
+            Thread monitorExistingTransactions = monitorExistingTransactionThread(completedExistedTransactionNumber);
             final AtomicBoolean executorServicesInitiated = new AtomicBoolean(false);
-            transactions.forEach(transactionData -> {
+            Consumer<TransactionData> existingTransactionConsumer = transactionData -> {
                 if (!executorServicesInitiated.get()) {
                     existingTransactionExecutorMap = new EnumMap<>(InitializationTransactionHandlerType.class);
-                    EnumSet.allOf(InitializationTransactionHandlerType.class).forEach(initializationTransactionHandlerType -> existingTransactionExecutorMap.put(initializationTransactionHandlerType, new ExecutorData()));
+                    EnumSet.allOf(InitializationTransactionHandlerType.class).forEach(initializationTransactionHandlerType -> existingTransactionExecutorMap.put(initializationTransactionHandlerType, new ExecutorData(initializationTransactionHandlerType.name(), replayWorkerNumber, replayStageCapacity)));
                     executorServicesInitiated.set(true);
                 }
 
@@ -161,7 +173,13 @@ public abstract class BaseNodeInitializationService {
                 }
                 handleExistingTransaction(transactionData);
                 completedExistedTransactionNumber.incrementAndGet();
-            });
+            };
+            Optional<NodeStateSnapshotData> optionalNodeStateSnapshotData = nodeStateSnapshotService.loadSnapshot();
+            if (optionalNodeStateSnapshotData.isPresent()) {
+                nodeStateSnapshotService.replayTransactionsAfterSnapshot(optionalNodeStateSnapshotData.get(), existingTransactionConsumer);
+            } else {
+                transactions.forEach(existingTransactionConsumer);
+            }
             if (executorServicesInitiated.get()) {
                 existingTransactionExecutorMap.forEach((initializationTransactionHandlerType, executorData) -> executorData.waitForTermination());
             }
@@ -169,7 +187,7 @@ public abstract class BaseNodeInitializationService {
                 monitorExistingTransactions.interrupt();
                 monitorExistingTransactions.join();
             }
-            confirmationService.setLastDspConfirmationIndex(indexToTransactionMap);
+            confirmationService.setLastDspConfirmationIndex(indexToTransactionMap, optionalNodeStateSnapshotData.map(NodeStateSnapshotData::getTransactionIndexData).orElse(null));
             indexToTransactionMap.clear();
             log.info("Finished to read existing transactions");
 
@@ -179,6 +197,7 @@ public abstract class BaseNodeInitializationService {
             balanceService.validateBalances();
             log.info("Transactions Load completed");
             clusterService.finalizeInit();
+            nodeStateSnapshotService.init();
         } catch (TransactionSyncException e) {
             throw new TransactionSyncException("Error at sync transactions.\n" + e.getMessage(), e);
         } catch (Exception e) {
@@ -186,6 +205,20 @@ public abstract class BaseNodeInitializationService {
         }
     }
 
+    private Thread monitorExistingTransactionThread(AtomicLong completedExistedTransactionNumber) {
+        return new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                log.info("Read existing transactions: {}", completedExistedTransactionNumber);
+                existingTransactionExecutorMap.values().forEach(ExecutorData::logProgress);
+            }
+        }, "Db Txs Monitor");
+    }
+
     private void initCommunication() {
         networkService.setNodeManagerPropagationAddress("tcp://" + nodeManagerIp + ":" + nodeManagerPropagationPort);
 
@@ -1,7 +1,11 @@
 package io.coti.basenode.services;
 
 import io.coti.basenode.communication.ZeroMQSubscriberQueue;
+import io.coti.basenode.communication.interfaces.IPropagationPublisher;
 import io.coti.basenode.communication.interfaces.IPropagationSubscriber;
+import io.coti.basenode.data.PostponedTransactionsData;
+import io.coti.basenode.data.ValueCacheData;
+import io.coti.basenode.model.Transactions;
 import io.coti.basenode.services.interfaces.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +29,10 @@ public class BaseNodeMonitorService implements IMonitorService {
     private ITransactionService transactionService;
     @Autowired
     private IPropagationSubscriber propagationSubscriber;
+    @Autowired
+    private IPropagationPublisher propagationPublisher;
+    @Autowired
+    private Transactions transactions;
     @Value("${allow.transaction.monitoring}")
     private boolean allowTransactionMonitoring;
 
@@ -35,7 +43,7 @@ public class BaseNodeMonitorService implements IMonitorService {
     @Scheduled(initialDelay = 1000, fixedDelay = 5000)
     public void lastState() {
         if (allowTransactionMonitoring) {
-            log.info("Transactions = {}, TccConfirmed = {}, DspConfirmed = {}, Confirmed = {}, LastIndex = {}, Sources = {}, PostponedTransactions = {}, PropagationQueue = {}",
+            log.info("Transactions = {}, TccConfirmed = {}, DspConfirmed = {}, Confirmed = {}, LastIndex = {}, Sources = {}, PostponedTransactions = {}, PropagationQueue = {}, PublishQueue = {}, BlockedPropagations = {}",
                     transactionHelper.getTotalTransactions(),
                     confirmationService.getTrustChainConfirmed(),
                     confirmationService.getDspConfirmed(),
@@ -43,7 +51,25 @@ public class BaseNodeMonitorService implements IMonitorService {
                     transactionIndexService.getLastTransactionIndexData().getIndex(),
                     clusterService.getTotalSources(),
                     transactionService.totalPostponedTransactions(),
-                    propagationSubscriber.getMessageQueueSize(ZeroMQSubscriberQueue.TRANSACTION));
+                    propagationSubscriber.getMessageQueueSize(ZeroMQSubscriberQueue.TRANSACTION),
+                    propagationPublisher.getQueueSize(),
+                    propagationPublisher.getBlockedPropagations());
+            PostponedTransactionsData postponedTransactions = transactionService.getPostponedTransactions();
+            log.info("PostponedReleased = {}, PostponedAverageMillis = {}, PostponedMaxMillis = {}, PostponedExpired = {}, PostponedEvicted = {}",
+                    postponedTransactions.getReleasedTransactions(),
+                    postponedTransactions.getAverageReleasedPostponedMillis(),
+                    postponedTransactions.getMaxReleasedPostponedMillis(),
+                    postponedTransactions.getExpiredTransactions(),
+                    postponedTransactions.getEvictedTransactions());
+            ValueCacheData transactionsCache = transactions.getValueCache();
+            if (transactionsCache != null) {
+                log.info("TransactionsCacheSize = {}, TransactionsCacheHitRatio = {}, TransactionsCacheHits = {}, TransactionsCacheMisses = {}, TransactionsCacheEvictions = {}",
+                        transactionsCache.size(),
+                        String.format("%.3f", transactionsCache.getHitRatio()),
+                        transactionsCache.getHits(),
+                        transactionsCache.getMisses(),
+                        transactionsCache.getEvictions());
+            }
         }
     }
 }
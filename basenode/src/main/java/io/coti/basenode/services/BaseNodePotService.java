@@ -15,6 +15,8 @@ public class BaseNodePotService implements IPotService {
 
     @Value("${network.difficulty}")
     protected String difficulty;
+    @Value("${pot.parallelism:1}")
+    protected int potParallelism;
     protected byte[] targetDifficulty;
 
     public void init() {
@@ -24,6 +24,8 @@ public class BaseNodeShutDownService implements IShutDownService {
     protected IReceiver receiver;
     @Autowired
     protected IDatabaseConnector databaseConnector;
+    @Autowired
+    protected DatabaseMigrationService databaseMigrationService;
 
     public void shutdown() {
         shutDownServices();
@@ -34,6 +36,7 @@ public class BaseNodeShutDownService implements IShutDownService {
         propagationSubscriber.shutdown();
         propagationPublisher.shutdown();
         confirmationService.shutdown();
+        databaseMigrationService.shutdown();
         databaseConnector.shutdown();
     }
 }
@@ -1,29 +1,37 @@
 package io.coti.basenode.services;
 
 import io.coti.basenode.communication.JacksonSerializer;
+import io.coti.basenode.communication.TransactionBatchWriter;
 import io.coti.basenode.data.*;
+import io.coti.basenode.exceptions.TransactionException;
 import io.coti.basenode.model.TransactionIndexes;
 import io.coti.basenode.model.Transactions;
 import io.coti.basenode.services.interfaces.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.FluxSink;
 
+import javax.annotation.PostConstruct;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.EnumMap;
-import java.util.Map;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class BaseNodeTransactionService implements ITransactionService {
 
+    private static final int MULTI_GET_BATCH_SIZE = 1000;
     @Autowired
     private ITransactionHelper transactionHelper;
     @Autowired
@@ -42,9 +50,18 @@ public class BaseNodeTransactionService implements ITransactionService {
     private JacksonSerializer jacksonSerializer;
     @Autowired
     private TransactionIndexes transactionIndexes;
-    protected Map<TransactionData, Boolean> postponedTransactions = new ConcurrentHashMap<>();  // true/false means new from full node or propagated transaction
+    @Value("${postponed.transactions.max.size:100000}")
+    private int postponedTransactionsMaxSize;
+    @Value("${postponed.transactions.expiry.millis:600000}")
+    private long postponedTransactionsExpiryMillis;
+    protected PostponedTransactionsData postponedTransactions;
     private final LockData transactionLockData = new LockData();
 
+    @PostConstruct
+    private void initPostponedTransactions() {
+        postponedTransactions = new PostponedTransactionsData(postponedTransactionsMaxSize);
+    }
+
     @Override
     public void init() {
         log.info("{} is up", this.getClass().getSimpleName());
@@ -61,18 +78,20 @@ public class BaseNodeTransactionService implements ITransactionService {
 
             monitorTransactionBatch.start();
 
-            if (startingIndex <= transactionIndexService.getLastTransactionIndexData().getIndex()) {
-                for (long i = startingIndex; i <= transactionIndexService.getLastTransactionIndexData().getIndex(); i++) {
-                    output.write(jacksonSerializer.serialize(transactions.getByHash(transactionIndexes.getByHash(new Hash(i)).getTransactionHash())));
+            for (long i = startingIndex; i <= transactionIndexService.getLastTransactionIndexData().getIndex(); i += MULTI_GET_BATCH_SIZE) {
+                for (TransactionData transactionData : getIndexedTransactions(i, transactionIndexService.getLastTransactionIndexData().getIndex())) {
+                    output.write(jacksonSerializer.serialize(transactionData));
                     output.flush();
                     transactionNumber.incrementAndGet();
                 }
             }
-            for (Hash hash : transactionHelper.getNoneIndexedTransactionHashes()) {
-                output.write(jacksonSerializer.serialize(transactions.getByHash(hash)));
-                output.flush();
-                transactionNumber.incrementAndGet();
-
+            List<Hash> noneIndexedTransactionHashes = new ArrayList<>(transactionHelper.getNoneIndexedTransactionHashes());
+            for (int i = 0; i < noneIndexedTransactionHashes.size(); i += MULTI_GET_BATCH_SIZE) {
+                for (TransactionData transactionData : getTransactions(noneIndexedTransactionHashes, i)) {
+                    output.write(jacksonSerializer.serialize(transactionData));
+                    output.flush();
+                    transactionNumber.incrementAndGet();
+                }
             }
 
         } catch (Exception e) {
@@ -86,24 +105,64 @@ public class BaseNodeTransactionService implements ITransactionService {
     }
 
     @Override
-    public void getTransactionBatch(long startingIndex, FluxSink<byte[]> sink) {
+    public void getBinaryTransactionBatch(long startingIndex, Long endingIndex, boolean compressed, HttpServletResponse response) {
         AtomicLong transactionNumber = new AtomicLong(0);
         Thread monitorTransactionBatch = monitorTransactionBatch(Thread.currentThread().getId(), transactionNumber);
 
         try {
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            TransactionBatchWriter transactionBatchWriter = new TransactionBatchWriter(response.getOutputStream(), compressed);
+
             monitorTransactionBatch.start();
 
-            if (startingIndex <= transactionIndexService.getLastTransactionIndexData().getIndex()) {
-                for (long i = startingIndex; i <= transactionIndexService.getLastTransactionIndexData().getIndex(); i++) {
-                    sink.next((jacksonSerializer.serialize(transactions.getByHash(transactionIndexes.getByHash(new Hash(i)).getTransactionHash()))));
+            long lastIndex = endingIndex != null ? Math.min(endingIndex, transactionIndexService.getLastTransactionIndexData().getIndex()) : transactionIndexService.getLastTransactionIndexData().getIndex();
+            for (long i = startingIndex; i <= lastIndex; i += MULTI_GET_BATCH_SIZE) {
+                for (TransactionData transactionData : getIndexedTransactions(i, lastIndex)) {
+                    transactionBatchWriter.write(transactionData);
                     transactionNumber.incrementAndGet();
                 }
             }
+            if (endingIndex == null) {
+                List<Hash> noneIndexedTransactionHashes = new ArrayList<>(transactionHelper.getNoneIndexedTransactionHashes());
+                for (int i = 0; i < noneIndexedTransactionHashes.size(); i += MULTI_GET_BATCH_SIZE) {
+                    for (TransactionData transactionData : getTransactions(noneIndexedTransactionHashes, i)) {
+                        transactionBatchWriter.write(transactionData);
+                        transactionNumber.incrementAndGet();
+                    }
+                }
+            }
+            transactionBatchWriter.close();
+        } catch (Exception e) {
+            log.error("Error sending binary transaction batch");
+            log.error(e.getMessage());
+        } finally {
+            if (monitorTransactionBatch.isAlive()) {
+                monitorTransactionBatch.interrupt();
+            }
+        }
+    }
 
-            for (Hash hash : transactionHelper.getNoneIndexedTransactionHashes()) {
-                sink.next(jacksonSerializer.serialize((transactions.getByHash(hash))));
-                transactionNumber.incrementAndGet();
+    @Override
+    public void getTransactionBatch(long startingIndex, FluxSink<byte[]> sink) {
+        AtomicLong transactionNumber = new AtomicLong(0);
+        Thread monitorTransactionBatch = monitorTransactionBatch(Thread.currentThread().getId(), transactionNumber);
+
+        try {
+            monitorTransactionBatch.start();
 
+            for (long i = startingIndex; i <= transactionIndexService.getLastTransactionIndexData().getIndex(); i += MULTI_GET_BATCH_SIZE) {
+                for (TransactionData transactionData : getIndexedTransactions(i, transactionIndexService.getLastTransactionIndexData().getIndex())) {
+                    sink.next(jacksonSerializer.serialize(transactionData));
+                    transactionNumber.incrementAndGet();
+                }
+            }
+
+            List<Hash> noneIndexedTransactionHashes = new ArrayList<>(transactionHelper.getNoneIndexedTransactionHashes());
+            for (int i = 0; i < noneIndexedTransactionHashes.size(); i += MULTI_GET_BATCH_SIZE) {
+                for (TransactionData transactionData : getTransactions(noneIndexedTransactionHashes, i)) {
+                    sink.next(jacksonSerializer.serialize(transactionData));
+                    transactionNumber.incrementAndGet();
+                }
             }
             sink.complete();
         } catch (Exception e) {
@@ -116,6 +175,43 @@ public class BaseNodeTransactionService implements ITransactionService {
         }
     }
 
+    /**
+     * @return the transactions of up to {@link #MULTI_GET_BATCH_SIZE} indexes from the starting index, in index order
+     * @throws TransactionException when an index or its transaction is missing, so the batch does not skip it
+     */
+    private List<TransactionData> getIndexedTransactions(long startingIndex, long lastIndex) {
+        List<Hash> indexHashes = new ArrayList<>();
+        for (long i = startingIndex; i <= Math.min(lastIndex, startingIndex + MULTI_GET_BATCH_SIZE - 1); i++) {
+            indexHashes.add(new Hash(i));
+        }
+        List<TransactionIndexData> transactionIndexDataList = transactionIndexes.multiGetByHashes(indexHashes);
+        List<Hash> transactionHashes = new ArrayList<>(indexHashes.size());
+        for (int i = 0; i < transactionIndexDataList.size(); i++) {
+            TransactionIndexData transactionIndexData = transactionIndexDataList.get(i);
+            if (transactionIndexData == null) {
+                throw new TransactionException(String.format("Missing transaction index %d", startingIndex + i));
+            }
+            transactionHashes.add(transactionIndexData.getTransactionHash());
+        }
+        List<TransactionData> transactionDataList = transactions.multiGetByHashes(transactionHashes);
+        for (int i = 0; i < transactionDataList.size(); i++) {
+            if (transactionDataList.get(i) == null) {
+                throw new TransactionException(String.format("Missing transaction %s of index %d", transactionHashes.get(i), startingIndex + i));
+            }
+        }
+        return transactionDataList;
+    }
+
+    /**
+     * @return the existing transactions of up to {@link #MULTI_GET_BATCH_SIZE} hashes from the starting position of the
+     * hashes
+     */
+    private List<TransactionData> getTransactions(List<Hash> transactionHashes, int startingPosition) {
+        List<TransactionData> transactionDataList = transactions.multiGetByHashes(transactionHashes.subList(startingPosition, Math.min(transactionHashes.size(), startingPosition + MULTI_GET_BATCH_SIZE)));
+        transactionDataList.removeIf(Objects::isNull);
+        return transactionDataList;
+    }
+
     private Thread monitorTransactionBatch(long threadId, AtomicLong transactionNumber) {
         return new Thread(() -> {
             while (!Thread.currentThread().isInterrupted()) {
@@ -144,10 +240,7 @@ public class BaseNodeTransactionService implements ITransactionService {
                 log.error("Data Integrity validation failed: {}", transactionData.getHash());
                 return;
             }
-            if (hasOneOfParentsMissing(transactionData)) {
-                if (!postponedTransactions.containsKey(transactionData)) {
-                    postponedTransactions.put(transactionData, false);
-                }
+            if (hasOneOfParentsMissing(transactionData) && postponeTransaction(transactionData)) {
                 return;
             }
             if (!validationService.validateBalancesAndAddToPreBalance(transactionData)) {
@@ -172,6 +265,15 @@ public class BaseNodeTransactionService implements ITransactionService {
         }
     }
 
+    /**
+     * A parent handled in parallel may finish between the parents check and the postponement, so the parents are
+     * checked again. The transaction is handled now only if it is still postponed by this thread.
+     */
+    private boolean postponeTransaction(TransactionData transactionData) {
+        postponedTransactions.postpone(transactionData, false);
+        return hasOneOfParentsMissing(transactionData) || !postponedTransactions.remove(transactionData);
+    }
+
     protected void checkTransactionAlreadyPropagatedAndStartHandle(TransactionData transactionData, AtomicBoolean isTransactionAlreadyPropagated) {
         try {
             synchronized (transactionLockData.addLockToLockMap(transactionData.getHash())) {
@@ -194,20 +296,21 @@ public class BaseNodeTransactionService implements ITransactionService {
         if (postponedDspConsensusResult != null) {
             dspVoteService.handleVoteConclusion(postponedDspConsensusResult);
         }
-        Map<TransactionData, Boolean> postponedParentTransactions = postponedTransactions.entrySet().stream().filter(
-                postponedTransactionMapEntry ->
-                        (postponedTransactionMapEntry.getKey().getRightParentHash() != null
-                                && postponedTransactionMapEntry.getKey().getRightParentHash().equals(transactionData.getHash()))
-                                || (postponedTransactionMapEntry.getKey().getLeftParentHash() != null
-                                && postponedTransactionMapEntry.getKey().getLeftParentHash().equals(transactionData.getHash())))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        postponedParentTransactions.forEach((postponedTransaction, isTransactionFromFullNode) -> {
-            log.debug("Handling postponed transaction : {}, parent of transaction: {}", postponedTransaction.getHash(), transactionData.getHash());
-            postponedTransactions.remove(postponedTransaction);
+        postponedTransactions.release(transactionData.getHash()).forEach((postponedTransaction, isTransactionFromFullNode) -> {
+            log.debug("Handling postponed transaction : {}, child of transaction: {}", postponedTransaction.getHash(), transactionData.getHash());
             handlePostponedTransaction(postponedTransaction, isTransactionFromFullNode);
         });
     }
 
+    @Scheduled(initialDelayString = "${postponed.transactions.expiry.check.delay:60000}", fixedDelayString = "${postponed.transactions.expiry.check.delay:60000}")
+    public void removeExpiredPostponedTransactions() {
+        List<Hash> expiredTransactionHashes = postponedTransactions.removeExpired(Instant.now().minusMillis(postponedTransactionsExpiryMillis));
+        if (!expiredTransactionHashes.isEmpty()) {
+            log.warn("Removed {} postponed transactions whose parents did not arrive in {} ms", expiredTransactionHashes.size(), postponedTransactionsExpiryMillis);
+            expiredTransactionHashes.forEach(expiredTransactionHash -> log.debug("Removed expired postponed transaction {}", expiredTransactionHash));
+        }
+    }
+
     protected void handlePostponedTransaction(TransactionData postponedTransaction, boolean isTransactionFromFullNode) {
         if (!isTransactionFromFullNode) {
             handlePropagatedTransaction(postponedTransaction);
@@ -263,12 +366,25 @@ public class BaseNodeTransactionService implements ITransactionService {
         log.debug("Adding the transaction {} to explorer indexes by base node", transactionData.getHash());
     }
 
+    public void addToExplorerIndexes(ExplorerTransactionData explorerTransactionData) {
+        log.debug("Adding the transaction {} to explorer indexes by base node", explorerTransactionData.getTransactionHash());
+    }
+
+    public boolean isExplorerIndexed() {
+        return false;
+    }
+
     protected boolean hasOneOfParentsMissing(TransactionData transactionData) {
-        return (transactionData.getLeftParentHash() != null && transactions.getByHash(transactionData.getLeftParentHash()) == null) ||
-                (transactionData.getRightParentHash() != null && transactions.getByHash(transactionData.getRightParentHash()) == null);
+        return (transactionData.getLeftParentHash() != null && !transactions.exists(transactionData.getLeftParentHash())) ||
+                (transactionData.getRightParentHash() != null && !transactions.exists(transactionData.getRightParentHash()));
     }
 
     public int totalPostponedTransactions() {
         return postponedTransactions.size();
     }
+
+    @Override
+    public PostponedTransactionsData getPostponedTransactions() {
+        return postponedTransactions;
+    }
 }
@@ -1,7 +1,8 @@
 package io.coti.basenode.services;
 
-import com.google.common.collect.Sets;
+import io.coti.basenode.data.ClusterSnapshotData;
 import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.SourcesSnapshotData;
 import io.coti.basenode.data.TccInfo;
 import io.coti.basenode.data.TransactionData;
 import io.coti.basenode.model.Transactions;
@@ -9,24 +10,22 @@ import io.coti.basenode.services.interfaces.IClusterService;
 import io.coti.basenode.services.interfaces.IConfirmationService;
 import io.coti.basenode.services.interfaces.ISourceSelector;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.SerializationUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class ClusterService implements IClusterService {
 
-    private ArrayList<HashSet<Hash>> sourceSetsByTrustScore;
     private HashMap<Hash, TransactionData> sourceMap;
+    private volatile SourcesSnapshotData sourcesSnapshot;
     @Autowired
     private Transactions transactions;
     @Autowired
@@ -35,19 +34,16 @@ public class ClusterService implements IClusterService {
     private ISourceSelector sourceSelector;
     @Autowired
     private TrustChainConfirmationService trustChainConfirmationService;
-    private boolean isStarted;
-    private ConcurrentHashMap<Hash, TransactionData> trustChainConfirmationCluster;
+    private volatile boolean isStarted;
+    private final AtomicReference<ClusterSnapshotData> trustChainConfirmationCluster = new AtomicReference<>(ClusterSnapshotData.empty());
+    private final Object trustChainConfirmationLock = new Object();
     private final AtomicLong totalSources = new AtomicLong(0);
-    private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+    private final Object sourceLock = new Object();
 
     @PostConstruct
     public void init() {
-        trustChainConfirmationCluster = new ConcurrentHashMap<>();
-        sourceSetsByTrustScore = new ArrayList<>();
         sourceMap = new HashMap<>();
-        for (int i = 0; i <= 100; i++) {
-            sourceSetsByTrustScore.add(Sets.newHashSet());
-        }
+        sourcesSnapshot = new SourcesSnapshotData();
     }
 
     @Override
@@ -80,21 +76,18 @@ public class ClusterService implements IClusterService {
 
     @Override
     public void finalizeInit() {
-        isStarted = true;
+        List<TccInfo> trustChainConfirmations;
+        synchronized (trustChainConfirmationLock) {
+            trustChainConfirmations = trustChainConfirmationService.init(trustChainConfirmationCluster.get());
+            isStarted = true;
+        }
+        setTrustChainConfirmed(trustChainConfirmations);
         log.info("{} is up", this.getClass().getSimpleName());
     }
 
-    @Scheduled(fixedDelay = 3000, initialDelay = 1000)
-    public void checkForTrustChainConfirmedTransaction() {
-        if (!isStarted) {
-            return;
-        }
-
-        trustChainConfirmationService.init(trustChainConfirmationCluster);
-        List<TccInfo> transactionConsensusConfirmed = trustChainConfirmationService.getTrustChainConfirmedTransactions();
-
-        transactionConsensusConfirmed.forEach(tccInfo -> {
-            trustChainConfirmationCluster.remove(tccInfo.getHash());
+    private void setTrustChainConfirmed(List<TccInfo> trustChainConfirmations) {
+        trustChainConfirmations.forEach(tccInfo -> {
+            trustChainConfirmationCluster.updateAndGet(cluster -> cluster.without(tccInfo.getHash()));
             confirmationService.setTccToTrue(tccInfo);
             log.debug("TCC has been reached for transaction {}!!", tccInfo.getHash());
         });
@@ -102,31 +95,46 @@ public class ClusterService implements IClusterService {
 
     @Override
     public void attachToCluster(TransactionData transactionData) {
-        updateParents(transactionData);
+        List<TccInfo> trustChainConfirmations = Collections.emptyList();
+        synchronized (trustChainConfirmationLock) {
+            List<Hash> attachedParentHashes = updateParents(transactionData);
 
-        addTransactionToTrustChainConfirmationCluster(transactionData);
+            addTransactionToTrustChainConfirmationCluster(transactionData);
+            if (isStarted) {
+                trustChainConfirmations = trustChainConfirmationService.attachTransaction(transactionData, attachedParentHashes);
+            }
+        }
+        setTrustChainConfirmed(trustChainConfirmations);
     }
 
-    private void updateParents(TransactionData transactionData) {
-
-        updateSingleParent(transactionData, transactionData.getLeftParentHash());
-        updateSingleParent(transactionData, transactionData.getRightParentHash());
+    private List<Hash> updateParents(TransactionData transactionData) {
+        List<Hash> attachedParentHashes = new ArrayList<>(2);
+        if (updateSingleParent(transactionData, transactionData.getLeftParentHash())) {
+            attachedParentHashes.add(transactionData.getLeftParentHash());
+        }
+        if (updateSingleParent(transactionData, transactionData.getRightParentHash())) {
+            attachedParentHashes.add(transactionData.getRightParentHash());
+        }
         removeTransactionParentsFromSources(transactionData);
-
+        return attachedParentHashes;
     }
 
-    private void updateSingleParent(TransactionData transactionData, Hash parentHash) {
-        if (parentHash != null) {
-            transactions.lockAndGetByHash(parentHash, parentTransactionData -> {
-                if (parentTransactionData != null && !parentTransactionData.getChildrenTransactionHashes().contains(transactionData.getHash())) {
-                    parentTransactionData.addToChildrenTransactions(transactionData.getHash());
-                    if (trustChainConfirmationCluster.containsKey(parentTransactionData.getHash())) {
-                        trustChainConfirmationCluster.put(parentTransactionData.getHash(), parentTransactionData);
-                    }
-                    transactions.put(parentTransactionData);
-                }
-            });
+    private boolean updateSingleParent(TransactionData transactionData, Hash parentHash) {
+        if (parentHash == null) {
+            return false;
         }
+        AtomicBoolean attachedToClusterParent = new AtomicBoolean(false);
+        transactions.lockAndGetByHash(parentHash, parentTransactionData -> {
+            if (parentTransactionData != null && !parentTransactionData.getChildrenTransactionHashes().contains(transactionData.getHash())) {
+                parentTransactionData.addToChildrenTransactions(transactionData.getHash());
+                if (trustChainConfirmationCluster.get().containsKey(parentTransactionData.getHash())) {
+                    trustChainConfirmationCluster.updateAndGet(cluster -> cluster.with(parentTransactionData));
+                    attachedToClusterParent.set(true);
+                }
+                transactions.put(parentTransactionData);
+            }
+        });
+        return attachedToClusterParent.get();
     }
 
     private void removeTransactionParentsFromSources(TransactionData transactionData) {
@@ -139,30 +147,24 @@ public class ClusterService implements IClusterService {
     }
 
     private void removeTransactionFromSources(Hash transactionHash) {
-        try {
-            readWriteLock.writeLock().lock();
+        synchronized (sourceLock) {
             TransactionData transactionData = sourceMap.remove(transactionHash);
             if (transactionData != null) {
-                sourceSetsByTrustScore.get(transactionData.getRoundedSenderTrustScore()).remove(transactionHash);
+                sourcesSnapshot = sourcesSnapshot.removeSource(transactionData);
                 totalSources.decrementAndGet();
             }
-        } finally {
-            readWriteLock.writeLock().unlock();
         }
     }
 
     private void addTransactionToTrustChainConfirmationCluster(TransactionData transactionData) {
         Hash transactionHash = transactionData.getHash();
-        trustChainConfirmationCluster.put(transactionHash, transactionData);
+        trustChainConfirmationCluster.updateAndGet(cluster -> cluster.with(transactionData));
 
-        try {
-            readWriteLock.writeLock().lock();
+        synchronized (sourceLock) {
             if (transactionData.isSource() && sourceMap.put(transactionHash, transactionData) == null) {
-                sourceSetsByTrustScore.get(transactionData.getRoundedSenderTrustScore()).add(transactionHash);
+                sourcesSnapshot = sourcesSnapshot.addSource(transactionData);
                 totalSources.incrementAndGet();
             }
-        } finally {
-            readWriteLock.writeLock().unlock();
         }
 
         log.debug("Added New Transaction with hash:{}", transactionHash);
@@ -170,29 +172,21 @@ public class ClusterService implements IClusterService {
 
     private void removeTransactionFromTrustChainConfirmationCluster(TransactionData transactionData) {
         Hash transactionHash = transactionData.getHash();
-        trustChainConfirmationCluster.remove(transactionData.getHash());
+        trustChainConfirmationCluster.updateAndGet(cluster -> cluster.without(transactionHash));
 
-        try {
-            readWriteLock.writeLock().lock();
-            if (transactionData.isSource() && sourceMap.remove(transactionHash) != null) {
-                sourceSetsByTrustScore.get(transactionData.getRoundedSenderTrustScore()).remove(transactionHash);
+        synchronized (sourceLock) {
+            TransactionData sourceTransactionData = transactionData.isSource() ? sourceMap.remove(transactionHash) : null;
+            if (sourceTransactionData != null) {
+                sourcesSnapshot = sourcesSnapshot.removeSource(sourceTransactionData);
                 totalSources.decrementAndGet();
             }
-        } finally {
-            readWriteLock.writeLock().unlock();
         }
     }
 
     @Override
     public void selectSources(TransactionData transactionData) {
-        List<Set<Hash>> trustScoreToTransactionMappingSnapshot =
-                Collections.unmodifiableList(sourceSetsByTrustScore);
-        Map<Hash, TransactionData> sourceMapSnapshot = Collections.unmodifiableMap(sourceMap);
         List<TransactionData> selectedSourcesForAttachment =
-                sourceSelector.selectSourcesForAttachment(
-                        trustScoreToTransactionMappingSnapshot,
-                        sourceMapSnapshot,
-                        transactionData.getSenderTrustScore(), readWriteLock);
+                sourceSelector.selectSourcesForAttachment(sourcesSnapshot, transactionData.getSenderTrustScore());
 
         if (selectedSourcesForAttachment.isEmpty()) {
             return;
@@ -214,17 +208,17 @@ public class ClusterService implements IClusterService {
 
     @Override
     public Set<Hash> getTrustChainConfirmationTransactionHashes() {
-        return new HashSet<>(trustChainConfirmationCluster.keySet());
+        return new HashSet<>(trustChainConfirmationCluster.get().keySet());
     }
 
     @Override
-    public ConcurrentHashMap<Hash, TransactionData> getCopyTrustChainConfirmationCluster() {
-        return SerializationUtils.clone(trustChainConfirmationCluster);
+    public ClusterSnapshotData getTrustChainConfirmationClusterSnapshot() {
+        return trustChainConfirmationCluster.get();
     }
 
     @Override
-    public ArrayList<HashSet<Hash>> getSourceSetsByTrustScore() {
-        return SerializationUtils.clone(sourceSetsByTrustScore);
+    public SourcesSnapshotData getSourcesSnapshot() {
+        return sourcesSnapshot;
     }
 
 }
\ No newline at end of file
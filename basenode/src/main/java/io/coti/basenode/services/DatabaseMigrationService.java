@@ -0,0 +1,119 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.AddressTransactionsHistory;
+import io.coti.basenode.data.AddressTransactionsHistoryEntry;
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.model.AddressTransactionsHistories;
+import io.coti.basenode.model.AddressTransactionsHistoryEntries;
+import io.coti.basenode.model.Collection;
+import io.coti.basenode.model.Transactions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+public class DatabaseMigrationService {
+
+    private static final int ADDRESS_HISTORY_MIGRATION_BATCH_SIZE = 10000;
+    @Value("${db.codec.migration.background:true}")
+    private boolean backgroundMigration;
+    @Value("${db.address.history.migration:true}")
+    private boolean addressHistoryMigration;
+    @Autowired
+    private List<Collection<?>> collections;
+    @Autowired
+    private AddressTransactionsHistories addressTransactionsHistories;
+    @Autowired
+    private AddressTransactionsHistoryEntries addressTransactionsHistoryEntries;
+    @Autowired
+    private Transactions transactions;
+    private Thread migrationThread;
+
+    public void init() {
+        if (!backgroundMigration) {
+            return;
+        }
+        migrationThread = new Thread(this::migrateLegacyValues, "DB Codec Migration");
+        migrationThread.setDaemon(true);
+        migrationThread.start();
+        log.info("{} is up", this.getClass().getSimpleName());
+    }
+
+    /**
+     * Moves the legacy address histories to one history entry per address and transaction. An address history is
+     * deleted after all of its entries are written, so an interrupted migration is completed on the next start.
+     */
+    public void migrateAddressTransactionsHistories() {
+        if (!addressHistoryMigration || addressTransactionsHistories.isEmpty()) {
+            return;
+        }
+        log.info("Starting to migrate address transaction histories");
+        List<Hash> migratedAddressHashes = new ArrayList<>();
+        long[] migratedEntries = new long[1];
+        addressTransactionsHistories.forEach(addressTransactionsHistory -> {
+            migratedEntries[0] += migrateAddressTransactionsHistory(addressTransactionsHistory);
+            migratedAddressHashes.add(addressTransactionsHistory.getHash());
+        });
+        migratedAddressHashes.forEach(addressTransactionsHistories::deleteByHash);
+        log.info("Migrated {} address transaction histories to {} history entries", migratedAddressHashes.size(), migratedEntries[0]);
+    }
+
+    private long migrateAddressTransactionsHistory(AddressTransactionsHistory addressTransactionsHistory) {
+        if (addressTransactionsHistory.getTransactionsHistory() == null) {
+            return 0;
+        }
+        List<Hash> transactionHashes = new ArrayList<>(addressTransactionsHistory.getTransactionsHistory());
+        for (int i = 0; i < transactionHashes.size(); i += ADDRESS_HISTORY_MIGRATION_BATCH_SIZE) {
+            List<Hash> transactionHashBatch = transactionHashes.subList(i, Math.min(i + ADDRESS_HISTORY_MIGRATION_BATCH_SIZE, transactionHashes.size()));
+            List<TransactionData> transactionDataBatch = transactions.multiGetByHashes(transactionHashBatch);
+            Map<Hash, AddressTransactionsHistoryEntry> addressTransactionsHistoryEntryMap = new HashMap<>();
+            for (int j = 0; j < transactionHashBatch.size(); j++) {
+                TransactionData transactionData = transactionDataBatch.get(j);
+                AddressTransactionsHistoryEntry addressTransactionsHistoryEntry = new AddressTransactionsHistoryEntry(addressTransactionsHistory.getHash(), transactionHashBatch.get(j),
+                        transactionData != null ? transactionData.getCreateTime() : addressTransactionsHistory.getCreationTime());
+                addressTransactionsHistoryEntryMap.put(addressTransactionsHistoryEntry.getHash(), addressTransactionsHistoryEntry);
+            }
+            addressTransactionsHistoryEntries.putBatch(addressTransactionsHistoryEntryMap);
+        }
+        return transactionHashes.size();
+    }
+
+    private void migrateLegacyValues() {
+        for (Collection<?> collection : collections) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            if (collection.isMigratable()) {
+                try {
+                    long migratedValues = collection.migrateLegacyValues();
+                    if (migratedValues > 0) {
+                        log.info("Migrated {} legacy values of {}", migratedValues, collection.getClass().getSimpleName());
+                    }
+                } catch (Exception e) {
+                    log.error("Error at migrating legacy values of {}", collection.getClass().getSimpleName(), e);
+                }
+            }
+        }
+    }
+
+    public void shutdown() {
+        if (migrationThread != null && migrationThread.isAlive()) {
+            log.info("Shutting down {}", this.getClass().getSimpleName());
+            migrationThread.interrupt();
+            try {
+                migrationThread.join();
+            } catch (InterruptedException e) {
+                log.error("Interrupted while waiting for the migration to stop");
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.*;
+import io.coti.basenode.model.TransactionIndexes;
+import io.coti.basenode.model.Transactions;
+import io.coti.basenode.services.interfaces.IBalanceService;
+import io.coti.basenode.services.interfaces.IClusterService;
+import io.coti.basenode.services.interfaces.ITransactionHelper;
+import io.coti.basenode.services.interfaces.ITransactionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps a snapshot of the in-memory state that is derived from the transactions, so a restart replays only the
+ * transactions after the snapshot instead of the whole database. The snapshot is tied to the settled index: the end of
+ * the longest run of indexes from genesis whose transactions are also trust chain confirmed. A settled transaction
+ * never changes its contribution again - it is counted in the balances, pre balances and confirmation counters and is
+ * not in the cluster - so the settled state is built in the background from the database alone.
+ * <p>
+ * Next to the settled state the snapshot keeps the hashes of the transactions that were not settled when it was taken:
+ * the none indexed transactions and the trust chain confirmation cluster. A transaction attached later has its parents
+ * in the cluster of its time, so on startup the transactions after the snapshot are found by following the children
+ * from these hashes and from the indexes after the settled index.
+ * <p>
+ * A node with an explorer index also keeps the explorer entries of the settled transactions in the snapshot, as the
+ * settled transactions are not replayed.
+ * <p>
+ * The snapshot is written to a temporary file that is renamed, so a crash leaves the previous or the new snapshot. It
+ * is ignored, and the whole database is read, when the clusterstamp changed or the database does not have the settled
+ * index with the same accumulated hash.
+ */
+@Slf4j
+@Service
+public class NodeStateSnapshotService {
+
+    private static final String SNAPSHOT_FILE_NAME = "node_state.snapshot";
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+    @Value("${node.state.snapshot.enabled:false}")
+    private boolean snapshotEnabled;
+    @Value("${node.state.snapshot.directory:node_state_snapshot}")
+    private String snapshotDirectory;
+    @Autowired
+    private Transactions transactions;
+    @Autowired
+    private TransactionIndexes transactionIndexes;
+    @Autowired
+    private IBalanceService balanceService;
+    @Autowired
+    private ITransactionHelper transactionHelper;
+    @Autowired
+    private IClusterService clusterService;
+    @Autowired
+    private ITransactionService transactionService;
+    private byte[] clusterStampDigest;
+    private TransactionIndexData settledTransactionIndexData;
+    private Map<Hash, BigDecimal> settledBalanceMap;
+    private Map<Hash, BigDecimal> settledPreBalanceMap;
+    private List<ExplorerTransactionData> settledExplorerTransactions;
+    private long snapshotIndex;
+    private volatile boolean started;
+
+    /**
+     * Is called after the clusterstamp is loaded. A valid snapshot replaces the balances and pre balances.
+     */
+    public Optional<NodeStateSnapshotData> loadSnapshot() {
+        if (!snapshotEnabled) {
+            return Optional.empty();
+        }
+        clusterStampDigest = calculateClusterStampDigest(balanceService.copyBalanceMap());
+        settledTransactionIndexData = new TransactionIndexData(new Hash(-1), -1, "GENESIS".getBytes());
+        settledBalanceMap = balanceService.copyBalanceMap();
+        settledPreBalanceMap = balanceService.copyPreBalanceMap();
+        settledExplorerTransactions = transactionService.isExplorerIndexed() ? new ArrayList<>() : null;
+        snapshotIndex = -1;
+
+        Optional<NodeStateSnapshotData> optionalNodeStateSnapshotData = readSnapshot().filter(this::isValidSnapshot);
+        optionalNodeStateSnapshotData.ifPresent(nodeStateSnapshotData -> {
+            settledTransactionIndexData = nodeStateSnapshotData.getTransactionIndexData();
+            settledBalanceMap = new HashMap<>(nodeStateSnapshotData.getBalanceMap());
+            settledPreBalanceMap = new HashMap<>(nodeStateSnapshotData.getPreBalanceMap());
+            snapshotIndex = settledTransactionIndexData.getIndex();
+            balanceService.loadBalances(nodeStateSnapshotData.getBalanceMap(), nodeStateSnapshotData.getPreBalanceMap());
+            if (settledExplorerTransactions != null) {
+                settledExplorerTransactions = new ArrayList<>(nodeStateSnapshotData.getSettledExplorerTransactions());
+                settledExplorerTransactions.forEach(transactionService::addToExplorerIndexes);
+            }
+            transactionHelper.addTotalTransactions(snapshotIndex + 1);
+            log.info("Loaded node state snapshot of index {} from {}", snapshotIndex, nodeStateSnapshotData.getCreateTime());
+        });
+        return optionalNodeStateSnapshotData;
+    }
+
+    public void replayTransactionsAfterSnapshot(NodeStateSnapshotData nodeStateSnapshotData, Consumer<TransactionData> existingTransactionConsumer) {
+        long settledIndex = nodeStateSnapshotData.getTransactionIndexData().getIndex();
+        Deque<Hash> remainingTransactionHashes = new ArrayDeque<>(nodeStateSnapshotData.getUnsettledTransactionHashes());
+        TransactionIndexData transactionIndexData;
+        for (long index = settledIndex + 1; (transactionIndexData = transactionIndexes.getByHash(new Hash(index))) != null; index++) {
+            remainingTransactionHashes.add(transactionIndexData.getTransactionHash());
+        }
+
+        Set<Hash> visitedTransactionHashes = new HashSet<>();
+        long replayedTransactionNumber = 0;
+        while (!remainingTransactionHashes.isEmpty()) {
+            Hash transactionHash = remainingTransactionHashes.poll();
+            if (!visitedTransactionHashes.add(transactionHash)) {
+                continue;
+            }
+            TransactionData transactionData = transactions.getByHash(transactionHash);
+            if (transactionData == null) {
+                continue;
+            }
+            if (transactionData.getDspConsensusResult() != null && transactionData.getDspConsensusResult().getIndex() <= settledIndex) {
+                if (!transactionHelper.isDspConfirmed(transactionData)) {
+                    transactionHelper.addNoneIndexedTransaction(transactionData);
+                }
+                continue;
+            }
+            existingTransactionConsumer.accept(transactionData);
+            replayedTransactionNumber++;
+            remainingTransactionHashes.addAll(transactionData.getChildrenTransactionHashes());
+        }
+        log.info("Replayed {} transactions after the node state snapshot", replayedTransactionNumber);
+    }
+
+    public void init() {
+        started = snapshotEnabled;
+        log.info("{} is up", this.getClass().getSimpleName());
+    }
+
+    @Scheduled(initialDelayString = "${node.state.snapshot.delay:600000}", fixedDelayString = "${node.state.snapshot.delay:600000}")
+    public void takeSnapshot() {
+        if (!started) {
+            return;
+        }
+        try {
+            advanceSettledTransactionIndex();
+            if (settledTransactionIndexData.getIndex() == snapshotIndex) {
+                return;
+            }
+            // the none indexed transactions are taken before the cluster, so a transaction that moves between them is in one of them
+            Set<Hash> unsettledTransactionHashes = transactionHelper.getNoneIndexedTransactionHashes();
+            unsettledTransactionHashes.addAll(clusterService.getTrustChainConfirmationTransactionHashes());
+            writeSnapshot(new NodeStateSnapshotData(clusterStampDigest, settledTransactionIndexData, settledBalanceMap, settledPreBalanceMap, unsettledTransactionHashes,
+                    settledExplorerTransactions));
+            snapshotIndex = settledTransactionIndexData.getIndex();
+            log.info("Node state snapshot of index {} is taken with {} unsettled transactions", snapshotIndex, unsettledTransactionHashes.size());
+        } catch (Exception e) {
+            log.error("Error at taking node state snapshot", e);
+        }
+    }
+
+    private void advanceSettledTransactionIndex() {
+        TransactionIndexData nextTransactionIndexData;
+        while ((nextTransactionIndexData = transactionIndexes.getByHash(new Hash(settledTransactionIndexData.getIndex() + 1))) != null) {
+            TransactionData transactionData = transactions.getByHash(nextTransactionIndexData.getTransactionHash());
+            if (transactionData == null || !transactionData.isTrustChainConsensus()) {
+                return;
+            }
+            transactionData.getBaseTransactions().forEach(baseTransactionData -> {
+                settledBalanceMap.merge(baseTransactionData.getAddressHash(), baseTransactionData.getAmount(), BigDecimal::add);
+                settledPreBalanceMap.merge(baseTransactionData.getAddressHash(), baseTransactionData.getAmount(), BigDecimal::add);
+            });
+            if (settledExplorerTransactions != null) {
+                settledExplorerTransactions.add(new ExplorerTransactionData(transactionData));
+            }
+            settledTransactionIndexData = nextTransactionIndexData;
+        }
+    }
+
+    private boolean isValidSnapshot(NodeStateSnapshotData nodeStateSnapshotData) {
+        if (!Arrays.equals(clusterStampDigest, nodeStateSnapshotData.getClusterStampDigest())) {
+            log.warn("Node state snapshot is of another clusterstamp and is ignored");
+            return false;
+        }
+        if (settledExplorerTransactions != null && nodeStateSnapshotData.getSettledExplorerTransactions() == null) {
+            log.warn("Node state snapshot does not have the explorer index and is ignored");
+            return false;
+        }
+        TransactionIndexData snapshotTransactionIndexData = nodeStateSnapshotData.getTransactionIndexData();
+        TransactionIndexData transactionIndexData = transactionIndexes.getByHash(new Hash(snapshotTransactionIndexData.getIndex()));
+        if (transactionIndexData == null || !Arrays.equals(transactionIndexData.getAccumulatedHash(), snapshotTransactionIndexData.getAccumulatedHash())) {
+            log.warn("Node state snapshot of index {} does not match the database and is ignored", snapshotTransactionIndexData.getIndex());
+            return false;
+        }
+        return true;
+    }
+
+    private Optional<NodeStateSnapshotData> readSnapshot() {
+        Path snapshotPath = Paths.get(snapshotDirectory, SNAPSHOT_FILE_NAME);
+        if (!Files.exists(snapshotPath)) {
+            return Optional.empty();
+        }
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath))))) {
+            return Optional.of((NodeStateSnapshotData) objectInputStream.readObject());
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.warn("Error at reading node state snapshot, it is ignored", e);
+            return Optional.empty();
+        }
+    }
+
+    private void writeSnapshot(NodeStateSnapshotData nodeStateSnapshotData) throws IOException {
+        Path snapshotPath = Paths.get(snapshotDirectory, SNAPSHOT_FILE_NAME);
+        Path temporaryPath = Paths.get(snapshotDirectory, SNAPSHOT_FILE_NAME + TEMPORARY_FILE_SUFFIX);
+        Files.createDirectories(snapshotPath.getParent());
+        try (FileOutputStream fileOutputStream = new FileOutputStream(temporaryPath.toFile())) {
+            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(new BufferedOutputStream(fileOutputStream));
+            ObjectOutputStream objectOutputStream = new ObjectOutputStream(gzipOutputStream);
+            objectOutputStream.writeObject(nodeStateSnapshotData);
+            objectOutputStream.flush();
+            gzipOutputStream.finish();
+            gzipOutputStream.flush();
+            fileOutputStream.getFD().sync();
+        }
+        Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private byte[] calculateClusterStampDigest(Map<Hash, BigDecimal> clusterStampBalanceMap) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            new TreeMap<>(clusterStampBalanceMap).forEach((addressHash, amount) -> {
+                messageDigest.update(addressHash.getBytes());
+                messageDigest.update(amount.stripTrailingZeros().toPlainString().getBytes(StandardCharsets.UTF_8));
+            });
+            return messageDigest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
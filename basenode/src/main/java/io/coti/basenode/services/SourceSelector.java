@@ -1,129 +1,151 @@
 package io.coti.basenode.services;
 
-import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.SourceBucketData;
+import io.coti.basenode.data.SourcesSnapshotData;
 import io.coti.basenode.data.TransactionData;
 import io.coti.basenode.services.interfaces.ISourceSelector;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.SerializationUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
 import java.time.Instant;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-
-import static java.util.stream.Collectors.toList;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 @Component
 public class SourceSelector implements ISourceSelector {
 
+    private static final int MAX_DISTINCT_SOURCE_ATTEMPTS = 100;
     @Value("${min.source.percentage}")
     private int minSourcePercentage;
     @Value("${max.neighbourhood.radius}")
     private int maxNeighbourhoodRadius;
 
     @Override
-    public List<TransactionData> selectSourcesForAttachment(
-            List<Set<Hash>> trustScoreToTransactionMapping,
-            Map<Hash, TransactionData> sourceMap, double transactionTrustScore, ReentrantReadWriteLock readWriteLock) {
+    public List<TransactionData> selectSourcesForAttachment(SourcesSnapshotData sourcesSnapshot, double transactionTrustScore) {
 
-        List<TransactionData> neighbourSources = getNeighbourSources(
-                trustScoreToTransactionMapping,
-                sourceMap,
-                transactionTrustScore, readWriteLock);
+        List<SourceBucketData> neighbourBuckets = getNeighbourBuckets(sourcesSnapshot, transactionTrustScore);
 
-        return selectTwoOptimalSources(neighbourSources);
+        return selectTwoOptimalSources(neighbourBuckets, Instant.now().toEpochMilli(), ThreadLocalRandom.current());
     }
 
-    private List<TransactionData> getNeighbourSources(
-            List<Set<Hash>> trustScoreToSourceListMapping,
-            Map<Hash, TransactionData> sourceMap, double transactionTrustScore, ReentrantReadWriteLock readWriteLock) {
-
-        List<TransactionData> neighbourSources = new LinkedList<>();
-        try {
-            readWriteLock.readLock().lock();
-            int roundedTrustScore = (int) Math.round(transactionTrustScore);
-            int numberOfSources = getNumberOfSources(trustScoreToSourceListMapping);
-            if (numberOfSources > 0) {
-                int lowIndex = roundedTrustScore - 1;
-                int highIndex = roundedTrustScore + 1;
-
-                neighbourSources.addAll(trustScoreToSourceListMapping.get(roundedTrustScore).stream().map(hash -> SerializationUtils.clone(sourceMap.get(hash))).collect(toList()));
-
-                for (int trustScoreDifference = 0; trustScoreDifference < maxNeighbourhoodRadius; trustScoreDifference++) {
-                    if (lowIndex >= 0) {
-                        neighbourSources.addAll(trustScoreToSourceListMapping.get(lowIndex).stream().map(hash -> SerializationUtils.clone(sourceMap.get(hash))).collect(toList()));
-                    }
-                    if (highIndex <= 100) {
-                        neighbourSources.addAll(trustScoreToSourceListMapping.get(highIndex).stream().map(hash -> SerializationUtils.clone(sourceMap.get(hash))).collect(toList()));
-                    }
-                    if ((double) neighbourSources.size() / numberOfSources > (double) minSourcePercentage / 100) {
-                        break;
-                    }
-                    lowIndex--;
-                    highIndex++;
+    private List<SourceBucketData> getNeighbourBuckets(SourcesSnapshotData sourcesSnapshot, double transactionTrustScore) {
+
+        List<SourceBucketData> neighbourBuckets = new ArrayList<>();
+        int roundedTrustScore = (int) Math.round(transactionTrustScore);
+        int numberOfSources = sourcesSnapshot.getNumberOfSources();
+        if (numberOfSources > 0) {
+            int lowIndex = roundedTrustScore - 1;
+            int highIndex = roundedTrustScore + 1;
+            int numberOfNeighbourSources = addNeighbourBucket(neighbourBuckets, sourcesSnapshot.getBucket(roundedTrustScore));
+
+            for (int trustScoreDifference = 0; trustScoreDifference < maxNeighbourhoodRadius; trustScoreDifference++) {
+                if (lowIndex >= 0) {
+                    numberOfNeighbourSources += addNeighbourBucket(neighbourBuckets, sourcesSnapshot.getBucket(lowIndex));
+                }
+                if (highIndex <= SourcesSnapshotData.MAX_TRUST_SCORE) {
+                    numberOfNeighbourSources += addNeighbourBucket(neighbourBuckets, sourcesSnapshot.getBucket(highIndex));
                 }
+                if ((double) numberOfNeighbourSources / numberOfSources > (double) minSourcePercentage / 100) {
+                    break;
+                }
+                lowIndex--;
+                highIndex++;
             }
-            return neighbourSources;
-        } finally {
-            readWriteLock.readLock().unlock();
         }
+        return neighbourBuckets;
     }
 
-    private int getNumberOfSources(List<Set<Hash>> trustScoreToSourceListMapping) {
-        int numberOfSources = 0;
-        for (Set<Hash> hashes : trustScoreToSourceListMapping) {
-            if (hashes != null) {
-                numberOfSources += hashes.size();
-            }
+    private int addNeighbourBucket(List<SourceBucketData> neighbourBuckets, SourceBucketData bucket) {
+        if (bucket.size() > 0) {
+            neighbourBuckets.add(bucket);
         }
-        return numberOfSources;
+        return bucket.size();
     }
 
-    private List<TransactionData> selectTwoOptimalSources(List<TransactionData> transactions) {
-
-        Instant now = Instant.now();
-        List<TransactionData> olderSources =
-                transactions.stream().
-                        filter(s -> !s.getAttachmentTime().isAfter(now)).collect(toList());
+    /**
+     * Chooses two sources, randomly weighted by their age ("older" transactions have a bigger chance to be selected).
+     * Sources attached after the time are not chosen.
+     */
+    List<TransactionData> selectTwoOptimalSources(List<SourceBucketData> buckets, long now, Random random) {
+
+        List<SourceBucketData> olderBuckets = new ArrayList<>(buckets.size());
+        int numberOfOlderSources = 0;
+        for (SourceBucketData bucket : buckets) {
+            SourceBucketData olderBucket = bucket.isOlderThan(now) ? bucket : getOlderBucket(bucket, now);
+            if (olderBucket.size() > 0) {
+                olderBuckets.add(olderBucket);
+                numberOfOlderSources += olderBucket.size();
+            }
+        }
 
-        if (olderSources.size() <= 2) {
+        if (numberOfOlderSources <= 2) {
+            List<TransactionData> olderSources = new ArrayList<>(numberOfOlderSources);
+            olderBuckets.forEach(bucket -> {
+                for (int i = 0; i < bucket.size(); i++) {
+                    olderSources.add(bucket.getSource(i));
+                }
+            });
             return olderSources;
         }
 
-        // Calculate total timestamp differences from the transaction's timestamp
-        long totalWeight =
-                olderSources.stream().
-                        map(s -> Duration.between(s.getAttachmentTime(), now).toMillis()).mapToLong(Long::longValue).sum();
-
-        // Now choose sources, randomly weighted by timestamp difference ("older" transactions have a bigger chance to be selected)
-        List<TransactionData> randomWeightedSources = new LinkedList<>();
-        while (randomWeightedSources.size() < 2) {
-
-            int randomIndex = -1;
-            double random = Math.random() * totalWeight;
-            for (int i = 0; i < olderSources.size(); ++i) {
-                random -= Duration.between(olderSources.get(i).getAttachmentTime(), now).toMillis();
-                if (random < 0.0d) {
-                    randomIndex = i;
-                    break;
-                }
-            }
+        long totalWeight = 0;
+        for (SourceBucketData bucket : olderBuckets) {
+            totalWeight += bucket.getWeight(now);
+        }
+        List<TransactionData> randomWeightedSources = new ArrayList<>(2);
+        TransactionData firstSource = sample(olderBuckets, totalWeight, now, random);
+        randomWeightedSources.add(firstSource);
+        TransactionData secondSource = sample(olderBuckets, totalWeight, now, random);
+        for (int attempt = 1; secondSource == firstSource && attempt < MAX_DISTINCT_SOURCE_ATTEMPTS; attempt++) {
+            secondSource = sample(olderBuckets, totalWeight, now, random);
+        }
+        if (secondSource == firstSource) {
+            // the other sources have no weight, as they are attached at this time
+            secondSource = getAnySourceBut(olderBuckets, firstSource);
+        }
+        randomWeightedSources.add(secondSource);
 
-            TransactionData randomSource = olderSources.get(randomIndex);
+        return randomWeightedSources;
+    }
 
-            if (randomWeightedSources.isEmpty() || (randomWeightedSources.size() == 1 && randomSource != randomWeightedSources.iterator().next())) {
-                randomWeightedSources.add(randomSource);
+    private SourceBucketData getOlderBucket(SourceBucketData bucket, long now) {
+        List<TransactionData> olderSources = new ArrayList<>();
+        for (int i = 0; i < bucket.size(); i++) {
+            if (bucket.getSource(i).getAttachmentTime().toEpochMilli() <= now) {
+                olderSources.add(bucket.getSource(i));
             }
         }
+        return new SourceBucketData(olderSources.toArray(new TransactionData[0]));
+    }
 
-        return randomWeightedSources;
+    private TransactionData sample(List<SourceBucketData> buckets, long totalWeight, long now, Random random) {
+        if (totalWeight <= 0) {
+            int index = random.nextInt(buckets.size());
+            return buckets.get(index).sample(now, random);
+        }
+        long weight = (long) (random.nextDouble() * totalWeight);
+        for (SourceBucketData bucket : buckets) {
+            weight -= bucket.getWeight(now);
+            if (weight < 0) {
+                return bucket.sample(now, random);
+            }
+        }
+        return buckets.get(buckets.size() - 1).sample(now, random);
+    }
 
+    private TransactionData getAnySourceBut(List<SourceBucketData> buckets, TransactionData excludedSource) {
+        for (SourceBucketData bucket : buckets) {
+            for (int i = 0; i < bucket.size(); i++) {
+                if (bucket.getSource(i) != excludedSource) {
+                    return bucket.getSource(i);
+                }
+            }
+        }
+        return excludedSource;
     }
 
 }
@@ -5,7 +5,7 @@ import io.coti.basenode.crypto.ExpandedTransactionTrustScoreCrypto;
 import io.coti.basenode.crypto.TransactionCrypto;
 import io.coti.basenode.data.*;
 import io.coti.basenode.data.interfaces.ITrustScoreNodeValidatable;
-import io.coti.basenode.model.AddressTransactionsHistories;
+import io.coti.basenode.model.AddressTransactionsHistoryEntries;
 import io.coti.basenode.model.TransactionIndexes;
 import io.coti.basenode.model.Transactions;
 import io.coti.basenode.services.interfaces.IBalanceService;
@@ -32,7 +32,7 @@ public class TransactionHelper implements ITransactionHelper {
 
     public static final int CURRENCY_SCALE = 8;
     @Autowired
-    private AddressTransactionsHistories addressTransactionsHistories;
+    private AddressTransactionsHistoryEntries addressTransactionsHistoryEntries;
     @Autowired
     private TransactionCrypto transactionCrypto;
     @Autowired
@@ -91,33 +91,15 @@ public class TransactionHelper implements ITransactionHelper {
 
     @Override
     public void updateAddressTransactionHistory(TransactionData transactionData) {
-        transactionData.getBaseTransactions().forEach(baseTransactionData -> {
-            AddressTransactionsHistory addressHistory = Optional.ofNullable(addressTransactionsHistories.getByHash(baseTransactionData.getAddressHash()))
-                    .orElse(new AddressTransactionsHistory(baseTransactionData.getAddressHash()));
-
-            if (!addressHistory.addTransactionHashToHistory(transactionData.getHash())) {
-                log.debug("Transaction {} is already in history of address {}", transactionData.getHash(), baseTransactionData.getAddressHash());
-            }
-            addressTransactionsHistories.put(addressHistory);
-        });
+        Map<Hash, AddressTransactionsHistoryEntry> addressTransactionsHistoryEntryMap = new HashMap<>();
+        updateAddressTransactionHistory(addressTransactionsHistoryEntryMap, transactionData);
+        addressTransactionsHistoryEntries.putBatch(addressTransactionsHistoryEntryMap);
     }
 
-    public void updateAddressTransactionHistory(Map<Hash, AddressTransactionsHistory> addressToTransactionsHistoryMap, TransactionData transactionData) {
-
+    public void updateAddressTransactionHistory(Map<Hash, AddressTransactionsHistoryEntry> addressTransactionsHistoryEntryMap, TransactionData transactionData) {
         transactionData.getBaseTransactions().forEach(baseTransactionData -> {
-            AddressTransactionsHistory addressHistory;
-            if (!addressToTransactionsHistoryMap.containsKey(baseTransactionData.getAddressHash())) {
-                addressHistory = addressTransactionsHistories.getByHash(baseTransactionData.getAddressHash());
-                if (addressHistory == null) {
-                    addressHistory = new AddressTransactionsHistory(baseTransactionData.getAddressHash());
-                }
-            } else {
-                addressHistory = addressToTransactionsHistoryMap.get(baseTransactionData.getAddressHash());
-            }
-            if (!addressHistory.addTransactionHashToHistory(transactionData.getHash())) {
-                log.debug("Transaction {} is already in history of address {}", transactionData.getHash(), baseTransactionData.getAddressHash());
-            }
-            addressToTransactionsHistoryMap.put(baseTransactionData.getAddressHash(), addressHistory);
+            AddressTransactionsHistoryEntry addressTransactionsHistoryEntry = new AddressTransactionsHistoryEntry(baseTransactionData.getAddressHash(), transactionData.getHash(), transactionData.getCreateTime());
+            addressTransactionsHistoryEntryMap.put(addressTransactionsHistoryEntry.getHash(), addressTransactionsHistoryEntry);
         });
     }
 
@@ -182,7 +164,7 @@ public class TransactionHelper implements ITransactionHelper {
     }
 
     private boolean isTransactionHashInDB(Hash transactionHash) {
-        return transactions.getByHash(transactionHash) != null;
+        return transactions.exists(transactionHash);
     }
 
     @Override
@@ -204,7 +186,7 @@ public class TransactionHelper implements ITransactionHelper {
         if (dspConsensusResult == null) {
             return;
         }
-        if (transactionIndexes.getByHash(new Hash(dspConsensusResult.getIndex())) == null) {
+        if (!transactionIndexes.exists(new Hash(dspConsensusResult.getIndex()))) {
             confirmationService.setDspcToTrue(dspConsensusResult);
         }
 
@@ -328,7 +310,7 @@ public class TransactionHelper implements ITransactionHelper {
 
     @Override
     public boolean isDspConfirmed(TransactionData transactionData) {
-        return transactionData.getDspConsensusResult() != null && transactionData.getDspConsensusResult().isDspConsensus() && transactionIndexes.getByHash(new Hash(transactionData.getDspConsensusResult().getIndex())) != null;
+        return transactionData.getDspConsensusResult() != null && transactionData.getDspConsensusResult().isDspConsensus() && transactionIndexes.exists(new Hash(transactionData.getDspConsensusResult().getIndex()));
     }
 
     @Override
@@ -383,6 +365,11 @@ public class TransactionHelper implements ITransactionHelper {
         return totalTransactions.incrementAndGet();
     }
 
+    @Override
+    public void addTotalTransactions(long transactionCount) {
+        totalTransactions.addAndGet(transactionCount);
+    }
+
     @Override
     public void addNoneIndexedTransaction(TransactionData transactionData) {
         noneIndexedTransactionHashes.add(transactionData.getHash());
@@ -0,0 +1,125 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.crypto.NodeCryptoHelper;
+import io.coti.basenode.crypto.TransactionIndexCheckpointCrypto;
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.data.TransactionIndexCheckpointData;
+import io.coti.basenode.data.TransactionIndexData;
+import io.coti.basenode.model.CollectionWriteBatch;
+import io.coti.basenode.model.TransactionIndexCheckpoints;
+import io.coti.basenode.model.TransactionIndexes;
+import io.coti.basenode.model.Transactions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps a checkpoint of the accumulated hash every interval of indexes. A checkpoint is signed by the node and is only
+ * taken for an index whose accumulated hash the node calculated itself, so startup verifies the accumulated hashes
+ * from the last checkpoint only. The indexes up to the checkpoint can be verified again by a background thread, which
+ * deletes the checkpoints from the first incorrect index, so the next startup verifies them.
+ */
+@Slf4j
+@Service
+public class TransactionIndexCheckpointService {
+
+    @Value("${transaction.index.checkpoint.interval:10000}")
+    private long checkpointInterval;
+    @Value("${transaction.index.checkpoint.background.verification:false}")
+    private boolean backgroundVerification;
+    @Autowired
+    private TransactionIndexCheckpoints transactionIndexCheckpoints;
+    @Autowired
+    private TransactionIndexCheckpointCrypto transactionIndexCheckpointCrypto;
+    @Autowired
+    private TransactionIndexes transactionIndexes;
+    @Autowired
+    private Transactions transactions;
+    @Autowired
+    private TransactionIndexService transactionIndexService;
+
+    public void addCheckpointIfDue(TransactionIndexData transactionIndexData) {
+        addCheckpointIfDue(transactionIndexData, null);
+    }
+
+    public void addCheckpointIfDue(TransactionIndexData transactionIndexData, CollectionWriteBatch collectionWriteBatch) {
+        if (checkpointInterval <= 0 || transactionIndexData.getIndex() <= 0 || transactionIndexData.getIndex() % checkpointInterval != 0) {
+            return;
+        }
+        TransactionIndexCheckpointData transactionIndexCheckpointData = new TransactionIndexCheckpointData(transactionIndexData.getIndex(), transactionIndexData.getAccumulatedHash());
+        transactionIndexCheckpointCrypto.signMessage(transactionIndexCheckpointData);
+        if (collectionWriteBatch != null) {
+            collectionWriteBatch.put(transactionIndexCheckpoints, transactionIndexCheckpointData);
+        } else {
+            transactionIndexCheckpoints.put(transactionIndexCheckpointData);
+        }
+    }
+
+    /**
+     * @return the transaction index data of the last checkpoint, or null when there is no valid checkpoint
+     */
+    public TransactionIndexData getLastCheckpointTransactionIndexData() {
+        TransactionIndexCheckpointData transactionIndexCheckpointData = transactionIndexCheckpoints.getLast();
+        if (transactionIndexCheckpointData == null) {
+            return null;
+        }
+        if (!NodeCryptoHelper.getNodeHash().equals(transactionIndexCheckpointData.getSignerHash()) || !transactionIndexCheckpointCrypto.verifySignature(transactionIndexCheckpointData)) {
+            log.warn("Invalid signature of transaction index checkpoint {}", transactionIndexCheckpointData.getIndex());
+            return null;
+        }
+        TransactionIndexData transactionIndexData = transactionIndexes.getByHash(new Hash(transactionIndexCheckpointData.getIndex()));
+        if (transactionIndexData == null || !Arrays.equals(transactionIndexData.getAccumulatedHash(), transactionIndexCheckpointData.getAccumulatedHash())) {
+            log.warn("Transaction index checkpoint {} does not match the transaction indexes", transactionIndexCheckpointData.getIndex());
+            return null;
+        }
+        return transactionIndexData;
+    }
+
+    public void startBackgroundVerification(TransactionIndexData checkpointTransactionIndexData) {
+        if (!backgroundVerification || checkpointTransactionIndexData == null) {
+            return;
+        }
+        Thread verificationThread = new Thread(() -> verifyTransactionIndexes(checkpointTransactionIndexData.getIndex()), "Index Verification");
+        verificationThread.setDaemon(true);
+        verificationThread.start();
+    }
+
+    /**
+     * @return the first index with an incorrect accumulated hash, or -1 when the indexes up to the last index are correct
+     */
+    public long verifyTransactionIndexes(long lastIndex) {
+        log.info("Started to verify transaction indexes up to checkpoint {}", lastIndex);
+        byte[] accumulatedHash = "GENESIS".getBytes();
+        for (long index = 0; index <= lastIndex && !Thread.currentThread().isInterrupted(); index++) {
+            TransactionIndexData transactionIndexData = transactionIndexes.getByHash(new Hash(index));
+            TransactionData transactionData = transactionIndexData != null ? transactions.getByHash(transactionIndexData.getTransactionHash()) : null;
+            if (transactionData == null || transactionData.getDspConsensusResult() == null || transactionData.getDspConsensusResult().getIndex() != index) {
+                return handleIncorrectIndex(index);
+            }
+            accumulatedHash = transactionIndexService.getAccumulatedHash(accumulatedHash, transactionData.getHash(), index);
+            if (!Arrays.equals(accumulatedHash, transactionIndexData.getAccumulatedHash())) {
+                return handleIncorrectIndex(index);
+            }
+        }
+        log.info("Finished to verify transaction indexes up to checkpoint {}", lastIndex);
+        return -1;
+    }
+
+    private long handleIncorrectIndex(long index) {
+        log.error("Incorrect accumulated hash at index {}, the checkpoints from it are deleted", index);
+        List<TransactionIndexCheckpointData> incorrectCheckpoints = new ArrayList<>();
+        transactionIndexCheckpoints.forEach(transactionIndexCheckpointData -> {
+            if (transactionIndexCheckpointData.getIndex() >= index) {
+                incorrectCheckpoints.add(transactionIndexCheckpointData);
+            }
+        });
+        incorrectCheckpoints.forEach(transactionIndexCheckpoints::delete);
+        return index;
+    }
+}
@@ -4,6 +4,7 @@ import io.coti.basenode.crypto.CryptoHelper;
 import io.coti.basenode.data.Hash;
 import io.coti.basenode.data.TransactionData;
 import io.coti.basenode.data.TransactionIndexData;
+import io.coti.basenode.model.CollectionWriteBatch;
 import io.coti.basenode.model.TransactionIndexes;
 import io.coti.basenode.services.interfaces.ITransactionHelper;
 import lombok.extern.slf4j.Slf4j;
@@ -22,32 +23,88 @@ public class TransactionIndexService {
     private ITransactionHelper transactionHelper;
     @Autowired
     private TransactionIndexes transactionIndexes;
+    @Autowired
+    private TransactionIndexCheckpointService transactionIndexCheckpointService;
     private TransactionIndexData lastTransactionIndexData;
+    private CollectionWriteBatch stagingCollectionWriteBatch;
+    private TransactionIndexData stagedTransactionIndexData;
 
     public void init() {
         log.info("{} is up", this.getClass().getSimpleName());
     }
 
-    public synchronized Optional<Boolean> insertNewTransactionIndex(TransactionData transactionData) {
+    public Optional<Boolean> insertNewTransactionIndex(TransactionData transactionData) {
+        return insertNewTransactionIndex(transactionData, null);
+    }
+
+    /**
+     * @param collectionWriteBatch the batch to stage the new index in, or null to write it directly. A staged index
+     *                             becomes the last index, and its transaction leaves the none indexed transactions,
+     *                             only once the batch is written
+     */
+    public synchronized Optional<Boolean> insertNewTransactionIndex(TransactionData transactionData, CollectionWriteBatch collectionWriteBatch) {
         if (transactionData.getDspConsensusResult() == null) {
             log.error("Invalid transaction index for transaction {}", transactionData.getHash());
             return Optional.empty();
         }
-        if (transactionData.getDspConsensusResult().getIndex() < lastTransactionIndexData.getIndex() + 1) {
+        TransactionIndexData currentTransactionIndexData = getCurrentTransactionIndexData(collectionWriteBatch);
+        if (transactionData.getDspConsensusResult().getIndex() < currentTransactionIndexData.getIndex() + 1) {
             log.debug("Already inserted index {}", transactionData.getDspConsensusResult().getIndex());
             return Optional.empty();
         }
-        if (transactionData.getDspConsensusResult().getIndex() == lastTransactionIndexData.getIndex() + 1) {
-            log.debug("Inserting new transaction {} with index: {}", transactionData.getHash(), lastTransactionIndexData.getIndex() + 1);
-            lastTransactionIndexData = getNextIndexData(lastTransactionIndexData, transactionData);
-            transactionIndexes.put(lastTransactionIndexData);
-            transactionHelper.removeNoneIndexedTransaction(transactionData);
+        if (transactionData.getDspConsensusResult().getIndex() == currentTransactionIndexData.getIndex() + 1) {
+            log.debug("Inserting new transaction {} with index: {}", transactionData.getHash(), currentTransactionIndexData.getIndex() + 1);
+            TransactionIndexData newTransactionIndexData = getNextIndexData(currentTransactionIndexData, transactionData);
+            if (collectionWriteBatch != null) {
+                stageTransactionIndex(newTransactionIndexData, transactionData, collectionWriteBatch);
+            } else {
+                transactionIndexes.put(newTransactionIndexData);
+                transactionIndexCheckpointService.addCheckpointIfDue(newTransactionIndexData);
+                publishTransactionIndex(newTransactionIndexData, transactionData);
+            }
             return Optional.of(Boolean.TRUE);
         } else {
             return Optional.of(Boolean.FALSE);
         }
     }
 
+    private TransactionIndexData getCurrentTransactionIndexData(CollectionWriteBatch collectionWriteBatch) {
+        if (collectionWriteBatch != null && collectionWriteBatch == stagingCollectionWriteBatch) {
+            return stagedTransactionIndexData;
+        }
+        return lastTransactionIndexData;
+    }
+
+    private void stageTransactionIndex(TransactionIndexData transactionIndexData, TransactionData transactionData, CollectionWriteBatch collectionWriteBatch) {
+        if (collectionWriteBatch != stagingCollectionWriteBatch) {
+            stagingCollectionWriteBatch = collectionWriteBatch;
+            collectionWriteBatch.onRollback(() -> discardStagedTransactionIndexes(collectionWriteBatch));
+        }
+        stagedTransactionIndexData = transactionIndexData;
+        collectionWriteBatch.put(transactionIndexes, transactionIndexData);
+        transactionIndexCheckpointService.addCheckpointIfDue(transactionIndexData, collectionWriteBatch);
+        collectionWriteBatch.onCommit(() -> publishTransactionIndex(transactionIndexData, transactionData));
+    }
+
+    private synchronized void publishTransactionIndex(TransactionIndexData transactionIndexData, TransactionData transactionData) {
+        if (transactionIndexData.getIndex() > lastTransactionIndexData.getIndex()) {
+            lastTransactionIndexData = transactionIndexData;
+        }
+        if (transactionIndexData == stagedTransactionIndexData) {
+            stagingCollectionWriteBatch = null;
+            stagedTransactionIndexData = null;
+        }
+        transactionHelper.removeNoneIndexedTransaction(transactionData);
+    }
+
+    private synchronized void discardStagedTransactionIndexes(CollectionWriteBatch collectionWriteBatch) {
+        if (collectionWriteBatch == stagingCollectionWriteBatch) {
+            log.error("Discarding staged transaction indexes up to {}", stagedTransactionIndexData.getIndex());
+            stagingCollectionWriteBatch = null;
+            stagedTransactionIndexData = null;
+        }
+    }
+
     public TransactionIndexData getLastTransactionIndexData() {
         return lastTransactionIndexData;
     }
@@ -0,0 +1,244 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.communication.TransactionBatchReader;
+import io.coti.basenode.crypto.DspConsensusCrypto;
+import io.coti.basenode.data.*;
+import io.coti.basenode.exceptions.TransactionSyncException;
+import io.coti.basenode.services.interfaces.INetworkService;
+import io.coti.basenode.services.interfaces.ITransactionHelper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Fetches the indexed missing transactions from several peers in parallel. The index range is split into segments
+ * aligned to the segment size, so a segment keeps its file name across restarts and a completely downloaded segment is
+ * not fetched again. Every segment is verified before any of its transactions is handed over: transaction crypto, dsp
+ * consensus signature, consecutive indexes and the accumulated hash at its end, which is taken from the recovery server.
+ * Segments are handed over in index order.
+ */
+@Slf4j
+@Service
+public class TransactionSegmentSynchronizationService {
+
+    private static final String RECOVERY_NODE_GET_BINARY_BATCH_ENDPOINT = "/transaction_batch/binary";
+    private static final String RECOVERY_NODE_GET_INDEX_ENDPOINT = "/transaction_batch/index";
+    private static final String SEGMENT_FILE_PREFIX = "segment-";
+    private static final String SEGMENT_FILE_SUFFIX = ".bin";
+    private static final String DOWNLOAD_FILE_SUFFIX = ".download";
+    @Value("${transaction.sync.parallel:false}")
+    private boolean parallelSync;
+    @Value("${transaction.sync.parallel.peers:4}")
+    private int maximumParallelPeers;
+    @Value("${transaction.sync.segment.size:10000}")
+    private long segmentSize;
+    @Value("${transaction.sync.segment.directory:transaction_sync_segments}")
+    private String segmentDirectory;
+    @Autowired
+    private INetworkService networkService;
+    @Autowired
+    private TransactionIndexService transactionIndexService;
+    @Autowired
+    private ITransactionHelper transactionHelper;
+    @Autowired
+    private DspConsensusCrypto dspConsensusCrypto;
+    @Autowired
+    private RestTemplate restTemplate;
+
+    /**
+     * @return the first index that is still missing and should be requested from the recovery server
+     */
+    public long requestMissingTransactionSegments(long firstMissingTransactionIndex, Consumer<TransactionData> missingTransactionConsumer) {
+        if (!parallelSync) {
+            return firstMissingTransactionIndex;
+        }
+        String recoveryServerAddress = networkService.getRecoveryServerAddress();
+        TransactionIndexData recoveryServerLastIndexData = getTransactionIndexData(recoveryServerAddress, null);
+        if (recoveryServerLastIndexData == null || recoveryServerLastIndexData.getIndex() - firstMissingTransactionIndex + 1 < segmentSize) {
+            return firstMissingTransactionIndex;
+        }
+        List<String> peerAddresses = getPeerAddresses(recoveryServerAddress);
+        List<TransactionSyncSegmentData> segments = createSegments(firstMissingTransactionIndex, recoveryServerLastIndexData.getIndex());
+        log.info("Starting to get {} missing transaction segments from {} peers", segments.size(), peerAddresses.size());
+
+        ExecutorService segmentExecutor = Executors.newFixedThreadPool(Math.min(maximumParallelPeers, peerAddresses.size()));
+        try {
+            TransactionIndexData lastTransactionIndexData = transactionIndexService.getLastTransactionIndexData();
+            for (int i = 0; i < segments.size(); i++) {
+                TransactionSyncSegmentData segment = segments.get(i);
+                List<String> segmentPeerAddresses = new ArrayList<>(peerAddresses);
+                Collections.rotate(segmentPeerAddresses, -i);
+                boolean firstSegment = i == 0;
+                segment.setDownload(segmentExecutor.submit(() -> {
+                    TransactionIndexData segmentStartIndexData = firstSegment ? lastTransactionIndexData : getRecoveryServerIndexData(recoveryServerAddress, segment.getStartingIndex() - 1);
+                    fetchSegment(segment, segmentPeerAddresses, segmentStartIndexData, getRecoveryServerIndexData(recoveryServerAddress, segment.getEndingIndex()));
+                }));
+            }
+            for (TransactionSyncSegmentData segment : segments) {
+                waitForSegment(segment);
+                readSegment(segment, Math.max(lastTransactionIndexData.getIndex(), segment.getStartingIndex() - 1), missingTransactionConsumer);
+                Files.deleteIfExists(segment.getSegmentPath());
+            }
+            log.info("Finished to get missing transaction segments till index {}", recoveryServerLastIndexData.getIndex());
+            return recoveryServerLastIndexData.getIndex() + 1;
+        } catch (IOException e) {
+            throw new TransactionSyncException("Error at missing transaction segments", e);
+        } finally {
+            segmentExecutor.shutdownNow();
+        }
+    }
+
+    private List<String> getPeerAddresses(String recoveryServerAddress) {
+        Set<String> peerAddresses = new LinkedHashSet<>();
+        peerAddresses.add(recoveryServerAddress);
+        networkService.getMapFromFactory(NodeType.DspNode).values().forEach(networkNodeData -> peerAddresses.add(networkNodeData.getHttpFullAddress()));
+        NetworkNodeData zeroSpendNetworkNodeData = networkService.getSingleNodeData(NodeType.ZeroSpendServer);
+        if (zeroSpendNetworkNodeData != null) {
+            peerAddresses.add(zeroSpendNetworkNodeData.getHttpFullAddress());
+        }
+        if (networkService.getNetworkNodeData() != null) {
+            peerAddresses.remove(networkService.getNetworkNodeData().getHttpFullAddress());
+        }
+        return new ArrayList<>(peerAddresses);
+    }
+
+    private List<TransactionSyncSegmentData> createSegments(long firstMissingTransactionIndex, long lastTransactionIndex) {
+        Path segmentDirectoryPath = Paths.get(segmentDirectory);
+        List<TransactionSyncSegmentData> segments = new ArrayList<>();
+        Set<Path> segmentPaths = new HashSet<>();
+        for (long alignedIndex = firstMissingTransactionIndex - firstMissingTransactionIndex % segmentSize; alignedIndex <= lastTransactionIndex; alignedIndex += segmentSize) {
+            long endingIndex = Math.min(alignedIndex + segmentSize - 1, lastTransactionIndex);
+            Path segmentPath = segmentDirectoryPath.resolve(SEGMENT_FILE_PREFIX + alignedIndex + "-" + endingIndex + SEGMENT_FILE_SUFFIX);
+            segments.add(new TransactionSyncSegmentData(alignedIndex, endingIndex, segmentPath));
+            segmentPaths.add(segmentPath);
+        }
+        try {
+            Files.createDirectories(segmentDirectoryPath);
+            try (Stream<Path> existingPaths = Files.list(segmentDirectoryPath)) {
+                existingPaths.filter(existingPath -> !segmentPaths.contains(existingPath)).forEach(this::deleteSegmentFile);
+            }
+        } catch (IOException e) {
+            throw new TransactionSyncException("Error at preparing transaction segment directory", e);
+        }
+        return segments;
+    }
+
+    private void fetchSegment(TransactionSyncSegmentData segment, List<String> peerAddresses, TransactionIndexData segmentStartIndexData, TransactionIndexData segmentEndIndexData) {
+        if (Files.exists(segment.getSegmentPath()) && verifySegment(segment, segmentStartIndexData, segmentEndIndexData)) {
+            log.debug("Transaction segment {}-{} resumed from a previous sync", segment.getStartingIndex(), segment.getEndingIndex());
+            return;
+        }
+        Path downloadPath = segment.getSegmentPath().resolveSibling(segment.getSegmentPath().getFileName() + DOWNLOAD_FILE_SUFFIX);
+        for (String peerAddress : peerAddresses) {
+            try {
+                restTemplate.execute(peerAddress + RECOVERY_NODE_GET_BINARY_BATCH_ENDPOINT + "?starting_index=" + segment.getStartingIndex()
+                        + "&ending_index=" + segment.getEndingIndex() + "&compressed=true", HttpMethod.GET, null, response -> {
+                    try (InputStream body = response.getBody()) {
+                        Files.copy(body, downloadPath, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    return null;
+                });
+                Files.move(downloadPath, segment.getSegmentPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                if (verifySegment(segment, segmentStartIndexData, segmentEndIndexData)) {
+                    log.debug("Transaction segment {}-{} received from {}", segment.getStartingIndex(), segment.getEndingIndex(), peerAddress);
+                    return;
+                }
+                log.warn("Transaction segment {}-{} from {} failed verification", segment.getStartingIndex(), segment.getEndingIndex(), peerAddress);
+            } catch (RestClientException | IOException e) {
+                log.warn("Error at getting transaction segment {}-{} from {}: {}", segment.getStartingIndex(), segment.getEndingIndex(), peerAddress, e.getMessage());
+                deleteSegmentFile(downloadPath);
+            }
+        }
+        deleteSegmentFile(segment.getSegmentPath());
+        throw new TransactionSyncException(String.format("No verified transaction segment %s-%s from any peer", segment.getStartingIndex(), segment.getEndingIndex()));
+    }
+
+    private void waitForSegment(TransactionSyncSegmentData segment) {
+        try {
+            segment.getDownload().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionSyncException("Interrupted at getting transaction segments", e);
+        } catch (ExecutionException e) {
+            throw new TransactionSyncException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private boolean verifySegment(TransactionSyncSegmentData segment, TransactionIndexData segmentStartIndexData, TransactionIndexData segmentEndIndexData) {
+        TransactionIndexData verifiedTransactionIndexData = segmentStartIndexData;
+        try (InputStream segmentInput = Files.newInputStream(segment.getSegmentPath());
+             TransactionBatchReader transactionBatchReader = new TransactionBatchReader(segmentInput)) {
+            TransactionData transactionData;
+            while ((transactionData = transactionBatchReader.read()) != null) {
+                DspConsensusResult dspConsensusResult = transactionData.getDspConsensusResult();
+                if (dspConsensusResult == null || !transactionData.getHash().equals(dspConsensusResult.getHash())) {
+                    return false;
+                }
+                if (dspConsensusResult.getIndex() <= segmentStartIndexData.getIndex()) {
+                    continue;
+                }
+                if (dspConsensusResult.getIndex() != verifiedTransactionIndexData.getIndex() + 1 ||
+                        !transactionHelper.validateTransactionCrypto(transactionData) || !dspConsensusCrypto.verifySignature(dspConsensusResult)) {
+                    return false;
+                }
+                verifiedTransactionIndexData = transactionIndexService.getNextIndexData(verifiedTransactionIndexData, transactionData);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Error at reading transaction segment {}-{}: {}", segment.getStartingIndex(), segment.getEndingIndex(), e.getMessage());
+            return false;
+        }
+        return verifiedTransactionIndexData.getIndex() == segmentEndIndexData.getIndex() &&
+                Arrays.equals(verifiedTransactionIndexData.getAccumulatedHash(), segmentEndIndexData.getAccumulatedHash());
+    }
+
+    private void readSegment(TransactionSyncSegmentData segment, long lastTransactionIndex, Consumer<TransactionData> missingTransactionConsumer) throws IOException {
+        try (InputStream segmentInput = Files.newInputStream(segment.getSegmentPath());
+             TransactionBatchReader transactionBatchReader = new TransactionBatchReader(segmentInput)) {
+            TransactionData transactionData;
+            while ((transactionData = transactionBatchReader.read()) != null) {
+                if (transactionData.getDspConsensusResult().getIndex() > lastTransactionIndex) {
+                    missingTransactionConsumer.accept(transactionData);
+                }
+            }
+        }
+    }
+
+    private TransactionIndexData getRecoveryServerIndexData(String recoveryServerAddress, long index) {
+        TransactionIndexData transactionIndexData = getTransactionIndexData(recoveryServerAddress, index);
+        if (transactionIndexData == null) {
+            throw new TransactionSyncException(String.format("Recovery server index data missing for index %s", index));
+        }
+        return transactionIndexData;
+    }
+
+    private TransactionIndexData getTransactionIndexData(String serverAddress, Long index) {
+        try {
+            return restTemplate.getForObject(serverAddress + RECOVERY_NODE_GET_INDEX_ENDPOINT + (index != null ? "?index=" + index : ""), TransactionIndexData.class);
+        } catch (RestClientException e) {
+            log.warn("Error at getting transaction index data from {}: {}", serverAddress, e.getMessage());
+            return null;
+        }
+    }
+
+    private void deleteSegmentFile(Path segmentPath) {
+        try {
+            Files.deleteIfExists(segmentPath);
+        } catch (IOException e) {
+            log.warn("Error at deleting transaction segment file {}", segmentPath);
+        }
+    }
+}
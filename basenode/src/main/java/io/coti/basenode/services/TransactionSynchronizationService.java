@@ -1,19 +1,22 @@
 package io.coti.basenode.services;
 
 import io.coti.basenode.communication.JacksonSerializer;
+import io.coti.basenode.communication.TransactionBatchReader;
 import io.coti.basenode.data.*;
 import io.coti.basenode.exceptions.TransactionSyncException;
-import io.coti.basenode.model.AddressTransactionsHistories;
+import io.coti.basenode.model.AddressTransactionsHistoryEntries;
 import io.coti.basenode.services.interfaces.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -22,8 +25,11 @@ import java.util.concurrent.atomic.AtomicLong;
 public class TransactionSynchronizationService implements ITransactionSynchronizationService {
 
     private static final String RECOVERY_NODE_GET_BATCH_ENDPOINT = "/transaction_batch";
+    private static final String RECOVERY_NODE_GET_BINARY_BATCH_ENDPOINT = "/transaction_batch/binary";
     private static final String STARTING_INDEX_URL_PARAM_ENDPOINT = "?starting_index=";
+    private static final String COMPRESSED_URL_PARAM_ENDPOINT = "&compressed=";
     private static final long MAXIMUM_BUFFER_SIZE = 300000;
+    private static final int ADDRESS_HISTORY_ENTRY_BATCH_SIZE = 10000;
     @Autowired
     private ITransactionHelper transactionHelper;
     @Autowired
@@ -33,11 +39,17 @@ public class TransactionSynchronizationService implements ITransactionSynchroniz
     @Autowired
     private INetworkService networkService;
     @Autowired
-    private AddressTransactionsHistories addressTransactionsHistories;
+    private AddressTransactionsHistoryEntries addressTransactionsHistoryEntries;
     @Autowired
     private JacksonSerializer jacksonSerializer;
     @Autowired
     private RestTemplate restTemplate;
+    @Autowired
+    private TransactionSegmentSynchronizationService transactionSegmentSynchronizationService;
+    @Value("${transaction.batch.binary:true}")
+    private boolean binaryTransactionBatch;
+    @Value("${transaction.batch.compressed:true}")
+    private boolean compressedTransactionBatch;
     private final Object finishLock = new Object();
     private EnumMap<InitializationTransactionHandlerType, ExecutorData> missingTransactionExecutorMap;
 
@@ -52,9 +64,13 @@ public class TransactionSynchronizationService implements ITransactionSynchroniz
             final AtomicBoolean finishedToInsert = new AtomicBoolean(false);
             Thread monitorMissingTransactionThread = transactionService.monitorTransactionThread("missing", completedMissingTransactionNumber, receivedMissingTransactionNumber, "Sync Txs Monitor");
             Thread insertMissingTransactionThread = insertMissingTransactionThread(missingTransactions, trustChainUnconfirmedExistingTransactionHashes, completedMissingTransactionNumber, monitorMissingTransactionThread, finishedToReceive, finishedToInsert);
-            ResponseExtractor<Void> responseExtractor = getResponseExtractorForMissingTransactionChunks(missingTransactions, receivedMissingTransactionNumber, insertMissingTransactionThread);
-            restTemplate.execute(networkService.getRecoveryServerAddress() + RECOVERY_NODE_GET_BATCH_ENDPOINT
-                    + STARTING_INDEX_URL_PARAM_ENDPOINT + firstMissingTransactionIndex, HttpMethod.GET, null, responseExtractor);
+            long nextMissingTransactionIndex = transactionSegmentSynchronizationService.requestMissingTransactionSegments(firstMissingTransactionIndex,
+                    missingTransaction -> addMissingTransaction(missingTransaction, missingTransactions, receivedMissingTransactionNumber, insertMissingTransactionThread));
+            if (!binaryTransactionBatch || !requestBinaryTransactionBatch(nextMissingTransactionIndex, missingTransactions, receivedMissingTransactionNumber, insertMissingTransactionThread)) {
+                ResponseExtractor<Void> responseExtractor = getResponseExtractorForMissingTransactionChunks(missingTransactions, receivedMissingTransactionNumber, insertMissingTransactionThread);
+                restTemplate.execute(networkService.getRecoveryServerAddress() + RECOVERY_NODE_GET_BATCH_ENDPOINT
+                        + STARTING_INDEX_URL_PARAM_ENDPOINT + nextMissingTransactionIndex, HttpMethod.GET, null, responseExtractor);
+            }
             if (insertMissingTransactionThread.isAlive()) {
                 log.info("Received all {} missing transactions from recovery server", receivedMissingTransactionNumber);
                 synchronized (finishLock) {
@@ -73,6 +89,33 @@ public class TransactionSynchronizationService implements ITransactionSynchroniz
 
     }
 
+    private boolean requestBinaryTransactionBatch(long firstMissingTransactionIndex, List<TransactionData> missingTransactions, AtomicLong receivedMissingTransactionNumber, Thread insertMissingTransactionThread) {
+        try {
+            restTemplate.execute(networkService.getRecoveryServerAddress() + RECOVERY_NODE_GET_BINARY_BATCH_ENDPOINT + STARTING_INDEX_URL_PARAM_ENDPOINT + firstMissingTransactionIndex
+                            + COMPRESSED_URL_PARAM_ENDPOINT + compressedTransactionBatch, HttpMethod.GET, null,
+                    getResponseExtractorForMissingTransactionFrames(missingTransactions, receivedMissingTransactionNumber, insertMissingTransactionThread));
+            return true;
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() != HttpStatus.NOT_FOUND) {
+                throw e;
+            }
+            log.info("Recovery server doesn't support binary transaction batch, requesting json transaction batch");
+            return false;
+        }
+    }
+
+    private ResponseExtractor<Void> getResponseExtractorForMissingTransactionFrames(List<TransactionData> missingTransactions, AtomicLong receivedMissingTransactionNumber, Thread insertMissingTransactionThread) {
+        return response -> {
+            try (TransactionBatchReader transactionBatchReader = new TransactionBatchReader(response.getBody())) {
+                TransactionData missingTransaction;
+                while ((missingTransaction = transactionBatchReader.read()) != null) {
+                    addMissingTransaction(missingTransaction, missingTransactions, receivedMissingTransactionNumber, insertMissingTransactionThread);
+                }
+            }
+            return null;
+        };
+    }
+
     private ResponseExtractor<Void> getResponseExtractorForMissingTransactionChunks(List<TransactionData> missingTransactions, AtomicLong receivedMissingTransactionNumber, Thread insertMissingTransactionThread) {
         return response -> {
             byte[] buf = new byte[Math.toIntExact(MAXIMUM_BUFFER_SIZE)];
@@ -82,13 +125,7 @@ public class TransactionSynchronizationService implements ITransactionSynchroniz
                 try {
                     TransactionData missingTransaction = (TransactionData) jacksonSerializer.deserialize(buf);
                     if (missingTransaction != null) {
-                        missingTransactions.add(missingTransaction);
-                        receivedMissingTransactionNumber.incrementAndGet();
-                        if (!insertMissingTransactionThread.isAlive()) {
-                            missingTransactionExecutorMap = new EnumMap<>(InitializationTransactionHandlerType.class);
-                            EnumSet.allOf(InitializationTransactionHandlerType.class).forEach(initializationTransactionHandlerType -> missingTransactionExecutorMap.put(initializationTransactionHandlerType, new ExecutorData()));
-                            insertMissingTransactionThread.start();
-                        }
+                        addMissingTransaction(missingTransaction, missingTransactions, receivedMissingTransactionNumber, insertMissingTransactionThread);
                         Arrays.fill(buf, 0, offset + n, (byte) 0);
                         offset = 0;
                     } else {
@@ -103,13 +140,23 @@ public class TransactionSynchronizationService implements ITransactionSynchroniz
         };
     }
 
+    private void addMissingTransaction(TransactionData missingTransaction, List<TransactionData> missingTransactions, AtomicLong receivedMissingTransactionNumber, Thread insertMissingTransactionThread) {
+        missingTransactions.add(missingTransaction);
+        receivedMissingTransactionNumber.incrementAndGet();
+        if (!insertMissingTransactionThread.isAlive()) {
+            missingTransactionExecutorMap = new EnumMap<>(InitializationTransactionHandlerType.class);
+            EnumSet.allOf(InitializationTransactionHandlerType.class).forEach(initializationTransactionHandlerType -> missingTransactionExecutorMap.put(initializationTransactionHandlerType, new ExecutorData(initializationTransactionHandlerType.name())));
+            insertMissingTransactionThread.start();
+        }
+    }
+
     private Thread insertMissingTransactionThread(List<TransactionData> missingTransactions, Set<Hash> trustChainUnconfirmedExistingTransactionHashes, AtomicLong completedMissingTransactionNumber, Thread monitorMissingTransactionThread, final AtomicBoolean finishedToReceive, final AtomicBoolean finishedToInsert) {
         return new Thread(() -> {
-            Map<Hash, AddressTransactionsHistory> addressToTransactionsHistoryMap = new ConcurrentHashMap<>();
+            Map<Hash, AddressTransactionsHistoryEntry> addressTransactionsHistoryEntryMap = new HashMap<>();
             int offset = 0;
             monitorMissingTransactionThread.start();
 
-            insertMissingTransactions(missingTransactions, trustChainUnconfirmedExistingTransactionHashes, completedMissingTransactionNumber, finishedToReceive, addressToTransactionsHistoryMap, offset);
+            insertMissingTransactions(missingTransactions, trustChainUnconfirmedExistingTransactionHashes, completedMissingTransactionNumber, finishedToReceive, addressTransactionsHistoryEntryMap, offset);
             missingTransactionExecutorMap.forEach((initializationTransactionHandlerType, executorData) -> executorData.waitForTermination());
 
             monitorMissingTransactionThread.interrupt();
@@ -127,7 +174,7 @@ public class TransactionSynchronizationService implements ITransactionSynchroniz
 
     }
 
-    private void insertMissingTransactions(List<TransactionData> missingTransactions, Set<Hash> trustChainUnconfirmedExistingTransactionHashes, AtomicLong completedMissingTransactionNumber, AtomicBoolean finishedToReceive, Map<Hash, AddressTransactionsHistory> addressToTransactionsHistoryMap, int offset) {
+    private void insertMissingTransactions(List<TransactionData> missingTransactions, Set<Hash> trustChainUnconfirmedExistingTransactionHashes, AtomicLong completedMissingTransactionNumber, AtomicBoolean finishedToReceive, Map<Hash, AddressTransactionsHistoryEntry> addressTransactionsHistoryEntryMap, int offset) {
         int missingTransactionsSize;
         int nextOffSet;
         while ((missingTransactionsSize = missingTransactions.size()) > offset || !finishedToReceive.get()) {
@@ -136,14 +183,18 @@ public class TransactionSynchronizationService implements ITransactionSynchroniz
                 for (int i = offset; i < nextOffSet; i++) {
                     TransactionData transactionData = missingTransactions.get(i);
                     transactionService.handleMissingTransaction(transactionData, trustChainUnconfirmedExistingTransactionHashes, missingTransactionExecutorMap);
-                    transactionHelper.updateAddressTransactionHistory(addressToTransactionsHistoryMap, transactionData);
+                    transactionHelper.updateAddressTransactionHistory(addressTransactionsHistoryEntryMap, transactionData);
+                    if (addressTransactionsHistoryEntryMap.size() >= ADDRESS_HISTORY_ENTRY_BATCH_SIZE) {
+                        addressTransactionsHistoryEntries.putBatch(addressTransactionsHistoryEntryMap);
+                        addressTransactionsHistoryEntryMap.clear();
+                    }
                     missingTransactions.set(i, null);
                     completedMissingTransactionNumber.incrementAndGet();
                 }
                 offset = nextOffSet;
             }
         }
-        addressTransactionsHistories.putBatch(addressToTransactionsHistoryMap);
+        addressTransactionsHistoryEntries.putBatch(addressTransactionsHistoryEntryMap);
     }
 
 }
@@ -2,7 +2,9 @@ package io.coti.basenode.services;
 
 import io.coti.basenode.data.Hash;
 import io.coti.basenode.data.TccInfo;
+import io.coti.basenode.data.TransactionDagData;
 import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.model.Transactions;
 import io.coti.basenode.services.interfaces.IClusterHelper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,12 +13,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.*;
 
+/**
+ * Keeps the trust chain trust score of every trust chain unconfirmed transaction: its sender trust score plus the
+ * highest trust chain trust score of its children. The scores of the whole cluster are calculated once in topological
+ * order by {@link #init}, afterwards every attached transaction only updates its ancestors whose score grows.
+ */
 @Slf4j
 @Service
 @Configurable
@@ -24,53 +27,140 @@ public class TrustChainConfirmationService {
 
     @Value("${cluster.trust.chain.threshold}")
     private int threshold;
-    private ConcurrentMap<Hash, TransactionData> trustChainConfirmationCluster;
-    private LinkedList<TransactionData> topologicalOrderedGraph;
     @Autowired
     private IClusterHelper clusterHelper;
+    @Autowired
+    private Transactions transactions;
+    private final Map<Hash, TrustChainNode> trustChainNodes = new HashMap<>();
+
+    public synchronized List<TccInfo> init(Map<Hash, TransactionData> trustChainConfirmationCluster) {
+        trustChainNodes.clear();
+        TransactionDagData transactionDag = clusterHelper.createTransactionDag(trustChainConfirmationCluster);
+        TrustChainNode[] trustChainNodesById = new TrustChainNode[transactionDag.size()];
 
-    public void init(ConcurrentMap<Hash, TransactionData> trustChainConfirmationCluster) {
-        this.trustChainConfirmationCluster = new ConcurrentHashMap<>(trustChainConfirmationCluster);
-        topologicalOrderedGraph = new LinkedList<>();
-        clusterHelper.sortByTopologicalOrder(trustChainConfirmationCluster, topologicalOrderedGraph);
+        LinkedList<TccInfo> trustChainConfirmations = new LinkedList<>();
+        for (int id : transactionDag.sortByTopologicalOrder()) {
+            TransactionData transactionData = transactionDag.getTransaction(id);
+            Hash transactionHash = transactionData.getHash();
+            TrustChainNode trustChainNode = new TrustChainNode(transactionData);
+            for (int childIndex = 0; childIndex < transactionDag.getNumberOfChildren(id); childIndex++) {
+                TrustChainNode childNode = trustChainNodesById[transactionDag.getChildId(id, childIndex)];
+                childNode.parentHashes.add(transactionHash);
+                trustChainNode.updateTrustChainTrustScore(childNode.trustChainTrustScore);
+            }
+            trustChainNodesById[id] = trustChainNode;
+            trustChainNodes.put(transactionHash, trustChainNode);
+            if (trustChainNode.trustChainTrustScore >= threshold && !trustChainNode.trustChainConsensus) {
+                trustChainNode.trustChainConsensus = true;
+                trustChainConfirmations.addFirst(createTccInfo(transactionHash, trustChainNode));
+            }
+        }
+        trustChainNodes.values().removeIf(trustChainNode -> trustChainNode.trustChainConsensus);
+        return trustChainConfirmations;
     }
 
-    private void setTotalTrustScore(TransactionData parent) {
-        double maxChildrenTotalTrustScore = 0;
+    /**
+     * @param attachedParentHashes the parents of the transaction that are in the cluster and have it as a child
+     * @return the transactions that reached trust chain consensus, ancestors first
+     */
+    public synchronized List<TccInfo> attachTransaction(TransactionData transactionData, Collection<Hash> attachedParentHashes) {
+        Hash transactionHash = transactionData.getHash();
+        TrustChainNode trustChainNode = trustChainNodes.get(transactionHash);
+        if (trustChainNode == null) {
+            trustChainNode = new TrustChainNode(transactionData);
+            for (Hash childHash : transactionData.getChildrenTransactionHashes()) {
+                trustChainNode.updateTrustChainTrustScore(getTrustChainTrustScore(childHash));
+            }
+            trustChainNodes.put(transactionHash, trustChainNode);
+        }
+        for (Hash parentHash : attachedParentHashes) {
+            if (trustChainNodes.containsKey(parentHash) && !trustChainNode.parentHashes.contains(parentHash)) {
+                trustChainNode.parentHashes.add(parentHash);
+            }
+        }
+
+        Set<Hash> confirmedHashes = new LinkedHashSet<>();
+        addIfConfirmed(transactionHash, trustChainNode, confirmedHashes);
+        propagateToAncestors(trustChainNode, confirmedHashes);
 
-        for (Hash transactionHash : parent.getChildrenTransactionHashes()) {
-            try {
-                TransactionData child = trustChainConfirmationCluster.get(transactionHash);
-                if (child != null && child.getTrustChainTrustScore()
-                        > maxChildrenTotalTrustScore) {
-                    maxChildrenTotalTrustScore = child.getTrustChainTrustScore();
+        List<TccInfo> trustChainConfirmations = new ArrayList<>(confirmedHashes.size());
+        Set<Hash> visitedHashes = new HashSet<>();
+        confirmedHashes.forEach(confirmedHash -> addAncestorsFirst(confirmedHash, confirmedHashes, visitedHashes, trustChainConfirmations));
+        confirmedHashes.forEach(trustChainNodes::remove);
+        return trustChainConfirmations;
+    }
+
+    private void propagateToAncestors(TrustChainNode trustChainNode, Set<Hash> confirmedHashes) {
+        Deque<TrustChainNode> updatedNodes = new ArrayDeque<>();
+        updatedNodes.push(trustChainNode);
+        while (!updatedNodes.isEmpty()) {
+            TrustChainNode childNode = updatedNodes.pop();
+            for (Hash parentHash : childNode.parentHashes) {
+                TrustChainNode parentNode = trustChainNodes.get(parentHash);
+                if (parentNode != null && parentNode.updateTrustChainTrustScore(childNode.trustChainTrustScore)) {
+                    addIfConfirmed(parentHash, parentNode, confirmedHashes);
+                    updatedNodes.push(parentNode);
                 }
-            } catch (Exception e) {
-                log.error("in setTotalSumScore: parent: {} child: {}", parent.getHash(), transactionHash);
-                throw e;
             }
         }
+    }
 
-        // updating parent trustChainTrustScore
-        if (parent.getTrustChainTrustScore() < parent.getSenderTrustScore() + maxChildrenTotalTrustScore) {
-            parent.setTrustChainTrustScore(parent.getSenderTrustScore() + maxChildrenTotalTrustScore);
+    private void addAncestorsFirst(Hash transactionHash, Set<Hash> confirmedHashes, Set<Hash> visitedHashes, List<TccInfo> trustChainConfirmations) {
+        if (!visitedHashes.add(transactionHash)) {
+            return;
         }
+        TrustChainNode trustChainNode = trustChainNodes.get(transactionHash);
+        for (Hash parentHash : trustChainNode.parentHashes) {
+            if (confirmedHashes.contains(parentHash)) {
+                addAncestorsFirst(parentHash, confirmedHashes, visitedHashes, trustChainConfirmations);
+            }
+        }
+        trustChainConfirmations.add(createTccInfo(transactionHash, trustChainNode));
+    }
 
+    private double getTrustChainTrustScore(Hash transactionHash) {
+        TrustChainNode trustChainNode = trustChainNodes.get(transactionHash);
+        if (trustChainNode != null) {
+            return trustChainNode.trustChainTrustScore;
+        }
+        TransactionData transactionData = transactions.getByHash(transactionHash);
+        return transactionData != null ? transactionData.getTrustChainTrustScore() : 0;
     }
 
-    public List<TccInfo> getTrustChainConfirmedTransactions() {
-        LinkedList<TccInfo> trustChainConfirmations = new LinkedList<>();
-        for (TransactionData transactionData : topologicalOrderedGraph) {
-            setTotalTrustScore(transactionData);
-            if (transactionData.getTrustChainTrustScore() >= threshold && !transactionData.isTrustChainConsensus()) {
-                Instant trustScoreConsensusTime = Optional.ofNullable(transactionData.getTrustChainConsensusTime()).orElse(Instant.now());
-                TccInfo tccInfo = new TccInfo(transactionData.getHash(), transactionData.getTrustChainTrustScore(), trustScoreConsensusTime);
-                trustChainConfirmations.addFirst(tccInfo);
-                log.debug("transaction with hash:{} is confirmed with trustScore: {} and totalTrustScore:{} ", transactionData.getHash(), transactionData.getSenderTrustScore(), transactionData.getTrustChainTrustScore());
-            }
+    private void addIfConfirmed(Hash transactionHash, TrustChainNode trustChainNode, Set<Hash> confirmedHashes) {
+        if (trustChainNode.trustChainTrustScore >= threshold && !trustChainNode.trustChainConsensus) {
+            trustChainNode.trustChainConsensus = true;
+            confirmedHashes.add(transactionHash);
         }
+    }
 
-        return trustChainConfirmations;
+    private TccInfo createTccInfo(Hash transactionHash, TrustChainNode trustChainNode) {
+        Instant trustScoreConsensusTime = Optional.ofNullable(trustChainNode.trustChainConsensusTime).orElse(Instant.now());
+        log.debug("transaction with hash:{} is confirmed with trustScore: {} and totalTrustScore:{} ", transactionHash, trustChainNode.senderTrustScore, trustChainNode.trustChainTrustScore);
+        return new TccInfo(transactionHash, trustChainNode.trustChainTrustScore, trustScoreConsensusTime);
     }
 
+    private static class TrustChainNode {
+
+        private final double senderTrustScore;
+        private double trustChainTrustScore;
+        private boolean trustChainConsensus;
+        private final Instant trustChainConsensusTime;
+        private final List<Hash> parentHashes = new ArrayList<>(2);
+
+        private TrustChainNode(TransactionData transactionData) {
+            senderTrustScore = transactionData.getSenderTrustScore();
+            trustChainTrustScore = Math.max(transactionData.getTrustChainTrustScore(), senderTrustScore);
+            trustChainConsensus = transactionData.isTrustChainConsensus();
+            trustChainConsensusTime = transactionData.getTrustChainConsensusTime();
+        }
+
+        private boolean updateTrustChainTrustScore(double childTrustChainTrustScore) {
+            if (trustChainTrustScore < senderTrustScore + childTrustChainTrustScore) {
+                trustChainTrustScore = senderTrustScore + childTrustChainTrustScore;
+                return true;
+            }
+            return false;
+        }
+    }
 }
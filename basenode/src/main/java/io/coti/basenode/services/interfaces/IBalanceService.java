@@ -9,6 +9,7 @@ import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 public interface IBalanceService {
 
@@ -35,4 +36,10 @@ public interface IBalanceService {
     BigDecimal getBalanceByAddress(Hash addressHash);
 
     BigDecimal getPreBalanceByAddress(Hash addressHash);
+
+    Map<Hash, BigDecimal> copyBalanceMap();
+
+    Map<Hash, BigDecimal> copyPreBalanceMap();
+
+    void loadBalances(Map<Hash, BigDecimal> balances, Map<Hash, BigDecimal> preBalances);
 }
\ No newline at end of file
@@ -1,13 +1,16 @@
 package io.coti.basenode.services.interfaces;
 
 import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.TransactionDagData;
 import io.coti.basenode.data.TransactionData;
 
 import java.util.LinkedList;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Map;
 
 public interface IClusterHelper {
 
-    void sortByTopologicalOrder(ConcurrentMap<Hash, TransactionData> trustChainConfirmationCluster, LinkedList<TransactionData> topologicalOrderedGraph);
+    TransactionDagData createTransactionDag(Map<Hash, TransactionData> trustChainConfirmationCluster);
+
+    void sortByTopologicalOrder(Map<Hash, TransactionData> trustChainConfirmationCluster, LinkedList<TransactionData> topologicalOrderedGraph);
 
 }
@@ -1,12 +1,11 @@
 package io.coti.basenode.services.interfaces;
 
+import io.coti.basenode.data.ClusterSnapshotData;
 import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.SourcesSnapshotData;
 import io.coti.basenode.data.TransactionData;
 
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 public interface IClusterService {
 
@@ -24,7 +23,7 @@ public interface IClusterService {
 
     Set<Hash> getTrustChainConfirmationTransactionHashes();
 
-    ConcurrentHashMap<Hash, TransactionData> getCopyTrustChainConfirmationCluster();
+    ClusterSnapshotData getTrustChainConfirmationClusterSnapshot();
 
-    ArrayList<HashSet<Hash>> getSourceSetsByTrustScore();
+    SourcesSnapshotData getSourcesSnapshot();
 }
@@ -9,7 +9,10 @@ public interface IConfirmationService {
 
     void init();
 
-    void setLastDspConfirmationIndex(Map<Long, ReducedExistingTransactionData> indexToTransactionMap);
+    /**
+     * @param startingTransactionIndexData the last index that is already confirmed, or null to start from genesis
+     */
+    void setLastDspConfirmationIndex(Map<Long, ReducedExistingTransactionData> indexToTransactionMap, TransactionIndexData startingTransactionIndexData);
 
     void insertSavedTransaction(TransactionData transactionData, Map<Long, ReducedExistingTransactionData> indexToTransactionMap);
 
@@ -18,7 +18,10 @@ public interface ITransactionHelper {
 
     void updateAddressTransactionHistory(TransactionData transactionData);
 
-    void updateAddressTransactionHistory(Map<Hash, AddressTransactionsHistory> addressToTransactionsHistoryMap, TransactionData transactionData);
+    /**
+     * Adds the history entries of the transaction addresses to the map, to be written by the caller.
+     */
+    void updateAddressTransactionHistory(Map<Hash, AddressTransactionsHistoryEntry> addressTransactionsHistoryEntryMap, TransactionData transactionData);
 
     boolean validateTransactionCrypto(TransactionData transactionData);
 
@@ -68,6 +71,8 @@ public interface ITransactionHelper {
 
     long incrementTotalTransactions();
 
+    void addTotalTransactions(long transactionCount);
+
     void addNoneIndexedTransaction(TransactionData transactionData);
 
     void removeNoneIndexedTransaction(TransactionData transactionData);
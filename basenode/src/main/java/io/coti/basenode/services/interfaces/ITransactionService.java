@@ -1,8 +1,10 @@
 package io.coti.basenode.services.interfaces;
 
 import io.coti.basenode.data.ExecutorData;
+import io.coti.basenode.data.ExplorerTransactionData;
 import io.coti.basenode.data.Hash;
 import io.coti.basenode.data.InitializationTransactionHandlerType;
+import io.coti.basenode.data.PostponedTransactionsData;
 import io.coti.basenode.data.TransactionData;
 import reactor.core.publisher.FluxSink;
 
@@ -19,6 +21,8 @@ public interface ITransactionService {
 
     void getTransactionBatch(long startingIndex, FluxSink<byte[]> sink);
 
+    void getBinaryTransactionBatch(long startingIndex, Long endingIndex, boolean compressed, HttpServletResponse response);
+
     void handlePropagatedTransaction(TransactionData transactionData);
 
     void handleMissingTransaction(TransactionData transactionData, Set<Hash> trustChainUnconfirmedExistingTransactionHashes, EnumMap<InitializationTransactionHandlerType, ExecutorData> missingTransactionExecutorMap);
@@ -27,5 +31,11 @@ public interface ITransactionService {
 
     int totalPostponedTransactions();
 
+    PostponedTransactionsData getPostponedTransactions();
+
     void addToExplorerIndexes(TransactionData transactionData);
+
+    void addToExplorerIndexes(ExplorerTransactionData explorerTransactionData);
+
+    boolean isExplorerIndexed();
 }
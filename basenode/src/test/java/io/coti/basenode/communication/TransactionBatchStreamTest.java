@@ -0,0 +1,81 @@
+package io.coti.basenode.communication;
+
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.exceptions.TransactionSyncException;
+import io.coti.basenode.utils.HashTestUtils;
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TransactionBatchStreamTest {
+
+    private static final int TRANSACTION_COUNT = 1000;
+
+    @Test
+    public void uncompressedBatchRoundTrip() throws IOException {
+        assertBatchRoundTrip(false);
+    }
+
+    @Test
+    public void compressedBatchRoundTrip() throws IOException {
+        assertBatchRoundTrip(true);
+    }
+
+    @Test(expected = TransactionSyncException.class)
+    public void truncatedBatch() throws IOException {
+        byte[] batch = writeBatch(createTransactions(), true);
+        try (TransactionBatchReader transactionBatchReader = new TransactionBatchReader(new ByteArrayInputStream(Arrays.copyOf(batch, batch.length / 2)))) {
+            while (transactionBatchReader.read() != null) {
+                // read until the batch is cut
+            }
+        }
+    }
+
+    private void assertBatchRoundTrip(boolean compressed) throws IOException {
+        List<TransactionData> transactions = createTransactions();
+        List<TransactionData> readTransactions = new ArrayList<>();
+
+        try (TransactionBatchReader transactionBatchReader = new TransactionBatchReader(new ByteArrayInputStream(writeBatch(transactions, compressed)))) {
+            TransactionData transactionData;
+            while ((transactionData = transactionBatchReader.read()) != null) {
+                readTransactions.add(transactionData);
+            }
+            Assert.assertNull(transactionBatchReader.read());
+        }
+
+        Assert.assertEquals(transactions.size(), readTransactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            Assert.assertEquals(transactions.get(i).getHash(), readTransactions.get(i).getHash());
+            Assert.assertEquals(transactions.get(i).getBaseTransactions(), readTransactions.get(i).getBaseTransactions());
+            Assert.assertEquals(transactions.get(i).getLeftParentHash(), readTransactions.get(i).getLeftParentHash());
+            Assert.assertEquals(transactions.get(i).getAttachmentTime(), readTransactions.get(i).getAttachmentTime());
+        }
+    }
+
+    private byte[] writeBatch(List<TransactionData> transactions, boolean compressed) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (TransactionBatchWriter transactionBatchWriter = new TransactionBatchWriter(outputStream, compressed)) {
+            for (TransactionData transactionData : transactions) {
+                transactionBatchWriter.write(transactionData);
+            }
+        }
+        return outputStream.toByteArray();
+    }
+
+    private List<TransactionData> createTransactions() {
+        List<TransactionData> transactions = new ArrayList<>();
+        for (int i = 0; i < TRANSACTION_COUNT; i++) {
+            transactions.add(TransactionTestUtils.createTransferTransaction(HashTestUtils.generateRandomAddressHash(), HashTestUtils.generateRandomAddressHash(),
+                    new BigDecimal(i + 1), HashTestUtils.generateRandomHash()));
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,85 @@
+package io.coti.basenode.data;
+
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+public class BalanceStoreDataTest {
+
+    @Test
+    public void addToBalance_matchesBigDecimalArithmetic() {
+        Random random = new Random(5);
+        List<Hash> addressHashes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            addressHashes.add(HashTestUtils.generateRandomAddressHash());
+        }
+        List<BigDecimal> specialAmounts = Arrays.asList(new BigDecimal("0.000000001"), new BigDecimal("1E+3"), new BigDecimal("1.50"),
+                BigDecimal.valueOf(Long.MAX_VALUE), BigDecimal.valueOf(Long.MIN_VALUE), new BigDecimal("1E-200"));
+        BalanceStoreData balanceStore = new BalanceStoreData();
+        Map<Hash, BigDecimal> balanceMap = new HashMap<>();
+        Map<Hash, BigDecimal> preBalanceMap = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            Hash addressHash = addressHashes.get(random.nextInt(addressHashes.size()));
+            BigDecimal amount = random.nextInt(100) == 0 ? specialAmounts.get(random.nextInt(specialAmounts.size()))
+                    : BigDecimal.valueOf(random.nextInt(2000000) - 1000000L, random.nextInt(9));
+            if (random.nextBoolean()) {
+                balanceStore.addToBalance(addressHash, amount);
+                balanceMap.merge(addressHash, amount, BigDecimal::add);
+            } else {
+                balanceStore.addToPreBalanceIfPresent(addressHash, amount);
+                preBalanceMap.computeIfPresent(addressHash, (hash, preBalance) -> preBalance.add(amount));
+                if (random.nextInt(10) == 0) {
+                    balanceStore.setPreBalance(addressHash, amount);
+                    preBalanceMap.put(addressHash, amount);
+                }
+            }
+        }
+
+        Assert.assertEquals(balanceMap, balanceStore.copyBalances());
+        Assert.assertEquals(preBalanceMap, balanceStore.copyPreBalances());
+        addressHashes.forEach(addressHash -> Assert.assertEquals(balanceMap.get(addressHash), balanceStore.getBalance(addressHash)));
+        balanceStore.clear();
+        Assert.assertTrue(balanceStore.copyBalances().isEmpty());
+    }
+
+    @Test
+    public void lockAndGet_keepsMultiAddressUpdatesConsistent() throws InterruptedException {
+        BalanceStoreData balanceStore = new BalanceStoreData();
+        List<Hash> addressHashes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Hash addressHash = HashTestUtils.generateRandomAddressHash();
+            addressHashes.add(addressHash);
+            balanceStore.setPreBalance(addressHash, new BigDecimal(1000));
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Random random = new Random(t);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    Hash senderAddressHash = addressHashes.get(random.nextInt(addressHashes.size()));
+                    Hash receiverAddressHash = addressHashes.get(random.nextInt(addressHashes.size()));
+                    BigDecimal amount = new BigDecimal("0.00000001");
+                    balanceStore.lockAndGet(Arrays.asList(senderAddressHash, receiverAddressHash), () -> {
+                        if (balanceStore.getPreBalance(senderAddressHash).compareTo(amount) >= 0) {
+                            balanceStore.setPreBalance(senderAddressHash, balanceStore.getPreBalance(senderAddressHash).subtract(amount));
+                            balanceStore.setPreBalance(receiverAddressHash, balanceStore.getPreBalance(receiverAddressHash).add(amount));
+                        }
+                        return null;
+                    });
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        BigDecimal total = balanceStore.copyPreBalances().values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        Assert.assertEquals(0, new BigDecimal(8000).compareTo(total));
+    }
+}
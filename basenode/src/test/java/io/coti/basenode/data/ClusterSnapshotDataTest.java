@@ -0,0 +1,100 @@
+package io.coti.basenode.data;
+
+import io.coti.basenode.utils.HashTestUtils;
+import io.coti.basenode.utils.TransactionTestUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+public class ClusterSnapshotDataTest {
+
+    private static final int CLUSTER_SIZE = 100000;
+    private static final int SNAPSHOTS = 3;
+
+    @Test
+    public void withAndWithout_matchHashMapAndKeepOlderVersions() {
+        Random random = new Random(3);
+        List<TransactionData> transactions = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            transactions.add(createTransaction(HashTestUtils.generateRandomHash()));
+        }
+        transactions.add(createTransaction(new Hash(new byte[]{0, 31})));
+        transactions.add(createTransaction(new Hash(new byte[]{1, 0})));
+        ClusterSnapshotData snapshot = ClusterSnapshotData.empty();
+        Map<Hash, TransactionData> expectedCluster = new HashMap<>();
+        ClusterSnapshotData olderSnapshot = null;
+        Map<Hash, TransactionData> olderExpectedCluster = null;
+        for (int i = 0; i < 50000; i++) {
+            TransactionData transactionData = transactions.get(random.nextInt(transactions.size()));
+            if (random.nextInt(3) == 0) {
+                snapshot = snapshot.without(transactionData.getHash());
+                expectedCluster.remove(transactionData.getHash());
+            } else {
+                snapshot = snapshot.with(transactionData);
+                expectedCluster.put(transactionData.getHash(), transactionData);
+            }
+            if (i == 25000) {
+                olderSnapshot = snapshot;
+                olderExpectedCluster = new HashMap<>(expectedCluster);
+            }
+        }
+
+        ClusterSnapshotData latestSnapshot = snapshot;
+        Assert.assertEquals(expectedCluster, latestSnapshot);
+        Assert.assertEquals(expectedCluster.size(), latestSnapshot.size());
+        transactions.forEach(transactionData -> Assert.assertEquals(expectedCluster.get(transactionData.getHash()), latestSnapshot.get(transactionData.getHash())));
+        Assert.assertEquals(olderExpectedCluster, olderSnapshot);
+        Assert.assertTrue(olderSnapshot.getVersion() < latestSnapshot.getVersion());
+        Assert.assertSame(latestSnapshot, latestSnapshot.without(HashTestUtils.generateRandomHash()));
+    }
+
+    @Test
+    public void snapshot_isCheaperThanClusterCopy() {
+        ConcurrentHashMap<Hash, TransactionData> cluster = new ConcurrentHashMap<>();
+        ClusterSnapshotData snapshot = ClusterSnapshotData.empty();
+        for (int i = 0; i < CLUSTER_SIZE; i++) {
+            TransactionData transactionData = createTransaction(HashTestUtils.generateRandomHash());
+            cluster.put(transactionData.getHash(), transactionData);
+            snapshot = snapshot.with(transactionData);
+        }
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long copyStartTime = System.nanoTime();
+        long copyStartBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            Assert.assertEquals(CLUSTER_SIZE, SerializationUtils.clone(cluster).size());
+        }
+        long copyBytes = threadMXBean.getThreadAllocatedBytes(threadId) - copyStartBytes;
+        long copyTime = System.nanoTime() - copyStartTime;
+
+        AtomicReference<ClusterSnapshotData> clusterSnapshot = new AtomicReference<>(snapshot);
+        long snapshotStartTime = System.nanoTime();
+        long snapshotStartBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            Assert.assertEquals(CLUSTER_SIZE + i, clusterSnapshot.get().size());
+            TransactionData transactionData = createTransaction(HashTestUtils.generateRandomHash());
+            clusterSnapshot.updateAndGet(currentSnapshot -> currentSnapshot.with(transactionData));
+        }
+        long snapshotBytes = threadMXBean.getThreadAllocatedBytes(threadId) - snapshotStartBytes;
+        long snapshotTime = System.nanoTime() - snapshotStartTime;
+
+        log.info("{} copies of a {} transactions cluster: {} ms and {} bytes; {} snapshots: {} ms and {} bytes", SNAPSHOTS, CLUSTER_SIZE,
+                copyTime / 1000000, copyBytes, SNAPSHOTS, snapshotTime / 1000000, snapshotBytes);
+        Assert.assertTrue(snapshotBytes * 100 < copyBytes);
+    }
+
+    private TransactionData createTransaction(Hash hash) {
+        TransactionData transactionData = TransactionTestUtils.createRandomTransaction(hash);
+        transactionData.setAttachmentTime(Instant.now());
+        return transactionData;
+    }
+}
@@ -0,0 +1,65 @@
+package io.coti.basenode.data;
+
+import io.coti.basenode.services.BaseNodeBalanceService;
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ExecutorDataTest {
+
+    private static final int CAPACITY = 8;
+
+    @Test
+    public void submit_boundsPendingTasks() {
+        ExecutorData executorData = new ExecutorData("TEST", 4, CAPACITY);
+        AtomicInteger runningTasks = new AtomicInteger(0);
+        AtomicInteger maximumRunningTasks = new AtomicInteger(0);
+        AtomicInteger completedTasks = new AtomicInteger(0);
+        for (int i = 0; i < 1000; i++) {
+            executorData.submit(() -> {
+                maximumRunningTasks.accumulateAndGet(runningTasks.incrementAndGet(), Math::max);
+                runningTasks.decrementAndGet();
+                completedTasks.incrementAndGet();
+            });
+            Assert.assertTrue(executorData.getSubmittedTaskNumber().get() - executorData.getCompletedTaskNumber().get() <= CAPACITY);
+        }
+        executorData.submit(() -> {
+            throw new IllegalStateException("failed task");
+        });
+        executorData.waitForTermination();
+
+        Assert.assertEquals(1000, completedTasks.get());
+        Assert.assertEquals(1001, executorData.getCompletedTaskNumber().get());
+        Assert.assertEquals(1, executorData.getFailedTaskNumber().get());
+        Assert.assertTrue(maximumRunningTasks.get() <= 4);
+    }
+
+    @Test
+    public void submit_parallelBalanceUpdatesMatchSequential() {
+        Random random = new Random(3);
+        List<Hash> addressHashes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            addressHashes.add(HashTestUtils.generateRandomAddressHash());
+        }
+        BaseNodeBalanceService sequentialBalanceService = new BaseNodeBalanceService();
+        sequentialBalanceService.init();
+        BaseNodeBalanceService parallelBalanceService = new BaseNodeBalanceService();
+        parallelBalanceService.init();
+        ExecutorData executorData = new ExecutorData("TEST", 4, CAPACITY);
+        for (int i = 0; i < 20000; i++) {
+            Hash addressHash = addressHashes.get(random.nextInt(addressHashes.size()));
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(2000) - 1000L, random.nextInt(6));
+            sequentialBalanceService.updatePreBalance(addressHash, amount);
+            executorData.submit(() -> parallelBalanceService.updatePreBalance(addressHash, amount));
+        }
+        executorData.waitForTermination();
+
+        addressHashes.forEach(addressHash -> Assert.assertEquals(sequentialBalanceService.getPreBalanceByAddress(addressHash), parallelBalanceService.getPreBalanceByAddress(addressHash)));
+    }
+}
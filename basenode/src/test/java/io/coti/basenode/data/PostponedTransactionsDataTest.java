@@ -0,0 +1,67 @@
+package io.coti.basenode.data;
+
+import io.coti.basenode.utils.HashTestUtils;
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.*;
+
+public class PostponedTransactionsDataTest {
+
+    @Test
+    public void release_returnsOnlyWaitingChildren() {
+        PostponedTransactionsData postponedTransactions = new PostponedTransactionsData(100);
+        Hash firstParentHash = HashTestUtils.generateRandomHash();
+        Hash secondParentHash = HashTestUtils.generateRandomHash();
+        TransactionData firstChild = createTransaction(firstParentHash, secondParentHash);
+        TransactionData secondChild = createTransaction(secondParentHash, null);
+        TransactionData otherTransaction = createTransaction(HashTestUtils.generateRandomHash(), null);
+
+        Assert.assertTrue(postponedTransactions.postpone(firstChild, false));
+        Assert.assertFalse(postponedTransactions.postpone(firstChild, true));
+        Assert.assertTrue(postponedTransactions.postpone(secondChild, true));
+        Assert.assertTrue(postponedTransactions.postpone(otherTransaction, false));
+
+        Assert.assertEquals(Collections.singletonMap(firstChild, false), postponedTransactions.release(firstParentHash));
+        Map<TransactionData, Boolean> releasedTransactions = postponedTransactions.release(secondParentHash);
+        Assert.assertEquals(Collections.singletonMap(secondChild, true), releasedTransactions);
+        Assert.assertTrue(postponedTransactions.release(secondParentHash).isEmpty());
+        Assert.assertEquals(1, postponedTransactions.size());
+        Assert.assertEquals(2, postponedTransactions.getReleasedTransactions());
+        Assert.assertTrue(postponedTransactions.remove(otherTransaction));
+        Assert.assertFalse(postponedTransactions.remove(otherTransaction));
+    }
+
+    @Test
+    public void postponeAndRemoveExpired_boundOrphans() {
+        PostponedTransactionsData postponedTransactions = new PostponedTransactionsData(10);
+        Hash parentHash = HashTestUtils.generateRandomHash();
+        List<TransactionData> orphans = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            TransactionData orphan = createTransaction(parentHash, null);
+            orphans.add(orphan);
+            postponedTransactions.postpone(orphan, false);
+        }
+
+        Assert.assertEquals(10, postponedTransactions.size());
+        Assert.assertEquals(5, postponedTransactions.getEvictedTransactions());
+        Assert.assertFalse(postponedTransactions.contains(orphans.get(4)));
+        Assert.assertTrue(postponedTransactions.contains(orphans.get(5)));
+        Assert.assertTrue(postponedTransactions.removeExpired(Instant.now().minusSeconds(60)).isEmpty());
+        List<Hash> expiredTransactionHashes = postponedTransactions.removeExpired(Instant.now().plusSeconds(1));
+        Assert.assertEquals(10, expiredTransactionHashes.size());
+        Assert.assertEquals(orphans.get(5).getHash(), expiredTransactionHashes.get(0));
+        Assert.assertEquals(0, postponedTransactions.size());
+        Assert.assertEquals(10, postponedTransactions.getExpiredTransactions());
+        Assert.assertTrue(postponedTransactions.release(parentHash).isEmpty());
+    }
+
+    private TransactionData createTransaction(Hash leftParentHash, Hash rightParentHash) {
+        TransactionData transactionData = TransactionTestUtils.createRandomTransaction();
+        transactionData.setLeftParentHash(leftParentHash);
+        transactionData.setRightParentHash(rightParentHash);
+        return transactionData;
+    }
+}
@@ -0,0 +1,31 @@
+package io.coti.basenode.data;
+
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecentHashesDataTest {
+
+    @Test
+    public void add_keepsOnlyMostRecentHashes() {
+        RecentHashesData recentHashes = new RecentHashesData(100);
+        List<Hash> hashes = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            Hash hash = HashTestUtils.generateRandomHash();
+            hashes.add(hash);
+            recentHashes.add(hash);
+            recentHashes.add(hash);
+        }
+
+        for (int i = 0; i < hashes.size(); i++) {
+            Assert.assertEquals(i >= 150, recentHashes.contains(hashes.get(i)));
+        }
+        recentHashes.remove(hashes.get(200));
+        Assert.assertFalse(recentHashes.contains(hashes.get(200)));
+        recentHashes.clear();
+        Assert.assertFalse(recentHashes.contains(hashes.get(249)));
+    }
+}
@@ -0,0 +1,74 @@
+package io.coti.basenode.data;
+
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class TransactionDagDataTest {
+
+    @Test
+    public void sortByTopologicalOrder_putsChildrenBeforeParents() {
+        Random random = new Random(11);
+        List<TransactionData> transactions = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            TransactionData transactionData = createTransaction();
+            for (int parents = 0; parents < 2 && !transactions.isEmpty(); parents++) {
+                transactions.get(random.nextInt(transactions.size())).getChildrenTransactionHashes().add(transactionData.getHash());
+            }
+            transactions.add(transactionData);
+        }
+        Map<Hash, TransactionData> cluster = new LinkedHashMap<>();
+        Map<Hash, TransactionData> database = new HashMap<>();
+        transactions.forEach(transactionData -> (random.nextInt(4) == 0 ? database : cluster).put(transactionData.getHash(), transactionData));
+        TransactionData unknownChild = createTransaction();
+        transactions.get(0).getChildrenTransactionHashes().add(unknownChild.getHash());
+
+        TransactionDagData transactionDag = new TransactionDagData(cluster, database::get);
+        int[] topologicalOrder = transactionDag.sortByTopologicalOrder();
+
+        Assert.assertEquals(-1, transactionDag.getId(unknownChild.getHash()));
+        Assert.assertEquals(transactionDag.size(), topologicalOrder.length);
+        Map<Hash, Integer> positions = new HashMap<>();
+        for (int position = 0; position < topologicalOrder.length; position++) {
+            Assert.assertNull(positions.put(transactionDag.getTransaction(topologicalOrder[position]).getHash(), position));
+        }
+        cluster.forEach((hash, transactionData) -> {
+            Assert.assertTrue(positions.containsKey(hash));
+            transactionData.getChildrenTransactionHashes().forEach(childHash -> {
+                if (database.containsKey(childHash) || cluster.containsKey(childHash)) {
+                    Assert.assertTrue(positions.get(childHash) < positions.get(hash));
+                }
+            });
+        });
+    }
+
+    @Test
+    public void sortByTopologicalOrder_sortsDeepChain() {
+        Map<Hash, TransactionData> cluster = new HashMap<>();
+        TransactionData parent = createTransaction();
+        cluster.put(parent.getHash(), parent);
+        for (int i = 0; i < 200000; i++) {
+            TransactionData child = createTransaction();
+            parent.getChildrenTransactionHashes().add(child.getHash());
+            cluster.put(child.getHash(), child);
+            parent = child;
+        }
+
+        TransactionDagData transactionDag = new TransactionDagData(cluster, hash -> null);
+        int[] topologicalOrder = transactionDag.sortByTopologicalOrder();
+
+        Assert.assertSame(parent, transactionDag.getTransaction(topologicalOrder[0]));
+        for (int position = 1; position < topologicalOrder.length; position++) {
+            TransactionData transactionData = transactionDag.getTransaction(topologicalOrder[position]);
+            Assert.assertEquals(transactionDag.getTransaction(topologicalOrder[position - 1]).getHash(), transactionData.getChildrenTransactionHashes().get(0));
+        }
+    }
+
+    private TransactionData createTransaction() {
+        TransactionData transactionData = TransactionTestUtils.createRandomTransaction();
+        transactionData.setChildrenTransactionHashes(new ArrayList<>());
+        return transactionData;
+    }
+}
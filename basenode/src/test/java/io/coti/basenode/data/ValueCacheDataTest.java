@@ -0,0 +1,35 @@
+package io.coti.basenode.data;
+
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ValueCacheDataTest {
+
+    @Test
+    public void put_evictsLeastRecentlyUsedValues() {
+        ValueCacheData valueCache = new ValueCacheData(160);
+        List<Hash> hashes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Hash hash = HashTestUtils.generateRandomHash();
+            hashes.add(hash);
+            valueCache.put(hash, hash.getBytes());
+            Assert.assertArrayEquals(hashes.get(0).getBytes(), valueCache.get(hashes.get(0)));
+        }
+
+        Assert.assertTrue(valueCache.size() <= 160);
+        Assert.assertEquals(1000 - valueCache.size(), valueCache.getEvictions());
+        Assert.assertNull(valueCache.get(hashes.get(1)));
+        Assert.assertArrayEquals(hashes.get(999).getBytes(), valueCache.get(hashes.get(999)));
+        Assert.assertEquals(1001, valueCache.getHits());
+        valueCache.remove(hashes.get(0));
+        Assert.assertNull(valueCache.get(hashes.get(0)));
+        Assert.assertEquals(2, valueCache.getMisses());
+        valueCache.clear();
+        Assert.assertEquals(0, valueCache.size());
+        Assert.assertEquals(1001d / 1003, valueCache.getHitRatio(), 1e-9);
+    }
+}
@@ -0,0 +1,147 @@
+package io.coti.basenode.database.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.coti.basenode.data.*;
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.util.SerializationUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class EntityCodecTest {
+
+    private final TransactionDataCodec transactionDataCodec = new TransactionDataCodec();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void transactionDataRoundTrip() throws JsonProcessingException {
+        TransactionData transactionData = createTransactionData();
+
+        byte[] value = transactionDataCodec.encode(transactionData);
+        TransactionData decodedTransactionData = transactionDataCodec.decode(value);
+        decodedTransactionData.setHash(transactionData.getHash());
+
+        Assert.assertTrue(transactionDataCodec.isCurrentFormat(value));
+        Assert.assertEquals(objectMapper.writeValueAsString(transactionData), objectMapper.writeValueAsString(decodedTransactionData));
+        Assert.assertTrue(value.length < SerializationUtils.serialize(transactionData).length);
+    }
+
+    @Test
+    public void transactionDataLegacyValue() {
+        TransactionData transactionData = createTransactionData();
+        byte[] legacyValue = SerializationUtils.serialize(transactionData);
+
+        TransactionData decodedTransactionData = transactionDataCodec.decode(legacyValue);
+
+        Assert.assertFalse(transactionDataCodec.isCurrentFormat(legacyValue));
+        Assert.assertArrayEquals(legacyValue, SerializationUtils.serialize(decodedTransactionData));
+    }
+
+    @Test
+    public void transactionIndexDataRoundTrip() {
+        TransactionIndexDataCodec transactionIndexDataCodec = new TransactionIndexDataCodec();
+        TransactionIndexData transactionIndexData = new TransactionIndexData(HashTestUtils.generateRandomHash(), 7, HashTestUtils.generateRandomHash().getBytes());
+
+        TransactionIndexData decodedTransactionIndexData = transactionIndexDataCodec.decode(transactionIndexDataCodec.encode(transactionIndexData));
+
+        Assert.assertEquals(transactionIndexData, decodedTransactionIndexData);
+        Assert.assertEquals(transactionIndexData, transactionIndexDataCodec.decode(SerializationUtils.serialize(transactionIndexData)));
+    }
+
+    @Test
+    public void transactionVoteDataRoundTrip() {
+        TransactionVoteDataCodec transactionVoteDataCodec = new TransactionVoteDataCodec();
+        Hash voterDspHash = HashTestUtils.generateRandomHash();
+        TransactionVoteData transactionVoteData = new TransactionVoteData(HashTestUtils.generateRandomHash(), new ArrayList<>(Arrays.asList(voterDspHash, HashTestUtils.generateRandomHash())));
+        TransactionDspVote transactionDspVote = new TransactionDspVote(transactionVoteData.getHash(), true);
+        transactionDspVote.setVoterDspHash(voterDspHash);
+        transactionDspVote.setSignature(new SignatureData("1a", "2b"));
+        transactionVoteData.getDspHashToVoteMapping().put(voterDspHash, transactionDspVote);
+
+        TransactionVoteData decodedTransactionVoteData = transactionVoteDataCodec.decode(transactionVoteDataCodec.encode(transactionVoteData));
+        decodedTransactionVoteData.setHash(transactionVoteData.getHash());
+
+        Assert.assertEquals(transactionVoteData, decodedTransactionVoteData);
+    }
+
+    @Test
+    public void addressTransactionsHistoryRoundTrip() {
+        AddressTransactionsHistoryCodec addressTransactionsHistoryCodec = new AddressTransactionsHistoryCodec();
+        AddressTransactionsHistory addressTransactionsHistory = new AddressTransactionsHistory(HashTestUtils.generateRandomAddressHash());
+        HashTestUtils.generateListOfRandomHashes(100).forEach(addressTransactionsHistory::addTransactionHashToHistory);
+
+        byte[] value = addressTransactionsHistoryCodec.encode(addressTransactionsHistory);
+        AddressTransactionsHistory decodedAddressTransactionsHistory = addressTransactionsHistoryCodec.decode(value);
+        decodedAddressTransactionsHistory.setHash(addressTransactionsHistory.getHash());
+
+        Assert.assertEquals(addressTransactionsHistory.getCreationTime(), decodedAddressTransactionsHistory.getCreationTime());
+        Assert.assertEquals(addressTransactionsHistory.getTransactionsHistory(), decodedAddressTransactionsHistory.getTransactionsHistory());
+        Assert.assertEquals(addressTransactionsHistory.getTransactionsHistory(), addressTransactionsHistoryCodec.decode(SerializationUtils.serialize(addressTransactionsHistory)).getTransactionsHistory());
+    }
+
+    @Test
+    public void addressTransactionsHistoryEntryRoundTrip() {
+        AddressTransactionsHistoryEntryCodec addressTransactionsHistoryEntryCodec = new AddressTransactionsHistoryEntryCodec();
+        AddressTransactionsHistoryEntry addressTransactionsHistoryEntry = new AddressTransactionsHistoryEntry(HashTestUtils.generateRandomAddressHash(), HashTestUtils.generateRandomHash(), Instant.now());
+
+        AddressTransactionsHistoryEntry decodedAddressTransactionsHistoryEntry = addressTransactionsHistoryEntryCodec.decode(addressTransactionsHistoryEntryCodec.encode(addressTransactionsHistoryEntry));
+        decodedAddressTransactionsHistoryEntry.setHash(addressTransactionsHistoryEntry.getHash());
+
+        Assert.assertEquals(addressTransactionsHistoryEntry, decodedAddressTransactionsHistoryEntry);
+    }
+
+    private TransactionData createTransactionData() {
+        Instant createTime = Instant.now();
+        List<BaseTransactionData> baseTransactions = new ArrayList<>();
+        baseTransactions.add(new InputBaseTransactionData(HashTestUtils.generateRandomAddressHash(), new BigDecimal("-10.03"), createTime));
+        baseTransactions.add(new FullNodeFeeData(HashTestUtils.generateRandomAddressHash(), new BigDecimal("0.01"), new BigDecimal("0.01"), createTime));
+        NetworkFeeData networkFeeData = new NetworkFeeData(HashTestUtils.generateRandomAddressHash(), new BigDecimal("0.02"), new BigDecimal("0.02"), new BigDecimal("0.02"), createTime);
+        TrustScoreNodeResultData trustScoreNodeResultData = new TrustScoreNodeResultData(HashTestUtils.generateRandomHash(), true);
+        trustScoreNodeResultData.setSignature(new SignatureData("3c", "4d"));
+        networkFeeData.setTrustScoreNodeResult(new ArrayList<>(Collections.singletonList(trustScoreNodeResultData)));
+        baseTransactions.add(networkFeeData);
+        baseTransactions.add(new ReceiverBaseTransactionData(HashTestUtils.generateRandomAddressHash(), BigDecimal.TEN, BigDecimal.TEN, createTime));
+        baseTransactions.forEach(baseTransactionData -> {
+            baseTransactionData.setHash(HashTestUtils.generateRandomHash());
+            baseTransactionData.setSignature(new SignatureData("5e", "6f"));
+        });
+
+        TransactionData transactionData = new TransactionData(baseTransactions, HashTestUtils.generateRandomHash(), "codec transaction", 80.5, createTime, TransactionType.Transfer);
+        transactionData.setLeftParentHash(HashTestUtils.generateRandomHash());
+        transactionData.setSenderHash(HashTestUtils.generateRandomHash());
+        transactionData.setSenderSignature(new SignatureData("7a", "8b"));
+        transactionData.setNodeHash(HashTestUtils.generateRandomHash());
+        transactionData.setNodeSignature(new SignatureData("9c", "ad"));
+        transactionData.setAttachmentTime(Instant.now());
+        transactionData.setTrustChainConsensus(true);
+        transactionData.setTrustChainTrustScore(120.25);
+        transactionData.setTrustChainConsensusTime(Instant.now());
+        transactionData.setValid(true);
+        transactionData.addToChildrenTransactions(HashTestUtils.generateRandomHash());
+        transactionData.setNonces(new int[]{1, 2, 3});
+        TransactionTrustScoreData transactionTrustScoreData = new TransactionTrustScoreData(80.5);
+        transactionTrustScoreData.setTrustScoreNodeHash(HashTestUtils.generateRandomHash());
+        transactionTrustScoreData.setTrustScoreNodeSignature(new SignatureData("be", "cf"));
+        transactionData.setTrustScoreResults(new ArrayList<>(Collections.singletonList(transactionTrustScoreData)));
+
+        DspConsensusResult dspConsensusResult = new DspConsensusResult(transactionData.getHash());
+        dspConsensusResult.setDspConsensus(true);
+        dspConsensusResult.setIndex(42);
+        dspConsensusResult.setIndexingTime(Instant.now());
+        dspConsensusResult.setSignerHash(HashTestUtils.generateRandomHash());
+        dspConsensusResult.setSignature(new SignatureData("d0", "e1"));
+        TransactionDspVote transactionDspVote = new TransactionDspVote(transactionData.getHash(), true);
+        transactionDspVote.setVoterDspHash(HashTestUtils.generateRandomHash());
+        transactionDspVote.setSignature(new SignatureData("f2", "03"));
+        dspConsensusResult.setDspVotes(new ArrayList<>(Collections.singletonList(transactionDspVote)));
+        transactionData.setDspConsensusResult(dspConsensusResult);
+        return transactionData;
+    }
+}
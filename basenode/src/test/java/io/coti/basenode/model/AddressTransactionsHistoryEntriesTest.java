@@ -0,0 +1,65 @@
+package io.coti.basenode.model;
+
+import io.coti.basenode.data.AddressTransactionsHistoryEntry;
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.utils.HashTestUtils;
+import io.coti.basenode.utils.TemporaryDatabaseConnector;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.*;
+
+public class AddressTransactionsHistoryEntriesTest {
+
+    private TemporaryDatabaseConnector databaseConnector;
+    private AddressTransactionsHistoryEntries addressTransactionsHistoryEntries;
+
+    @Before
+    public void init() throws Exception {
+        databaseConnector = new TemporaryDatabaseConnector();
+        addressTransactionsHistoryEntries = new AddressTransactionsHistoryEntries();
+        addressTransactionsHistoryEntries.databaseConnector = databaseConnector;
+    }
+
+    @After
+    public void close() {
+        databaseConnector.close();
+    }
+
+    @Test
+    public void getPage_pagesThroughAddressHistoryInCreateTimeOrder() {
+        Hash addressHash = HashTestUtils.generateRandomAddressHash();
+        Hash otherAddressHash = HashTestUtils.generateRandomAddressHash();
+        Instant now = Instant.now();
+        List<AddressTransactionsHistoryEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            entries.add(new AddressTransactionsHistoryEntry(addressHash, HashTestUtils.generateRandomHash(), now.plusSeconds(i)));
+        }
+        List<AddressTransactionsHistoryEntry> shuffledEntries = new ArrayList<>(entries);
+        Collections.shuffle(shuffledEntries, new Random(1));
+        shuffledEntries.forEach(addressTransactionsHistoryEntries::put);
+        addressTransactionsHistoryEntries.put(entries.get(3));
+        addressTransactionsHistoryEntries.put(new AddressTransactionsHistoryEntry(otherAddressHash, HashTestUtils.generateRandomHash(), now));
+
+        List<Hash> pagedTransactionHashes = new ArrayList<>();
+        AddressTransactionsHistoryEntry lastEntry = null;
+        List<AddressTransactionsHistoryEntry> page;
+        do {
+            page = addressTransactionsHistoryEntries.getPage(addressHash, lastEntry, 10);
+            page.forEach(entry -> pagedTransactionHashes.add(entry.getTransactionHash()));
+            lastEntry = page.isEmpty() ? lastEntry : page.get(page.size() - 1);
+        } while (page.size() == 10);
+
+        List<Hash> transactionHashes = new ArrayList<>();
+        entries.forEach(entry -> transactionHashes.add(entry.getTransactionHash()));
+        Assert.assertEquals(transactionHashes, pagedTransactionHashes);
+        Assert.assertEquals(entries.get(5), addressTransactionsHistoryEntries.getPage(addressHash, entries.get(4), 1).get(0));
+        List<AddressTransactionsHistoryEntry> otherAddressEntries = new ArrayList<>();
+        addressTransactionsHistoryEntries.forEach(otherAddressHash, otherAddressEntries::add);
+        Assert.assertEquals(1, otherAddressEntries.size());
+        Assert.assertTrue(addressTransactionsHistoryEntries.getPage(HashTestUtils.generateRandomAddressHash(), null, 10).isEmpty());
+    }
+}
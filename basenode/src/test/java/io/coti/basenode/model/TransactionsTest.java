@@ -0,0 +1,81 @@
+package io.coti.basenode.model;
+
+import io.coti.basenode.data.DspConsensusResult;
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.data.ValueCacheData;
+import io.coti.basenode.utils.HashTestUtils;
+import io.coti.basenode.utils.TemporaryDatabaseConnector;
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class TransactionsTest {
+
+    private TemporaryDatabaseConnector databaseConnector;
+    private Transactions transactions;
+
+    @Before
+    public void init() throws Exception {
+        databaseConnector = Mockito.spy(new TemporaryDatabaseConnector());
+
+        transactions = new Transactions();
+        transactions.databaseConnector = databaseConnector;
+        ReflectionTestUtils.setField(transactions, "cacheSize", 100);
+        transactions.init();
+    }
+
+    @After
+    public void close() {
+        databaseConnector.close();
+    }
+
+    @Test
+    public void getByHash_readsThroughAndStaysCoherentWithWrites() {
+        TransactionData transactionData = createTransaction();
+        transactions.put(transactionData);
+        Assert.assertEquals(transactionData.getHash(), transactions.getByHash(transactionData.getHash()).getHash());
+        Mockito.verify(databaseConnector, Mockito.never()).getByKey(Mockito.anyString(), Mockito.any(byte[].class));
+
+        transactions.lockAndGetByHash(transactionData.getHash(), lockedTransactionData -> {
+            lockedTransactionData.setTrustChainConsensus(true);
+            transactions.put(lockedTransactionData);
+        });
+        Assert.assertTrue(transactions.getByHash(transactionData.getHash()).isTrustChainConsensus());
+
+        transactions.getByHash(transactionData.getHash()).setDspConsensusResult(new DspConsensusResult(transactionData.getHash()));
+        Assert.assertNull(transactions.getByHash(transactionData.getHash()).getDspConsensusResult());
+
+        transactionData.setTrustChainConsensus(false);
+        CollectionWriteBatch collectionWriteBatch = new CollectionWriteBatch();
+        collectionWriteBatch.put(transactions, transactionData);
+        Assert.assertTrue(collectionWriteBatch.commit());
+        Assert.assertFalse(transactions.getByHash(transactionData.getHash()).isTrustChainConsensus());
+
+        transactions.delete(transactionData);
+        Assert.assertNull(transactions.getByHash(transactionData.getHash()));
+    }
+
+    @Test
+    public void getByHash_cachesMissedTransactions() {
+        TransactionData transactionData = createTransaction();
+        databaseConnector.put(transactions.columnFamilyName, transactionData.getHash().getBytes(), transactions.encode(transactionData));
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(transactionData.getHash(), transactions.getByHash(transactionData.getHash()).getHash());
+        }
+        Mockito.verify(databaseConnector, Mockito.times(1)).getByKey(Mockito.anyString(), Mockito.any(byte[].class));
+        ValueCacheData valueCache = transactions.getValueCache();
+        Assert.assertEquals(2, valueCache.getHits());
+        Assert.assertEquals(1, valueCache.getMisses());
+    }
+
+    private TransactionData createTransaction() {
+        TransactionData transactionData = TransactionTestUtils.createRandomTransaction();
+        transactionData.setLeftParentHash(HashTestUtils.generateRandomHash());
+        return transactionData;
+    }
+}
@@ -0,0 +1,173 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.*;
+import io.coti.basenode.model.TransactionIndexes;
+import io.coti.basenode.model.Transactions;
+import io.coti.basenode.services.interfaces.ITransactionHelper;
+import io.coti.basenode.utils.HashTestUtils;
+import io.coti.basenode.utils.TemporaryDatabaseConnector;
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.rocksdb.WriteBatch;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+
+public class BaseNodeConfirmationServiceTest {
+
+    private static final long CONFIRMATION_TIMEOUT = 10000;
+    private final List<TransactionData> chain = new ArrayList<>();
+    private final Hash senderAddressHash = HashTestUtils.generateRandomAddressHash();
+    private final Hash receiverAddressHash = HashTestUtils.generateRandomAddressHash();
+    private final BlockingDeque<ConfirmationData> confirmationQueue = new LinkedBlockingDeque<>();
+    private TemporaryDatabaseConnector databaseConnector;
+    private Transactions transactions;
+    private TransactionIndexes transactionIndexes;
+    private ITransactionHelper transactionHelper;
+    private TransactionIndexService transactionIndexService;
+    private BaseNodeBalanceService balanceService;
+    private BaseNodeConfirmationService confirmationService;
+
+    @Before
+    public void init() throws Exception {
+        databaseConnector = Mockito.spy(new TemporaryDatabaseConnector());
+
+        transactions = new Transactions();
+        transactions.databaseConnector = databaseConnector;
+        transactions.init();
+        transactionIndexes = new TransactionIndexes();
+        transactionIndexes.databaseConnector = databaseConnector;
+        for (int i = 0; i < 2; i++) {
+            transactions.put(TransactionTestUtils.addChainTransaction(chain, senderAddressHash, receiverAddressHash));
+        }
+
+        transactionHelper = Mockito.mock(ITransactionHelper.class);
+        Mockito.when(transactionHelper.isDspConfirmed(Mockito.any(TransactionData.class))).thenAnswer(invocation -> {
+            DspConsensusResult dspConsensusResult = invocation.<TransactionData>getArgument(0).getDspConsensusResult();
+            return dspConsensusResult != null && dspConsensusResult.isDspConsensus() && transactionIndexes.getByHash(new Hash(dspConsensusResult.getIndex())) != null;
+        });
+        transactionIndexService = new TransactionIndexService();
+        ReflectionTestUtils.setField(transactionIndexService, "transactionHelper", transactionHelper);
+        ReflectionTestUtils.setField(transactionIndexService, "transactionIndexes", transactionIndexes);
+        ReflectionTestUtils.setField(transactionIndexService, "transactionIndexCheckpointService", Mockito.mock(TransactionIndexCheckpointService.class));
+        transactionIndexService.setLastTransactionIndexData(new TransactionIndexData(new Hash(-1), -1, "GENESIS".getBytes()));
+        balanceService = new BaseNodeBalanceService();
+        balanceService.init();
+
+        confirmationService = new BaseNodeConfirmationService();
+        ReflectionTestUtils.setField(confirmationService, "confirmationBatchSize", 100);
+        ReflectionTestUtils.setField(confirmationService, "confirmationRetryDelay", 10L);
+        ReflectionTestUtils.setField(confirmationService, "confirmationRetryMaxDelay", 20L);
+        ReflectionTestUtils.setField(confirmationService, "confirmationQueue", confirmationQueue);
+        ReflectionTestUtils.setField(confirmationService, "balanceService", balanceService);
+        ReflectionTestUtils.setField(confirmationService, "transactionHelper", transactionHelper);
+        ReflectionTestUtils.setField(confirmationService, "transactionIndexService", transactionIndexService);
+        ReflectionTestUtils.setField(confirmationService, "transactions", transactions);
+    }
+
+    @After
+    public void close() {
+        databaseConnector.close();
+    }
+
+    @Test
+    public void updateConfirmedTransactionsHandler_writesBatchInQueueOrder() {
+        List<ConfirmationData> confirmations = new ArrayList<>();
+        confirmations.add(createDspConsensusResult(chain.get(1), 1));
+        confirmations.add(createTccInfo(chain.get(0)));
+        confirmations.add(createDspConsensusResult(chain.get(0), 0));
+        confirmations.add(createTccInfo(chain.get(1)));
+
+        Assert.assertTrue(ReflectionTestUtils.invokeMethod(confirmationService, "updateConfirmedTransactionsHandler", confirmations));
+
+        Mockito.verify(databaseConnector, Mockito.times(1)).putBatch(Mockito.any(WriteBatch.class));
+        Assert.assertEquals(1, confirmationService.getDspConfirmed());
+        Assert.assertEquals(1, confirmationService.getTotalConfirmed());
+        Assert.assertEquals(2, confirmationService.getTrustChainConfirmed());
+        Assert.assertNotNull(transactionIndexes.getByHash(new Hash(0L)));
+        Assert.assertNull(transactionIndexes.getByHash(new Hash(1L)));
+        Assert.assertNotNull(transactions.getByHash(chain.get(0).getHash()).getDspConsensusResult());
+        TransactionData waitingTransactionData = transactions.getByHash(chain.get(1).getHash());
+        Assert.assertTrue(waitingTransactionData.isTrustChainConsensus());
+        Assert.assertNull(waitingTransactionData.getDspConsensusResult());
+        Assert.assertEquals(1, confirmationQueue.size());
+
+        List<ConfirmationData> waitingConfirmations = new ArrayList<>();
+        confirmationQueue.drainTo(waitingConfirmations);
+        Assert.assertTrue(ReflectionTestUtils.invokeMethod(confirmationService, "updateConfirmedTransactionsHandler", waitingConfirmations));
+
+        Mockito.verify(databaseConnector, Mockito.times(2)).putBatch(Mockito.any(WriteBatch.class));
+        Assert.assertEquals(2, confirmationService.getDspConfirmed());
+        Assert.assertEquals(2, confirmationService.getTotalConfirmed());
+        Assert.assertNotNull(transactions.getByHash(chain.get(1).getHash()).getDspConsensusResult());
+        Assert.assertEquals(chain.get(1).getHash(), transactionIndexes.getByHash(new Hash(1L)).getTransactionHash());
+        Assert.assertEquals(0, new BigDecimal(-2).compareTo(balanceService.getBalanceByAddress(senderAddressHash)));
+        Assert.assertEquals(0, new BigDecimal(2).compareTo(balanceService.getBalanceByAddress(receiverAddressHash)));
+    }
+
+    @Test
+    public void updateConfirmedTransactionsHandler_rollsBackFailedBatch() {
+        List<ConfirmationData> confirmations = new ArrayList<>(Arrays.asList(createTccInfo(chain.get(0)), createDspConsensusResult(chain.get(0), 0)));
+        Mockito.doReturn(false).when(databaseConnector).putBatch(Mockito.any(WriteBatch.class));
+
+        Assert.assertFalse(ReflectionTestUtils.invokeMethod(confirmationService, "updateConfirmedTransactionsHandler", confirmations));
+
+        Assert.assertEquals(-1, transactionIndexService.getLastTransactionIndexData().getIndex());
+        Assert.assertNull(transactionIndexes.getByHash(new Hash(0L)));
+        Assert.assertNull(transactions.getByHash(chain.get(0).getHash()).getDspConsensusResult());
+        Assert.assertEquals(0, confirmationService.getDspConfirmed());
+        Assert.assertEquals(0, confirmationService.getTotalConfirmed());
+        Assert.assertEquals(0, confirmationService.getTrustChainConfirmed());
+        Assert.assertEquals(0, BigDecimal.ZERO.compareTo(balanceService.getBalanceByAddress(receiverAddressHash)));
+        Mockito.verify(transactionHelper, Mockito.never()).removeNoneIndexedTransaction(Mockito.any(TransactionData.class));
+    }
+
+    @Test
+    public void updateConfirmedTransactions_retriesFailedBatchInQueueOrder() throws InterruptedException {
+        Mockito.doReturn(false).doReturn(false).doCallRealMethod().when(databaseConnector).putBatch(Mockito.any(WriteBatch.class));
+        confirmationService.init();
+        confirmationService.setDspcToTrue(createDspConsensusResult(chain.get(0), 0));
+        confirmationService.setTccToTrue(createTccInfo(chain.get(0)));
+        confirmationService.setDspcToTrue(createDspConsensusResult(chain.get(1), 1));
+        confirmationService.setTccToTrue(createTccInfo(chain.get(1)));
+
+        long deadline = System.currentTimeMillis() + CONFIRMATION_TIMEOUT;
+        while (confirmationService.getTotalConfirmed() < chain.size() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        confirmationService.shutdown();
+
+        Mockito.verify(databaseConnector, Mockito.atLeast(3)).putBatch(Mockito.any(WriteBatch.class));
+        Assert.assertEquals(1, transactionIndexService.getLastTransactionIndexData().getIndex());
+        for (int i = 0; i < chain.size(); i++) {
+            Assert.assertEquals(chain.get(i).getHash(), transactionIndexes.getByHash(new Hash((long) i)).getTransactionHash());
+            Assert.assertTrue(transactions.getByHash(chain.get(i).getHash()).isTrustChainConsensus());
+        }
+        Assert.assertEquals(2, confirmationService.getDspConfirmed());
+        Assert.assertEquals(2, confirmationService.getTotalConfirmed());
+        Assert.assertEquals(2, confirmationService.getTrustChainConfirmed());
+        Assert.assertEquals(0, new BigDecimal(-2).compareTo(balanceService.getBalanceByAddress(senderAddressHash)));
+        Assert.assertEquals(0, new BigDecimal(2).compareTo(balanceService.getBalanceByAddress(receiverAddressHash)));
+        Mockito.verify(transactionHelper, Mockito.times(2)).removeNoneIndexedTransaction(Mockito.any(TransactionData.class));
+    }
+
+    private DspConsensusResult createDspConsensusResult(TransactionData transactionData, long index) {
+        DspConsensusResult dspConsensusResult = new DspConsensusResult(transactionData.getHash());
+        dspConsensusResult.setDspConsensus(true);
+        dspConsensusResult.setIndex(index);
+        dspConsensusResult.setIndexingTime(Instant.now());
+        return dspConsensusResult;
+    }
+
+    private TccInfo createTccInfo(TransactionData transactionData) {
+        return new TccInfo(transactionData.getHash(), 100, Instant.now());
+    }
+}
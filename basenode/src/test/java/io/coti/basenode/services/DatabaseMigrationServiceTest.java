@@ -0,0 +1,80 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.*;
+import io.coti.basenode.model.AddressTransactionsHistories;
+import io.coti.basenode.model.AddressTransactionsHistoryEntries;
+import io.coti.basenode.model.Transactions;
+import io.coti.basenode.utils.HashTestUtils;
+import io.coti.basenode.utils.TemporaryDatabaseConnector;
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.*;
+
+public class DatabaseMigrationServiceTest {
+
+    private TemporaryDatabaseConnector databaseConnector;
+    private Transactions transactions;
+    private AddressTransactionsHistories addressTransactionsHistories;
+    private AddressTransactionsHistoryEntries addressTransactionsHistoryEntries;
+    private DatabaseMigrationService databaseMigrationService;
+
+    @Before
+    public void init() throws Exception {
+        databaseConnector = new TemporaryDatabaseConnector();
+        transactions = new Transactions();
+        transactions.databaseConnector = databaseConnector;
+        addressTransactionsHistories = new AddressTransactionsHistories();
+        addressTransactionsHistories.databaseConnector = databaseConnector;
+        addressTransactionsHistoryEntries = new AddressTransactionsHistoryEntries();
+        addressTransactionsHistoryEntries.databaseConnector = databaseConnector;
+        databaseMigrationService = new DatabaseMigrationService();
+        ReflectionTestUtils.setField(databaseMigrationService, "addressHistoryMigration", true);
+        ReflectionTestUtils.setField(databaseMigrationService, "transactions", transactions);
+        ReflectionTestUtils.setField(databaseMigrationService, "addressTransactionsHistories", addressTransactionsHistories);
+        ReflectionTestUtils.setField(databaseMigrationService, "addressTransactionsHistoryEntries", addressTransactionsHistoryEntries);
+    }
+
+    @After
+    public void close() {
+        databaseConnector.close();
+    }
+
+    @Test
+    public void migrateAddressTransactionsHistories_movesHistoriesToEntries() {
+        Hash addressHash = HashTestUtils.generateRandomAddressHash();
+        AddressTransactionsHistory addressTransactionsHistory = new AddressTransactionsHistory(addressHash);
+        addressTransactionsHistory.setCreationTime(Instant.now().minusSeconds(60));
+        List<TransactionData> storedTransactions = new ArrayList<>();
+        for (int i = 2; i > 0; i--) {
+            TransactionData transactionData = createTransaction(Instant.now().minusSeconds(i));
+            transactions.put(transactionData);
+            storedTransactions.add(transactionData);
+            addressTransactionsHistory.addTransactionHashToHistory(transactionData.getHash());
+        }
+        Hash missingTransactionHash = HashTestUtils.generateRandomHash();
+        addressTransactionsHistory.addTransactionHashToHistory(missingTransactionHash);
+        addressTransactionsHistories.put(addressTransactionsHistory);
+
+        databaseMigrationService.migrateAddressTransactionsHistories();
+        databaseMigrationService.migrateAddressTransactionsHistories();
+
+        List<AddressTransactionsHistoryEntry> entries = addressTransactionsHistoryEntries.getPage(addressHash, null, 10);
+        Assert.assertEquals(Arrays.asList(missingTransactionHash, storedTransactions.get(0).getHash(), storedTransactions.get(1).getHash()),
+                Arrays.asList(entries.get(0).getTransactionHash(), entries.get(1).getTransactionHash(), entries.get(2).getTransactionHash()));
+        Assert.assertEquals(3, entries.size());
+        Assert.assertEquals(storedTransactions.get(0).getCreateTime(), entries.get(1).getCreateTime());
+        Assert.assertTrue(addressTransactionsHistories.isEmpty());
+    }
+
+    private TransactionData createTransaction(Instant createTime) {
+        TransactionData transactionData = TransactionTestUtils.createRandomTransaction(createTime);
+        transactionData.setLeftParentHash(HashTestUtils.generateRandomHash());
+        return transactionData;
+    }
+}
@@ -0,0 +1,166 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.*;
+import io.coti.basenode.model.TransactionIndexes;
+import io.coti.basenode.model.Transactions;
+import io.coti.basenode.services.interfaces.IClusterService;
+import io.coti.basenode.services.interfaces.ITransactionHelper;
+import io.coti.basenode.services.interfaces.ITransactionService;
+import io.coti.basenode.utils.HashTestUtils;
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.*;
+
+public class NodeStateSnapshotServiceTest {
+
+    private static final BigDecimal CLUSTER_STAMP_AMOUNT = new BigDecimal(1000);
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private final Map<Hash, TransactionData> database = new HashMap<>();
+    private final Map<Hash, TransactionIndexData> transactionIndexDatabase = new HashMap<>();
+    private final List<TransactionData> chain = new ArrayList<>();
+    private final Set<Hash> noneIndexedTransactionHashes = new HashSet<>();
+    private final Set<Hash> trustChainConfirmationTransactionHashes = new HashSet<>();
+    private final TransactionIndexService transactionIndexService = new TransactionIndexService();
+    private final Hash senderAddressHash = HashTestUtils.generateRandomAddressHash();
+    private final Hash receiverAddressHash = HashTestUtils.generateRandomAddressHash();
+    private final List<ExplorerTransactionData> explorerTransactions = new ArrayList<>();
+    private TransactionIndexData lastTransactionIndexData = new TransactionIndexData(new Hash(-1), -1, "GENESIS".getBytes());
+    private String snapshotDirectory;
+
+    @Before
+    public void init() throws IOException {
+        snapshotDirectory = temporaryFolder.newFolder().toString();
+        for (int i = 0; i < 6; i++) {
+            addTransaction();
+        }
+        for (int i = 0; i < 4; i++) {
+            index(chain.get(i));
+        }
+        chain.subList(0, 3).forEach(transactionData -> transactionData.setTrustChainConsensus(true));
+        chain.subList(3, 6).forEach(transactionData -> trustChainConfirmationTransactionHashes.add(transactionData.getHash()));
+        chain.subList(4, 6).forEach(transactionData -> noneIndexedTransactionHashes.add(transactionData.getHash()));
+    }
+
+    @Test
+    public void loadSnapshot_replaysOnlyTransactionsAfterSettledIndex() {
+        NodeStateSnapshotService nodeStateSnapshotService = createNodeStateSnapshotService(createBalanceService(CLUSTER_STAMP_AMOUNT), false);
+        Assert.assertFalse(nodeStateSnapshotService.loadSnapshot().isPresent());
+        nodeStateSnapshotService.init();
+        nodeStateSnapshotService.takeSnapshot();
+        addTransaction();
+
+        BaseNodeBalanceService balanceService = createBalanceService(CLUSTER_STAMP_AMOUNT);
+        nodeStateSnapshotService = createNodeStateSnapshotService(balanceService, false);
+        Optional<NodeStateSnapshotData> optionalNodeStateSnapshotData = nodeStateSnapshotService.loadSnapshot();
+
+        Assert.assertTrue(optionalNodeStateSnapshotData.isPresent());
+        Assert.assertEquals(2, optionalNodeStateSnapshotData.get().getTransactionIndexData().getIndex());
+        Assert.assertEquals(0, CLUSTER_STAMP_AMOUNT.subtract(new BigDecimal(3)).compareTo(balanceService.getBalanceByAddress(senderAddressHash)));
+        Assert.assertEquals(0, new BigDecimal(3).compareTo(balanceService.getPreBalanceByAddress(receiverAddressHash)));
+        List<Hash> replayedTransactionHashes = new ArrayList<>();
+        nodeStateSnapshotService.replayTransactionsAfterSnapshot(optionalNodeStateSnapshotData.get(), transactionData -> replayedTransactionHashes.add(transactionData.getHash()));
+        Set<Hash> expectedTransactionHashes = new HashSet<>();
+        chain.subList(3, 7).forEach(transactionData -> expectedTransactionHashes.add(transactionData.getHash()));
+        Assert.assertEquals(expectedTransactionHashes.size(), replayedTransactionHashes.size());
+        Assert.assertEquals(expectedTransactionHashes, new HashSet<>(replayedTransactionHashes));
+        Assert.assertTrue(explorerTransactions.isEmpty());
+    }
+
+    @Test
+    public void loadSnapshot_restoresExplorerIndexOfSettledTransactions() {
+        NodeStateSnapshotService nodeStateSnapshotService = createNodeStateSnapshotService(createBalanceService(CLUSTER_STAMP_AMOUNT), false);
+        nodeStateSnapshotService.loadSnapshot();
+        nodeStateSnapshotService.init();
+        nodeStateSnapshotService.takeSnapshot();
+
+        Assert.assertFalse(createNodeStateSnapshotService(createBalanceService(CLUSTER_STAMP_AMOUNT), true).loadSnapshot().isPresent());
+
+        nodeStateSnapshotService = createNodeStateSnapshotService(createBalanceService(CLUSTER_STAMP_AMOUNT), true);
+        nodeStateSnapshotService.loadSnapshot();
+        nodeStateSnapshotService.init();
+        nodeStateSnapshotService.takeSnapshot();
+        explorerTransactions.clear();
+
+        nodeStateSnapshotService = createNodeStateSnapshotService(createBalanceService(CLUSTER_STAMP_AMOUNT), true);
+        Optional<NodeStateSnapshotData> optionalNodeStateSnapshotData = nodeStateSnapshotService.loadSnapshot();
+
+        Assert.assertTrue(optionalNodeStateSnapshotData.isPresent());
+        List<Hash> settledTransactionHashes = new ArrayList<>();
+        chain.subList(0, 3).forEach(transactionData -> settledTransactionHashes.add(transactionData.getHash()));
+        List<Hash> explorerTransactionHashes = new ArrayList<>();
+        explorerTransactions.forEach(explorerTransactionData -> explorerTransactionHashes.add(explorerTransactionData.getTransactionHash()));
+        Assert.assertEquals(settledTransactionHashes, explorerTransactionHashes);
+        Assert.assertEquals(chain.get(0).getAttachmentTime(), explorerTransactions.get(0).getAttachmentTime());
+    }
+
+    @Test
+    public void loadSnapshot_ignoresSnapshotOfAnotherClusterStamp() {
+        NodeStateSnapshotService nodeStateSnapshotService = createNodeStateSnapshotService(createBalanceService(CLUSTER_STAMP_AMOUNT), false);
+        nodeStateSnapshotService.loadSnapshot();
+        nodeStateSnapshotService.init();
+        nodeStateSnapshotService.takeSnapshot();
+
+        BaseNodeBalanceService balanceService = createBalanceService(CLUSTER_STAMP_AMOUNT.add(BigDecimal.ONE));
+
+        Assert.assertFalse(createNodeStateSnapshotService(balanceService, false).loadSnapshot().isPresent());
+        Assert.assertEquals(0, CLUSTER_STAMP_AMOUNT.add(BigDecimal.ONE).compareTo(balanceService.getBalanceByAddress(senderAddressHash)));
+    }
+
+    private void addTransaction() {
+        TransactionData transactionData = TransactionTestUtils.addChainTransaction(chain, senderAddressHash, receiverAddressHash);
+        database.put(transactionData.getHash(), transactionData);
+    }
+
+    private void index(TransactionData transactionData) {
+        DspConsensusResult dspConsensusResult = new DspConsensusResult(transactionData.getHash());
+        dspConsensusResult.setDspConsensus(true);
+        dspConsensusResult.setIndex(lastTransactionIndexData.getIndex() + 1);
+        transactionData.setDspConsensusResult(dspConsensusResult);
+        lastTransactionIndexData = transactionIndexService.getNextIndexData(lastTransactionIndexData, transactionData);
+        transactionIndexDatabase.put(lastTransactionIndexData.getHash(), lastTransactionIndexData);
+    }
+
+    private BaseNodeBalanceService createBalanceService(BigDecimal clusterStampAmount) {
+        BaseNodeBalanceService balanceService = new BaseNodeBalanceService();
+        balanceService.init();
+        balanceService.updateBalanceFromClusterStamp(senderAddressHash, clusterStampAmount);
+        balanceService.updatePreBalanceFromClusterStamp();
+        return balanceService;
+    }
+
+    private NodeStateSnapshotService createNodeStateSnapshotService(BaseNodeBalanceService balanceService, boolean explorerIndexed) {
+        Transactions transactions = Mockito.mock(Transactions.class);
+        Mockito.when(transactions.getByHash(Mockito.any(Hash.class))).thenAnswer(invocation -> database.get(invocation.<Hash>getArgument(0)));
+        TransactionIndexes transactionIndexes = Mockito.mock(TransactionIndexes.class);
+        Mockito.when(transactionIndexes.getByHash(Mockito.any(Hash.class))).thenAnswer(invocation -> transactionIndexDatabase.get(invocation.<Hash>getArgument(0)));
+        ITransactionHelper transactionHelper = Mockito.mock(ITransactionHelper.class);
+        Mockito.when(transactionHelper.getNoneIndexedTransactionHashes()).thenAnswer(invocation -> new HashSet<>(noneIndexedTransactionHashes));
+        ITransactionService transactionService = Mockito.mock(ITransactionService.class);
+        Mockito.when(transactionService.isExplorerIndexed()).thenReturn(explorerIndexed);
+        Mockito.doAnswer(invocation -> explorerTransactions.add(invocation.getArgument(0)))
+                .when(transactionService).addToExplorerIndexes(Mockito.any(ExplorerTransactionData.class));
+        IClusterService clusterService = Mockito.mock(IClusterService.class);
+        Mockito.when(clusterService.getTrustChainConfirmationTransactionHashes()).thenAnswer(invocation -> new HashSet<>(trustChainConfirmationTransactionHashes));
+
+        NodeStateSnapshotService nodeStateSnapshotService = new NodeStateSnapshotService();
+        ReflectionTestUtils.setField(nodeStateSnapshotService, "snapshotEnabled", true);
+        ReflectionTestUtils.setField(nodeStateSnapshotService, "snapshotDirectory", snapshotDirectory);
+        ReflectionTestUtils.setField(nodeStateSnapshotService, "transactions", transactions);
+        ReflectionTestUtils.setField(nodeStateSnapshotService, "transactionIndexes", transactionIndexes);
+        ReflectionTestUtils.setField(nodeStateSnapshotService, "balanceService", balanceService);
+        ReflectionTestUtils.setField(nodeStateSnapshotService, "transactionHelper", transactionHelper);
+        ReflectionTestUtils.setField(nodeStateSnapshotService, "clusterService", clusterService);
+        ReflectionTestUtils.setField(nodeStateSnapshotService, "transactionService", transactionService);
+        return nodeStateSnapshotService;
+    }
+}
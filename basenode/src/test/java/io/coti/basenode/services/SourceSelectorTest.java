@@ -0,0 +1,69 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.*;
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.*;
+
+public class SourceSelectorTest {
+
+    private static final long NOW = 1_000_000_000L;
+    private final SourceSelector sourceSelector = new SourceSelector();
+
+    @Test
+    public void selectTwoOptimalSources_weightsSourcesByAge() {
+        List<TransactionData> sources = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            sources.add(createSource(50 + i % 2, NOW - i * 1000L));
+        }
+        sources.add(createSource(50, NOW + 1000L));
+        SourcesSnapshotData sourcesSnapshot = new SourcesSnapshotData();
+        for (TransactionData source : sources) {
+            sourcesSnapshot = sourcesSnapshot.addSource(source);
+        }
+        List<SourceBucketData> buckets = Arrays.asList(sourcesSnapshot.getBucket(50), sourcesSnapshot.getBucket(51));
+        Map<TransactionData, Integer> firstSourceCounts = new HashMap<>();
+        Random random = new Random(7);
+        int selections = 100000;
+        for (int i = 0; i < selections; i++) {
+            List<TransactionData> selectedSources = sourceSelector.selectTwoOptimalSources(buckets, NOW, random);
+            Assert.assertEquals(2, selectedSources.size());
+            Assert.assertNotSame(selectedSources.get(0), selectedSources.get(1));
+            firstSourceCounts.merge(selectedSources.get(0), 1, Integer::sum);
+        }
+
+        Assert.assertNull(firstSourceCounts.get(sources.get(4)));
+        for (int i = 1; i <= 4; i++) {
+            double expectedShare = i / 10.0;
+            Assert.assertEquals(expectedShare, (double) firstSourceCounts.get(sources.get(i - 1)) / selections, 0.01);
+        }
+    }
+
+    @Test
+    public void selectSourcesForAttachment_readsUnchangedSnapshot() {
+        ReflectionTestUtils.setField(sourceSelector, "minSourcePercentage", 60);
+        ReflectionTestUtils.setField(sourceSelector, "maxNeighbourhoodRadius", 20);
+        TransactionData firstSource = createSource(80, NOW);
+        TransactionData secondSource = createSource(70, NOW);
+        SourcesSnapshotData sourcesSnapshot = new SourcesSnapshotData().addSource(firstSource).addSource(secondSource);
+        SourcesSnapshotData changedSourcesSnapshot = sourcesSnapshot.removeSource(firstSource).addSource(createSource(80, NOW));
+
+        Assert.assertEquals(2, sourcesSnapshot.getVersion());
+        Assert.assertEquals(4, changedSourcesSnapshot.getVersion());
+        Assert.assertEquals(Collections.singleton(firstSource.getHash()), sourcesSnapshot.getSourceHashes(80));
+        Assert.assertSame(sourcesSnapshot.getBucket(70), changedSourcesSnapshot.getBucket(70));
+        List<TransactionData> selectedSources = sourceSelector.selectSourcesForAttachment(sourcesSnapshot, 80);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(firstSource, secondSource)), new HashSet<>(selectedSources));
+        Assert.assertTrue(sourceSelector.selectSourcesForAttachment(new SourcesSnapshotData(), 80).isEmpty());
+    }
+
+    private TransactionData createSource(double trustScore, long attachmentTime) {
+        TransactionData transactionData = TransactionTestUtils.createRandomTransaction(trustScore);
+        transactionData.setAttachmentTime(Instant.ofEpochMilli(attachmentTime));
+        return transactionData;
+    }
+}
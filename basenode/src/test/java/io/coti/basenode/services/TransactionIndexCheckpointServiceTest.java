@@ -0,0 +1,123 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.crypto.CryptoHelper;
+import io.coti.basenode.crypto.NodeCryptoHelper;
+import io.coti.basenode.crypto.TransactionIndexCheckpointCrypto;
+import io.coti.basenode.data.*;
+import io.coti.basenode.data.interfaces.IEntity;
+import io.coti.basenode.model.TransactionIndexCheckpoints;
+import io.coti.basenode.model.TransactionIndexes;
+import io.coti.basenode.model.Transactions;
+import io.coti.basenode.utils.HashTestUtils;
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Consumer;
+
+public class TransactionIndexCheckpointServiceTest {
+
+    private static final int TRANSACTION_NUMBER = 30;
+    private final Map<Hash, TransactionData> database = new HashMap<>();
+    private final Map<Hash, TransactionIndexData> transactionIndexDatabase = new HashMap<>();
+    private final TreeMap<Long, TransactionIndexCheckpointData> checkpointDatabase = new TreeMap<>();
+    private final Map<Long, ReducedExistingTransactionData> indexToTransactionMap = new HashMap<>();
+    private final Set<Long> readIndexes = new HashSet<>();
+    private final Hash addressHash = HashTestUtils.generateRandomAddressHash();
+    private final TransactionIndexService transactionIndexService = new TransactionIndexService();
+    private TransactionIndexes transactionIndexes;
+    private TransactionIndexCheckpointService transactionIndexCheckpointService;
+
+    @Before
+    public void init() throws Exception {
+        Method nodePrivateKey = NodeCryptoHelper.class.getDeclaredMethod("nodePrivateKey", String.class);
+        nodePrivateKey.setAccessible(true);
+        nodePrivateKey.invoke(null, CryptoHelper.generatePrivateKey(HashTestUtils.generateRandomHash().toHexString(), 0).toHexString());
+
+        TransactionIndexData transactionIndexData = new TransactionIndexData(new Hash(-1), -1, "GENESIS".getBytes());
+        for (int i = 0; i < TRANSACTION_NUMBER; i++) {
+            TransactionData transactionData = TransactionTestUtils.createTransferTransaction(HashTestUtils.generateRandomAddressHash(), addressHash, BigDecimal.ONE, null);
+            DspConsensusResult dspConsensusResult = new DspConsensusResult(transactionData.getHash());
+            dspConsensusResult.setIndex(i);
+            transactionData.setDspConsensusResult(dspConsensusResult);
+            transactionData.setTrustChainConsensus(true);
+            transactionIndexData = transactionIndexService.getNextIndexData(transactionIndexData, transactionData);
+            database.put(transactionData.getHash(), transactionData);
+            transactionIndexDatabase.put(transactionIndexData.getHash(), transactionIndexData);
+            indexToTransactionMap.put((long) i, new ReducedExistingTransactionData(transactionData));
+        }
+
+        transactionIndexes = Mockito.mock(TransactionIndexes.class);
+        Mockito.when(transactionIndexes.getByHash(Mockito.any(Hash.class))).thenAnswer(invocation -> {
+            TransactionIndexData readTransactionIndexData = transactionIndexDatabase.get(invocation.<Hash>getArgument(0));
+            Optional.ofNullable(readTransactionIndexData).ifPresent(indexData -> readIndexes.add(indexData.getIndex()));
+            return readTransactionIndexData;
+        });
+        Transactions transactions = Mockito.mock(Transactions.class);
+        Mockito.when(transactions.getByHash(Mockito.any(Hash.class))).thenAnswer(invocation -> database.get(invocation.<Hash>getArgument(0)));
+        TransactionIndexCheckpoints transactionIndexCheckpoints = Mockito.mock(TransactionIndexCheckpoints.class);
+        Mockito.doAnswer(invocation -> checkpointDatabase.put(invocation.<TransactionIndexCheckpointData>getArgument(0).getIndex(), invocation.getArgument(0)))
+                .when(transactionIndexCheckpoints).put(Mockito.any(IEntity.class));
+        Mockito.doAnswer(invocation -> checkpointDatabase.remove(invocation.<TransactionIndexCheckpointData>getArgument(0).getIndex()))
+                .when(transactionIndexCheckpoints).delete(Mockito.any(IEntity.class));
+        Mockito.when(transactionIndexCheckpoints.getLast()).thenAnswer(invocation -> checkpointDatabase.isEmpty() ? null : checkpointDatabase.lastEntry().getValue());
+        Mockito.doAnswer(invocation -> {
+            new ArrayList<>(checkpointDatabase.values()).forEach(invocation.<Consumer<TransactionIndexCheckpointData>>getArgument(0));
+            return null;
+        }).when(transactionIndexCheckpoints).forEach(Mockito.<Consumer<TransactionIndexCheckpointData>>any());
+
+        transactionIndexCheckpointService = new TransactionIndexCheckpointService();
+        ReflectionTestUtils.setField(transactionIndexCheckpointService, "checkpointInterval", 10L);
+        ReflectionTestUtils.setField(transactionIndexCheckpointService, "transactionIndexCheckpoints", transactionIndexCheckpoints);
+        ReflectionTestUtils.setField(transactionIndexCheckpointService, "transactionIndexCheckpointCrypto", new TransactionIndexCheckpointCrypto());
+        ReflectionTestUtils.setField(transactionIndexCheckpointService, "transactionIndexes", transactionIndexes);
+        ReflectionTestUtils.setField(transactionIndexCheckpointService, "transactions", transactions);
+        ReflectionTestUtils.setField(transactionIndexCheckpointService, "transactionIndexService", transactionIndexService);
+    }
+
+    @Test
+    public void setLastDspConfirmationIndex_verifiesFromLastCheckpoint() {
+        BaseNodeBalanceService fullBalanceService = new BaseNodeBalanceService();
+        BaseNodeConfirmationService fullConfirmationService = createConfirmationService(fullBalanceService);
+        fullConfirmationService.setLastDspConfirmationIndex(indexToTransactionMap, null);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(10L, 20L)), checkpointDatabase.keySet());
+
+        readIndexes.clear();
+        BaseNodeBalanceService balanceService = new BaseNodeBalanceService();
+        BaseNodeConfirmationService confirmationService = createConfirmationService(balanceService);
+        confirmationService.setLastDspConfirmationIndex(indexToTransactionMap, null);
+
+        Assert.assertTrue(readIndexes.stream().allMatch(index -> index >= 20));
+        Assert.assertEquals(TRANSACTION_NUMBER - 1, transactionIndexService.getLastTransactionIndexData().getIndex());
+        Assert.assertEquals(fullConfirmationService.getDspConfirmed(), confirmationService.getDspConfirmed());
+        Assert.assertEquals(fullConfirmationService.getTotalConfirmed(), confirmationService.getTotalConfirmed());
+        Assert.assertEquals(fullBalanceService.getBalanceByAddress(addressHash), balanceService.getBalanceByAddress(addressHash));
+    }
+
+    @Test
+    public void verifyTransactionIndexes_deletesCheckpointsFromIncorrectIndex() {
+        createConfirmationService(new BaseNodeBalanceService()).setLastDspConfirmationIndex(indexToTransactionMap, null);
+        transactionIndexDatabase.get(new Hash(15L)).setAccumulatedHash(HashTestUtils.generateRandomHash().getBytes());
+
+        long incorrectIndex = transactionIndexCheckpointService.verifyTransactionIndexes(transactionIndexCheckpointService.getLastCheckpointTransactionIndexData().getIndex());
+
+        Assert.assertEquals(15, incorrectIndex);
+        Assert.assertEquals(Collections.singleton(10L), checkpointDatabase.keySet());
+    }
+
+    private BaseNodeConfirmationService createConfirmationService(BaseNodeBalanceService balanceService) {
+        balanceService.init();
+        BaseNodeConfirmationService confirmationService = new BaseNodeConfirmationService();
+        ReflectionTestUtils.setField(confirmationService, "balanceService", balanceService);
+        ReflectionTestUtils.setField(confirmationService, "transactionIndexService", transactionIndexService);
+        ReflectionTestUtils.setField(confirmationService, "transactionIndexes", transactionIndexes);
+        ReflectionTestUtils.setField(confirmationService, "transactionIndexCheckpointService", transactionIndexCheckpointService);
+        return confirmationService;
+    }
+}
@@ -0,0 +1,153 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.communication.TransactionBatchWriter;
+import io.coti.basenode.crypto.DspConsensusCrypto;
+import io.coti.basenode.data.*;
+import io.coti.basenode.services.interfaces.INetworkService;
+import io.coti.basenode.services.interfaces.ITransactionHelper;
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class TransactionSegmentSynchronizationServiceTest {
+
+    private static final String RECOVERY_SERVER_ADDRESS = "http://recovery";
+    private static final String DSP_NODE_ADDRESS = "http://dsp";
+    private static final Pattern SEGMENT_URL = Pattern.compile("(http://[a-z]+)/transaction_batch/binary\\?starting_index=(\\d+)&ending_index=(\\d+).*");
+    private static final Pattern INDEX_URL = Pattern.compile("http://recovery/transaction_batch/index(\\?index=(\\d+))?");
+    private static final int LAST_INDEX = 25;
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private final TransactionIndexService transactionIndexService = new TransactionIndexService();
+    private final List<TransactionData> transactions = new ArrayList<>();
+    private final List<TransactionIndexData> transactionIndexes = new ArrayList<>();
+    private final List<String> segmentRequests = new ArrayList<>();
+    private TransactionSegmentSynchronizationService transactionSegmentSynchronizationService;
+    private Path segmentDirectory;
+
+    @Before
+    public void init() throws IOException {
+        TransactionIndexData transactionIndexData = new TransactionIndexData(HashTestUtils.generateRandomHash(), 0, HashTestUtils.generateRandomHash().getBytes());
+        transactionIndexes.add(transactionIndexData);
+        transactions.add(null);
+        for (int i = 1; i <= LAST_INDEX; i++) {
+            TransactionData transactionData = new TransactionData(new ArrayList<>(), HashTestUtils.generateRandomHash(), "", 80, Instant.now(), TransactionType.Transfer);
+            DspConsensusResult dspConsensusResult = new DspConsensusResult(transactionData.getHash());
+            dspConsensusResult.setIndex(i);
+            transactionData.setDspConsensusResult(dspConsensusResult);
+            transactionData.setAttachmentTime(Instant.now());
+            transactionIndexData = transactionIndexService.getNextIndexData(transactionIndexData, transactionData);
+            transactions.add(transactionData);
+            transactionIndexes.add(transactionIndexData);
+        }
+        transactionIndexService.setLastTransactionIndexData(transactionIndexes.get(0));
+        segmentDirectory = temporaryFolder.newFolder().toPath();
+
+        INetworkService networkService = Mockito.mock(INetworkService.class);
+        Mockito.when(networkService.getRecoveryServerAddress()).thenReturn(RECOVERY_SERVER_ADDRESS);
+        NetworkNodeData dspNodeData = Mockito.mock(NetworkNodeData.class);
+        Mockito.when(dspNodeData.getHttpFullAddress()).thenReturn(DSP_NODE_ADDRESS);
+        Mockito.when(networkService.getMapFromFactory(NodeType.DspNode)).thenReturn(Collections.singletonMap(HashTestUtils.generateRandomHash(), dspNodeData));
+        ITransactionHelper transactionHelper = Mockito.mock(ITransactionHelper.class);
+        Mockito.when(transactionHelper.validateTransactionCrypto(Mockito.any())).thenReturn(true);
+        DspConsensusCrypto dspConsensusCrypto = Mockito.mock(DspConsensusCrypto.class);
+        Mockito.when(dspConsensusCrypto.verifySignature(Mockito.any())).thenReturn(true);
+
+        transactionSegmentSynchronizationService = new TransactionSegmentSynchronizationService();
+        ReflectionTestUtils.setField(transactionSegmentSynchronizationService, "parallelSync", true);
+        ReflectionTestUtils.setField(transactionSegmentSynchronizationService, "maximumParallelPeers", 2);
+        ReflectionTestUtils.setField(transactionSegmentSynchronizationService, "segmentSize", 10L);
+        ReflectionTestUtils.setField(transactionSegmentSynchronizationService, "segmentDirectory", segmentDirectory.toString());
+        ReflectionTestUtils.setField(transactionSegmentSynchronizationService, "networkService", networkService);
+        ReflectionTestUtils.setField(transactionSegmentSynchronizationService, "transactionIndexService", transactionIndexService);
+        ReflectionTestUtils.setField(transactionSegmentSynchronizationService, "transactionHelper", transactionHelper);
+        ReflectionTestUtils.setField(transactionSegmentSynchronizationService, "dspConsensusCrypto", dspConsensusCrypto);
+        ReflectionTestUtils.setField(transactionSegmentSynchronizationService, "restTemplate", mockRestTemplate());
+    }
+
+    @Test
+    public void requestMissingTransactionSegments_inIndexOrderWithCorruptPeer() {
+        List<Long> receivedIndexes = new ArrayList<>();
+
+        long nextIndex = transactionSegmentSynchronizationService.requestMissingTransactionSegments(1, transactionData -> receivedIndexes.add(transactionData.getDspConsensusResult().getIndex()));
+
+        Assert.assertEquals(LAST_INDEX + 1, nextIndex);
+        for (int i = 0; i < LAST_INDEX; i++) {
+            Assert.assertEquals(i + 1, receivedIndexes.get(i).longValue());
+        }
+        Assert.assertEquals(LAST_INDEX, receivedIndexes.size());
+        Assert.assertTrue(segmentRequests.contains(DSP_NODE_ADDRESS + "-10"));
+        Assert.assertTrue(segmentRequests.contains(RECOVERY_SERVER_ADDRESS + "-10"));
+    }
+
+    @Test
+    public void requestMissingTransactionSegments_resumesDownloadedSegment() throws IOException {
+        Files.write(segmentDirectory.resolve("segment-20-25.bin"), writeSegment(20, 25, false));
+        transactionIndexService.setLastTransactionIndexData(transactionIndexes.get(3));
+        List<Long> receivedIndexes = new ArrayList<>();
+
+        transactionSegmentSynchronizationService.requestMissingTransactionSegments(4, transactionData -> receivedIndexes.add(transactionData.getDspConsensusResult().getIndex()));
+
+        Assert.assertEquals(LAST_INDEX - 3, receivedIndexes.size());
+        Assert.assertEquals(4, receivedIndexes.get(0).longValue());
+        Assert.assertFalse(segmentRequests.stream().anyMatch(segmentRequest -> segmentRequest.endsWith("-20")));
+        try (Stream<Path> segmentFiles = Files.list(segmentDirectory)) {
+            Assert.assertEquals(0, segmentFiles.count());
+        }
+    }
+
+    private RestTemplate mockRestTemplate() {
+        RestTemplate restTemplate = Mockito.mock(RestTemplate.class);
+        Mockito.when(restTemplate.getForObject(Mockito.anyString(), Mockito.eq(TransactionIndexData.class))).thenAnswer(invocation -> {
+            Matcher matcher = INDEX_URL.matcher(invocation.getArgument(0));
+            Assert.assertTrue(matcher.matches());
+            return transactionIndexes.get(matcher.group(2) == null ? LAST_INDEX : Integer.parseInt(matcher.group(2)));
+        });
+        Mockito.when(restTemplate.execute(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.<ResponseExtractor<Void>>any())).thenAnswer(invocation -> {
+            Matcher matcher = SEGMENT_URL.matcher(invocation.getArgument(0));
+            Assert.assertTrue(matcher.matches());
+            int startingIndex = Integer.parseInt(matcher.group(2));
+            synchronized (segmentRequests) {
+                segmentRequests.add(matcher.group(1) + "-" + startingIndex);
+            }
+            boolean corrupted = DSP_NODE_ADDRESS.equals(matcher.group(1)) && startingIndex == 10;
+            ClientHttpResponse response = Mockito.mock(ClientHttpResponse.class);
+            Mockito.when(response.getBody()).thenReturn(new ByteArrayInputStream(writeSegment(startingIndex, Integer.parseInt(matcher.group(3)), corrupted)));
+            return invocation.<ResponseExtractor<Void>>getArgument(3).extractData(response);
+        });
+        return restTemplate;
+    }
+
+    private byte[] writeSegment(int startingIndex, int endingIndex, boolean corrupted) throws IOException {
+        List<TransactionData> segmentTransactions = new ArrayList<>(transactions.subList(Math.max(startingIndex, 1), endingIndex + 1));
+        if (corrupted) {
+            Collections.swap(segmentTransactions, 1, 2);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (TransactionBatchWriter transactionBatchWriter = new TransactionBatchWriter(outputStream, true)) {
+            for (TransactionData transactionData : segmentTransactions) {
+                transactionBatchWriter.write(transactionData);
+            }
+        }
+        return outputStream.toByteArray();
+    }
+}
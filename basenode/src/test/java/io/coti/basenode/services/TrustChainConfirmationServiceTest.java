@@ -0,0 +1,130 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.TccInfo;
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.data.TransactionType;
+import io.coti.basenode.model.Transactions;
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TrustChainConfirmationServiceTest {
+
+    private static final int THRESHOLD = 101;
+    private final Random random = new Random(7);
+    private final Map<Hash, TransactionData> database = new HashMap<>();
+    private final List<TransactionData> attachedTransactions = new ArrayList<>();
+    private final ConcurrentHashMap<Hash, TransactionData> trustChainConfirmationCluster = new ConcurrentHashMap<>();
+    private final List<TccInfo> trustChainConfirmations = new ArrayList<>();
+    private TrustChainConfirmationService trustChainConfirmationService;
+
+    @Before
+    public void init() {
+        Transactions transactions = Mockito.mock(Transactions.class);
+        Mockito.when(transactions.getByHash(Mockito.any(Hash.class))).thenAnswer(invocation -> database.get(invocation.<Hash>getArgument(0)));
+        ClusterHelper clusterHelper = new ClusterHelper();
+        ReflectionTestUtils.setField(clusterHelper, "transactions", transactions);
+        trustChainConfirmationService = new TrustChainConfirmationService();
+        ReflectionTestUtils.setField(trustChainConfirmationService, "threshold", THRESHOLD);
+        ReflectionTestUtils.setField(trustChainConfirmationService, "clusterHelper", clusterHelper);
+        ReflectionTestUtils.setField(trustChainConfirmationService, "transactions", transactions);
+    }
+
+    @Test
+    public void attachTransaction_confirmsAsFullCalculation() {
+        for (int i = 0; i < 200; i++) {
+            addTransaction(false);
+        }
+        setTrustChainConfirmed(trustChainConfirmationService.init(trustChainConfirmationCluster));
+        for (int i = 0; i < 2000; i++) {
+            addTransaction(true);
+        }
+
+        Map<Hash, Double> longestTrustChains = calculateLongestTrustChains();
+        Set<Hash> expectedConfirmedHashes = new HashSet<>();
+        longestTrustChains.forEach((hash, longestTrustChain) -> {
+            if (longestTrustChain >= THRESHOLD) {
+                expectedConfirmedHashes.add(hash);
+            }
+        });
+        Map<Hash, Integer> confirmationOrder = new HashMap<>();
+        trustChainConfirmations.forEach(tccInfo -> {
+            Assert.assertNull(confirmationOrder.put(tccInfo.getHash(), confirmationOrder.size()));
+            Assert.assertTrue(tccInfo.getTrustChainTrustScore() >= THRESHOLD);
+        });
+
+        Assert.assertFalse(expectedConfirmedHashes.isEmpty());
+        Assert.assertEquals(expectedConfirmedHashes, confirmationOrder.keySet());
+        for (TransactionData transactionData : attachedTransactions) {
+            Integer order = confirmationOrder.get(transactionData.getHash());
+            if (order != null) {
+                getParentHashes(transactionData).forEach(parentHash -> Assert.assertTrue(confirmationOrder.get(parentHash) < order));
+            }
+        }
+        Assert.assertEquals(attachedTransactions.size() - expectedConfirmedHashes.size(), trustChainConfirmationCluster.size());
+    }
+
+    private void addTransaction(boolean started) {
+        TransactionData transactionData = new TransactionData(new ArrayList<>(), HashTestUtils.generateRandomHash(), "", random.nextInt(20) + 1, Instant.now(), TransactionType.Transfer);
+        transactionData.setChildrenTransactionHashes(new ArrayList<>());
+        if (!attachedTransactions.isEmpty()) {
+            transactionData.setLeftParentHash(randomRecentTransactionHash());
+            Hash rightParentHash = randomRecentTransactionHash();
+            if (!rightParentHash.equals(transactionData.getLeftParentHash())) {
+                transactionData.setRightParentHash(rightParentHash);
+            }
+        }
+        List<Hash> attachedParentHashes = new ArrayList<>();
+        for (Hash parentHash : getParentHashes(transactionData)) {
+            database.get(parentHash).addToChildrenTransactions(transactionData.getHash());
+            if (trustChainConfirmationCluster.containsKey(parentHash)) {
+                attachedParentHashes.add(parentHash);
+            }
+        }
+        database.put(transactionData.getHash(), transactionData);
+        attachedTransactions.add(transactionData);
+        trustChainConfirmationCluster.put(transactionData.getHash(), transactionData);
+        if (started) {
+            setTrustChainConfirmed(trustChainConfirmationService.attachTransaction(transactionData, attachedParentHashes));
+        }
+    }
+
+    private Hash randomRecentTransactionHash() {
+        int size = attachedTransactions.size();
+        return attachedTransactions.get(size - 1 - random.nextInt(Math.min(size, 30))).getHash();
+    }
+
+    private void setTrustChainConfirmed(List<TccInfo> tccInfos) {
+        tccInfos.forEach(tccInfo -> {
+            trustChainConfirmationCluster.remove(tccInfo.getHash());
+            database.get(tccInfo.getHash()).setTrustChainConsensus(true);
+            database.get(tccInfo.getHash()).setTrustChainTrustScore(tccInfo.getTrustChainTrustScore());
+            trustChainConfirmations.add(tccInfo);
+        });
+    }
+
+    private Map<Hash, Double> calculateLongestTrustChains() {
+        Map<Hash, Double> longestTrustChains = new HashMap<>();
+        for (int i = attachedTransactions.size() - 1; i >= 0; i--) {
+            TransactionData transactionData = attachedTransactions.get(i);
+            double longestChildTrustChain = transactionData.getChildrenTransactionHashes().stream().mapToDouble(longestTrustChains::get).max().orElse(0);
+            longestTrustChains.put(transactionData.getHash(), transactionData.getSenderTrustScore() + longestChildTrustChain);
+        }
+        return longestTrustChains;
+    }
+
+    private List<Hash> getParentHashes(TransactionData transactionData) {
+        List<Hash> parentHashes = new ArrayList<>();
+        Optional.ofNullable(transactionData.getLeftParentHash()).ifPresent(parentHashes::add);
+        Optional.ofNullable(transactionData.getRightParentHash()).ifPresent(parentHashes::add);
+        return parentHashes;
+    }
+}
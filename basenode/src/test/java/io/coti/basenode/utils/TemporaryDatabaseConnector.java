@@ -0,0 +1,195 @@
+package io.coti.basenode.utils;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.interfaces.IEntity;
+import io.coti.basenode.database.interfaces.IDatabaseConnector;
+import io.coti.basenode.exceptions.DataBaseException;
+import org.rocksdb.*;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.SerializationUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * A database connector over a RocksDB in a temporary directory, for tests which need real database reads, writes and
+ * write batches. The column families are created on their first use.
+ */
+public class TemporaryDatabaseConnector implements IDatabaseConnector, Closeable {
+
+    private final Path dbPath;
+    private final Map<String, ColumnFamilyHandle> columnFamilyHandles = new HashMap<>();
+    private RocksDB db;
+
+    public TemporaryDatabaseConnector() throws IOException, RocksDBException {
+        RocksDB.loadLibrary();
+        dbPath = Files.createTempDirectory("temporary-database-connector");
+        openDB(Collections.singletonList(RocksDB.DEFAULT_COLUMN_FAMILY));
+    }
+
+    private void openDB(List<byte[]> columnFamilyNames) throws RocksDBException {
+        List<ColumnFamilyDescriptor> columnFamilyDescriptors = new ArrayList<>();
+        columnFamilyNames.forEach(columnFamilyName -> columnFamilyDescriptors.add(new ColumnFamilyDescriptor(columnFamilyName)));
+        List<ColumnFamilyHandle> openedColumnFamilyHandles = new ArrayList<>();
+        try (DBOptions dbOptions = new DBOptions().setCreateIfMissing(true)) {
+            db = RocksDB.open(dbOptions, dbPath.toString(), columnFamilyDescriptors, openedColumnFamilyHandles);
+        }
+        for (int i = 0; i < columnFamilyNames.size(); i++) {
+            columnFamilyHandles.put(new String(columnFamilyNames.get(i)), openedColumnFamilyHandles.get(i));
+        }
+    }
+
+    private void closeDB() {
+        columnFamilyHandles.values().forEach(ColumnFamilyHandle::close);
+        columnFamilyHandles.clear();
+        db.close();
+    }
+
+    private synchronized ColumnFamilyHandle getColumnFamilyHandle(String columnFamilyName) {
+        return columnFamilyHandles.computeIfAbsent(columnFamilyName, name -> {
+            try {
+                return db.createColumnFamily(new ColumnFamilyDescriptor(name.getBytes()));
+            } catch (RocksDBException e) {
+                throw new DataBaseException("Error at creating column family", e);
+            }
+        });
+    }
+
+    @Override
+    public void init() {
+        // The database is opened by the constructor
+    }
+
+    @Override
+    public void generateDataBaseBackup(String backupPath) {
+        try (BackupableDBOptions backupableDBOptions = new BackupableDBOptions(backupPath);
+             BackupEngine backupEngine = BackupEngine.open(Env.getDefault(), backupableDBOptions)) {
+            backupEngine.createNewBackup(db, false);
+        } catch (RocksDBException e) {
+            throw new DataBaseException("Error at generating database backup", e);
+        }
+    }
+
+    @Override
+    public synchronized void restoreDataBase(String backupPath) {
+        try (BackupableDBOptions backupableDBOptions = new BackupableDBOptions(backupPath);
+             BackupEngine backupEngine = BackupEngine.open(Env.getDefault(), backupableDBOptions);
+             RestoreOptions restoreOptions = new RestoreOptions(false);
+             Options options = new Options()) {
+            closeDB();
+            backupEngine.restoreDbFromLatestBackup(dbPath.toString(), dbPath.toString(), restoreOptions);
+            openDB(RocksDB.listColumnFamilies(options, dbPath.toString()));
+        } catch (RocksDBException e) {
+            throw new DataBaseException("Error at restoring database", e);
+        }
+    }
+
+    @Override
+    public String getDBPath() {
+        return dbPath.toString();
+    }
+
+    @Override
+    public boolean put(String columnFamilyName, byte[] key, byte[] value) {
+        try {
+            db.put(getColumnFamilyHandle(columnFamilyName), key, value);
+            return true;
+        } catch (RocksDBException e) {
+            throw new DataBaseException("Error at putting to db", e);
+        }
+    }
+
+    @Override
+    public boolean put(String columnFamilyName, WriteOptions writeOptions, byte[] key, byte[] value) {
+        try {
+            db.put(getColumnFamilyHandle(columnFamilyName), writeOptions, key, value);
+            return true;
+        } catch (RocksDBException e) {
+            throw new DataBaseException("Error at putting to db", e);
+        }
+    }
+
+    @Override
+    public boolean put(String columnFamilyName, WriteBatch writeBatch, byte[] key, byte[] value) {
+        try {
+            writeBatch.put(getColumnFamilyHandle(columnFamilyName), key, value);
+            return true;
+        } catch (RocksDBException e) {
+            throw new DataBaseException("Error at putting to write batch", e);
+        }
+    }
+
+    @Override
+    public boolean putBatch(WriteBatch writeBatch) {
+        try (WriteOptions writeOptions = new WriteOptions()) {
+            db.write(writeOptions, writeBatch);
+            return true;
+        } catch (RocksDBException e) {
+            throw new DataBaseException("Error at writing batch to db", e);
+        }
+    }
+
+    @Override
+    public byte[] getByKey(String columnFamilyName, byte[] key) {
+        try {
+            return db.get(getColumnFamilyHandle(columnFamilyName), key);
+        } catch (RocksDBException e) {
+            throw new DataBaseException("Error at getting from db", e);
+        }
+    }
+
+    @Override
+    public boolean isKeyExists(String columnFamilyName, byte[] key) {
+        return getByKey(columnFamilyName, key) != null;
+    }
+
+    @Override
+    public List<byte[]> multiGetByKeys(String columnFamilyName, List<byte[]> keys) {
+        try {
+            return db.multiGetAsList(Collections.nCopies(keys.size(), getColumnFamilyHandle(columnFamilyName)), keys);
+        } catch (RocksDBException e) {
+            throw new DataBaseException("Error at multi getting from db", e);
+        }
+    }
+
+    @Override
+    public void delete(String columnFamilyName, byte[] key) {
+        try {
+            db.delete(getColumnFamilyHandle(columnFamilyName), key);
+        } catch (RocksDBException e) {
+            throw new DataBaseException("Error at deleting from db", e);
+        }
+    }
+
+    @Override
+    public RocksIterator getIterator(String columnFamilyName) {
+        return db.newIterator(getColumnFamilyHandle(columnFamilyName));
+    }
+
+    @Override
+    public boolean isEmpty(String columnFamilyName) {
+        try (RocksIterator iterator = getIterator(columnFamilyName)) {
+            iterator.seekToFirst();
+            return !iterator.isValid();
+        }
+    }
+
+    @Override
+    public IEntity get(Class<?> entityClass, Hash key) {
+        return (IEntity) SerializationUtils.deserialize(getByKey(entityClass.getName(), key.getBytes()));
+    }
+
+    @Override
+    public void shutdown() {
+        close();
+    }
+
+    @Override
+    public synchronized void close() {
+        closeDB();
+        FileSystemUtils.deleteRecursively(dbPath.toFile());
+    }
+}
@@ -0,0 +1,68 @@
+package io.coti.basenode.utils;
+
+import io.coti.basenode.data.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TransactionTestUtils {
+
+    private static final double SENDER_TRUST_SCORE = 50;
+
+    public static TransactionData createRandomTransaction() {
+        return createRandomTransaction(HashTestUtils.generateRandomHash(), SENDER_TRUST_SCORE, Instant.now());
+    }
+
+    public static TransactionData createRandomTransaction(Hash hash) {
+        return createRandomTransaction(hash, SENDER_TRUST_SCORE, Instant.now());
+    }
+
+    public static TransactionData createRandomTransaction(double senderTrustScore) {
+        return createRandomTransaction(HashTestUtils.generateRandomHash(), senderTrustScore, Instant.now());
+    }
+
+    public static TransactionData createRandomTransaction(Instant createTime) {
+        return createRandomTransaction(HashTestUtils.generateRandomHash(), SENDER_TRUST_SCORE, createTime);
+    }
+
+    public static TransactionData createRandomTransaction(Hash hash, double senderTrustScore, Instant createTime) {
+        return new TransactionData(new ArrayList<>(Collections.singletonList(new ReceiverBaseTransactionData(HashTestUtils.generateRandomAddressHash(),
+                BigDecimal.ONE, BigDecimal.ONE, createTime))), hash, "", senderTrustScore, createTime, TransactionType.Transfer);
+    }
+
+    /**
+     * @return an attached transfer of the amount from the sender address to the receiver address, with hashed base
+     * transactions and the given left parent, which may be null
+     */
+    public static TransactionData createTransferTransaction(Hash senderAddressHash, Hash receiverAddressHash, BigDecimal amount, Hash leftParentHash) {
+        Instant createTime = Instant.now();
+        List<BaseTransactionData> baseTransactions = new ArrayList<>();
+        baseTransactions.add(new InputBaseTransactionData(senderAddressHash, amount.negate(), createTime));
+        baseTransactions.add(new ReceiverBaseTransactionData(receiverAddressHash, amount, amount, createTime));
+        baseTransactions.forEach(baseTransactionData -> baseTransactionData.setHash(HashTestUtils.generateRandomHash()));
+        TransactionData transactionData = new TransactionData(baseTransactions, HashTestUtils.generateRandomHash(), "", SENDER_TRUST_SCORE, createTime, TransactionType.Transfer);
+        transactionData.setLeftParentHash(leftParentHash);
+        transactionData.setAttachmentTime(createTime);
+        transactionData.setChildrenTransactionHashes(new ArrayList<>());
+        return transactionData;
+    }
+
+    /**
+     * Appends to the chain a transfer of one coin which is the child of the last transaction of the chain.
+     *
+     * @return the appended transaction
+     */
+    public static TransactionData addChainTransaction(List<TransactionData> chain, Hash senderAddressHash, Hash receiverAddressHash) {
+        TransactionData parentTransactionData = chain.isEmpty() ? null : chain.get(chain.size() - 1);
+        TransactionData transactionData = createTransferTransaction(senderAddressHash, receiverAddressHash, BigDecimal.ONE,
+                parentTransactionData != null ? parentTransactionData.getHash() : null);
+        if (parentTransactionData != null) {
+            parentTransactionData.addToChildrenTransactions(transactionData.getHash());
+        }
+        chain.add(transactionData);
+        return transactionData;
+    }
+}
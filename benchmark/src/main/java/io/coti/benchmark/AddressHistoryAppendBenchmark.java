@@ -0,0 +1,104 @@
+package io.coti.benchmark;
+
+import io.coti.basenode.data.AddressTransactionsHistory;
+import io.coti.basenode.data.AddressTransactionsHistoryEntry;
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.database.ColumnFamilyProfile;
+import io.coti.basenode.database.codec.AddressTransactionsHistoryCodec;
+import io.coti.basenode.database.codec.AddressTransactionsHistoryEntryCodec;
+import io.coti.benchmark.fixtures.TransactionDataFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.rocksdb.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding a transaction to the history of an active address. The legacy append reads the whole history,
+ * adds the transaction hash and rewrites it, as the address transaction histories did, the current append writes one
+ * entry, as {@link io.coti.basenode.model.AddressTransactionsHistoryEntries} does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddressHistoryAppendBenchmark {
+
+    private static final long BLOCK_CACHE_SIZE = 134217728;
+    private static final int BLOOM_FILTER_BITS_PER_KEY = 10;
+    @Param({"1000", "100000"})
+    private int historySize;
+    private Path dbPath;
+    private Cache blockCache;
+    private Filter bloomFilter;
+    private ColumnFamilyOptions columnFamilyOptions;
+    private RocksDB db;
+    private ColumnFamilyHandle columnFamilyHandle;
+    private final List<ColumnFamilyHandle> columnFamilyHandles = new ArrayList<>();
+    private final AddressTransactionsHistoryCodec addressTransactionsHistoryCodec = new AddressTransactionsHistoryCodec();
+    private final AddressTransactionsHistoryEntryCodec addressTransactionsHistoryEntryCodec = new AddressTransactionsHistoryEntryCodec();
+    private Hash addressHash;
+    private byte[] legacyKey;
+
+    @Setup(Level.Iteration)
+    public void setup() throws RocksDBException, IOException {
+        RocksDB.loadLibrary();
+        dbPath = Files.createTempDirectory("address-history-append-benchmark");
+        blockCache = new LRUCache(BLOCK_CACHE_SIZE);
+        bloomFilter = new BloomFilter(BLOOM_FILTER_BITS_PER_KEY, false);
+        columnFamilyOptions = ColumnFamilyProfile.POINT_LOOKUP.createColumnFamilyOptions(blockCache, bloomFilter);
+        try (DBOptions dbOptions = new DBOptions().setCreateIfMissing(true)) {
+            db = RocksDB.open(dbOptions, dbPath.toString(), Collections.singletonList(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, columnFamilyOptions)), columnFamilyHandles);
+        }
+        columnFamilyHandle = columnFamilyHandles.get(0);
+        Random random = new Random(1);
+        AddressTransactionsHistory addressTransactionsHistory = TransactionDataFixtures.createAddressTransactionsHistory(historySize, random);
+        addressHash = addressTransactionsHistory.getHash();
+        legacyKey = addressHash.getBytes();
+        db.put(columnFamilyHandle, legacyKey, addressTransactionsHistoryCodec.encode(addressTransactionsHistory));
+        Instant createTime = Instant.now();
+        for (Hash transactionHash : addressTransactionsHistory.getTransactionsHistory()) {
+            appendEntry(transactionHash, createTime);
+        }
+    }
+
+    @Benchmark
+    public void appendLegacy() throws RocksDBException {
+        AddressTransactionsHistory addressTransactionsHistory = addressTransactionsHistoryCodec.decode(db.get(columnFamilyHandle, legacyKey));
+        addressTransactionsHistory.setHash(addressHash);
+        addressTransactionsHistory.addTransactionHashToHistory(TransactionDataFixtures.randomHash(ThreadLocalRandom.current()));
+        db.put(columnFamilyHandle, legacyKey, addressTransactionsHistoryCodec.encode(addressTransactionsHistory));
+    }
+
+    @Benchmark
+    public void appendEntry() throws RocksDBException {
+        appendEntry(TransactionDataFixtures.randomHash(ThreadLocalRandom.current()), Instant.now());
+    }
+
+    private void appendEntry(Hash transactionHash, Instant createTime) throws RocksDBException {
+        AddressTransactionsHistoryEntry addressTransactionsHistoryEntry = new AddressTransactionsHistoryEntry(addressHash, transactionHash, createTime);
+        db.put(columnFamilyHandle, addressTransactionsHistoryEntry.getHash().getBytes(), addressTransactionsHistoryEntryCodec.encode(addressTransactionsHistoryEntry));
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        columnFamilyHandles.forEach(ColumnFamilyHandle::close);
+        columnFamilyHandles.clear();
+        db.close();
+        columnFamilyOptions.close();
+        bloomFilter.close();
+        blockCache.close();
+        FileSystemUtils.deleteRecursively(dbPath.toFile());
+    }
+}
@@ -0,0 +1,131 @@
+package io.coti.benchmark;
+
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.database.ColumnFamilyProfile;
+import io.coti.basenode.database.codec.TransactionDataCodec;
+import io.coti.benchmark.fixtures.TransactionDataFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.rocksdb.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures reading a page of transactions by their hashes, as the transaction batch and the explorer pages do: one
+ * get per hash, as {@link io.coti.basenode.model.Collection#getByHash(io.coti.basenode.data.Hash)} does, against one
+ * multi get per page, as {@link io.coti.basenode.model.Collection#multiGetByHashes(List, boolean)} does, with
+ * sequential and with parallel decoding.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollectionMultiGetBenchmark {
+
+    private static final int DISTINCT_TRANSACTIONS = 500;
+    private static final long BLOCK_CACHE_SIZE = 134217728;
+    private static final int BLOOM_FILTER_BITS_PER_KEY = 10;
+    @Param({"100", "1000", "10000"})
+    private int pageSize;
+    @Param({"200000"})
+    private int transactionCount;
+    private Path dbPath;
+    private Cache blockCache;
+    private Filter bloomFilter;
+    private ColumnFamilyOptions columnFamilyOptions;
+    private RocksDB db;
+    private ColumnFamilyHandle columnFamilyHandle;
+    private final List<ColumnFamilyHandle> columnFamilyHandles = new ArrayList<>();
+    private final TransactionDataCodec transactionDataCodec = new TransactionDataCodec();
+    private byte[][] keys;
+
+    @Setup
+    public void setup() throws RocksDBException, IOException {
+        RocksDB.loadLibrary();
+        dbPath = Files.createTempDirectory("collection-multi-get-benchmark");
+        blockCache = new LRUCache(BLOCK_CACHE_SIZE);
+        bloomFilter = new BloomFilter(BLOOM_FILTER_BITS_PER_KEY, false);
+        columnFamilyOptions = ColumnFamilyProfile.POINT_LOOKUP.createColumnFamilyOptions(blockCache, bloomFilter);
+        try (DBOptions dbOptions = new DBOptions().setCreateIfMissing(true)) {
+            db = RocksDB.open(dbOptions, dbPath.toString(), Collections.singletonList(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, columnFamilyOptions)), columnFamilyHandles);
+        }
+        columnFamilyHandle = columnFamilyHandles.get(0);
+        load();
+    }
+
+    private void load() throws RocksDBException {
+        Random random = new Random(1);
+        List<TransactionData> transactions = new ArrayList<>();
+        for (int i = 0; i < DISTINCT_TRANSACTIONS; i++) {
+            transactions.add(TransactionDataFixtures.createTransaction(BigDecimal.valueOf(random.nextInt(1000) + 1L), random.nextInt(100), random));
+        }
+        keys = new byte[transactionCount][];
+        try (WriteOptions writeOptions = new WriteOptions().setDisableWAL(true)) {
+            for (int i = 0; i < transactionCount; i++) {
+                TransactionData transactionData = transactions.get(i % DISTINCT_TRANSACTIONS);
+                transactionData.setLeftParentHash(TransactionDataFixtures.randomHash(random));
+                transactionData.setRightParentHash(TransactionDataFixtures.randomHash(random));
+                keys[i] = TransactionDataFixtures.randomHash(random).getBytes();
+                db.put(columnFamilyHandle, writeOptions, keys[i], transactionDataCodec.encode(transactionData));
+            }
+        }
+        try (FlushOptions flushOptions = new FlushOptions().setWaitForFlush(true)) {
+            db.flush(flushOptions, columnFamilyHandle);
+        }
+        db.compactRange(columnFamilyHandle);
+    }
+
+    private List<byte[]> getPageKeys() {
+        int start = ThreadLocalRandom.current().nextInt(transactionCount - pageSize);
+        return Arrays.asList(keys).subList(start, start + pageSize);
+    }
+
+    @Benchmark
+    public List<TransactionData> getByHashes() throws RocksDBException {
+        List<TransactionData> page = new ArrayList<>(pageSize);
+        for (byte[] key : getPageKeys()) {
+            page.add(transactionDataCodec.decode(db.get(columnFamilyHandle, key)));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<TransactionData> multiGetByHashes() throws RocksDBException {
+        return decode(multiGet(getPageKeys()), false);
+    }
+
+    @Benchmark
+    public List<TransactionData> multiGetByHashesParallelDeserialization() throws RocksDBException {
+        return decode(multiGet(getPageKeys()), true);
+    }
+
+    private List<byte[]> multiGet(List<byte[]> pageKeys) throws RocksDBException {
+        return db.multiGetAsList(Collections.nCopies(pageKeys.size(), columnFamilyHandle), pageKeys);
+    }
+
+    private List<TransactionData> decode(List<byte[]> values, boolean parallelDeserialization) {
+        List<TransactionData> page = new ArrayList<>(Collections.nCopies(values.size(), null));
+        IntStream indexes = IntStream.range(0, values.size());
+        (parallelDeserialization ? indexes.parallel() : indexes).forEach(i -> page.set(i, transactionDataCodec.decode(values.get(i))));
+        return page;
+    }
+
+    @TearDown
+    public void tearDown() {
+        columnFamilyHandles.forEach(ColumnFamilyHandle::close);
+        db.close();
+        columnFamilyOptions.close();
+        bloomFilter.close();
+        blockCache.close();
+        FileSystemUtils.deleteRecursively(dbPath.toFile());
+    }
+}
@@ -0,0 +1,91 @@
+package io.coti.benchmark;
+
+import io.coti.benchmark.fixtures.TransactionDataFixtures;
+import io.coti.basenode.data.AddressTransactionsHistory;
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.data.TransactionIndexData;
+import io.coti.basenode.database.codec.AddressTransactionsHistoryCodec;
+import io.coti.basenode.database.codec.JavaSerializationCodec;
+import io.coti.basenode.database.codec.TransactionDataCodec;
+import io.coti.basenode.database.codec.TransactionIndexDataCodec;
+import io.coti.basenode.database.interfaces.IEntityCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the value encoding that {@link io.coti.basenode.model.Collection} applies on every put and get, with the
+ * legacy Java serialization and with the binary codecs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollectionSerializationBenchmark {
+
+    private static final String JAVA_SERIALIZATION = "java";
+    @Param({"10", "1000"})
+    private int addressHistorySize;
+    @Param({JAVA_SERIALIZATION, "binary"})
+    private String codec;
+    private IEntityCodec<TransactionData> transactionDataCodec;
+    private IEntityCodec<TransactionIndexData> transactionIndexDataCodec;
+    private IEntityCodec<AddressTransactionsHistory> addressTransactionsHistoryCodec;
+    private TransactionData transactionData;
+    private TransactionIndexData transactionIndexData;
+    private AddressTransactionsHistory addressTransactionsHistory;
+    private byte[] serializedTransactionData;
+    private byte[] serializedTransactionIndexData;
+    private byte[] serializedAddressTransactionsHistory;
+
+    @Setup
+    public void setup() {
+        boolean javaSerialization = JAVA_SERIALIZATION.equals(codec);
+        transactionDataCodec = javaSerialization ? new JavaSerializationCodec<>() : new TransactionDataCodec();
+        transactionIndexDataCodec = javaSerialization ? new JavaSerializationCodec<>() : new TransactionIndexDataCodec();
+        addressTransactionsHistoryCodec = javaSerialization ? new JavaSerializationCodec<>() : new AddressTransactionsHistoryCodec();
+        Random random = new Random(1);
+        transactionData = TransactionDataFixtures.createTransaction(BigDecimal.TEN, 75, random);
+        transactionData.setDspConsensusResult(TransactionDataFixtures.createDspConsensusResult(transactionData.getHash(), 1000));
+        transactionData.setTrustChainConsensus(true);
+        transactionIndexData = new TransactionIndexData(transactionData.getHash(), 1000, TransactionDataFixtures.randomHash(random).getBytes());
+        addressTransactionsHistory = TransactionDataFixtures.createAddressTransactionsHistory(addressHistorySize, random);
+        serializedTransactionData = transactionDataCodec.encode(transactionData);
+        serializedTransactionIndexData = transactionIndexDataCodec.encode(transactionIndexData);
+        serializedAddressTransactionsHistory = addressTransactionsHistoryCodec.encode(addressTransactionsHistory);
+    }
+
+    @Benchmark
+    public byte[] serializeTransactionData() {
+        return transactionDataCodec.encode(transactionData);
+    }
+
+    @Benchmark
+    public Object deserializeTransactionData() {
+        return transactionDataCodec.decode(serializedTransactionData);
+    }
+
+    @Benchmark
+    public byte[] serializeTransactionIndexData() {
+        return transactionIndexDataCodec.encode(transactionIndexData);
+    }
+
+    @Benchmark
+    public Object deserializeTransactionIndexData() {
+        return transactionIndexDataCodec.decode(serializedTransactionIndexData);
+    }
+
+    @Benchmark
+    public byte[] serializeAddressTransactionsHistory() {
+        return addressTransactionsHistoryCodec.encode(addressTransactionsHistory);
+    }
+
+    @Benchmark
+    public Object deserializeAddressTransactionsHistory() {
+        return addressTransactionsHistoryCodec.decode(serializedAddressTransactionsHistory);
+    }
+}
@@ -0,0 +1,64 @@
+package io.coti.benchmark;
+
+import io.coti.benchmark.fixtures.TransactionDataFixtures;
+import io.coti.basenode.data.Hash;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashBenchmark {
+
+    private static final int SORTED_HASHES = 1000;
+    private Hash hash;
+    private Hash otherHash;
+    private Hash equalHash;
+    private Hash[] hashes;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        hash = TransactionDataFixtures.randomHash(random);
+        otherHash = TransactionDataFixtures.randomHash(random);
+        equalHash = new Hash(hash.getBytes().clone());
+        hashes = new Hash[SORTED_HASHES];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = TransactionDataFixtures.randomHash(random);
+        }
+    }
+
+    @Benchmark
+    public int compareTo() {
+        return hash.compareTo(otherHash);
+    }
+
+    @Benchmark
+    public int compareToEqual() {
+        return hash.compareTo(equalHash);
+    }
+
+    @Benchmark
+    public boolean equalsEqual() {
+        return hash.equals(equalHash);
+    }
+
+    @Benchmark
+    public int hashCodeOfHash() {
+        return hash.hashCode();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Hash[] sort() {
+        Hash[] sortedHashes = hashes.clone();
+        Arrays.sort(sortedHashes);
+        return sortedHashes;
+    }
+}
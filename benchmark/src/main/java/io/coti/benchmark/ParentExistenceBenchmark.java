@@ -0,0 +1,138 @@
+package io.coti.benchmark;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.RecentHashesData;
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.database.ColumnFamilyProfile;
+import io.coti.basenode.database.codec.TransactionDataCodec;
+import io.coti.benchmark.fixtures.TransactionDataFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.rocksdb.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the existence checks of a propagated transaction: whether the transaction is already stored and whether
+ * both of its parents are stored. The legacy checks read and decode the transactions, as
+ * {@link io.coti.basenode.model.Collection#getByHash(Hash)} does, the current checks use the recent hashes and
+ * keyMayExist, as {@link io.coti.basenode.model.Collection#exists(Hash)} does. The parents are taken from the most
+ * recently stored transactions, as the parents selected by the sources of a live node are.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParentExistenceBenchmark {
+
+    private static final int DISTINCT_TRANSACTIONS = 500;
+    private static final long BLOCK_CACHE_SIZE = 134217728;
+    private static final int BLOOM_FILTER_BITS_PER_KEY = 10;
+    private static final int RECENT_HASHES_SIZE = 100000;
+    private static final int RECENT_PARENTS = 10000;
+    private static final byte[] NO_VALUE_BUFFER = new byte[0];
+    @Param({"1000000"})
+    private int transactionCount;
+    private Path dbPath;
+    private Cache blockCache;
+    private Filter bloomFilter;
+    private ColumnFamilyOptions columnFamilyOptions;
+    private RocksDB db;
+    private ColumnFamilyHandle columnFamilyHandle;
+    private final List<ColumnFamilyHandle> columnFamilyHandles = new ArrayList<>();
+    private final TransactionDataCodec transactionDataCodec = new TransactionDataCodec();
+    private final RecentHashesData recentHashes = new RecentHashesData(RECENT_HASHES_SIZE);
+    private Hash[] storedHashes;
+    private Hash[] propagatedHashes;
+
+    @Setup
+    public void setup() throws RocksDBException, IOException {
+        RocksDB.loadLibrary();
+        dbPath = Files.createTempDirectory("parent-existence-benchmark");
+        blockCache = new LRUCache(BLOCK_CACHE_SIZE);
+        bloomFilter = new BloomFilter(BLOOM_FILTER_BITS_PER_KEY, false);
+        columnFamilyOptions = ColumnFamilyProfile.POINT_LOOKUP.createColumnFamilyOptions(blockCache, bloomFilter);
+        try (DBOptions dbOptions = new DBOptions().setCreateIfMissing(true)) {
+            db = RocksDB.open(dbOptions, dbPath.toString(), Collections.singletonList(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, columnFamilyOptions)), columnFamilyHandles);
+        }
+        columnFamilyHandle = columnFamilyHandles.get(0);
+        load();
+    }
+
+    private void load() throws RocksDBException {
+        Random random = new Random(1);
+        List<TransactionData> transactions = new ArrayList<>();
+        for (int i = 0; i < DISTINCT_TRANSACTIONS; i++) {
+            transactions.add(TransactionDataFixtures.createTransaction(BigDecimal.valueOf(random.nextInt(1000) + 1L), random.nextInt(100), random));
+        }
+        storedHashes = new Hash[transactionCount];
+        propagatedHashes = new Hash[transactionCount];
+        try (WriteOptions writeOptions = new WriteOptions().setDisableWAL(true)) {
+            for (int i = 0; i < transactionCount; i++) {
+                TransactionData transactionData = transactions.get(i % DISTINCT_TRANSACTIONS);
+                transactionData.setLeftParentHash(TransactionDataFixtures.randomHash(random));
+                transactionData.setRightParentHash(TransactionDataFixtures.randomHash(random));
+                storedHashes[i] = TransactionDataFixtures.randomHash(random);
+                propagatedHashes[i] = TransactionDataFixtures.randomHash(random);
+                db.put(columnFamilyHandle, writeOptions, storedHashes[i].getBytes(), transactionDataCodec.encode(transactionData));
+                recentHashes.add(storedHashes[i]);
+            }
+        }
+        try (FlushOptions flushOptions = new FlushOptions().setWaitForFlush(true)) {
+            db.flush(flushOptions, columnFamilyHandle);
+        }
+        db.compactRange(columnFamilyHandle);
+    }
+
+    @Benchmark
+    public boolean checkPropagatedTransaction() throws RocksDBException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return !exists(propagatedHashes[random.nextInt(transactionCount)])
+                && exists(getRecentParentHash(random)) && exists(getRecentParentHash(random));
+    }
+
+    @Benchmark
+    public boolean checkPropagatedTransactionLegacy() throws RocksDBException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return getByHash(propagatedHashes[random.nextInt(transactionCount)]) == null
+                && getByHash(getRecentParentHash(random)) != null && getByHash(getRecentParentHash(random)) != null;
+    }
+
+    private Hash getRecentParentHash(ThreadLocalRandom random) {
+        return storedHashes[transactionCount - 1 - random.nextInt(RECENT_PARENTS)];
+    }
+
+    private boolean exists(Hash hash) throws RocksDBException {
+        if (recentHashes.contains(hash)) {
+            return true;
+        }
+        byte[] key = hash.getBytes();
+        return db.keyMayExist(columnFamilyHandle, key, new StringBuilder()) && db.get(columnFamilyHandle, key, NO_VALUE_BUFFER) != RocksDB.NOT_FOUND;
+    }
+
+    private TransactionData getByHash(Hash hash) throws RocksDBException {
+        byte[] bytes = db.get(columnFamilyHandle, hash.getBytes());
+        return bytes == null || bytes.length == 0 ? null : transactionDataCodec.decode(bytes);
+    }
+
+    @TearDown
+    public void tearDown() {
+        columnFamilyHandles.forEach(ColumnFamilyHandle::close);
+        db.close();
+        columnFamilyOptions.close();
+        bloomFilter.close();
+        blockCache.close();
+        FileSystemUtils.deleteRecursively(dbPath.toFile());
+    }
+}
@@ -0,0 +1,47 @@
+package io.coti.benchmark;
+
+import io.coti.benchmark.fixtures.TransactionDataFixtures;
+import io.coti.basenode.data.TransactionData;
+import io.coti.pot.ProofOfTrust;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static javax.xml.bind.DatatypeConverter.parseHexBinary;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProofOfTrustBenchmark {
+
+    @Param({"10", "50", "100"})
+    private int trustScore;
+    @Param({"1", "4"})
+    private int parallelism;
+    private byte[] targetDifficulty;
+    private byte[] transactionHash;
+    private int[] nonces;
+
+    @Setup
+    public void setup() {
+        targetDifficulty = parseHexBinary(TransactionDataFixtures.DIFFICULTY);
+        TransactionData transactionData = TransactionDataFixtures.createTransaction(BigDecimal.TEN, trustScore, new Random(trustScore));
+        transactionHash = transactionData.getHash().getBytes();
+        nonces = new ProofOfTrust(trustScore).hash(transactionHash, targetDifficulty);
+    }
+
+    @Benchmark
+    public int[] hash() {
+        return new ProofOfTrust(trustScore, parallelism).hash(transactionHash, targetDifficulty);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return new ProofOfTrust(trustScore).verify(transactionHash, nonces, targetDifficulty);
+    }
+}
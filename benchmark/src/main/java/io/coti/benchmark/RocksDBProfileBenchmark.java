@@ -0,0 +1,110 @@
+package io.coti.benchmark;
+
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.database.ColumnFamilyProfile;
+import io.coti.basenode.database.codec.TransactionDataCodec;
+import io.coti.benchmark.fixtures.TransactionDataFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.rocksdb.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the column family profiles of {@link io.coti.basenode.database.BaseNodeRocksDBConnector} with untuned
+ * RocksDB options on a compacted transactions column family: gets of existing keys, gets of missing keys and, printed
+ * at the end of the trial, the size of the sst files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RocksDBProfileBenchmark {
+
+    private static final String UNTUNED = "UNTUNED";
+    private static final int DISTINCT_TRANSACTIONS = 500;
+    private static final long BLOCK_CACHE_SIZE = 134217728;
+    private static final int BLOOM_FILTER_BITS_PER_KEY = 10;
+    @Param({UNTUNED, "POINT_LOOKUP", "APPEND_LOG", "SMALL_METADATA"})
+    private String profile;
+    @Param({"100000"})
+    private int transactionCount;
+    private Path dbPath;
+    private Cache blockCache;
+    private Filter bloomFilter;
+    private ColumnFamilyOptions columnFamilyOptions;
+    private RocksDB db;
+    private final List<ColumnFamilyHandle> columnFamilyHandles = new ArrayList<>();
+    private byte[][] existingKeys;
+    private byte[][] missingKeys;
+
+    @Setup
+    public void setup() throws RocksDBException, IOException {
+        RocksDB.loadLibrary();
+        dbPath = Files.createTempDirectory("rocksdb-profile-benchmark");
+        blockCache = new LRUCache(BLOCK_CACHE_SIZE);
+        bloomFilter = new BloomFilter(BLOOM_FILTER_BITS_PER_KEY, false);
+        columnFamilyOptions = UNTUNED.equals(profile) ? new ColumnFamilyOptions() : ColumnFamilyProfile.valueOf(profile).createColumnFamilyOptions(blockCache, bloomFilter);
+        try (DBOptions dbOptions = new DBOptions().setCreateIfMissing(true)) {
+            db = RocksDB.open(dbOptions, dbPath.toString(), Collections.singletonList(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, columnFamilyOptions)), columnFamilyHandles);
+        }
+        load();
+    }
+
+    private void load() throws RocksDBException {
+        Random random = new Random(1);
+        TransactionDataCodec transactionDataCodec = new TransactionDataCodec();
+        List<TransactionData> transactions = new ArrayList<>();
+        for (int i = 0; i < DISTINCT_TRANSACTIONS; i++) {
+            transactions.add(TransactionDataFixtures.createTransaction(BigDecimal.valueOf(random.nextInt(1000) + 1L), random.nextInt(100), random));
+        }
+        existingKeys = new byte[transactionCount][];
+        missingKeys = new byte[transactionCount][];
+        try (WriteOptions writeOptions = new WriteOptions().setDisableWAL(true)) {
+            for (int i = 0; i < transactionCount; i++) {
+                TransactionData transactionData = transactions.get(i % DISTINCT_TRANSACTIONS);
+                transactionData.setLeftParentHash(TransactionDataFixtures.randomHash(random));
+                transactionData.setRightParentHash(TransactionDataFixtures.randomHash(random));
+                existingKeys[i] = TransactionDataFixtures.randomHash(random).getBytes();
+                missingKeys[i] = TransactionDataFixtures.randomHash(random).getBytes();
+                db.put(columnFamilyHandles.get(0), writeOptions, existingKeys[i], transactionDataCodec.encode(transactionData));
+            }
+        }
+        try (FlushOptions flushOptions = new FlushOptions().setWaitForFlush(true)) {
+            db.flush(flushOptions, columnFamilyHandles.get(0));
+        }
+        db.compactRange(columnFamilyHandles.get(0));
+    }
+
+    @Benchmark
+    public byte[] getExisting() throws RocksDBException {
+        return db.get(columnFamilyHandles.get(0), existingKeys[ThreadLocalRandom.current().nextInt(transactionCount)]);
+    }
+
+    @Benchmark
+    public byte[] getMissing() throws RocksDBException {
+        return db.get(columnFamilyHandles.get(0), missingKeys[ThreadLocalRandom.current().nextInt(transactionCount)]);
+    }
+
+    @TearDown
+    public void tearDown() throws RocksDBException {
+        System.out.printf("%n%s sst files size: %s bytes%n", profile, db.getProperty(columnFamilyHandles.get(0), "rocksdb.total-sst-files-size"));
+        columnFamilyHandles.forEach(ColumnFamilyHandle::close);
+        db.close();
+        columnFamilyOptions.close();
+        bloomFilter.close();
+        blockCache.close();
+        FileSystemUtils.deleteRecursively(dbPath.toFile());
+    }
+}
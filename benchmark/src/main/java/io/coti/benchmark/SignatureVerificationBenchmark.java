@@ -0,0 +1,87 @@
+package io.coti.benchmark;
+
+import io.coti.benchmark.fixtures.TransactionDataFixtures;
+import io.coti.basenode.crypto.CryptoHelper;
+import io.coti.basenode.crypto.ExpandedTransactionTrustScoreCrypto;
+import io.coti.basenode.crypto.TransactionCrypto;
+import io.coti.basenode.crypto.TransactionSenderCrypto;
+import io.coti.basenode.data.ExpandedTransactionTrustScoreData;
+import io.coti.basenode.data.SignatureData;
+import io.coti.basenode.data.TransactionData;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignatureVerificationBenchmark {
+
+    private final TransactionCrypto transactionCrypto = new TransactionCrypto();
+    private final TransactionSenderCrypto transactionSenderCrypto = new TransactionSenderCrypto();
+    private final ExpandedTransactionTrustScoreCrypto expandedTransactionTrustScoreCrypto = new ExpandedTransactionTrustScoreCrypto();
+    private TransactionData transactionData;
+    private ExpandedTransactionTrustScoreData expandedTransactionTrustScoreData;
+    private byte[] senderSignatureMessage;
+    private SignatureData senderSignature;
+    private String senderPublicKey;
+    private PublicKey decodedSenderPublicKey;
+
+    @Setup
+    public void setup() throws InvalidKeySpecException, NoSuchAlgorithmException {
+        transactionData = TransactionDataFixtures.createTransaction(BigDecimal.TEN, 75, new Random(1));
+        expandedTransactionTrustScoreData = new ExpandedTransactionTrustScoreData(transactionData.getSenderHash(), transactionData.getHash(), transactionData.getTrustScoreResults().get(0));
+        senderSignatureMessage = transactionSenderCrypto.getSignatureMessage(transactionData);
+        senderSignature = transactionData.getSenderSignature();
+        senderPublicKey = transactionData.getSenderHash().toHexString();
+        decodedSenderPublicKey = CryptoHelper.getPublicKeyFromHexString(senderPublicKey);
+    }
+
+    @Benchmark
+    public boolean verifyByHexPublicKey() throws InvalidKeySpecException, NoSuchAlgorithmException {
+        return CryptoHelper.verifyByPublicKey(senderSignatureMessage, senderSignature.getR(), senderSignature.getS(), senderPublicKey);
+    }
+
+    @Benchmark
+    public boolean verifyByUncachedPublicKey() throws InvalidKeySpecException, NoSuchAlgorithmException {
+        return CryptoHelper.verifyByPublicKey(senderSignatureMessage, senderSignature.getR(), senderSignature.getS(), CryptoHelper.getPublicKeyFromHexString(senderPublicKey));
+    }
+
+    @Benchmark
+    public boolean verifyByDecodedPublicKey() {
+        return CryptoHelper.verifyByPublicKey(senderSignatureMessage, senderSignature.getR(), senderSignature.getS(), decodedSenderPublicKey);
+    }
+
+    @Benchmark
+    public PublicKey decodePublicKey() throws InvalidKeySpecException, NoSuchAlgorithmException {
+        return CryptoHelper.getPublicKeyFromHexString(senderPublicKey);
+    }
+
+    @Benchmark
+    public boolean verifyTransactionSenderSignature() {
+        return transactionSenderCrypto.verifySignature(transactionData);
+    }
+
+    @Benchmark
+    public boolean verifyTransactionNodeSignature() {
+        return transactionCrypto.verifySignature(transactionData);
+    }
+
+    @Benchmark
+    public boolean verifyTrustScoreResultSignature() {
+        return expandedTransactionTrustScoreCrypto.verifySignature(expandedTransactionTrustScoreData);
+    }
+
+    @Benchmark
+    public boolean verifyTransaction() {
+        return transactionCrypto.isTransactionValid(transactionData);
+    }
+}
@@ -0,0 +1,131 @@
+package io.coti.benchmark;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.SourcesSnapshotData;
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.services.SourceSelector;
+import io.coti.benchmark.fixtures.TransactionDataFixtures;
+import org.apache.commons.lang3.SerializationUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Measures the source selection of every attachment. The legacy selection deep clones the neighbour sources under the
+ * cluster read lock and samples them linearly, as the source selector did before the sources snapshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SourceSelectionBenchmark {
+
+    private static final int MIN_SOURCE_PERCENTAGE = 10;
+    private static final int MAX_NEIGHBOURHOOD_RADIUS = 100;
+    @Param({"100", "2000"})
+    private int numberOfSources;
+    private final List<Set<Hash>> sourceSetsByTrustScore = new ArrayList<>();
+    private final Map<Hash, TransactionData> sourceMap = new HashMap<>();
+    private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+    private SourcesSnapshotData sourcesSnapshot = new SourcesSnapshotData();
+    private SourceSelector sourceSelector;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        for (int i = 0; i <= 100; i++) {
+            sourceSetsByTrustScore.add(new HashSet<>());
+        }
+        Instant now = Instant.now();
+        for (int i = 0; i < numberOfSources; i++) {
+            TransactionData transactionData = TransactionDataFixtures.createTransaction(BigDecimal.TEN, 40 + random.nextInt(40), random);
+            transactionData.setAttachmentTime(now.minusMillis(random.nextInt(60000)));
+            sourceSetsByTrustScore.get(transactionData.getRoundedSenderTrustScore()).add(transactionData.getHash());
+            sourceMap.put(transactionData.getHash(), transactionData);
+            sourcesSnapshot = sourcesSnapshot.addSource(transactionData);
+        }
+        sourceSelector = new SourceSelector();
+        setField("minSourcePercentage", MIN_SOURCE_PERCENTAGE);
+        setField("maxNeighbourhoodRadius", MAX_NEIGHBOURHOOD_RADIUS);
+    }
+
+    private void setField(String name, int value) {
+        Field field = ReflectionUtils.findField(SourceSelector.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, sourceSelector, value);
+    }
+
+    @Benchmark
+    public List<TransactionData> selectSources() {
+        return sourceSelector.selectSourcesForAttachment(sourcesSnapshot, 60);
+    }
+
+    @Benchmark
+    public List<TransactionData> selectSourcesLegacy() {
+        return selectTwoOptimalSourcesLegacy(getNeighbourSourcesLegacy(60));
+    }
+
+    private List<TransactionData> getNeighbourSourcesLegacy(double transactionTrustScore) {
+        List<TransactionData> neighbourSources = new LinkedList<>();
+        try {
+            readWriteLock.readLock().lock();
+            int roundedTrustScore = (int) Math.round(transactionTrustScore);
+            int lowIndex = roundedTrustScore - 1;
+            int highIndex = roundedTrustScore + 1;
+            neighbourSources.addAll(sourceSetsByTrustScore.get(roundedTrustScore).stream().map(hash -> SerializationUtils.clone(sourceMap.get(hash))).collect(toList()));
+            for (int trustScoreDifference = 0; trustScoreDifference < MAX_NEIGHBOURHOOD_RADIUS; trustScoreDifference++) {
+                if (lowIndex >= 0) {
+                    neighbourSources.addAll(sourceSetsByTrustScore.get(lowIndex).stream().map(hash -> SerializationUtils.clone(sourceMap.get(hash))).collect(toList()));
+                }
+                if (highIndex <= 100) {
+                    neighbourSources.addAll(sourceSetsByTrustScore.get(highIndex).stream().map(hash -> SerializationUtils.clone(sourceMap.get(hash))).collect(toList()));
+                }
+                if ((double) neighbourSources.size() / numberOfSources > (double) MIN_SOURCE_PERCENTAGE / 100) {
+                    break;
+                }
+                lowIndex--;
+                highIndex++;
+            }
+            return neighbourSources;
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    private List<TransactionData> selectTwoOptimalSourcesLegacy(List<TransactionData> transactions) {
+        Instant now = Instant.now();
+        List<TransactionData> olderSources = transactions.stream().filter(s -> !s.getAttachmentTime().isAfter(now)).collect(toList());
+        if (olderSources.size() <= 2) {
+            return olderSources;
+        }
+        long totalWeight = olderSources.stream().map(s -> Duration.between(s.getAttachmentTime(), now).toMillis()).mapToLong(Long::longValue).sum();
+        List<TransactionData> randomWeightedSources = new LinkedList<>();
+        while (randomWeightedSources.size() < 2) {
+            int randomIndex = -1;
+            double random = Math.random() * totalWeight;
+            for (int i = 0; i < olderSources.size(); ++i) {
+                random -= Duration.between(olderSources.get(i).getAttachmentTime(), now).toMillis();
+                if (random < 0.0d) {
+                    randomIndex = i;
+                    break;
+                }
+            }
+            TransactionData randomSource = olderSources.get(randomIndex);
+            if (randomWeightedSources.isEmpty() || (randomWeightedSources.size() == 1 && randomSource != randomWeightedSources.iterator().next())) {
+                randomWeightedSources.add(randomSource);
+            }
+        }
+        return randomWeightedSources;
+    }
+}
@@ -0,0 +1,116 @@
+package io.coti.benchmark.fixtures;
+
+import io.coti.basenode.crypto.BaseTransactionCrypto;
+import io.coti.basenode.crypto.CryptoHelper;
+import io.coti.basenode.crypto.DspConsensusCrypto;
+import io.coti.basenode.crypto.ExpandedTransactionTrustScoreCrypto;
+import io.coti.basenode.crypto.TransactionCrypto;
+import io.coti.basenode.crypto.TransactionSenderCrypto;
+import io.coti.basenode.data.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class TransactionDataFixtures {
+
+    public static final String SEED = "4f6ee3a4d2e1b1ce8fb6e3c9c2d14a76b62f1d9bdb4e1c1fa2f6d0c9a2b3c4d5";
+    public static final String DIFFICULTY = "00100000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000";
+    private static final BigDecimal FULL_NODE_FEE = new BigDecimal("0.01");
+    private static final BigDecimal NETWORK_FEE = new BigDecimal("0.02");
+    private static final String TRANSACTION_DESCRIPTION = "benchmark transaction";
+    public static final int SENDER_INDEX = 0;
+    public static final int RECEIVER_INDEX = 1;
+    public static final int FULL_NODE_INDEX = 2;
+    public static final int TRUST_SCORE_NODE_INDEX = 3;
+    public static final int ZERO_SPEND_SERVER_INDEX = 4;
+    private static final TransactionCrypto transactionCrypto = new TransactionCrypto();
+    private static final TransactionSenderCrypto transactionSenderCrypto = new TransactionSenderCrypto();
+    private static final ExpandedTransactionTrustScoreCrypto expandedTransactionTrustScoreCrypto = new ExpandedTransactionTrustScoreCrypto();
+    private static final DspConsensusCrypto dspConsensusCrypto = new DspConsensusCrypto();
+
+    private TransactionDataFixtures() {
+    }
+
+    public static String getPrivateKey(int index) {
+        return CryptoHelper.generatePrivateKey(SEED, index).toHexString();
+    }
+
+    public static String getPublicKey(int index) {
+        return CryptoHelper.getPublicKeyFromPrivateKey(getPrivateKey(index));
+    }
+
+    public static Hash getAddress(int index) {
+        return CryptoHelper.getAddressFromPrivateKey(getPrivateKey(index));
+    }
+
+    public static Hash randomHash(Random random) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return new Hash(bytes);
+    }
+
+    /**
+     * Creates a fully signed transfer transaction the way a full node would attach it: an input, full node fee,
+     * network fee with a trust score node result and a receiver base transaction, a signed trust score result,
+     * sender and node signatures, parents and nonces.
+     */
+    public static TransactionData createTransaction(BigDecimal amount, double trustScore, Random random) {
+        Instant createTime = Instant.now();
+        Hash senderAddress = getAddress(SENDER_INDEX);
+        Hash trustScoreNodeHash = new Hash(getPublicKey(TRUST_SCORE_NODE_INDEX));
+
+        List<BaseTransactionData> baseTransactions = new ArrayList<>();
+        baseTransactions.add(new InputBaseTransactionData(senderAddress, amount.add(FULL_NODE_FEE).add(NETWORK_FEE).negate(), createTime));
+        baseTransactions.add(new FullNodeFeeData(getAddress(FULL_NODE_INDEX), FULL_NODE_FEE, FULL_NODE_FEE, createTime));
+        NetworkFeeData networkFeeData = new NetworkFeeData(getAddress(TRUST_SCORE_NODE_INDEX), NETWORK_FEE, NETWORK_FEE, NETWORK_FEE, createTime);
+        baseTransactions.add(networkFeeData);
+        baseTransactions.add(new ReceiverBaseTransactionData(getAddress(RECEIVER_INDEX), amount, amount, createTime));
+
+        TransactionData transactionData = new TransactionData(baseTransactions, TRANSACTION_DESCRIPTION, trustScore, createTime, TransactionType.Transfer);
+        transactionCrypto.setTransactionHash(transactionData);
+
+        baseTransactions.get(0).setSignature(CryptoHelper.signBytes(BaseTransactionCrypto.INPUT_BASE_TRANSACTION_DATA.getSignatureMessage(transactionData), getPrivateKey(SENDER_INDEX)));
+        baseTransactions.get(1).setSignature(CryptoHelper.signBytes(BaseTransactionCrypto.FULL_NODE_FEE_DATA.getSignatureMessage(transactionData), getPrivateKey(FULL_NODE_INDEX)));
+        TrustScoreNodeResultData trustScoreNodeResultData = new TrustScoreNodeResultData(trustScoreNodeHash, true);
+        trustScoreNodeResultData.setSignature(CryptoHelper.signBytes(BaseTransactionCrypto.NETWORK_FEE_DATA.getSignatureMessage(transactionData, trustScoreNodeResultData), getPrivateKey(TRUST_SCORE_NODE_INDEX)));
+        networkFeeData.setTrustScoreNodeResult(new ArrayList<>(Collections.singletonList(trustScoreNodeResultData)));
+
+        Hash senderHash = new Hash(getPublicKey(SENDER_INDEX));
+        ExpandedTransactionTrustScoreData expandedTransactionTrustScoreData = new ExpandedTransactionTrustScoreData(senderHash, transactionData.getHash(), trustScore);
+        expandedTransactionTrustScoreData.setSignerHash(trustScoreNodeHash);
+        expandedTransactionTrustScoreData.setSignature(CryptoHelper.signBytes(expandedTransactionTrustScoreCrypto.getSignatureMessage(expandedTransactionTrustScoreData), getPrivateKey(TRUST_SCORE_NODE_INDEX)));
+        transactionData.setTrustScoreResults(new ArrayList<>(Collections.singletonList(new TransactionTrustScoreData(expandedTransactionTrustScoreData))));
+
+        transactionData.setSenderHash(senderHash);
+        transactionData.setSenderSignature(CryptoHelper.signBytes(transactionSenderCrypto.getSignatureMessage(transactionData), getPrivateKey(SENDER_INDEX)));
+        transactionData.setLeftParentHash(randomHash(random));
+        transactionData.setRightParentHash(randomHash(random));
+        transactionData.setNonces(new int[]{random.nextInt(8192), random.nextInt(8192), random.nextInt(8192)});
+        transactionData.setAttachmentTime(Instant.now());
+        transactionData.setSignerHash(new Hash(getPublicKey(FULL_NODE_INDEX)));
+        transactionData.setSignature(CryptoHelper.signBytes(transactionCrypto.getSignatureMessage(transactionData), getPrivateKey(FULL_NODE_INDEX)));
+        return transactionData;
+    }
+
+    public static DspConsensusResult createDspConsensusResult(Hash transactionHash, long index) {
+        DspConsensusResult dspConsensusResult = new DspConsensusResult(transactionHash);
+        dspConsensusResult.setDspConsensus(true);
+        dspConsensusResult.setIndex(index);
+        dspConsensusResult.setIndexingTime(Instant.now());
+        dspConsensusResult.setSignerHash(new Hash(getPublicKey(ZERO_SPEND_SERVER_INDEX)));
+        dspConsensusResult.setSignature(CryptoHelper.signBytes(dspConsensusCrypto.getSignatureMessage(dspConsensusResult), getPrivateKey(ZERO_SPEND_SERVER_INDEX)));
+        return dspConsensusResult;
+    }
+
+    public static AddressTransactionsHistory createAddressTransactionsHistory(int historySize, Random random) {
+        AddressTransactionsHistory addressTransactionsHistory = new AddressTransactionsHistory(getAddress(SENDER_INDEX));
+        for (int i = 0; i < historySize; i++) {
+            addressTransactionsHistory.addTransactionHashToHistory(randomHash(random));
+        }
+        return addressTransactionsHistory;
+    }
+}
@@ -17,6 +17,7 @@ public class ShutDownService extends BaseNodeShutDownService {
         propagationPublisher.shutdown();
         transactionService.shutdown();
         confirmationService.shutdown();
+        databaseMigrationService.shutdown();
         databaseConnector.shutdown();
     }
 }
@@ -204,9 +204,12 @@ public class DisputeService {
             if (!userDisputeHashes.contains(disputeHash)) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new Response(DISPUTE_UNAUTHORIZED, STATUS_ERROR));
             }
-            DisputeData disputeData = disputes.getByHash(disputeHash);
+        }
+        List<DisputeData> requestedDisputesData = disputes.multiGetByHashes(getDisputesData.getDisputeHashes());
+        for (int i = 0; i < requestedDisputesData.size(); i++) {
+            DisputeData disputeData = requestedDisputesData.get(i);
             if (disputeData == null) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new Response(disputeHash + " " + DISPUTE_NOT_FOUND, STATUS_ERROR));
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new Response(getDisputesData.getDisputeHashes().get(i) + " " + DISPUTE_NOT_FOUND, STATUS_ERROR));
             }
             disputesData.add(disputeData);
         }
@@ -225,17 +228,21 @@ public class DisputeService {
 
         DisputeHistoryData disputeHistoryData = disputeHistory.getByHash(getDisputeHistoryData.getDisputeHash());
         if (disputeHistoryData != null) {
+            List<Hash> disputeEventHashes = new ArrayList<>();
+            List<ActionSide> eventDisplaySides = new ArrayList<>();
             disputeHistoryData.getDisputeEventHashToEventDisplayUserMap().forEach((disputeEventHash, userHashToEventDisplaySideMap) -> {
                 ActionSide eventDisplaySide = userHashToEventDisplaySideMap.get(getDisputeHistoryData.getUserHash());
                 if (eventDisplaySide != null) {
-                    boolean eventRead = true;
-                    UnreadUserDisputeEventData unreadUserDisputeEventData = unreadUserDisputeEvents.getByHash(getDisputeHistoryData.getUserHash());
-                    if (unreadUserDisputeEventData != null && unreadUserDisputeEventData.getDisputeEventHashToEventDisplaySideMap().get(disputeEventHash) != null) {
-                        eventRead = false;
-                    }
-                    disputeEventResponses.add(new DisputeEventResponseData(disputeEvents.getByHash(disputeEventHash), getDisputeHistoryData.getUserHash(), eventDisplaySide, eventRead));
+                    disputeEventHashes.add(disputeEventHash);
+                    eventDisplaySides.add(eventDisplaySide);
                 }
             });
+            UnreadUserDisputeEventData unreadUserDisputeEventData = disputeEventHashes.isEmpty() ? null : unreadUserDisputeEvents.getByHash(getDisputeHistoryData.getUserHash());
+            List<DisputeEventData> disputeEventsData = disputeEvents.multiGetByHashes(disputeEventHashes);
+            for (int i = 0; i < disputeEventHashes.size(); i++) {
+                boolean eventRead = unreadUserDisputeEventData == null || unreadUserDisputeEventData.getDisputeEventHashToEventDisplaySideMap().get(disputeEventHashes.get(i)) == null;
+                disputeEventResponses.add(new DisputeEventResponseData(disputeEventsData.get(i), getDisputeHistoryData.getUserHash(), eventDisplaySides.get(i), eventRead));
+            }
         }
 
         return ResponseEntity.status(HttpStatus.OK).body(new GetDisputeHistoryResponse(disputeEventResponses));
@@ -325,10 +332,7 @@ public class DisputeService {
             return false;
         }
 
-        DisputeData disputeData;
-
-        for (Hash disputeHash : transactionDisputesData.getDisputeHashes()) {
-            disputeData = disputes.getByHash(disputeHash);
+        for (DisputeData disputeData : disputes.multiGetByHashes(transactionDisputesData.getDisputeHashes())) {
             if (disputeData.getDisputeStatus().equals(DisputeStatus.RECALL) || !DisputeStatusService.getByDisputeStatus(disputeData.getDisputeStatus()).isFinalStatus()) {
                 return true;
             }
@@ -351,9 +355,7 @@ public class DisputeService {
             return true;
         }
 
-        DisputeData disputeData;
-        for (Hash disputeHash : userDisputesData.getDisputeHashes()) {
-            disputeData = disputes.getByHash(disputeHash);
+        for (DisputeData disputeData : disputes.multiGetByHashes(userDisputesData.getDisputeHashes())) {
 
             for (DisputeItemData item : items) {
                 if (disputeData.getDisputeItem(item.getId()) != null && disputeData.getTransactionHash().equals(transactionHash)) {
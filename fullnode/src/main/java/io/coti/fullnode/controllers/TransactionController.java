@@ -54,6 +54,11 @@ public class TransactionController {
         return transactionService.getAddressTransactions(addressRequest.getAddress());
     }
 
+    @PostMapping(value = "/addressTransactions/page")
+    public ResponseEntity<IResponse> getAddressTransactionsPage(@Valid @RequestBody GetAddressTransactionsPageRequest getAddressTransactionsPageRequest) {
+        return transactionService.getAddressTransactionsPage(getAddressTransactionsPageRequest);
+    }
+
     @PostMapping(value = "/addressTransactions/batch")
     public void getAddressTransactionBatch(@Valid @RequestBody GetAddressTransactionBatchRequest getAddressTransactionBatchRequest, HttpServletResponse response) {
         transactionService.getAddressTransactionBatch(getAddressTransactionBatchRequest, response, false);
@@ -0,0 +1,20 @@
+package io.coti.fullnode.http;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.http.interfaces.IRequest;
+import lombok.Data;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+@Data
+public class GetAddressTransactionsPageRequest implements IRequest {
+
+    @NotNull(message = "Address Hash must not be blank")
+    private Hash address;
+    private Hash afterTransactionHash;
+    @Positive(message = "Page size must be positive")
+    @Max(value = 1000, message = "Page size must not be greater than 1000")
+    private int pageSize;
+}
@@ -15,7 +15,7 @@ import io.coti.basenode.http.data.TransactionResponseData;
 import io.coti.basenode.http.data.TransactionStatus;
 import io.coti.basenode.http.data.interfaces.ITransactionResponseData;
 import io.coti.basenode.http.interfaces.IResponse;
-import io.coti.basenode.model.AddressTransactionsHistories;
+import io.coti.basenode.model.AddressTransactionsHistoryEntries;
 import io.coti.basenode.model.Transactions;
 import io.coti.basenode.services.BaseNodeTransactionService;
 import io.coti.basenode.services.interfaces.*;
@@ -38,6 +38,7 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import static io.coti.basenode.http.BaseNodeHttpStringConstants.*;
 import static io.coti.fullnode.http.HttpStringConstants.EXPLORER_TRANSACTION_PAGE_ERROR;
@@ -48,6 +49,8 @@ public class TransactionService extends BaseNodeTransactionService {
 
     private static final int EXPLORER_LAST_TRANSACTIONS_NUMBER = 20;
     private static final int EXPLORER_TRANSACTION_NUMBER_BY_PAGE = 10;
+    private static final int ADDRESS_TRANSACTIONS_READ_PAGE_SIZE = 1000;
+    private static final int MULTI_GET_BATCH_SIZE = 1000;
     @Autowired
     private ITransactionHelper transactionHelper;
     @Autowired
@@ -57,7 +60,7 @@ public class TransactionService extends BaseNodeTransactionService {
     @Autowired
     private IClusterService clusterService;
     @Autowired
-    private AddressTransactionsHistories addressTransactionHistories;
+    private AddressTransactionsHistoryEntries addressTransactionsHistoryEntries;
     @Autowired
     private Transactions transactions;
     @Autowired
@@ -278,9 +281,11 @@ public class TransactionService extends BaseNodeTransactionService {
             PrintWriter output = response.getWriter();
             chunkService.startOfChunk(output);
             AtomicBoolean firstTransactionSent = new AtomicBoolean(false);
-            transactionHashes.forEach(transactionHash ->
-                    sendTransactionResponse(transactionHash, firstTransactionSent, output)
-            );
+            for (int i = 0; i < transactionHashes.size(); i += MULTI_GET_BATCH_SIZE) {
+                transactions.multiGetByHashes(transactionHashes.subList(i, Math.min(i + MULTI_GET_BATCH_SIZE, transactionHashes.size()))).forEach(transactionData ->
+                        sendTransactionResponse(transactionData, firstTransactionSent, output)
+                );
+            }
 
             chunkService.endOfChunk(output);
         } catch (Exception e) {
@@ -290,16 +295,9 @@ public class TransactionService extends BaseNodeTransactionService {
 
     public ResponseEntity<IResponse> getAddressTransactions(Hash addressHash) {
         List<TransactionData> transactionsDataList = new ArrayList<>();
-        AddressTransactionsHistory addressTransactionsHistory = addressTransactionHistories.getByHash(addressHash);
 
         try {
-            if (addressTransactionsHistory == null) {
-                return ResponseEntity.status(HttpStatus.OK).body(new GetAddressTransactionHistoryResponse(transactionsDataList));
-            }
-            addressTransactionsHistory.getTransactionsHistory().forEach(transactionHash -> {
-                TransactionData transactionData = transactions.getByHash(transactionHash);
-                transactionsDataList.add(transactionData);
-            });
+            forEachAddressTransactionHashPage(addressHash, transactionHashes -> transactionsDataList.addAll(transactions.multiGetByHashes(transactionHashes)));
             return ResponseEntity.status(HttpStatus.OK).body(new GetAddressTransactionHistoryResponse(transactionsDataList));
         } catch (Exception e) {
             return ResponseEntity
@@ -317,14 +315,13 @@ public class TransactionService extends BaseNodeTransactionService {
             chunkService.startOfChunk(output);
 
             AtomicBoolean firstTransactionSent = new AtomicBoolean(false);
-            addressHashList.forEach(addressHash -> {
-                AddressTransactionsHistory addressTransactionsHistory = addressTransactionHistories.getByHash(addressHash);
-                if (addressTransactionsHistory != null) {
-                    addressTransactionsHistory.getTransactionsHistory().forEach(transactionHash ->
-                            sendTransactionResponse(transactionHash, firstTransactionSent, output, addressHash, reduced)
-                    );
-                }
-            });
+            addressHashList.forEach(addressHash ->
+                    forEachAddressTransactionHashPage(addressHash, transactionHashes ->
+                            transactions.multiGetByHashes(transactionHashes, true).forEach(transactionData ->
+                                    sendTransactionResponse(transactionData, firstTransactionSent, output, addressHash, reduced)
+                            )
+                    )
+            );
             chunkService.endOfChunk(output);
         } catch (Exception e) {
             log.error("Error sending address transaction batch");
@@ -332,13 +329,53 @@ public class TransactionService extends BaseNodeTransactionService {
         }
     }
 
-    private void sendTransactionResponse(Hash transactionHash, AtomicBoolean firstTransactionSent, PrintWriter output) {
-        sendTransactionResponse(transactionHash, firstTransactionSent, output, null, false);
+    public ResponseEntity<IResponse> getAddressTransactionsPage(GetAddressTransactionsPageRequest getAddressTransactionsPageRequest) {
+        Hash addressHash = getAddressTransactionsPageRequest.getAddress();
+        AddressTransactionsHistoryEntry afterEntry = null;
+        if (getAddressTransactionsPageRequest.getAfterTransactionHash() != null) {
+            TransactionData afterTransactionData = transactions.getByHash(getAddressTransactionsPageRequest.getAfterTransactionHash());
+            if (afterTransactionData == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new Response(TRANSACTION_DOESNT_EXIST_MESSAGE, STATUS_ERROR));
+            }
+            afterEntry = new AddressTransactionsHistoryEntry(addressHash, afterTransactionData.getHash(), afterTransactionData.getCreateTime());
+        }
+        try {
+            List<AddressTransactionsHistoryEntry> page = addressTransactionsHistoryEntries.getPage(addressHash, afterEntry, getAddressTransactionsPageRequest.getPageSize());
+            return ResponseEntity.status(HttpStatus.OK).body(new GetAddressTransactionHistoryResponse(transactions.multiGetByHashes(getTransactionHashes(page))));
+        } catch (Exception e) {
+            log.error("Error at getting address transactions page", e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new Response(
+                            ADDRESS_TRANSACTIONS_SERVER_ERROR,
+                            STATUS_ERROR));
+        }
+    }
+
+    private void forEachAddressTransactionHashPage(Hash addressHash, Consumer<List<Hash>> transactionHashPageConsumer) {
+        AddressTransactionsHistoryEntry lastEntry = null;
+        List<AddressTransactionsHistoryEntry> page;
+        do {
+            page = addressTransactionsHistoryEntries.getPage(addressHash, lastEntry, ADDRESS_TRANSACTIONS_READ_PAGE_SIZE);
+            if (!page.isEmpty()) {
+                transactionHashPageConsumer.accept(getTransactionHashes(page));
+                lastEntry = page.get(page.size() - 1);
+            }
+        } while (page.size() == ADDRESS_TRANSACTIONS_READ_PAGE_SIZE);
+    }
+
+    private List<Hash> getTransactionHashes(List<AddressTransactionsHistoryEntry> addressTransactionsHistoryEntryList) {
+        List<Hash> transactionHashes = new ArrayList<>(addressTransactionsHistoryEntryList.size());
+        addressTransactionsHistoryEntryList.forEach(addressTransactionsHistoryEntry -> transactionHashes.add(addressTransactionsHistoryEntry.getTransactionHash()));
+        return transactionHashes;
+    }
+
+    private void sendTransactionResponse(TransactionData transactionData, AtomicBoolean firstTransactionSent, PrintWriter output) {
+        sendTransactionResponse(transactionData, firstTransactionSent, output, null, false);
     }
 
-    private void sendTransactionResponse(Hash transactionHash, AtomicBoolean firstTransactionSent, PrintWriter output, Hash addressHash, boolean reduced) {
+    private void sendTransactionResponse(TransactionData transactionData, AtomicBoolean firstTransactionSent, PrintWriter output, Hash addressHash, boolean reduced) {
         try {
-            TransactionData transactionData = transactions.getByHash(transactionHash);
             if (transactionData != null) {
                 ITransactionResponseData transactionResponseData = !reduced ? new TransactionResponseData(transactionData) : new ReducedTransactionResponseData(transactionData, addressHash);
                 if (firstTransactionSent.get()) {
@@ -349,21 +386,22 @@ public class TransactionService extends BaseNodeTransactionService {
                 chunkService.sendChunk(new CustomGson().getInstance().toJson(transactionResponseData), output);
             }
         } catch (Exception e) {
-            log.error("Error at transaction response data for {}", transactionHash.toString());
+            log.error("Error at transaction response data for {}", transactionData.getHash());
             log.error(e.getMessage());
         }
     }
 
     public ResponseEntity<IResponse> getLastTransactions() {
-        List<TransactionData> transactionsDataList = new ArrayList<>();
+        List<Hash> transactionHashes = new ArrayList<>();
         Iterator<ExplorerTransactionData> iterator = explorerIndexedTransactionSet.descendingIterator();
         int count = 0;
 
         while (count < EXPLORER_LAST_TRANSACTIONS_NUMBER && iterator.hasNext()) {
             ExplorerTransactionData explorerTransactionData = iterator.next();
-            transactionsDataList.add(transactions.getByHash(explorerTransactionData.getTransactionHash()));
+            transactionHashes.add(explorerTransactionData.getTransactionHash());
             count++;
         }
+        List<TransactionData> transactionsDataList = transactions.multiGetByHashes(transactionHashes);
 
         try {
             return ResponseEntity.status(HttpStatus.OK).body(new GetTransactionsResponse(transactionsDataList) {
@@ -387,14 +425,13 @@ public class TransactionService extends BaseNodeTransactionService {
         if (index < 0) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new Response(EXPLORER_TRANSACTION_PAGE_ERROR, STATUS_ERROR));
         }
-        List<TransactionData> transactionDataList = new ArrayList<>();
+        List<Hash> transactionHashes = new ArrayList<>();
         int endOfIndex = index - EXPLORER_TRANSACTION_NUMBER_BY_PAGE;
         while (index > endOfIndex && index >= 0) {
-            TransactionData transactionData = transactions.getByHash(explorerIndexedTransactionSet.exact(index).getTransactionHash());
-            transactionDataList.add(transactionData);
+            transactionHashes.add(explorerIndexedTransactionSet.exact(index).getTransactionHash());
             index--;
         }
-        return ResponseEntity.ok(new GetTransactionsResponse(transactionDataList));
+        return ResponseEntity.ok(new GetTransactionsResponse(transactions.multiGetByHashes(transactionHashes)));
 
     }
 
@@ -422,13 +459,23 @@ public class TransactionService extends BaseNodeTransactionService {
 
     @Override
     public void addToExplorerIndexes(TransactionData transactionData) {
+        addToExplorerIndexes(new ExplorerTransactionData(transactionData));
+    }
+
+    @Override
+    public void addToExplorerIndexes(ExplorerTransactionData explorerTransactionData) {
         try {
-            explorerIndexQueue.put(new ExplorerTransactionData(transactionData));
+            explorerIndexQueue.put(explorerTransactionData);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
     }
 
+    @Override
+    public boolean isExplorerIndexed() {
+        return true;
+    }
+
 
     @Override
     protected void continueHandlePropagatedTransaction(TransactionData transactionData) {
@@ -11,6 +11,7 @@ import io.coti.basenode.database.BaseNodeRocksDBConnector;
 import io.coti.basenode.database.interfaces.IDatabaseConnector;
 import io.coti.basenode.http.HttpJacksonSerializer;
 import io.coti.basenode.model.AddressTransactionsHistories;
+import io.coti.basenode.model.AddressTransactionsHistoryEntries;
 import io.coti.basenode.model.TransactionIndexes;
 import io.coti.basenode.model.Transactions;
 import io.coti.basenode.services.*;
@@ -60,7 +61,7 @@ import static utils.TransactionTestUtils.generateRandomHash;
         AddressTransactionsByDates.class, AddressTransactionsByAddresses.class,
         IDatabaseConnector.class, BaseNodeRocksDBConnector.class, TransactionService.class,
         GetTransactionsByAddressRequestCrypto.class, TransactionHelper.class, StorageConnector.class,
-        AddressTransactionsHistories.class, TransactionCrypto.class, NodeCryptoHelper.class, BaseNodeBalanceService.class,
+        AddressTransactionsHistories.class, AddressTransactionsHistoryEntries.class, TransactionCrypto.class, NodeCryptoHelper.class, BaseNodeBalanceService.class,
         BaseNodeConfirmationService.class, LiveViewService.class, TransactionIndexService.class, TransactionIndexes.class,
         ClusterService.class, JacksonSerializer.class, ChunkService.class, HttpJacksonSerializer.class, NodeCryptoHelper.class,
         ExpandedTransactionTrustScoreCrypto.class, BaseNodeValidationService.class, TransactionSenderCrypto.class, BaseNodePotService.class,
@@ -115,6 +116,8 @@ public class HistoryTransactionServiceTest {
     @MockBean
     private BaseNodeDspVoteService baseNodeDspVoteService;
     @MockBean
+    private TransactionIndexCheckpointService transactionIndexCheckpointService;
+    @MockBean
     private SimpMessagingTemplate messagingSender;
 
     @Before
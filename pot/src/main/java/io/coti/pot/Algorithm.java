@@ -7,6 +7,7 @@ import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import sun.security.provider.Sun;
 
 import java.lang.reflect.InvocationTargetException;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.Provider;
@@ -55,6 +56,28 @@ public class Algorithm implements IAlgorithm {
         return cryptoHashAlgorithm.digest(input);
     }
 
+    @Override
+    public void hash(byte[] input, byte[] output) {
+        if (bouncyCastleAlgorithms.contains(hashingAlgorithm)) {
+            messageDigestAlgorithm.update(input);
+            try {
+                messageDigestAlgorithm.digest(output, 0, output.length);
+            } catch (DigestException e) {
+                throw new IllegalArgumentException("Output buffer is too small for algorithm " + hashingAlgorithm, e);
+            }
+        } else {
+            cryptoHashAlgorithm.update(input);
+            cryptoHashAlgorithm.digest(output, 0, output.length);
+        }
+    }
+
+    @Override
+    public int getDigestLength() {
+        if (bouncyCastleAlgorithms.contains(hashingAlgorithm))
+            return messageDigestAlgorithm.getDigestLength();
+        return cryptoHashAlgorithm.getDigestLength();
+    }
+
     private MessageDigest getBouncyCastle(AlgorithmType hashingAlgorithm) throws NoSuchAlgorithmException {
         return MessageDigest.getInstance(hashingAlgorithm.toString(), new BouncyCastleProvider());
     }
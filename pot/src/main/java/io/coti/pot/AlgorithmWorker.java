@@ -3,29 +3,43 @@ package io.coti.pot;
 import io.coti.pot.interfaces.IAlgorithm;
 import io.coti.pot.interfaces.IAlgorithmOrder;
 import io.coti.pot.interfaces.IAlgorithmWorker;
-import org.apache.commons.lang3.ArrayUtils;
 
-import java.math.BigInteger;
-import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class AlgorithmWorker implements IAlgorithmWorker {
 
+    private static final int NONCE_LENGTH = 4;
+    private static final int NONCE_CHUNK_SIZE = 256;
+    private static final ThreadLocal<Map<IAlgorithm.AlgorithmType, IAlgorithm>> threadAlgorithms = ThreadLocal.withInitial(() -> new EnumMap<>(IAlgorithm.AlgorithmType.class));
     private final IAlgorithmOrder ordering;
+    private final int parallelism;
 
     public AlgorithmWorker(IAlgorithmOrder ordering) {
+        this(ordering, 1);
+    }
+
+    public AlgorithmWorker(IAlgorithmOrder ordering, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be a positive number");
+        }
         this.ordering = ordering;
+        this.parallelism = parallelism;
     }
 
     @Override
     public int[] hash(byte[] data, byte[] target) {
-        BigInteger targetOutput = new BigInteger(1, target);
         int[] nonces = new int[ordering.getHashingAlgorithms().size()];
         byte[] lastCorrectHash = data;
 
         for (int i = 0; i < nonces.length; i++) {
             IAlgorithm.AlgorithmType hashingAlgorithm = ordering.getHashingAlgorithms().get(i);
-            int nonce = findNonce(hashingAlgorithm, lastCorrectHash, targetOutput);
-            lastCorrectHash = concatAndHash(hashingAlgorithm, lastCorrectHash, nonce);
+            int nonce = findNonce(hashingAlgorithm, lastCorrectHash, target);
+            lastCorrectHash = concatAndHash(ordering.getHashingAlgorithm(hashingAlgorithm), lastCorrectHash, nonce);
             nonces[i] = nonce;
         }
         return nonces;
@@ -37,14 +51,12 @@ class AlgorithmWorker implements IAlgorithmWorker {
             return false;
         }
 
-        BigInteger targetOutput = new BigInteger(1, target);
         byte[] lastCorrectHash = data;
 
         for (int i = 0; i < nonce.length; i++) {
             IAlgorithm.AlgorithmType hashingAlgorithm = ordering.getHashingAlgorithms().get(i);
-            byte[] hashedData = concatAndHash(hashingAlgorithm, lastCorrectHash, nonce[i]);
-            BigInteger currentOutput = new BigInteger(1, hashedData);
-            if (currentOutput.compareTo(targetOutput) > -1) {
+            byte[] hashedData = concatAndHash(ordering.getHashingAlgorithm(hashingAlgorithm), lastCorrectHash, nonce[i]);
+            if (!isBelowTarget(hashedData, target)) {
                 return false;
             }
             lastCorrectHash = hashedData;
@@ -52,24 +64,136 @@ class AlgorithmWorker implements IAlgorithmWorker {
         return true;
     }
 
-    private int findNonce(IAlgorithm.AlgorithmType hashingAlgorithm, byte[] lastCorrectHash, BigInteger targetOutput) {
-        byte[] hashedData;
-        boolean validHash;
-        int nonce = 0;
-
-        do {
-            hashedData = concatAndHash(hashingAlgorithm, lastCorrectHash, nonce);
-            BigInteger currentOutput = new BigInteger(1, hashedData);
-            validHash = (currentOutput.compareTo(targetOutput) < 0);
-            nonce = nonce + 1;
-        } while (!validHash);
-        return nonce - 1;
+    private int findNonce(IAlgorithm.AlgorithmType hashingAlgorithm, byte[] lastCorrectHash, byte[] target) {
+        NonceSearch nonceSearch = new NonceSearch(lastCorrectHash, target);
+        for (int i = 1; i < parallelism; i++) {
+            NonceSearchExecutor.executor.execute(() -> nonceSearch.helpSearch(hashingAlgorithm));
+        }
+        nonceSearch.search(ordering.getHashingAlgorithm(hashingAlgorithm));
+        return nonceSearch.awaitFoundNonce();
+    }
+
+    private static IAlgorithm getThreadAlgorithm(IAlgorithm.AlgorithmType hashingAlgorithm) {
+        return threadAlgorithms.get().computeIfAbsent(hashingAlgorithm, Algorithm::new);
+    }
+
+    private byte[] concatAndHash(IAlgorithm algorithm, byte[] data, int nonce) {
+        byte[] input = Arrays.copyOf(data, data.length + NONCE_LENGTH);
+        putNonce(input, data.length, nonce);
+        return algorithm.hash(input);
+    }
+
+    private static void putNonce(byte[] input, int offset, int nonce) {
+        input[offset] = (byte) (nonce >>> 24);
+        input[offset + 1] = (byte) (nonce >>> 16);
+        input[offset + 2] = (byte) (nonce >>> 8);
+        input[offset + 3] = (byte) nonce;
+    }
+
+    /**
+     * Compares both arrays as unsigned big-endian numbers, the same way {@code new BigInteger(1, bytes)} does,
+     * without allocating.
+     */
+    static boolean isBelowTarget(byte[] value, byte[] target) {
+        int length = Math.max(value.length, target.length);
+        for (int i = 0; i < length; i++) {
+            int valueByte = unsignedByteAt(value, i - length + value.length);
+            int targetByte = unsignedByteAt(target, i - length + target.length);
+            if (valueByte != targetByte) {
+                return valueByte < targetByte;
+            }
+        }
+        return false;
+    }
+
+    private static int unsignedByteAt(byte[] bytes, int index) {
+        return index < 0 ? 0 : bytes[index] & 0xFF;
+    }
+
+    /**
+     * Searches the nonce space in chunks claimed in increasing order. Every searcher stops once its next chunk starts
+     * above the lowest valid nonce found so far, so the result is always the lowest valid nonce - the same one a
+     * sequential search from zero finds. Searchers register before claiming a chunk, which lets the owner of the
+     * search wait only for chunks that can still contain a lower nonce.
+     */
+    private static class NonceSearch {
+
+        private final byte[] data;
+        private final byte[] target;
+        private final AtomicInteger nextChunkStart = new AtomicInteger();
+        private final AtomicInteger foundNonce = new AtomicInteger(Integer.MAX_VALUE);
+        private final AtomicInteger activeSearchers = new AtomicInteger();
+        private volatile RuntimeException searchFailure;
+
+        private NonceSearch(byte[] data, byte[] target) {
+            this.data = data;
+            this.target = target;
+        }
+
+        private void search(IAlgorithm algorithm) {
+            byte[] input = Arrays.copyOf(data, data.length + NONCE_LENGTH);
+            byte[] output = new byte[algorithm.getDigestLength()];
+            boolean searching = true;
+            while (searching) {
+                activeSearchers.incrementAndGet();
+                try {
+                    int chunkStart = nextChunkStart.getAndAdd(NONCE_CHUNK_SIZE);
+                    searching = chunkStart < foundNonce.get() && !searchChunk(algorithm, input, output, chunkStart);
+                } finally {
+                    if (activeSearchers.decrementAndGet() == 0) {
+                        synchronized (this) {
+                            notifyAll();
+                        }
+                    }
+                }
+            }
+        }
+
+        private boolean searchChunk(IAlgorithm algorithm, byte[] input, byte[] output, int chunkStart) {
+            int chunkEnd = chunkStart + NONCE_CHUNK_SIZE;
+            for (int nonce = chunkStart; nonce < chunkEnd && nonce < foundNonce.get(); nonce++) {
+                putNonce(input, data.length, nonce);
+                algorithm.hash(input, output);
+                if (isBelowTarget(output, target)) {
+                    foundNonce.accumulateAndGet(nonce, Math::min);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void helpSearch(IAlgorithm.AlgorithmType hashingAlgorithm) {
+            try {
+                search(getThreadAlgorithm(hashingAlgorithm));
+            } catch (RuntimeException e) {
+                searchFailure = e;
+            }
+        }
+
+        private int awaitFoundNonce() {
+            try {
+                synchronized (this) {
+                    while (activeSearchers.get() > 0) {
+                        wait();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for nonce search", e);
+            }
+            if (searchFailure != null) {
+                throw new IllegalStateException("Nonce search failed", searchFailure);
+            }
+            return foundNonce.get();
+        }
     }
 
-    private byte[] concatAndHash(IAlgorithm.AlgorithmType hashingAlgorithm, byte[] data, int nonce) {
-        byte[] nonceByte = ByteBuffer.allocate(4).putInt(nonce).array();
-        data = ArrayUtils.addAll(data, nonceByte);
-        data = ordering.getHashingAlgorithm(hashingAlgorithm).hash(data);
-        return data;
+    private static class NonceSearchExecutor {
+
+        private static final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "PoT nonce search");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 }
@@ -14,12 +14,16 @@ public class ProofOfTrust implements IProofOfTrust {
     private final IAlgorithmWorker hashWorker;
 
     public ProofOfTrust(int trustScore) {
+        this(trustScore, 1);
+    }
+
+    public ProofOfTrust(int trustScore, int parallelism) {
 
         if (trustScore < 0 || trustScore > MAX_TRUST_SCORE) {
             throw new IllegalArgumentException("trustScore must be between 0 and 100 inclusive");
         }
         hashOrder = new AlgorithmOrder(trustScore, MAX_TRUST_SCORE);
-        hashWorker = new AlgorithmWorker(hashOrder);
+        hashWorker = new AlgorithmWorker(hashOrder, parallelism);
     }
 
     public List<IAlgorithm.AlgorithmType> getHashingAlgorithms() {
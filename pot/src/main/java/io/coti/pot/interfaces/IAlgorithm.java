@@ -32,4 +32,8 @@ public interface IAlgorithm {
     }
 
     byte[] hash(byte[] input);
+
+    void hash(byte[] input, byte[] output);
+
+    int getDigestLength();
 }
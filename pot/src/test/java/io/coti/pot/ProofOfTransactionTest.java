@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static javax.xml.bind.DatatypeConverter.parseHexBinary;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -40,4 +41,12 @@ class ProofOfTransactionTest {
         boolean valid = pow.verify(transactionData, nonces, targetDifficulty);
         assertFalse(valid);
     }
+
+    @Test
+    void parallelSearchFindsSameNonces() {
+        int[] nonces = pow.hash(transactionData, targetDifficulty);
+        int[] parallelNonces = new ProofOfTrust(0, 4).hash(transactionData, targetDifficulty);
+        assertArrayEquals(nonces, parallelNonces);
+        assertTrue(pow.verify(transactionData, parallelNonces, targetDifficulty));
+    }
 }
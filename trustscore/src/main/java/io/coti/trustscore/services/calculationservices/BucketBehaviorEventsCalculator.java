@@ -7,7 +7,9 @@ import io.coti.trustscore.data.Buckets.BucketBehaviorEventsData;
 import io.coti.trustscore.data.Enums.BehaviorEventsScoreType;
 import io.coti.trustscore.data.Enums.UserType;
 import io.coti.trustscore.data.Events.EventCountAndContributionData;
+import io.coti.trustscore.utils.CompiledExpression;
 import io.coti.trustscore.utils.DatesCalculation;
+import io.coti.trustscore.utils.MathCalculation;
 import javafx.util.Pair;
 
 import java.util.Date;
@@ -18,6 +20,7 @@ import java.util.stream.Collectors;
 
 public class BucketBehaviorEventsCalculator extends BucketCalculator {
 
+    private static final String EVENTS_NUMBER_ARGUMENT = "eventsNumber";
     private static Map<UserType, BehaviorEventsScore> userTypeToBehaviorEventsScoreMap;
     private BucketBehaviorEventsData bucketBehaviorEventsData;
     private BehaviorEventsScore behaviorEventsScore;
@@ -30,23 +33,31 @@ public class BucketBehaviorEventsCalculator extends BucketCalculator {
     public static void init(RulesData rulesData) {
         userTypeToBehaviorEventsScoreMap = rulesData.getUserTypeToUserScoreMap().entrySet().stream().
                 collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getBehaviorEventsScore()));
+        userTypeToBehaviorEventsScoreMap.values().forEach(BucketBehaviorEventsCalculator::compileFormulas);
+    }
+
+    private static void compileFormulas(BehaviorEventsScore behaviorEventsScore) {
+        behaviorEventsScore.getSuspiciousEventScoreList().stream()
+                .filter(suspiciousEventScore -> suspiciousEventScore.getContribution() != null)
+                .forEach(suspiciousEventScore -> MathCalculation.compileExpression(suspiciousEventScore.getContribution(), EVENTS_NUMBER_ARGUMENT));
     }
 
     @Override
     public void setCurrentScores() {
-        Map<SuspiciousEventScore, String> baseEventScoreToCalculationFormulaMap = new ConcurrentHashMap<>();
+        Map<SuspiciousEventScore, CompiledExpression> baseEventScoreToCompiledFormulaMap = new ConcurrentHashMap<>();
+        Map<SuspiciousEventScore, double[]> baseEventScoreToArgumentValuesMap = new ConcurrentHashMap<>();
 
         for (Map.Entry<BehaviorEventsScoreType, SuspiciousEventScore> baseEventTypeToBaseEventScoreEntry : behaviorEventsScore.getBaseEventScoreMap().entrySet()) {
 
             SuspiciousEventScore suspiciousEventScore = baseEventTypeToBaseEventScoreEntry.getValue();
-            String scoreFormulaCalculation = createBaseEventScoreFormula(baseEventTypeToBaseEventScoreEntry.getKey());
 
-            if (scoreFormulaCalculation != null) {
-                baseEventScoreToCalculationFormulaMap.put(suspiciousEventScore, scoreFormulaCalculation);
+            if (suspiciousEventScore.getContribution() != null) {
+                baseEventScoreToCompiledFormulaMap.put(suspiciousEventScore, MathCalculation.compileExpression(suspiciousEventScore.getContribution(), EVENTS_NUMBER_ARGUMENT));
+                baseEventScoreToArgumentValuesMap.put(suspiciousEventScore, new double[]{getEventsCount(baseEventTypeToBaseEventScoreEntry.getKey())});
             }
         }
 
-        ScoreCalculator<SuspiciousEventScore> scoreCalculator = new ScoreCalculator<>(baseEventScoreToCalculationFormulaMap);
+        ScoreCalculator<SuspiciousEventScore> scoreCalculator = new ScoreCalculator<>(baseEventScoreToCompiledFormulaMap, baseEventScoreToArgumentValuesMap);
         Map<SuspiciousEventScore, Double> baseEventScoreToCalculatedScoreMap = scoreCalculator.calculate();
         updateBucketScoresAfterCalculation(baseEventScoreToCalculatedScoreMap);
 
@@ -79,19 +90,9 @@ public class BucketBehaviorEventsCalculator extends BucketCalculator {
         }
     }
 
-    private String createBaseEventScoreFormula(BehaviorEventsScoreType baseEventScoreType) {
-        SuspiciousEventScore suspiciousEventScore = behaviorEventsScore.getBaseEventScoreMap().get(baseEventScoreType);
-        String contributionFunctionString = suspiciousEventScore.getContribution();
-
-        if (contributionFunctionString != null && !contributionFunctionString.isEmpty()) {
-            int eventsCount = 0;
-            if (bucketBehaviorEventsData.getBehaviorEventTypeToCurrentEventCountAndContributionDataMap().get(baseEventScoreType) != null) {
-                eventsCount = bucketBehaviorEventsData.getBehaviorEventTypeToCurrentEventCountAndContributionDataMap().get(baseEventScoreType).getCount();
-            }
-            contributionFunctionString = contributionFunctionString.replace("eventsNumber", Integer.toString(eventsCount));
-        }
-
-        return contributionFunctionString;
+    private int getEventsCount(BehaviorEventsScoreType baseEventScoreType) {
+        EventCountAndContributionData eventCountAndContributionData = bucketBehaviorEventsData.getBehaviorEventTypeToCurrentEventCountAndContributionDataMap().get(baseEventScoreType);
+        return eventCountAndContributionData != null ? eventCountAndContributionData.getCount() : 0;
     }
 
     private void addTodayScoreToOldEventsMap() {
@@ -6,7 +6,9 @@ import io.coti.trustscore.config.rules.RulesData;
 import io.coti.trustscore.data.Buckets.BucketChargeBackEventsData;
 import io.coti.trustscore.data.Enums.HighFrequencyEventScoreType;
 import io.coti.trustscore.data.Enums.UserType;
+import io.coti.trustscore.utils.CompiledExpression;
 import io.coti.trustscore.utils.DatesCalculation;
+import io.coti.trustscore.utils.MathCalculation;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Date;
@@ -16,6 +18,8 @@ import java.util.stream.Collectors;
 
 @Slf4j
 public class BucketChargeBackEventsCalculator extends BucketCalculator {
+    private static final String[] CHARGE_BACK_AMOUNT_ARGUMENTS = {"chargeBacksTodayAmount", "paymentsTodayAmount", "standardChargeBackRate", "tail2Contribution", "tail1Contribution"};
+    private static final String[] CHARGE_BACK_NUMBER_ARGUMENTS = {"chargeBacksTodayNumber", "paymentsTodayNumber", "standardChargeBackRate", "tail2Contribution", "tail1Contribution"};
     private static Map<UserType, BehaviorHighFrequencyEventsScore> userTypeToBehaviorHighFrequencyEventsScoreMapping;
     private BucketChargeBackEventsData bucketChargeBackEventsData;
     private BehaviorHighFrequencyEventsScore behaviorHighFrequencyEventsScore;
@@ -29,20 +33,38 @@ public class BucketChargeBackEventsCalculator extends BucketCalculator {
     public static void init(RulesData rulesData) {
         userTypeToBehaviorHighFrequencyEventsScoreMapping = rulesData.getUserTypeToUserScoreMap().entrySet().stream().
                 collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getBehaviorHighFrequencyEventsScore()));
+        userTypeToBehaviorHighFrequencyEventsScoreMapping.values().forEach(BucketChargeBackEventsCalculator::compileFormulas);
+    }
+
+    private static void compileFormulas(BehaviorHighFrequencyEventsScore behaviorHighFrequencyEventsScore) {
+        HighFrequencyEventScore chargeBackAmountEventScore = behaviorHighFrequencyEventsScore.getHighFrequencyEventScoreMap().get(HighFrequencyEventScoreType.CHARGE_BACK_AMOUNT);
+        if (chargeBackAmountEventScore != null) {
+            MathCalculation.compileExpression(chargeBackAmountEventScore.getContribution(), CHARGE_BACK_AMOUNT_ARGUMENTS);
+        }
+        HighFrequencyEventScore chargeBackNumberEventScore = behaviorHighFrequencyEventsScore.getHighFrequencyEventScoreMap().get(HighFrequencyEventScoreType.CHARGE_BACK_NUMBER);
+        if (chargeBackNumberEventScore != null) {
+            MathCalculation.compileExpression(chargeBackNumberEventScore.getContribution(), CHARGE_BACK_NUMBER_ARGUMENTS);
+        }
     }
 
     @Override
     public void setCurrentScores() {
-        Map<HighFrequencyEventScore, String> highFrequencyEventScoreToCalculationFormulaMap = new ConcurrentHashMap<>();
+        Map<HighFrequencyEventScore, CompiledExpression> highFrequencyEventScoreToCompiledFormulaMap = new ConcurrentHashMap<>();
+        Map<HighFrequencyEventScore, double[]> highFrequencyEventScoreToArgumentValuesMap = new ConcurrentHashMap<>();
         HighFrequencyEventScore chargeBackEventScoreByEventScoreType = behaviorHighFrequencyEventsScore.getHighFrequencyEventScoreMap().get(HighFrequencyEventScoreType.CHARGE_BACK_AMOUNT);
         if (chargeBackEventScoreByEventScoreType == null) return;
-        highFrequencyEventScoreToCalculationFormulaMap.put(chargeBackEventScoreByEventScoreType, createChargeBackAmountFormula());
-
-        highFrequencyEventScoreToCalculationFormulaMap.put(behaviorHighFrequencyEventsScore.getHighFrequencyEventScoreMap()
-                        .get(HighFrequencyEventScoreType.CHARGE_BACK_NUMBER),
-                createChargeBackNumberFormula());
+        highFrequencyEventScoreToCompiledFormulaMap.put(chargeBackEventScoreByEventScoreType,
+                MathCalculation.compileExpression(chargeBackEventScoreByEventScoreType.getContribution(), CHARGE_BACK_AMOUNT_ARGUMENTS));
+        highFrequencyEventScoreToArgumentValuesMap.put(chargeBackEventScoreByEventScoreType, getChargeBackAmountArgumentValues(chargeBackEventScoreByEventScoreType));
+
+        HighFrequencyEventScore chargeBackNumberEventScore = behaviorHighFrequencyEventsScore.getHighFrequencyEventScoreMap().get(HighFrequencyEventScoreType.CHARGE_BACK_NUMBER);
+        if (chargeBackNumberEventScore != null) {
+            highFrequencyEventScoreToCompiledFormulaMap.put(chargeBackNumberEventScore,
+                    MathCalculation.compileExpression(chargeBackNumberEventScore.getContribution(), CHARGE_BACK_NUMBER_ARGUMENTS));
+            highFrequencyEventScoreToArgumentValuesMap.put(chargeBackNumberEventScore, getChargeBackNumberArgumentValues(chargeBackNumberEventScore));
+        }
 
-        ScoreCalculator<HighFrequencyEventScore> functionCalculator = new ScoreCalculator<>(highFrequencyEventScoreToCalculationFormulaMap);
+        ScoreCalculator<HighFrequencyEventScore> functionCalculator = new ScoreCalculator<>(highFrequencyEventScoreToCompiledFormulaMap, highFrequencyEventScoreToArgumentValuesMap);
         Map<HighFrequencyEventScore, Double> eventScoresToCalculatedScoreMap = functionCalculator.calculate();
 
         for (Map.Entry<HighFrequencyEventScore, Double> highFrequencyEventScoreEntry : eventScoresToCalculatedScoreMap.entrySet()) {
@@ -157,44 +179,20 @@ public class BucketChargeBackEventsCalculator extends BucketCalculator {
         }
     }
 
-    private String createChargeBackAmountFormula() {
-        HighFrequencyEventScore highFrequencyEventScore =
-                behaviorHighFrequencyEventsScore.getHighFrequencyEventScoreMap().get(HighFrequencyEventScoreType.CHARGE_BACK_AMOUNT);
-
-        String contributionFunctionString = highFrequencyEventScore.getContribution();
-        double standardChargeBackRate = highFrequencyEventScore.getStandardChargeBackRate();
-
-        contributionFunctionString = contributionFunctionString
-                .replace("chargeBacksTodayAmount", Double.toString(bucketChargeBackEventsData.getCurrentDateChargeBacks().values().stream().mapToDouble(Number::doubleValue).sum()));
-        contributionFunctionString = contributionFunctionString
-                .replace("paymentsTodayAmount", Double.toString(bucketChargeBackEventsData.getCurrentDatePaymentTransactions().values().stream().mapToDouble(Number::doubleValue).sum()));
-        contributionFunctionString = contributionFunctionString
-                .replace("standardChargeBackRate", Double.toString(standardChargeBackRate));
-        contributionFunctionString = contributionFunctionString
-                .replace("tail2Contribution", Double.toString(bucketChargeBackEventsData.getOldDateAmountOfChargeBacksContribution()));
-        contributionFunctionString = contributionFunctionString
-                .replace("tail1Contribution", Double.toString(bucketChargeBackEventsData.getOldDateAmountOfCreditTransactionsContribution()));
-        return contributionFunctionString;
-
-    }
-
-    private String createChargeBackNumberFormula() {
-        HighFrequencyEventScore highFrequencyEventScore = behaviorHighFrequencyEventsScore.getHighFrequencyEventScoreMap().get(HighFrequencyEventScoreType.CHARGE_BACK_NUMBER);
-
-        String contributionFunctionString = highFrequencyEventScore.getContribution();
-        double standardChargeBackRate = highFrequencyEventScore.getStandardChargeBackRate();
-
-        contributionFunctionString = contributionFunctionString
-                .replace("chargeBacksTodayNumber", Double.toString(bucketChargeBackEventsData.getCurrentDateChargeBacks().size()));
-        contributionFunctionString = contributionFunctionString
-                .replace("paymentsTodayNumber", Double.toString(bucketChargeBackEventsData.getCurrentDatePaymentTransactions().size()));
-        contributionFunctionString = contributionFunctionString
-                .replace("standardChargeBackRate", Double.toString(standardChargeBackRate));
-        contributionFunctionString = contributionFunctionString
-                .replace("tail2Contribution", Double.toString(bucketChargeBackEventsData.getOldDateNumberOfChargeBacksContribution()));
-        contributionFunctionString = contributionFunctionString
-                .replace("tail1Contribution", Double.toString(bucketChargeBackEventsData.getOldDateNumberOfCreditTransactionsContribution()));
-        return contributionFunctionString;
+    private double[] getChargeBackAmountArgumentValues(HighFrequencyEventScore highFrequencyEventScore) {
+        return new double[]{bucketChargeBackEventsData.getCurrentDateChargeBacks().values().stream().mapToDouble(Number::doubleValue).sum(),
+                bucketChargeBackEventsData.getCurrentDatePaymentTransactions().values().stream().mapToDouble(Number::doubleValue).sum(),
+                highFrequencyEventScore.getStandardChargeBackRate(),
+                bucketChargeBackEventsData.getOldDateAmountOfChargeBacksContribution(),
+                bucketChargeBackEventsData.getOldDateAmountOfCreditTransactionsContribution()};
+    }
+
+    private double[] getChargeBackNumberArgumentValues(HighFrequencyEventScore highFrequencyEventScore) {
+        return new double[]{bucketChargeBackEventsData.getCurrentDateChargeBacks().size(),
+                bucketChargeBackEventsData.getCurrentDatePaymentTransactions().size(),
+                highFrequencyEventScore.getStandardChargeBackRate(),
+                bucketChargeBackEventsData.getOldDateNumberOfChargeBacksContribution(),
+                bucketChargeBackEventsData.getOldDateNumberOfCreditTransactionsContribution()};
     }
 
     private double getWeightByEventScore(HighFrequencyEventScoreType eventScoreType) {
@@ -8,13 +8,15 @@ import io.coti.trustscore.data.Buckets.BucketNotFulfilmentEventsData;
 import io.coti.trustscore.data.Enums.CompensableEventScoreType;
 import io.coti.trustscore.data.Enums.UserType;
 import io.coti.trustscore.data.Events.NotFulfilmentToClientContributionData;
-import javafx.util.Pair;
+import io.coti.trustscore.utils.CompiledExpression;
+import io.coti.trustscore.utils.MathCalculation;
 
 import java.util.Map;
 import java.util.stream.Collectors;
 
 public class BucketNotFulfilmentEventsCalculator extends BucketCalculator {
 
+    private static final String[] FINE_ARGUMENTS = {"currentDebt", "weight1", "weight2", "fine"};
     private static Map<UserType, CompensableEventsScore> userTypeToBehaviorEventsScoreMap;
     private final BucketNotFulfilmentEventsData bucketNotFulfilmentEventsData;
     private final CompensableEventScore compensableEventScore;
@@ -28,6 +30,15 @@ public class BucketNotFulfilmentEventsCalculator extends BucketCalculator {
     public static void init(RulesData rulesData) {
         userTypeToBehaviorEventsScoreMap = rulesData.getUserTypeToUserScoreMap().entrySet().stream().
                 collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getCompensableEventsScore()));
+        userTypeToBehaviorEventsScoreMap.values().forEach(BucketNotFulfilmentEventsCalculator::compileFormulas);
+    }
+
+    private static void compileFormulas(CompensableEventsScore compensableEventsScore) {
+        CompensableEventScore nonFulfilmentEventScore = compensableEventsScore.getCompensableEventScoreMap().get(CompensableEventScoreType.NON_FULFILMENT);
+        if (nonFulfilmentEventScore != null) {
+            MathCalculation.compileExpression(nonFulfilmentEventScore.getFine(), FINE_ARGUMENTS);
+            MathCalculation.compileExpression(nonFulfilmentEventScore.getFineDailyChange(), FINE_ARGUMENTS);
+        }
     }
 
     @Override
@@ -44,18 +55,16 @@ public class BucketNotFulfilmentEventsCalculator extends BucketCalculator {
     }
 
     private void decayedFine(NotFulfilmentToClientContributionData clientNotFulfilmentToClientContributionData, int daysDiff) {
-        ScoreCalculator scoreCalculator = new ScoreCalculator();
+        CompiledExpression fineDailyChangeFormula = MathCalculation.compileExpression(compensableEventScore.getFineDailyChange(), FINE_ARGUMENTS);
         for (int i = 0; i < daysDiff; i++) {
-            String fineDailyChangeFormula = createFineFormula(clientNotFulfilmentToClientContributionData, compensableEventScore.getFineDailyChange());
             clientNotFulfilmentToClientContributionData
-                    .setFine((double) scoreCalculator.calculateEntry(new Pair<>(compensableEventScore,
-                            fineDailyChangeFormula)).getValue());
+                    .setFine(fineDailyChangeFormula.calculate(getFineArgumentValues(clientNotFulfilmentToClientContributionData)));
         }
     }
 
     private double calculateFine(NotFulfilmentToClientContributionData notFulfilmentToClientContributionData) {
-        String fineFormula = createFineFormula(notFulfilmentToClientContributionData, compensableEventScore.getFine());
-        return (double) (new ScoreCalculator().calculateEntry(new Pair<>(compensableEventScore, fineFormula)).getValue());
+        return MathCalculation.compileExpression(compensableEventScore.getFine(), FINE_ARGUMENTS)
+                .calculate(getFineArgumentValues(notFulfilmentToClientContributionData));
     }
 
     public void setCurrentScoresForSpecificClient(boolean isDebtDecreasing, Hash clientHash) {
@@ -69,20 +78,9 @@ public class BucketNotFulfilmentEventsCalculator extends BucketCalculator {
         notFulfilmentToClientContributionData.setFine(calculateFine(notFulfilmentToClientContributionData));
     }
 
-    private String createFineFormula(NotFulfilmentToClientContributionData notFulfilmentToClientContributionData, String formula) {
-        formula = formula.replace("currentDebt",
-                String.valueOf(notFulfilmentToClientContributionData.getCurrentDebt()));
-
-        formula = formula.replace("weight1",
-                String.valueOf(compensableEventScore.getWeight1()));
-
-        formula = formula.replace("weight2",
-                String.valueOf(compensableEventScore.getWeight2()));
-
-        formula = formula.replace("fine",
-                String.valueOf(notFulfilmentToClientContributionData.getFine()));
-
-        return formula;
+    private double[] getFineArgumentValues(NotFulfilmentToClientContributionData notFulfilmentToClientContributionData) {
+        return new double[]{notFulfilmentToClientContributionData.getCurrentDebt(), compensableEventScore.getWeight1(),
+                compensableEventScore.getWeight2(), notFulfilmentToClientContributionData.getFine()};
     }
 
     public double getBucketSumScore(BucketNotFulfilmentEventsData bucketNotFulfilmentEventsData) {
@@ -8,8 +8,8 @@ import io.coti.trustscore.data.Buckets.BucketTransactionEventsData;
 import io.coti.trustscore.data.Enums.TransactionEventScoreType;
 import io.coti.trustscore.data.Enums.UserType;
 import io.coti.trustscore.data.Events.BalanceCountAndContribution;
-import io.coti.trustscore.services.calculationservices.interfaces.IScoreCalculator;
 import io.coti.trustscore.utils.DatesCalculation;
+import io.coti.trustscore.utils.MathCalculation;
 import javafx.util.Pair;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -27,6 +27,9 @@ import java.util.stream.Collectors;
 public class BucketTransactionsCalculator extends BucketCalculator {
 
     private static final int MONTH_LENGTH = 30;
+    private static final String TURNOVER_ARGUMENT = "T";
+    private static final String TRANSACTION_FREQUENCY_ARGUMENT = "N";
+    private static final String AVERAGE_BALANCE_ARGUMENT = "B";
     private static Map<UserType, TransactionEventsScore> userToTransactionEventsScoreMapping;
     private BucketTransactionEventsData bucketTransactionEventsData;
     private TransactionEventsScore transactionEventsScore;
@@ -40,6 +43,30 @@ public class BucketTransactionsCalculator extends BucketCalculator {
     public static void init(RulesData rulesData) {
         userToTransactionEventsScoreMapping = rulesData.getUserTypeToUserScoreMap().entrySet().stream().
                 collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getTransactionEventScore()));
+        userToTransactionEventsScoreMapping.values().forEach(BucketTransactionsCalculator::compileFormulas);
+    }
+
+    private static void compileFormulas(TransactionEventsScore transactionEventsScore) {
+        transactionEventsScore.getTransactionEventScoreMap().forEach((transactionEventScoreType, transactionEventScore) -> {
+            MathCalculation.compileExpression(transactionEventScore.getDecay(), DecayCalculator.DECAY_ARGUMENT);
+            String argumentName = getNonlinearFunctionArgument(transactionEventScoreType);
+            if (argumentName != null && transactionEventScore.getNonlinearFunction() != null) {
+                MathCalculation.compileExpression(transactionEventScore.getNonlinearFunction(), argumentName);
+            }
+        });
+    }
+
+    private static String getNonlinearFunctionArgument(TransactionEventScoreType transactionEventScoreType) {
+        switch (transactionEventScoreType) {
+            case TURNOVER:
+                return TURNOVER_ARGUMENT;
+            case TRANSACTION_FREQUENCY:
+                return TRANSACTION_FREQUENCY_ARGUMENT;
+            case AVERAGE_BALANCE:
+                return AVERAGE_BALANCE_ARGUMENT;
+            default:
+                return null;
+        }
     }
 
     @Override
@@ -172,29 +199,17 @@ public class BucketTransactionsCalculator extends BucketCalculator {
 
     public void setCurrentDayTransactionsScores() {
 
-        Map<TransactionEventScore, String> transactionEventScoreToCalculationFormulaMap = new ConcurrentHashMap<>();
-        transactionEventScoreToCalculationFormulaMap.put(transactionEventsScore.getTransactionEventScoreMap()
-                .get(TransactionEventScoreType.TURNOVER), createTurnOverScoreFormula(bucketTransactionEventsData));
-        transactionEventScoreToCalculationFormulaMap.put(transactionEventsScore.getTransactionEventScoreMap()
-                .get(TransactionEventScoreType.TRANSACTION_FREQUENCY), createTransactionFrequencyScoreFormula());
-
-        IScoreCalculator functionCalculator = new ScoreCalculator<>(transactionEventScoreToCalculationFormulaMap);
-        Map<TransactionEventScore, Double> eventScoresToFunctionalScoreMap = functionCalculator.calculate();
+        Map<TransactionEventScore, Double> eventScoresToFunctionalScoreMap = new ConcurrentHashMap<>();
+        eventScoresToFunctionalScoreMap.put(getEventScoreByEventScoreType(TransactionEventScoreType.TURNOVER),
+                calculateTurnOverScore(bucketTransactionEventsData));
+        eventScoresToFunctionalScoreMap.put(getEventScoreByEventScoreType(TransactionEventScoreType.TRANSACTION_FREQUENCY),
+                calculateTransactionFrequencyScore());
         updateBucketScoresByFunction(eventScoresToFunctionalScoreMap);
     }
 
     public void setCurrentMonthTransactionsScores() {
-        Map<TransactionEventScore, Map<Date, String>> eventScoresToDatesScoreFormulaMap = new ConcurrentHashMap<>();
-        eventScoresToDatesScoreFormulaMap.put(transactionEventsScore.getTransactionEventScoreMap()
-                .get(TransactionEventScoreType.AVERAGE_BALANCE), createLastDaysAverageBalanceScoreFormula());
         // Calculate every day from the last days balance score.
-        VectorScoreCalculator<TransactionEventScore> vectorScoreCalculator = new VectorScoreCalculator<>(eventScoresToDatesScoreFormulaMap);
-        Map<TransactionEventScore, Map<Date, Double>> latestTransactionEventScoreToCalculationFormulaMap =
-                vectorScoreCalculator.calculateVectorScore();
-        Map<Date, Double> latestBalanceTransactionEventScoreToCalculationFormulaMap =
-                latestTransactionEventScoreToCalculationFormulaMap.get(transactionEventsScore.getTransactionEventScoreMap()
-                        .get(TransactionEventScoreType.AVERAGE_BALANCE));
-        updateCurrentMonthBalance(bucketTransactionEventsData, latestBalanceTransactionEventScoreToCalculationFormulaMap);
+        updateCurrentMonthBalance(bucketTransactionEventsData, calculateLastDaysAverageBalanceScores());
         updateCurrentMonthBalanceContribution();
     }
 
@@ -223,15 +238,14 @@ public class BucketTransactionsCalculator extends BucketCalculator {
     }
 
 
-    public Map<Date, String> createLastDaysAverageBalanceScoreFormula() {
+    public Map<Date, Double> calculateLastDaysAverageBalanceScores() {
 
-        String nonlinearFormula = transactionEventsScore.getTransactionEventScoreMap()
-                .get(TransactionEventScoreType.AVERAGE_BALANCE).getNonlinearFunction();
+        String nonlinearFormula = getEventScoreByEventScoreType(TransactionEventScoreType.AVERAGE_BALANCE).getNonlinearFunction();
         Map<Date, BalanceCountAndContribution> currentMonthBalanceByDayMap
                 = bucketTransactionEventsData.getCurrentMonthDayToBalanceCountAndContribution();
         return currentMonthBalanceByDayMap.entrySet().stream()
                 .filter(x -> x.getValue().getContribution() == 0)
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> nonlinearFormula.replace("B", String.valueOf(e.getValue().getCount()))));//.concat(
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> MathCalculation.evaluateExpression(nonlinearFormula, AVERAGE_BALANCE_ARGUMENT, e.getValue().getCount())));
     }
 
     private void updateCurrentMonthBalanceContribution() {
@@ -283,19 +297,17 @@ public class BucketTransactionsCalculator extends BucketCalculator {
     }
 
 
-    public String createTransactionFrequencyScoreFormula() {
-        String nonlinearFunctionformulaString = transactionEventsScore.getTransactionEventScoreMap()
-                .get(TransactionEventScoreType.TRANSACTION_FREQUENCY).getNonlinearFunction();
-
+    public double calculateTransactionFrequencyScore() {
+        String nonlinearFunctionString = getEventScoreByEventScoreType(TransactionEventScoreType.TRANSACTION_FREQUENCY).getNonlinearFunction();
         double numberOfTransactions = bucketTransactionEventsData.getCurrentDateNumberOfTransactions();
-        return nonlinearFunctionformulaString.replace("N", String.valueOf(numberOfTransactions));
+        return MathCalculation.evaluateExpression(nonlinearFunctionString, TRANSACTION_FREQUENCY_ARGUMENT, numberOfTransactions);
     }
 
 
-    public String createTurnOverScoreFormula(BucketTransactionEventsData bucketTransactionEventsData) {
-        String nonlinearFunctionString = transactionEventsScore.getTransactionEventScoreMap().get(TransactionEventScoreType.TURNOVER).getNonlinearFunction();
+    public double calculateTurnOverScore(BucketTransactionEventsData bucketTransactionEventsData) {
+        String nonlinearFunctionString = getEventScoreByEventScoreType(TransactionEventScoreType.TURNOVER).getNonlinearFunction();
         double turnover = bucketTransactionEventsData.getCurrentDateTurnOver();
-        return nonlinearFunctionString.replace("T", String.valueOf(turnover));
+        return MathCalculation.evaluateExpression(nonlinearFunctionString, TURNOVER_ARGUMENT, turnover);
     }
 
     public double getBucketSumScore(BucketTransactionEventsData bucketTransactionEventsData) {
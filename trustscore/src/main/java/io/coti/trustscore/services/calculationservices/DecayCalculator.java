@@ -11,6 +11,7 @@ import java.util.stream.Collectors;
 
 public class DecayCalculator<T extends EventScore> implements IDecayCalculator {
 
+    public static final String DECAY_ARGUMENT = "T";
     private Map<T, Double> eventScoresToOldValueMap;
 
     public DecayCalculator() {
@@ -23,12 +24,12 @@ public class DecayCalculator<T extends EventScore> implements IDecayCalculator {
     @Override
     public Map<T, Double> calculate(int numberOfDecays) {
         return eventScoresToOldValueMap.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e ->
-                MathCalculation.evaluateExpression(e.getKey().getDecay().replace("T", String.valueOf(numberOfDecays))) * e.getValue()));
+                MathCalculation.evaluateExpression(e.getKey().getDecay(), DECAY_ARGUMENT, numberOfDecays) * e.getValue()));
     }
 
     public Pair<T, Double> calculateEntry(IEventDecay decayEvent, int numberOfDecays) {
         return new Pair(decayEvent.getEventScore(),
-                MathCalculation.evaluateExpression(decayEvent.getEventScore().getDecay().replace("T", String.valueOf(numberOfDecays)))
+                MathCalculation.evaluateExpression(decayEvent.getEventScore().getDecay(), DECAY_ARGUMENT, numberOfDecays)
                         * decayEvent.getEventContributionValue());
     }
 }
@@ -0,0 +1,40 @@
+package io.coti.trustscore.utils;
+
+import org.mariuszgromada.math.mxparser.Argument;
+import org.mariuszgromada.math.mxparser.Expression;
+
+/**
+ * A rules formula parsed once, with its variables as mxparser arguments. mxparser expressions keep their evaluation
+ * state, so every thread evaluates its own copy.
+ */
+public class CompiledExpression {
+
+    private final String formula;
+    private final String[] argumentNames;
+    private final ThreadLocal<Expression> expression;
+
+    public CompiledExpression(String formula, String... argumentNames) {
+        this.formula = formula;
+        this.argumentNames = argumentNames.clone();
+        this.expression = ThreadLocal.withInitial(this::createExpression);
+    }
+
+    private Expression createExpression() {
+        Expression compiledExpression = new Expression(formula);
+        for (String argumentName : argumentNames) {
+            compiledExpression.addArguments(new Argument(argumentName, Double.NaN));
+        }
+        return compiledExpression;
+    }
+
+    public double calculate(double... argumentValues) {
+        if (argumentValues.length != argumentNames.length) {
+            throw new IllegalArgumentException(String.format("Formula %s expects %d arguments", formula, argumentNames.length));
+        }
+        Expression threadExpression = expression.get();
+        for (int i = 0; i < argumentValues.length; i++) {
+            threadExpression.setArgumentValue(argumentNames[i], argumentValues[i]);
+        }
+        return threadExpression.calculate();
+    }
+}
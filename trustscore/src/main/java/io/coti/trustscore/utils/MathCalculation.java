@@ -3,10 +3,14 @@ package io.coti.trustscore.utils;
 import org.mariuszgromada.math.mxparser.Argument;
 import org.mariuszgromada.math.mxparser.Expression;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 
 public class MathCalculation {
 
     private static final double DIFFERENCE_EQUALITY_COMPARE = 0.000001;
+    private static final Map<String, CompiledExpression> compiledExpressions = new ConcurrentHashMap<>();
 
     private MathCalculation() {
 
@@ -23,6 +27,14 @@ public class MathCalculation {
         return expression.calculate();
     }
 
+    public static CompiledExpression compileExpression(String stringFormula, String... argumentNames) {
+        return compiledExpressions.computeIfAbsent(stringFormula + "|" + String.join(",", argumentNames),
+                key -> new CompiledExpression(stringFormula, argumentNames));
+    }
+
+    public static double evaluateExpression(String stringFormula, String argumentName, double argumentValue) {
+        return compileExpression(stringFormula, argumentName).calculate(argumentValue);
+    }
 
     public static boolean ifTwoNumbersAreEqualOrAlmostEqual(double x, double y) {
         return Math.abs(x - y) <= DIFFERENCE_EQUALITY_COMPARE;
@@ -0,0 +1,129 @@
+package io.coti.trustscore.utils;
+
+import io.coti.trustscore.config.rules.*;
+import io.coti.trustscore.data.Enums.CompensableEventScoreType;
+import io.coti.trustscore.data.Enums.HighFrequencyEventScoreType;
+import io.coti.trustscore.data.Enums.TransactionEventScoreType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static io.coti.trustscore.testutils.BucketUtil.generateRulesDataObject;
+
+/**
+ * Compares every rules formula evaluated as a compiled expression with its variables as arguments against the textual
+ * substitution the calculators used before, replacing the variables in the same order and with the same number format.
+ */
+public class CompiledExpressionTest {
+
+    private static final String[] CHARGE_BACK_AMOUNT_ARGUMENTS = {"chargeBacksTodayAmount", "paymentsTodayAmount", "standardChargeBackRate", "tail2Contribution", "tail1Contribution"};
+    private static final String[] CHARGE_BACK_NUMBER_ARGUMENTS = {"chargeBacksTodayNumber", "paymentsTodayNumber", "standardChargeBackRate", "tail2Contribution", "tail1Contribution"};
+    private static final String[] FINE_ARGUMENTS = {"currentDebt", "weight1", "weight2", "fine"};
+    private static final int SAMPLES = 200;
+    private RulesData rulesData;
+    private Random random;
+
+    @Before
+    public void setUp() {
+        rulesData = generateRulesDataObject();
+        random = new Random(1);
+    }
+
+    @Test
+    public void calculate_chargeBackContributions_matchTextualSubstitution() {
+        rulesData.getUserTypeToUserScoreMap().values().forEach(user -> {
+            HighFrequencyEventScore chargeBackAmountEventScore = user.getBehaviorHighFrequencyEventsScore().getHighFrequencyEventScoreMap().get(HighFrequencyEventScoreType.CHARGE_BACK_AMOUNT);
+            HighFrequencyEventScore chargeBackNumberEventScore = user.getBehaviorHighFrequencyEventsScore().getHighFrequencyEventScoreMap().get(HighFrequencyEventScoreType.CHARGE_BACK_NUMBER);
+            for (int i = 0; i < SAMPLES; i++) {
+                if (chargeBackAmountEventScore != null) {
+                    assertCompiledMatchesTextualSubstitution(chargeBackAmountEventScore.getContribution(), CHARGE_BACK_AMOUNT_ARGUMENTS,
+                            randomAmount(), randomAmount(), chargeBackAmountEventScore.getStandardChargeBackRate(), randomAmount(), randomAmount());
+                }
+                if (chargeBackNumberEventScore != null) {
+                    assertCompiledMatchesTextualSubstitution(chargeBackNumberEventScore.getContribution(), CHARGE_BACK_NUMBER_ARGUMENTS,
+                            (double) random.nextInt(100), (double) random.nextInt(1000), chargeBackNumberEventScore.getStandardChargeBackRate(), randomAmount(), randomAmount());
+                }
+            }
+        });
+    }
+
+    @Test
+    public void calculate_notFulfilmentFines_matchTextualSubstitution() {
+        rulesData.getUserTypeToUserScoreMap().values().forEach(user -> {
+            CompensableEventScore nonFulfilmentEventScore = user.getCompensableEventsScore().getCompensableEventScoreMap().get(CompensableEventScoreType.NON_FULFILMENT);
+            if (nonFulfilmentEventScore == null) {
+                return;
+            }
+            for (int i = 0; i < SAMPLES; i++) {
+                double currentDebt = random.nextBoolean() ? randomAmount() : -randomAmount();
+                double fine = random.nextBoolean() ? random.nextDouble() : -random.nextDouble();
+                assertCompiledMatchesTextualSubstitution(nonFulfilmentEventScore.getFine(), FINE_ARGUMENTS,
+                        currentDebt, nonFulfilmentEventScore.getWeight1(), nonFulfilmentEventScore.getWeight2(), fine);
+                assertCompiledMatchesTextualSubstitution(nonFulfilmentEventScore.getFineDailyChange(), FINE_ARGUMENTS,
+                        currentDebt, nonFulfilmentEventScore.getWeight1(), nonFulfilmentEventScore.getWeight2(), fine);
+            }
+        });
+    }
+
+    @Test
+    public void calculate_behaviorContributionsAndDecays_matchTextualSubstitution() {
+        rulesData.getUserTypeToUserScoreMap().values().forEach(user ->
+                user.getBehaviorEventsScore().getSuspiciousEventScoreList().forEach(suspiciousEventScore -> {
+                    for (int i = 0; i < SAMPLES; i++) {
+                        if (suspiciousEventScore.getContribution() != null) {
+                            assertCompiledMatchesTextualSubstitution(suspiciousEventScore.getContribution(), new String[]{"eventsNumber"}, random.nextInt(20));
+                        }
+                        if (suspiciousEventScore.getDecay() != null) {
+                            assertCompiledMatchesTextualSubstitution(suspiciousEventScore.getDecay(), new String[]{"T"}, random.nextInt(1000));
+                        }
+                    }
+                }));
+    }
+
+    @Test
+    public void calculate_transactionFormulas_matchTextualSubstitution() {
+        rulesData.getUserTypeToUserScoreMap().values().forEach(user ->
+                user.getBehaviorCumulativeScores().getTransactionEventScoreMap().forEach((transactionEventScoreType, transactionEventScore) -> {
+                    for (int i = 0; i < SAMPLES; i++) {
+                        assertCompiledMatchesTextualSubstitution(transactionEventScore.getDecay(), new String[]{"T"}, random.nextInt(1000));
+                        if (transactionEventScore.getNonlinearFunction() == null) {
+                            continue;
+                        }
+                        if (transactionEventScoreType == TransactionEventScoreType.TURNOVER) {
+                            assertCompiledMatchesTextualSubstitution(transactionEventScore.getNonlinearFunction(), new String[]{"T"}, randomAmount());
+                        } else if (transactionEventScoreType == TransactionEventScoreType.TRANSACTION_FREQUENCY) {
+                            assertCompiledMatchesTextualSubstitution(transactionEventScore.getNonlinearFunction(), new String[]{"N"}, random.nextInt(100000));
+                        } else if (transactionEventScoreType == TransactionEventScoreType.AVERAGE_BALANCE) {
+                            assertCompiledMatchesTextualSubstitution(transactionEventScore.getNonlinearFunction(), new String[]{"B"}, randomAmount());
+                        }
+                    }
+                }));
+    }
+
+    private double randomAmount() {
+        switch (random.nextInt(4)) {
+            case 0:
+                return 0;
+            case 1:
+                return random.nextInt(1000);
+            case 2:
+                return random.nextDouble() / 1000;
+            default:
+                return random.nextDouble() * 10000000;
+        }
+    }
+
+    private void assertCompiledMatchesTextualSubstitution(String formula, String[] argumentNames, Number... argumentValues) {
+        String substitutedFormula = formula;
+        double[] compiledArgumentValues = new double[argumentValues.length];
+        for (int i = 0; i < argumentValues.length; i++) {
+            substitutedFormula = substitutedFormula.replace(argumentNames[i], String.valueOf(argumentValues[i]));
+            compiledArgumentValues[i] = argumentValues[i].doubleValue();
+        }
+        double textualResult = MathCalculation.evaluateExpression(substitutedFormula);
+        double compiledResult = MathCalculation.compileExpression(formula, argumentNames).calculate(compiledArgumentValues);
+        Assert.assertEquals(substitutedFormula, Double.doubleToLongBits(textualResult), Double.doubleToLongBits(compiledResult));
+    }
+}
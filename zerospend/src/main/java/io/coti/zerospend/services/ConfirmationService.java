@@ -1,6 +1,7 @@
 package io.coti.zerospend.services;
 
 import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.model.CollectionWriteBatch;
 import io.coti.basenode.services.BaseNodeConfirmationService;
 import org.springframework.stereotype.Service;
 
@@ -8,7 +9,7 @@ import org.springframework.stereotype.Service;
 public class ConfirmationService extends BaseNodeConfirmationService {
 
     @Override
-    protected boolean insertNewTransactionIndex(TransactionData transactionData) {
+    protected boolean insertNewTransactionIndex(TransactionData transactionData, CollectionWriteBatch collectionWriteBatch) {
         return true;
     }
 }
@@ -11,7 +11,6 @@ import io.coti.basenode.services.TransactionIndexService;
 import io.coti.basenode.services.interfaces.INetworkService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -35,17 +34,47 @@ public class DspVoteService extends BaseNodeDspVoteService {
     private DspConsensusCrypto dspConsensusCrypto;
     @Autowired
     private INetworkService networkService;
-    private ConcurrentMap<Hash, List<DspVote>> transactionHashToVotesListMapping;
+    private ConcurrentMap<Hash, TransactionVoteData> transactionHashToVoteTallyMapping;
     private final LockData transactionHashLockData = new LockData();
     private Map<Hash, HashSet<TransactionDspVote>> missingTransactionsAwaitingHandling;
 
     @Override
     public void init() {
-        transactionHashToVotesListMapping = new ConcurrentHashMap<>();
+        transactionHashToVoteTallyMapping = new ConcurrentHashMap<>();
         missingTransactionsAwaitingHandling = new ConcurrentHashMap<>();
+        recoverVoteTallies();
         super.init();
     }
 
+    private void recoverVoteTallies() {
+        List<Hash> concludedTransactionHashes = new ArrayList<>();
+        transactionVotes.forEach(transactionVoteData -> {
+            TransactionData transactionData = transactions.getByHash(transactionVoteData.getHash());
+            if (transactionData != null && transactionData.getDspConsensusResult() == null) {
+                transactionHashToVoteTallyMapping.put(transactionVoteData.getHash(), transactionVoteData);
+            } else {
+                concludedTransactionHashes.add(transactionVoteData.getHash());
+            }
+        });
+        concludedTransactionHashes.forEach(transactionVotes::deleteByHash);
+        log.info("Recovered {} dsp vote tallies, removed {} concluded", transactionHashToVoteTallyMapping.size(), concludedTransactionHashes.size());
+    }
+
+    public void publishRecoveredDecisions() {
+        transactionHashToVoteTallyMapping.keySet().forEach(transactionHash -> {
+            try {
+                synchronized (transactionHashLockData.addLockToLockMap(transactionHash)) {
+                    TransactionVoteData transactionVoteData = transactionHashToVoteTallyMapping.get(transactionHash);
+                    if (transactionVoteData != null) {
+                        publishDecisionIfMajorityAchieved(transactionVoteData);
+                    }
+                }
+            } finally {
+                transactionHashLockData.removeLockFromLocksMap(transactionHash);
+            }
+        });
+    }
+
     public void preparePropagatedTransactionForVoting(TransactionData transactionData) {
         List<Hash> dspHashList = new LinkedList<>();
         networkService.getMapFromFactory(NodeType.DspNode).forEach((hash, node) ->
@@ -56,13 +85,16 @@ public class DspVoteService extends BaseNodeDspVoteService {
         TransactionVoteData transactionVoteData = new TransactionVoteData(transactionHash, dspHashList);
         try {
             synchronized (transactionHashLockData.addLockToLockMap(transactionHash)) {
+                if (transactionHashToVoteTallyMapping.containsKey(transactionHash)) {
+                    log.debug("Dsp vote tally already exists for transaction {}", transactionHash);
+                    return;
+                }
                 transactionVotes.put(transactionVoteData);
-                transactionHashToVotesListMapping.put(transactionHash, new LinkedList<>());
+                transactionHashToVoteTallyMapping.put(transactionHash, transactionVoteData);
 
-                HashSet<TransactionDspVote> transactionDspVotesAwaitingHandling = missingTransactionsAwaitingHandling.get(transactionHash);
-                if (transactionDspVotesAwaitingHandling != null && !transactionDspVotesAwaitingHandling.isEmpty()) {
+                HashSet<TransactionDspVote> transactionDspVotesAwaitingHandling = missingTransactionsAwaitingHandling.remove(transactionHash);
+                if (transactionDspVotesAwaitingHandling != null) {
                     transactionDspVotesAwaitingHandling.forEach(transactionDspVote -> handlePostponedTransactionDspVote(transactionDspVote, transactionVoteData));
-                    missingTransactionsAwaitingHandling.remove(transactionHash);
                 }
             }
         } finally {
@@ -89,12 +121,13 @@ public class DspVoteService extends BaseNodeDspVoteService {
         if (!transactionDspVoteCrypto.verifySignature(transactionDspVote)) {
             throw new DspVoteException(String.format("Invalid vote signature. Sender =  %s, Transaction = %s", voterDspHash, transactionHash));
         }
-        if (transactionHashToVotesListMapping.get(transactionHash) == null) {
-            log.debug("Dsp vote result already published");
+        if (transactionVoteData.getDspHashToVoteMapping().putIfAbsent(voterDspHash, new DspVote(transactionDspVote)) != null) {
+            log.debug("Dsp vote of {} already counted for transaction {}", voterDspHash, transactionHash);
             return;
         }
         log.debug("Adding new vote: {}", transactionDspVote);
-        transactionHashToVotesListMapping.get(transactionHash).add(new DspVote(transactionDspVote));
+        transactionVotes.put(transactionVoteData);
+        publishDecisionIfMajorityAchieved(transactionVoteData);
     }
 
     public void receiveDspVote(TransactionDspVote transactionDspVote) {
@@ -103,8 +136,13 @@ public class DspVoteService extends BaseNodeDspVoteService {
         log.debug("Received new Dsp Vote: Sender = {} , Transaction = {}", voterDspHash, transactionHash);
         try {
             synchronized (transactionHashLockData.addLockToLockMap(transactionHash)) {
-                TransactionVoteData transactionVoteData = transactionVotes.getByHash(transactionHash);
+                TransactionVoteData transactionVoteData = transactionHashToVoteTallyMapping.get(transactionHash);
                 if (transactionVoteData == null) {
+                    TransactionData transactionData = transactions.getByHash(transactionHash);
+                    if (transactionData != null && transactionData.getDspConsensusResult() != null) {
+                        log.debug("Dsp vote result already published");
+                        return;
+                    }
                     missingTransactionsAwaitingHandling.computeIfAbsent(transactionHash, key -> new HashSet<>()).add(transactionDspVote);
                     log.debug("Transaction {} does not exist for dsp vote. Vote processing is delayed.", transactionHash);
                     return;
@@ -118,32 +156,16 @@ public class DspVoteService extends BaseNodeDspVoteService {
 
     }
 
-    @Scheduled(fixedDelay = 1000)
-    private void sumAndSaveVotes() {
-        for (Map.Entry<Hash, List<DspVote>> transactionHashToVotesListEntrySet :
-                transactionHashToVotesListMapping.entrySet()) {
-            Hash transactionHash = transactionHashToVotesListEntrySet.getKey();
-            try {
-                synchronized (transactionHashLockData.addLockToLockMap(transactionHash)) {
-                    List<DspVote> dspVotes = transactionHashToVotesListEntrySet.getValue();
-                    if (dspVotes != null && !dspVotes.isEmpty()) {
-                        TransactionVoteData currentTransactionVoteData = transactionVotes.getByHash(transactionHash);
-                        Map<Hash, DspVote> mapHashToDspVote = currentTransactionVoteData.getDspHashToVoteMapping();
-                        dspVotes.forEach(dspVote -> mapHashToDspVote.putIfAbsent(dspVote.getVoterDspHash(), dspVote));
-                        if (isPositiveMajorityAchieved(currentTransactionVoteData)) {
-                            publishDecision(transactionHash, mapHashToDspVote, true);
-                            log.debug("Valid vote majority achieved for transaction {}", currentTransactionVoteData.getHash());
-                        } else if (isNegativeMajorityAchieved(currentTransactionVoteData)) {
-                            publishDecision(transactionHash, mapHashToDspVote, false);
-                            log.debug("Invalid vote majority achieved for transaction {}", currentTransactionVoteData.getHash());
-                        } else {
-                            log.debug("Undecided majority for transaction {}", currentTransactionVoteData.getHash());
-                        }
-                    }
-                }
-            } finally {
-                transactionHashLockData.removeLockFromLocksMap(transactionHash);
-            }
+    private void publishDecisionIfMajorityAchieved(TransactionVoteData transactionVoteData) {
+        Hash transactionHash = transactionVoteData.getHash();
+        if (isPositiveMajorityAchieved(transactionVoteData)) {
+            publishDecision(transactionHash, transactionVoteData.getDspHashToVoteMapping(), true);
+            log.debug("Valid vote majority achieved for transaction {}", transactionHash);
+        } else if (isNegativeMajorityAchieved(transactionVoteData)) {
+            publishDecision(transactionHash, transactionVoteData.getDspHashToVoteMapping(), false);
+            log.debug("Invalid vote majority achieved for transaction {}", transactionHash);
+        } else {
+            log.debug("Undecided majority for transaction {}", transactionHash);
         }
     }
 
@@ -157,7 +179,9 @@ public class DspVoteService extends BaseNodeDspVoteService {
         setIndexForDspResult(transactionData, dspConsensusResult);
         confirmationService.setDspcToTrue(dspConsensusResult);
         propagationPublisher.propagate(dspConsensusResult, Arrays.asList(NodeType.DspNode, NodeType.TrustScoreNode, NodeType.FinancialServer, NodeType.HistoryNode));
-        transactionHashToVotesListMapping.remove(transactionHash);
+        if (transactionHashToVoteTallyMapping.remove(transactionHash) != null) {
+            transactionVotes.deleteByHash(transactionHash);
+        }
     }
 
     public synchronized void setIndexForDspResult(TransactionData transactionData, DspConsensusResult dspConsensusResult) {
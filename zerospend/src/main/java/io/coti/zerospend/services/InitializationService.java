@@ -74,6 +74,7 @@ public class InitializationService extends BaseNodeInitializationService {
             }
 
             super.initServices();
+            dspVoteService.publishRecoveredDecisions();
             messageReceiver.initReceiverHandler();
 
             if (transactions.isEmpty()) {
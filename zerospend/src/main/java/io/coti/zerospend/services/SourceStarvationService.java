@@ -1,6 +1,7 @@
 package io.coti.zerospend.services;
 
 import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.SourcesSnapshotData;
 import io.coti.basenode.data.TransactionData;
 import io.coti.basenode.data.TransactionType;
 import io.coti.basenode.services.interfaces.IClusterHelper;
@@ -13,10 +14,9 @@ import org.springframework.stereotype.Service;
 import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
@@ -36,7 +36,7 @@ public class SourceStarvationService {
     public void checkSourcesStarvation() {
         log.debug("Checking Source Starvation");
         Instant now = Instant.now();
-        ConcurrentHashMap<Hash, TransactionData> trustChainConfirmationCluster = clusterService.getCopyTrustChainConfirmationCluster();
+        Map<Hash, TransactionData> trustChainConfirmationCluster = clusterService.getTrustChainConfirmationClusterSnapshot();
         LinkedList<TransactionData> topologicalOrderedGraph = new LinkedList<>();
         ConcurrentHashMap<Hash, Instant> nonZeroSpendChainTransactions = new ConcurrentHashMap<>();
 
@@ -48,10 +48,10 @@ public class SourceStarvationService {
     }
 
     private void createNewGenesisZeroSpendTransactions() {
-        ArrayList<HashSet<Hash>> sourceListsByTrustScore = clusterService.getSourceSetsByTrustScore();
+        SourcesSnapshotData sourcesSnapshot = clusterService.getSourcesSnapshot();
         boolean isTrustScoreRangeContainsSource = false;
         for (int i = 1; i <= 100; i++) {
-            if (!sourceListsByTrustScore.get(i).isEmpty()) {
+            if (sourcesSnapshot.getBucket(i).size() > 0) {
                 isTrustScoreRangeContainsSource = true;
             }
             if (i % 10 == 0) {